@@ -165,6 +165,35 @@ abstract class ArrayBackedResultSet implements ResultSet {
     return info.with(trace, msg.warnings, pagingState, statement, protocolVersion, codecRegistry);
   }
 
+  /**
+   * Returns a result set with the same rows as {@code rs}, that can be iterated independently, or
+   * {@code null} if {@code rs} spans several pages. {@code rs} must not have been iterated yet.
+   */
+  static ArrayBackedResultSet copyOf(ResultSet rs) {
+    if (!(rs instanceof SinglePage)) return null;
+    return copyOf((SinglePage) rs, ((SinglePage) rs).info);
+  }
+
+  /**
+   * Same as {@link #copyOf(ResultSet)}, for another execution of the same request: the execution
+   * info of the copy refers to the given statement.
+   */
+  static ArrayBackedResultSet copyOf(ResultSet rs, Statement statement) {
+    if (!(rs instanceof SinglePage)) return null;
+    SinglePage page = (SinglePage) rs;
+    return copyOf(page, page.info == null ? null : page.info.withStatement(statement));
+  }
+
+  private static ArrayBackedResultSet copyOf(SinglePage page, ExecutionInfo info) {
+    return new SinglePage(
+        page.metadata,
+        page.tokenFactory,
+        page.protocolVersion,
+        page.codecRegistry,
+        new ArrayDeque<List<ByteBuffer>>(page.rows),
+        info);
+  }
+
   private static ArrayBackedResultSet empty(ExecutionInfo info) {
     // We could pass the protocol version but we know we won't need it so passing a bogus value
     // (null)
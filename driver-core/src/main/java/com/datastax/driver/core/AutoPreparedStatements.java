@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.datastax.driver.core.utils.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transparently prepares the regular statements that a session executes repeatedly.
+ *
+ * <p>Executions are counted per query string and keyspace, in a bounded LRU cache. When a query
+ * reaches the threshold, it gets prepared in the background; once that is done, executions of that
+ * query are turned into bound statements.
+ *
+ * @see QueryOptions#setAutoPrepareThreshold(int)
+ */
+class AutoPreparedStatements {
+
+  private static final Logger logger = LoggerFactory.getLogger(AutoPreparedStatements.class);
+
+  private final AbstractSession session;
+  private final Cache<Key, Entry> entries;
+
+  AutoPreparedStatements(AbstractSession session, int maxSize) {
+    this.session = session;
+    this.entries = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+  }
+
+  /**
+   * Records an execution of the given statement, and returns the bound statement to execute
+   * instead, if its query has already been prepared.
+   *
+   * @return the bound statement, or {@code null} if the statement should be executed as is.
+   */
+  BoundStatement maybeBind(
+      RegularStatement statement,
+      String keyspace,
+      int threshold,
+      ProtocolVersion protocolVersion,
+      CodecRegistry codecRegistry) {
+    if (statement.usesNamedValues()) return null;
+
+    String query = statement.getQueryString(codecRegistry);
+    Key key = new Key(query, keyspace);
+    Entry entry = entries.getIfPresent(key);
+    if (entry == null) {
+      entry = new Entry();
+      Entry previous = entries.asMap().putIfAbsent(key, entry);
+      if (previous != null) entry = previous;
+    }
+
+    PreparedStatement prepared = entry.prepared;
+    if (prepared == null) {
+      // only the execution that reaches the threshold triggers the preparation, so a query that
+      // fails to prepare is not retried until it gets evicted
+      if (entry.executions.incrementAndGet() == threshold) prepare(query, entry);
+      return null;
+    }
+
+    ByteBuffer[] values = statement.getValues(protocolVersion, codecRegistry);
+    int valuesCount = values == null ? 0 : values.length;
+    if (valuesCount != prepared.getVariables().size()) return null;
+
+    BoundStatement bound = new BoundStatement(prepared);
+    for (int i = 0; i < valuesCount; i++) bound.wrapper.values[i] = values[i];
+    statement.copyOptionsTo(bound);
+    if (prepared.getPreparedId().routingKeyIndexes == null) {
+      ByteBuffer routingKey = statement.getRoutingKey(protocolVersion, codecRegistry);
+      if (routingKey != null) bound.setRoutingKey(routingKey);
+    }
+    return bound;
+  }
+
+  private void prepare(final String query, final Entry entry) {
+    logger.debug("Automatically preparing {}", query);
+    ListenableFuture<PreparedStatement> future = session.prepareAsync(query);
+    GuavaCompatibility.INSTANCE.addCallback(
+        future,
+        new FutureCallback<PreparedStatement>() {
+          @Override
+          public void onSuccess(PreparedStatement result) {
+            entry.prepared = result;
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            logger.debug("Could not prepare {}, it will keep being executed as is", query, t);
+          }
+        });
+  }
+
+  private static class Entry {
+    final AtomicInteger executions = new AtomicInteger();
+    volatile PreparedStatement prepared;
+  }
+
+  private static class Key {
+    private final String query;
+    private final String keyspace;
+
+    Key(String query, String keyspace) {
+      this.query = query;
+      this.keyspace = keyspace;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other == this) return true;
+      if (!(other instanceof Key)) return false;
+      Key that = (Key) other;
+      return this.query.equals(that.query) && MoreObjects.equal(this.keyspace, that.keyspace);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * query.hashCode() + (keyspace == null ? 0 : keyspace.hashCode());
+    }
+  }
+}
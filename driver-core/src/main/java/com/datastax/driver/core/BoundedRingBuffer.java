@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free queue backed by a ring buffer, after Dmitry Vyukov's bounded MPMC queue.
+ *
+ * <p>Each slot carries a sequence number that tells producers and consumers whether it is free or
+ * holds an element for their current position, so that an offer or a poll is a single CAS on the
+ * tail or the head in the uncontended case. {@link #offer(Object)} never blocks: it fails if the
+ * buffer is full.
+ */
+class BoundedRingBuffer<E> {
+
+  private final int mask;
+  private final AtomicReferenceArray<E> elements;
+  private final AtomicLongArray sequences;
+  // the next position to write to, and to read from
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong head = new AtomicLong();
+
+  /**
+   * @param capacity the minimum capacity, rounded up to the next power of two, and to at least 2:
+   *     with a single slot, the sequence of a published element would also mark it as free.
+   */
+  BoundedRingBuffer(int capacity) {
+    if (capacity <= 0 || capacity > 1 << 30)
+      throw new IllegalArgumentException(
+          "Invalid capacity, should be in ]0, 2^30], got " + capacity);
+    int size = Math.max(2, Integer.highestOneBit(capacity));
+    if (size < capacity) size <<= 1;
+    this.mask = size - 1;
+    this.elements = new AtomicReferenceArray<E>(size);
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) sequences.set(i, i);
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Adds an element at the tail of this buffer.
+   *
+   * @return whether the element was added, {@code false} if the buffer is full.
+   */
+  boolean offer(E element) {
+    while (true) {
+      long position = tail.get();
+      int index = (int) (position & mask);
+      long delta = sequences.get(index) - position;
+      if (delta == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements.set(index, element);
+          // publishes the element to the consumer of that position
+          sequences.set(index, position + 1);
+          return true;
+        }
+      } else if (delta < 0) {
+        // the slot still holds the element of the previous lap
+        return false;
+      }
+      // otherwise another producer claimed that position, retry with the new tail
+    }
+  }
+
+  /**
+   * Removes the element at the head of this buffer.
+   *
+   * @return the element, or {@code null} if the buffer is empty.
+   */
+  E poll() {
+    while (true) {
+      long position = head.get();
+      int index = (int) (position & mask);
+      long delta = sequences.get(index) - (position + 1);
+      if (delta == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          E element = elements.get(index);
+          elements.set(index, null);
+          // frees the slot for the producer of the next lap
+          sequences.set(index, position + mask + 1);
+          return element;
+        }
+      } else if (delta < 0) {
+        // nothing was published at that position yet
+        return null;
+      }
+    }
+  }
+}
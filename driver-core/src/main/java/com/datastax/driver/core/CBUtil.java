@@ -62,7 +62,7 @@ abstract class CBUtil { // TODO rename
     }
   }
 
-  private static void writeString(String str, ByteBuf cb) {
+  static void writeString(String str, ByteBuf cb) {
     byte[] bytes = str.getBytes(CharsetUtil.UTF_8);
     cb.writeShort(bytes.length);
     cb.writeBytes(bytes);
@@ -43,6 +43,7 @@ import com.datastax.driver.core.tracing.NoopTracingInfoFactory;
 import com.datastax.driver.core.tracing.TracingInfoFactory;
 import com.datastax.driver.core.utils.MoreFutures;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Predicates;
 import com.google.common.base.Strings;
@@ -72,6 +73,7 @@ import java.net.URL;
 import java.net.UnknownHostException;
 import java.security.GeneralSecurityException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -418,10 +420,28 @@ public class Cluster implements Closeable {
   public ListenableFuture<Session> connectAsync(final String keyspace) {
     checkNotClosed(manager);
     init();
-    final Session session = manager.newSession();
+    final SessionManager session = manager.newSession();
     ListenableFuture<Session> sessionInitialized = session.initAsync();
     if (keyspace == null) {
       return sessionInitialized;
+    } else if (session.poolsOwner != null) {
+      // shared connections can't be bound to the keyspace, it only becomes the logged keyspace
+      return GuavaCompatibility.INSTANCE.transform(
+          sessionInitialized,
+          new Function<Session, Session>() {
+            @Override
+            public Session apply(Session input) {
+              String internalName = Metadata.handleId(keyspace);
+              if (manager.configuration.getQueryOptions().isMetadataEnabled()
+                  && manager.metadata.getKeyspace(Metadata.quote(internalName)) == null) {
+                session.closeAsync();
+                throw new InvalidQueryException(
+                    String.format("Keyspace '%s' does not exist", internalName));
+              }
+              session.setSharedKeyspace(internalName);
+              return session;
+            }
+          });
     } else {
       final String useQuery = "USE " + keyspace;
       ListenableFuture<ResultSet> keyspaceSet =
@@ -454,7 +474,8 @@ public class Cluster implements Closeable {
                   throw Throwables.propagate(t);
                 }
               });
-      return GuavaCompatibility.INSTANCE.transform(withErrorHandling, Functions.constant(session));
+      return GuavaCompatibility.INSTANCE.transform(
+          withErrorHandling, Functions.<Session>constant(session));
     }
   }
 
@@ -594,6 +615,41 @@ public class Cluster implements Closeable {
     return this;
   }
 
+  /**
+   * Registers the provided recorder to be updated with per-node (and per-shard) request metrics.
+   *
+   * <p>Registering the same recorder multiple times is a no-op.
+   *
+   * <p>Beware that the registered recorder's {@link NodeMetricsRecorder#record(Host, int, long,
+   * Exception) record} method will be called at the end of every request to a node, and should thus
+   * not be costly.
+   *
+   * @param recorder the new {@link NodeMetricsRecorder} to register.
+   * @return this {@code Cluster} object;
+   */
+  public Cluster register(NodeMetricsRecorder recorder) {
+    checkNotClosed(manager);
+    boolean added = manager.nodeMetricsRecorders.add(recorder);
+    if (added) recorder.onRegister(this);
+    return this;
+  }
+
+  /**
+   * Unregisters the provided recorder from being updated with per-node request metrics.
+   *
+   * <p>This method is a no-op if {@code recorder} hasn't previously been registered against this
+   * Cluster.
+   *
+   * @param recorder the {@link NodeMetricsRecorder} to unregister.
+   * @return this {@code Cluster} object;
+   */
+  public Cluster unregister(NodeMetricsRecorder recorder) {
+    checkNotClosed(manager);
+    boolean removed = manager.nodeMetricsRecorders.remove(recorder);
+    if (removed) recorder.onUnregister(this);
+    return this;
+  }
+
   /**
    * Registers the provided listener to be updated with schema change events.
    *
@@ -1339,6 +1395,24 @@ public class Cluster implements Closeable {
       return this;
     }
 
+    /**
+     * Declares the workload classes that statements can be assigned to with {@link
+     * Statement#setWorkloadClass(String)}.
+     *
+     * <p>Each class gets dedicated connection pools, sized with its own pooling options and
+     * optionally authenticated with its own credentials, so that its requests do not compete with
+     * those of the other classes for connections.
+     *
+     * @param workloadClasses the workload classes.
+     * @return this builder.
+     * @throws IllegalArgumentException if two classes have the same name.
+     * @see WorkloadClass
+     */
+    public Builder withWorkloadClasses(WorkloadClass... workloadClasses) {
+      configurationBuilder.withWorkloadClasses(Arrays.asList(workloadClasses));
+      return this;
+    }
+
     /**
      * Sets the SocketOptions to use for the newly created Cluster.
      *
@@ -1639,6 +1713,9 @@ public class Cluster implements Closeable {
     // Initial contacts point
     final List<EndPoint> contactPoints;
     final Set<SessionManager> sessions = new CopyOnWriteArraySet<SessionManager>();
+    // Sessions that borrow their connections from poolsOwner, see PoolingOptions.setSharedPools
+    final Set<SessionManager> sharingSessions = new CopyOnWriteArraySet<SessionManager>();
+    private SessionManager poolsOwner;
 
     Metadata metadata;
     final Configuration configuration;
@@ -1674,6 +1751,8 @@ public class Cluster implements Closeable {
 
     final Set<Host.StateListener> listeners;
     final Set<LatencyTracker> latencyTrackers = new CopyOnWriteArraySet<LatencyTracker>();
+    final Set<NodeMetricsRecorder> nodeMetricsRecorders =
+        new CopyOnWriteArraySet<NodeMetricsRecorder>();
     final Set<SchemaChangeListener> schemaChangeListeners =
         new CopyOnWriteArraySet<SchemaChangeListener>();
 
@@ -1710,6 +1789,7 @@ public class Cluster implements Closeable {
                 .withThreadingOptions(configuration.getThreadingOptions())
                 .withNettyOptions(configuration.getNettyOptions())
                 .withCodecRegistry(configuration.getCodecRegistry())
+                .withWorkloadClasses(configuration.getWorkloadClasses().values())
                 .build();
       } else {
         this.configuration = configuration;
@@ -1869,6 +1949,8 @@ public class Cluster implements Closeable {
         }
 
         configuration.getPoolingOptions().setProtocolVersion(protocolVersion());
+        for (WorkloadClass workloadClass : configuration.getWorkloadClasses().values())
+          workloadClass.getPoolingOptions().setProtocolVersion(protocolVersion());
 
         for (Host host : metadata.allHosts()) {
           // If the host is down at this stage, it's a contact point that the control connection
@@ -1969,9 +2051,24 @@ public class Cluster implements Closeable {
       return translateAddress(sa);
     }
 
-    private Session newSession() {
+    private SessionManager newSession() {
+      if (configuration.getPoolingOptions().isSharedPools()) {
+        synchronized (sharingSessions) {
+          // the owner receives host events like any other session, but is never exposed
+          if (poolsOwner == null || poolsOwner.isClosed()) {
+            poolsOwner = new SessionManager(Cluster.this);
+            sessions.add(poolsOwner);
+            sessions.addAll(poolsOwner.workloadSessions.values());
+          }
+          SessionManager session = new SessionManager(Cluster.this, poolsOwner);
+          sharingSessions.add(session);
+          return session;
+        }
+      }
       SessionManager session = new SessionManager(Cluster.this);
       sessions.add(session);
+      // the sessions of the workload classes receive host events like any other session
+      sessions.addAll(session.workloadSessions.values());
       return session;
     }
 
@@ -1979,6 +2076,21 @@ public class Cluster implements Closeable {
       return sessions.remove(session);
     }
 
+    /**
+     * Unregisters a session that shares its connection pools, and closes the pools if it was the
+     * last one.
+     */
+    CloseFuture releaseSharedSession(SessionManager session) {
+      synchronized (sharingSessions) {
+        if (!sharingSessions.remove(session)) return CloseFuture.immediateFuture();
+        for (SessionManager other : sharingSessions) {
+          if (other.poolsOwner == session.poolsOwner) return CloseFuture.immediateFuture();
+        }
+        if (poolsOwner == session.poolsOwner) poolsOwner = null;
+        return session.poolsOwner.closeAsync();
+      }
+    }
+
     void reportQuery(Host host, Statement statement, Exception exception, long latencyNanos) {
       for (LatencyTracker tracker : latencyTrackers) {
         try {
@@ -1989,6 +2101,31 @@ public class Cluster implements Closeable {
       }
     }
 
+    /**
+     * Same as {@link #reportQuery(Host, Statement, Exception, long)}, for a request that completed
+     * on a connection of the given shard (-1 if it was not sent).
+     */
+    void reportQuery(
+        Host host, int shardId, Statement statement, Exception exception, long latencyNanos) {
+      for (LatencyTracker tracker : latencyTrackers) {
+        try {
+          if (tracker instanceof PerShardPercentileTracker)
+            ((PerShardPercentileTracker) tracker)
+                .update(host, shardId, statement, exception, latencyNanos);
+          else tracker.update(host, statement, exception, latencyNanos);
+        } catch (Exception e) {
+          logger.error("Call to latency tracker failed", e);
+        }
+      }
+      for (NodeMetricsRecorder recorder : nodeMetricsRecorders) {
+        try {
+          recorder.record(host, shardId, latencyNanos, exception);
+        } catch (Exception e) {
+          logger.error("Call to node metrics recorder failed", e);
+        }
+      }
+    }
+
     ControlConnection getControlConnection() {
       return controlConnection;
     }
@@ -2050,6 +2187,8 @@ public class Cluster implements Closeable {
         reconnectionPolicy().close();
         configuration.getPolicies().getAddressTranslator().close();
         for (LatencyTracker tracker : latencyTrackers) tracker.onUnregister(Cluster.this);
+        for (NodeMetricsRecorder recorder : nodeMetricsRecorders)
+          recorder.onUnregister(Cluster.this);
         for (Host.StateListener listener : listeners) listener.onUnregister(Cluster.this);
         for (SchemaChangeListener listener : schemaChangeListeners)
           listener.onUnregister(Cluster.this);
@@ -2059,6 +2198,7 @@ public class Cluster implements Closeable {
         if (controlConnection != null) {
           futures.add(controlConnection.closeAsync());
         }
+        for (Session session : sharingSessions) futures.add(session.closeAsync());
         for (Session session : sessions) futures.add(session.closeAsync());
 
         future = new ClusterCloseFuture(futures);
@@ -2677,14 +2817,20 @@ public class Cluster implements Closeable {
           perKeyspace.put(keyspace, ps.getQueryString());
         }
 
+        boolean keyspaceOnQuery =
+            ProtocolFeature.KEYSPACE_ON_QUERY.isSupportedBy(protocolVersion());
         for (String keyspace : perKeyspace.keySet()) {
           // Empty string mean no particular keyspace to set
-          if (!keyspace.isEmpty()) connection.setKeyspace(keyspace);
+          String requestKeyspace = null;
+          if (!keyspace.isEmpty()) {
+            if (keyspaceOnQuery) requestKeyspace = keyspace;
+            else connection.setKeyspace(keyspace);
+          }
 
           List<Connection.Future> futures =
               new ArrayList<Connection.Future>(preparedQueries.size());
           for (String query : perKeyspace.get(keyspace)) {
-            futures.add(connection.write(new Requests.Prepare(query)));
+            futures.add(connection.write(new Requests.Prepare(query, requestKeyspace)));
           }
           for (Connection.Future future : futures) {
             try {
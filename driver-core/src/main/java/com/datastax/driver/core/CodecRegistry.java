@@ -694,6 +694,28 @@ public final class CodecRegistry {
       return (TypeCodec<T>) TypeCodec.map(keyCodec, valueCodec);
     }
 
+    if (cqlType instanceof DataType.VectorType) {
+      DataType.VectorType vectorType = (DataType.VectorType) cqlType;
+      DataType subtype = vectorType.getSubtype();
+      if (subtype.getName() == DataType.Name.FLOAT
+          && (javaType == null || javaType.getRawType() == float[].class)) {
+        return (TypeCodec<T>) TypeCodec.floatVector(vectorType);
+      }
+      if (subtype.getName() == DataType.Name.DOUBLE
+          && (javaType == null || javaType.getRawType() == double[].class)) {
+        return (TypeCodec<T>) TypeCodec.doubleVector(vectorType);
+      }
+      if (javaType == null || List.class.isAssignableFrom(javaType.getRawType())) {
+        TypeToken<?> elementType = null;
+        if (javaType != null && javaType.getType() instanceof ParameterizedType) {
+          Type[] typeArguments = ((ParameterizedType) javaType.getType()).getActualTypeArguments();
+          elementType = TypeToken.of(typeArguments[0]);
+        }
+        TypeCodec<?> eltCodec = findCodec(subtype, elementType);
+        return (TypeCodec<T>) TypeCodec.vector(vectorType, eltCodec);
+      }
+    }
+
     if (cqlType instanceof TupleType
         && (javaType == null || TupleValue.class.isAssignableFrom(javaType.getRawType()))) {
       return (TypeCodec<T>) TypeCodec.tuple((TupleType) cqlType);
@@ -790,6 +812,36 @@ public final class CodecRegistry {
           TypeCodec.userType(cqlType == null ? ((UDTValue) value).getType() : (UserType) cqlType);
     }
 
+    if ((cqlType == null || cqlType instanceof DataType.VectorType) && value instanceof float[]) {
+      float[] array = (float[]) value;
+      DataType.VectorType vectorType =
+          cqlType == null
+              ? DataType.vector(DataType.cfloat(), Math.max(array.length, 1))
+              : (DataType.VectorType) cqlType;
+      if (vectorType.getSubtype().getName() == DataType.Name.FLOAT)
+        return (TypeCodec<T>) TypeCodec.floatVector(vectorType);
+    }
+
+    if ((cqlType == null || cqlType instanceof DataType.VectorType) && value instanceof double[]) {
+      double[] array = (double[]) value;
+      DataType.VectorType vectorType =
+          cqlType == null
+              ? DataType.vector(DataType.cdouble(), Math.max(array.length, 1))
+              : (DataType.VectorType) cqlType;
+      if (vectorType.getSubtype().getName() == DataType.Name.DOUBLE)
+        return (TypeCodec<T>) TypeCodec.doubleVector(vectorType);
+    }
+
+    if (cqlType instanceof DataType.VectorType && value instanceof List) {
+      DataType.VectorType vectorType = (DataType.VectorType) cqlType;
+      List list = (List) value;
+      TypeCodec<?> eltCodec =
+          list.isEmpty()
+              ? findCodec(vectorType.getSubtype(), (TypeToken) null)
+              : findCodec(vectorType.getSubtype(), list.iterator().next());
+      return (TypeCodec<T>) TypeCodec.vector(vectorType, eltCodec);
+    }
+
     if ((cqlType != null && cqlType instanceof DataType.CustomType)
         && value instanceof ByteBuffer) {
       return (TypeCodec<T>) TypeCodec.custom((DataType.CustomType) cqlType);
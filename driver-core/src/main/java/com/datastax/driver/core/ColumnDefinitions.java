@@ -16,10 +16,8 @@
 package com.datastax.driver.core;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Metadata describing the columns returned in a {@link ResultSet} or a {@link PreparedStatement}.
@@ -56,6 +54,9 @@ import java.util.Map;
  * Note that the preceding rules mean that if a {@code ColumnDefinitions} object contains multiple
  * occurrences of the exact same name (be it the same column multiple times or columns from
  * different tables with the same name), you will have to use selection by index to disambiguate.
+ *
+ * <p>Lookups by name do not allocate. If you access the same columns of many rows, you can also
+ * resolve their names only once with a {@link ColumnRef}.
  */
 public class ColumnDefinitions implements Iterable<ColumnDefinitions.Definition> {
 
@@ -63,23 +64,45 @@ public class ColumnDefinitions implements Iterable<ColumnDefinitions.Definition>
       new ColumnDefinitions(new Definition[0], CodecRegistry.DEFAULT_INSTANCE);
 
   private final Definition[] byIdx;
-  private final Map<String, int[]> byName;
+
+  // Open addressing hash table of the column names, hashed and compared case-insensitively, so that
+  // lookups don't need to lower-case their argument. The two arrays share the same slots; a slot
+  // holds the first name of a set of names that only differ by case, and the indexes of all of
+  // them.
+  private final String[] names;
+  private final int[][] indexes;
+  private final int mask;
+
+  // The results of recent lookups, by hash code of the looked up string (which the string caches):
+  // when the same string instance is looked up again, for example a literal in a loop over rows, we
+  // don't even need to compare it with the column names.
+  private final RecentLookup[] recentLookups;
+
   final CodecRegistry codecRegistry;
 
   ColumnDefinitions(Definition[] defs, CodecRegistry codecRegistry) {
 
     this.byIdx = defs;
     this.codecRegistry = codecRegistry;
-    this.byName = new HashMap<String, int[]>(defs.length);
+
+    int capacity = Integer.highestOneBit(Math.max(defs.length, 1)) << 2;
+    this.names = new String[capacity];
+    this.indexes = new int[capacity][];
+    this.mask = capacity - 1;
+    this.recentLookups = new RecentLookup[capacity];
 
     for (int i = 0; i < defs.length; i++) {
-      // Be optimistic, 99% of the time, previous will be null.
-      int[] previous = this.byName.put(defs[i].name.toLowerCase(), new int[] {i});
-      if (previous != null) {
-        int[] indexes = new int[previous.length + 1];
-        System.arraycopy(previous, 0, indexes, 0, previous.length);
-        indexes[indexes.length - 1] = i;
-        this.byName.put(defs[i].name.toLowerCase(), indexes);
+      String name = defs[i].name;
+      int slot = slot(name, 0, name.length());
+      if (names[slot] == null) {
+        names[slot] = name;
+        indexes[slot] = new int[] {i};
+      } else {
+        int[] previous = indexes[slot];
+        int[] newIndexes = new int[previous.length + 1];
+        System.arraycopy(previous, 0, newIndexes, 0, previous.length);
+        newIndexes[newIndexes.length - 1] = i;
+        indexes[slot] = newIndexes;
       }
     }
   }
@@ -241,31 +264,86 @@ public class ColumnDefinitions implements Iterable<ColumnDefinitions.Definition>
   }
 
   int[] findAllIdx(String name) {
+    int recentSlot = name.hashCode() & mask;
+    RecentLookup recent = recentLookups[recentSlot];
+    if (recent != null && recent.name == name) return recent.indexes;
+
+    int[] result = lookup(name);
+    // Only remember found names, and don't replace an equal string, so that code that builds its
+    // names dynamically does not allocate a new entry on each lookup.
+    if (result != null && (recent == null || !recent.name.equals(name)))
+      recentLookups[recentSlot] = new RecentLookup(name, result);
+    return result;
+  }
+
+  private int[] lookup(String name) {
+    int start = 0, end = name.length();
     boolean caseSensitive = false;
-    if (name.length() >= 2 && name.charAt(0) == '"' && name.charAt(name.length() - 1) == '"') {
-      name = name.substring(1, name.length() - 1);
+    if (end >= 2 && name.charAt(0) == '"' && name.charAt(end - 1) == '"') {
+      start = 1;
+      end -= 1;
       caseSensitive = true;
     }
 
-    int[] indexes = byName.get(name.toLowerCase());
+    int slot = slot(name, start, end);
+    int[] indexes = this.indexes[slot];
     if (!caseSensitive || indexes == null) return indexes;
 
     // First, optimistic and assume all are matching
+    int length = end - start;
     int nbMatch = 0;
-    for (int i = 0; i < indexes.length; i++) if (name.equals(byIdx[indexes[i]].name)) nbMatch++;
+    for (int i = 0; i < indexes.length; i++)
+      if (matches(byIdx[indexes[i]].name, name, start, length, false)) nbMatch++;
 
     if (nbMatch == indexes.length) return indexes;
+    if (nbMatch == 0) return null;
 
     int[] result = new int[nbMatch];
     int j = 0;
     for (int i = 0; i < indexes.length; i++) {
       int idx = indexes[i];
-      if (name.equals(byIdx[idx].name)) result[j++] = idx;
+      if (matches(byIdx[idx].name, name, start, length, false)) result[j++] = idx;
     }
 
     return result;
   }
 
+  /**
+   * Returns the slot of the table that holds {@code name.substring(start, end)} (ignoring case), or
+   * the empty slot where it would be inserted.
+   */
+  private int slot(String name, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) hash = 31 * hash + foldCase(name.charAt(i));
+    hash ^= (hash >>> 16);
+    int length = end - start;
+    for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+      String candidate = names[slot];
+      if (candidate == null || matches(candidate, name, start, length, true)) return slot;
+    }
+  }
+
+  private static boolean matches(
+      String columnName, String name, int start, int length, boolean ignoreCase) {
+    return columnName.length() == length
+        && columnName.regionMatches(ignoreCase, 0, name, start, length);
+  }
+
+  // Consistent with String.regionMatches(true, ...), so that names that match hash the same
+  private static char foldCase(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  private static class RecentLookup {
+    final String name;
+    final int[] indexes;
+
+    RecentLookup(String name, int[] indexes) {
+      this.name = name;
+      this.indexes = indexes;
+    }
+  }
+
   int[] getAllIdx(String name) {
     int[] indexes = findAllIdx(name);
     if (indexes == null)
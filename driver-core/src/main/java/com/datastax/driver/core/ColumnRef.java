@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+/**
+ * A reference to a column by name, that remembers its index in the last {@link ColumnDefinitions}
+ * it was resolved against.
+ *
+ * <p>Rows of the same result set (and of the executions of the same prepared statement) share the
+ * same column definitions, so a {@code ColumnRef} only looks its name up once per query:
+ *
+ * <pre>{@code
+ * ColumnRef name = ColumnRef.of("name");
+ * for (Row row : session.execute(statement)) {
+ *   String value = row.getString(name.getIndex(row));
+ *   ...
+ * }
+ * }</pre>
+ *
+ * The name follows the same rules as the methods that access columns by name: it is case
+ * insensitive, unless it is enclosed in double quotes. See {@link ColumnDefinitions} for details.
+ *
+ * <p>Instances of this class are thread-safe, and are typically stored in constants.
+ */
+public final class ColumnRef {
+
+  private final String name;
+  private volatile Resolved resolved;
+
+  private ColumnRef(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Creates a reference to the given column.
+   *
+   * @param name the name of the column.
+   * @return the reference.
+   */
+  public static ColumnRef of(String name) {
+    if (name == null) throw new NullPointerException("name cannot be null");
+    return new ColumnRef(name);
+  }
+
+  /**
+   * Returns the name of the referenced column, as it was provided to {@link #of(String)}.
+   *
+   * @return the name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the index of the referenced column in the given definitions. If there are several
+   * columns with this name, the first one is returned.
+   *
+   * @param definitions the column definitions.
+   * @return the index of the column.
+   * @throws IllegalArgumentException if the column is not part of {@code definitions}.
+   */
+  public int getIndex(ColumnDefinitions definitions) {
+    Resolved resolved = this.resolved;
+    if (resolved != null && resolved.definitions == definitions) return resolved.index;
+
+    int index = definitions.getFirstIdx(name);
+    this.resolved = new Resolved(definitions, index);
+    return index;
+  }
+
+  /**
+   * Returns the index of the referenced column in the given row.
+   *
+   * <p>This is a shortcut for {@code getIndex(row.getColumnDefinitions())}.
+   *
+   * @param row the row.
+   * @return the index of the column.
+   * @throws IllegalArgumentException if the column is not part of the row.
+   */
+  public int getIndex(Row row) {
+    return getIndex(row.getColumnDefinitions());
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  private static class Resolved {
+    final ColumnDefinitions definitions;
+    final int index;
+
+    Resolved(ColumnDefinitions definitions, int index) {
+      this.definitions = definitions;
+      this.index = index;
+    }
+  }
+}
@@ -18,7 +18,13 @@ package com.datastax.driver.core;
 import com.datastax.driver.core.policies.Policies;
 import com.google.common.base.Joiner;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * The configuration of the cluster. It configures the following:
@@ -59,6 +65,7 @@ public class Configuration {
   private final NettyOptions nettyOptions;
   private final CodecRegistry codecRegistry;
   private final String defaultKeyspace;
+  private final Map<String, WorkloadClass> workloadClasses;
 
   private Configuration(
       Policies policies,
@@ -70,7 +77,8 @@ public class Configuration {
       ThreadingOptions threadingOptions,
       NettyOptions nettyOptions,
       CodecRegistry codecRegistry,
-      String defaultKeyspace) {
+      String defaultKeyspace,
+      Map<String, WorkloadClass> workloadClasses) {
     this.policies = policies;
     this.protocolOptions = protocolOptions;
     this.poolingOptions = poolingOptions;
@@ -81,6 +89,7 @@ public class Configuration {
     this.nettyOptions = nettyOptions;
     this.codecRegistry = codecRegistry;
     this.defaultKeyspace = defaultKeyspace;
+    this.workloadClasses = workloadClasses;
   }
 
   /**
@@ -99,12 +108,15 @@ public class Configuration {
         toCopy.getThreadingOptions(),
         toCopy.getNettyOptions(),
         toCopy.getCodecRegistry(),
-        toCopy.getDefaultKeyspace());
+        toCopy.getDefaultKeyspace(),
+        toCopy.getWorkloadClasses());
   }
 
   void register(Cluster.Manager manager) {
     protocolOptions.register(manager);
     poolingOptions.register(manager);
+    for (WorkloadClass workloadClass : workloadClasses.values())
+      workloadClass.getPoolingOptions().register(manager);
     queryOptions.register(manager);
     policies.getEndPointFactory().init(manager.getCluster());
 
@@ -213,6 +225,16 @@ public class Configuration {
   public String getDefaultKeyspace() {
     return defaultKeyspace;
   }
+  /**
+   * Returns the workload classes that statements can be assigned to.
+   *
+   * @return the workload classes, indexed by name (an empty map if there are none).
+   * @see Cluster.Builder#withWorkloadClasses(WorkloadClass...)
+   */
+  public Map<String, WorkloadClass> getWorkloadClasses() {
+    return workloadClasses;
+  }
+
   /**
    * Returns the {@link CodecRegistry} instance for this configuration.
    *
@@ -239,6 +261,7 @@ public class Configuration {
     private NettyOptions nettyOptions;
     private CodecRegistry codecRegistry;
     private String defaultKeyspace;
+    private Map<String, WorkloadClass> workloadClasses = Collections.emptyMap();
 
     /**
      * Sets the policies for this cluster.
@@ -348,14 +371,43 @@ public class Configuration {
       return this;
     }
 
+    /**
+     * Sets the workload classes for this cluster.
+     *
+     * @param workloadClasses the workload classes.
+     * @return this builder.
+     * @throws IllegalArgumentException if two classes have the same name.
+     */
+    public Builder withWorkloadClasses(Collection<WorkloadClass> workloadClasses) {
+      Map<String, WorkloadClass> classes = new LinkedHashMap<String, WorkloadClass>();
+      for (WorkloadClass workloadClass : workloadClasses) {
+        if (classes.put(workloadClass.getName(), workloadClass) != null)
+          throw new IllegalArgumentException("Duplicate workload class " + workloadClass.getName());
+      }
+      this.workloadClasses = Collections.unmodifiableMap(classes);
+      return this;
+    }
+
     /**
      * Builds the final object from this builder.
      *
      * <p>Any field that hasn't been set explicitly will get its default value.
      *
      * @return the object.
+     * @throws IllegalArgumentException if a workload class shares its pooling options with the
+     *     cluster or with another class.
      */
     public Configuration build() {
+      // the pooling options get registered with the cluster, and their defaults depend on the
+      // protocol version, so they can't be shared
+      Set<PoolingOptions> allPoolingOptions =
+          Collections.newSetFromMap(new IdentityHashMap<PoolingOptions, Boolean>());
+      if (poolingOptions != null) allPoolingOptions.add(poolingOptions);
+      for (WorkloadClass workloadClass : workloadClasses.values()) {
+        if (!allPoolingOptions.add(workloadClass.getPoolingOptions()))
+          throw new IllegalArgumentException(
+              "Workload class " + workloadClass.getName() + " shares its pooling options");
+      }
       return new Configuration(
           policies != null ? policies : Policies.builder().build(),
           protocolOptions != null ? protocolOptions : new ProtocolOptions(),
@@ -366,7 +418,8 @@ public class Configuration {
           threadingOptions != null ? threadingOptions : new ThreadingOptions(),
           nettyOptions != null ? nettyOptions : NettyOptions.DEFAULT_INSTANCE,
           codecRegistry != null ? codecRegistry : CodecRegistry.DEFAULT_INSTANCE,
-          defaultKeyspace);
+          defaultKeyspace,
+          workloadClasses);
     }
   }
 }
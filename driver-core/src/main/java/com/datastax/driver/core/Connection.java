@@ -132,6 +132,8 @@ class Connection {
   private volatile Integer shardId = null;
 
   private int requestedShardId = -1;
+  // the address this connection was opened to, if it is the shard-aware port
+  private volatile InetSocketAddress shardAwareAddress;
 
   @VisibleForTesting volatile Channel channel;
   private final Factory factory;
@@ -206,6 +208,7 @@ class Connection {
           (serverPort == 0)
               ? endPoint.resolve()
               : new InetSocketAddress(endPoint.resolve().getAddress(), serverPort);
+      if (serverPort != 0) shardAwareAddress = serverAddress;
 
       final Owner owner = ownerRef.get();
       final HostConnectionPool pool =
@@ -346,15 +349,24 @@ class Connection {
     Executor initExecutor =
         factory.manager.configuration.getPoolingOptions().getInitializationExecutor();
 
-    ListenableFuture<Void> queryOptionsFuture =
-        GuavaCompatibility.INSTANCE.transformAsync(
-            channelReadyFuture, onChannelReady(protocolVersion, initExecutor), initExecutor);
+    ListenableFuture<Void> initializeTransportFuture;
+    if (canPipelineHandshake()) {
+      initializeTransportFuture =
+          GuavaCompatibility.INSTANCE.transformAsync(
+              channelReadyFuture,
+              onChannelReadyPipelined(protocolVersion, initExecutor, tracingRequested),
+              initExecutor);
+    } else {
+      ListenableFuture<Void> queryOptionsFuture =
+          GuavaCompatibility.INSTANCE.transformAsync(
+              channelReadyFuture, onChannelReady(protocolVersion, initExecutor), initExecutor);
 
-    ListenableFuture<Void> initializeTransportFuture =
-        GuavaCompatibility.INSTANCE.transformAsync(
-            queryOptionsFuture,
-            onOptionsReady(protocolVersion, initExecutor, tracingRequested),
-            initExecutor);
+      initializeTransportFuture =
+          GuavaCompatibility.INSTANCE.transformAsync(
+              queryOptionsFuture,
+              onOptionsReady(protocolVersion, initExecutor, tracingRequested),
+              initExecutor);
+    }
 
     // Fallback on initializeTransportFuture so we can properly propagate specific exceptions.
     ListenableFuture<Void> initFuture =
@@ -447,6 +459,45 @@ class Connection {
     };
   }
 
+  private boolean canPipelineHandshake() {
+    Owner owner = ownerRef.get();
+    return owner instanceof HostConnectionPool
+        && ((HostConnectionPool) owner).canPipelineHandshake();
+  }
+
+  /**
+   * Sends OPTIONS and STARTUP back to back, for connections to a host whose supported options are
+   * already known (see {@link PoolingOptions#setPipelineHandshake(boolean)}). Responses are
+   * processed in order, so the SUPPORTED response is still handled before the STARTUP one.
+   */
+  private AsyncFunction<Void, Void> onChannelReadyPipelined(
+      final ProtocolVersion protocolVersion,
+      final Executor initExecutor,
+      final boolean tracingRequested) {
+    return new AsyncFunction<Void, Void>() {
+      @Override
+      public ListenableFuture<Void> apply(Void input) throws Exception {
+        Future optionsFuture = write(new Requests.Options());
+        final Future startupResponseFuture = write(startupRequest(tracingRequested));
+        ListenableFuture<Void> optionsProcessedFuture =
+            GuavaCompatibility.INSTANCE.transformAsync(
+                optionsFuture, onOptionsResponse(initExecutor), initExecutor);
+        return GuavaCompatibility.INSTANCE.transformAsync(
+            optionsProcessedFuture,
+            new AsyncFunction<Void, Void>() {
+              @Override
+              public ListenableFuture<Void> apply(Void input) throws Exception {
+                return GuavaCompatibility.INSTANCE.transformAsync(
+                    startupResponseFuture,
+                    onStartupResponse(protocolVersion, initExecutor),
+                    initExecutor);
+              }
+            },
+            initExecutor);
+      }
+    };
+  }
+
   private AsyncFunction<Message.Response, Void> onOptionsResponse(final Executor initExecutor) {
     return new AsyncFunction<Message.Response, Void>() {
       @Override
@@ -503,25 +554,27 @@ class Connection {
     return new AsyncFunction<Void, Void>() {
       @Override
       public ListenableFuture<Void> apply(Void input) throws Exception {
-        ProtocolOptions protocolOptions = factory.configuration.getProtocolOptions();
-        Map<String, String> extraOptions = new HashMap<String, String>();
-        if (tracingRequested) {
-          extraOptions.put("SCYLLA_OPENTELEMETRY_TRACING", "true");
-        }
-        LwtInfo lwtInfo = getHost().getLwtInfo();
-        if (lwtInfo != null) {
-          lwtInfo.addOption(extraOptions);
-        }
-        Future startupResponseFuture =
-            write(
-                new Requests.Startup(
-                    protocolOptions.getCompression(), protocolOptions.isNoCompact(), extraOptions));
+        Future startupResponseFuture = write(startupRequest(tracingRequested));
         return GuavaCompatibility.INSTANCE.transformAsync(
             startupResponseFuture, onStartupResponse(protocolVersion, initExecutor), initExecutor);
       }
     };
   }
 
+  private Requests.Startup startupRequest(boolean tracingRequested) {
+    ProtocolOptions protocolOptions = factory.configuration.getProtocolOptions();
+    Map<String, String> extraOptions = new HashMap<String, String>();
+    if (tracingRequested) {
+      extraOptions.put("SCYLLA_OPENTELEMETRY_TRACING", "true");
+    }
+    LwtInfo lwtInfo = getHost().getLwtInfo();
+    if (lwtInfo != null) {
+      lwtInfo.addOption(extraOptions);
+    }
+    return new Requests.Startup(
+        protocolOptions.getCompression(), protocolOptions.isNoCompact(), extraOptions);
+  }
+
   private AsyncFunction<Message.Response, String> onSupportedResponse() {
     return new AsyncFunction<Message.Response, String>() {
       @Override
@@ -544,6 +597,20 @@ class Connection {
     };
   }
 
+  /**
+   * Returns the provider that authenticates this connection: the one of the workload class that
+   * owns its pool, if any, the cluster's otherwise.
+   */
+  private AuthProvider authProvider() {
+    Owner owner = ownerRef.get();
+    if (owner instanceof HostConnectionPool) {
+      WorkloadClass workloadClass = ((HostConnectionPool) owner).manager.workloadClass;
+      if (workloadClass != null && workloadClass.getAuthProvider() != null)
+        return workloadClass.getAuthProvider();
+    }
+    return factory.authProvider;
+  }
+
   private AsyncFunction<Message.Response, Void> onStartupResponse(
       final ProtocolVersion protocolVersion, final Executor initExecutor) {
     return new AsyncFunction<Message.Response, Void>() {
@@ -567,15 +634,15 @@ class Connection {
           case AUTHENTICATE:
             Responses.Authenticate authenticate = (Responses.Authenticate) response;
             Authenticator authenticator;
+            AuthProvider authProvider = authProvider();
             try {
-              if (factory.authProvider instanceof ExtendedAuthProvider) {
+              if (authProvider instanceof ExtendedAuthProvider) {
                 authenticator =
-                    ((ExtendedAuthProvider) factory.authProvider)
+                    ((ExtendedAuthProvider) authProvider)
                         .newAuthenticator(endPoint, authenticate.authenticator);
               } else {
                 authenticator =
-                    factory.authProvider.newAuthenticator(
-                        endPoint.resolve(), authenticate.authenticator);
+                    authProvider.newAuthenticator(endPoint.resolve(), authenticate.authenticator);
               }
             } catch (AuthenticationException e) {
               incrementAuthErrorMetric();
@@ -1984,6 +2051,21 @@ class Connection {
       this.metrics = metrics;
     }
 
+    /**
+     * The end point passed to the SSL options. The driver's own options key their session cache by
+     * the address it resolves to, so for shard-aware connections we give them the port actually
+     * connected to; custom options get the node's end point as is.
+     */
+    private EndPoint sslEndPoint() {
+      InetSocketAddress shardAwareAddress = connection.shardAwareAddress;
+      if (shardAwareAddress != null
+          && (sslOptions instanceof RemoteEndpointAwareJdkSSLOptions
+              || sslOptions instanceof RemoteEndpointAwareNettySSLOptions)) {
+        return new ShardAwarePortEndPoint(connection.endPoint, shardAwareAddress);
+      }
+      return connection.endPoint;
+    }
+
     @Override
     protected void initChannel(SocketChannel channel) throws Exception {
 
@@ -1997,7 +2079,7 @@ class Connection {
         if (sslOptions instanceof ExtendedRemoteEndpointAwareSslOptions) {
           handler =
               ((ExtendedRemoteEndpointAwareSslOptions) sslOptions)
-                  .newSSLHandler(channel, connection.endPoint);
+                  .newSSLHandler(channel, sslEndPoint());
 
         } else if (sslOptions instanceof RemoteEndpointAwareSSLOptions) {
           handler =
@@ -2006,6 +2088,10 @@ class Connection {
         } else {
           handler = sslOptions.newSSLHandler(channel);
         }
+        if (metrics != null) {
+          pipeline.addLast(
+              "sslHandshakeMeter", new SslHandshakeMeter(handler, metrics.getSslHandshakeTimer()));
+        }
         pipeline.addLast("ssl", handler);
       }
 
@@ -17,6 +17,7 @@ package com.datastax.driver.core;
 
 import static com.datastax.driver.core.SchemaElement.KEYSPACE;
 
+import com.codahale.metrics.Timer;
 import com.datastax.driver.core.exceptions.BusyConnectionException;
 import com.datastax.driver.core.exceptions.ConnectionException;
 import com.datastax.driver.core.exceptions.DriverException;
@@ -414,14 +415,20 @@ class ControlConnection implements Connection.Owner {
       }
     }
 
-    schemaParser.refresh(
-        cluster.getCluster(),
-        targetType,
-        targetKeyspace,
-        targetName,
-        targetSignature,
-        connection,
-        cassandraVersion);
+    Timer.Context refreshContext =
+        cluster.metrics == null ? null : cluster.metrics.getSchemaRefreshTimer().time();
+    try {
+      schemaParser.refresh(
+          cluster.getCluster(),
+          targetType,
+          targetKeyspace,
+          targetName,
+          targetSignature,
+          connection,
+          cassandraVersion);
+    } finally {
+      if (refreshContext != null) refreshContext.stop();
+    }
   }
 
   void refreshNodeListAndTokenMap() {
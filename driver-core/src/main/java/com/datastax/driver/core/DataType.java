@@ -15,6 +15,9 @@
  */
 package com.datastax.driver.core;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import com.datastax.driver.core.exceptions.DriverInternalError;
 import com.datastax.driver.core.utils.MoreObjects;
 import com.google.common.collect.ImmutableList;
@@ -164,7 +167,8 @@ public abstract class DataType {
         if (DataTypeClassNameParser.isDuration(className)) {
           return DataType.duration();
         } else if (DataTypeClassNameParser.isUserType(className)
-            || DataTypeClassNameParser.isTupleType(className)) {
+            || DataTypeClassNameParser.isTupleType(className)
+            || DataTypeClassNameParser.isVectorType(className)) {
           return DataTypeClassNameParser.parseOne(className, protocolVersion, codecRegistry);
         } else {
           return custom(className);
@@ -504,6 +508,23 @@ public abstract class DataType {
     return new DataType.CustomType(Name.CUSTOM, typeClassName);
   }
 
+  /**
+   * Returns the type of fixed-length vectors of the given subtype, as used for vector search.
+   *
+   * <p>Note that, like {@link #duration() Duration}, vector types are transmitted as {@link
+   * DataType#custom(String) custom types} by the native protocol; see {@link VectorType} for
+   * details.
+   *
+   * @param subtype the type of the vector's elements.
+   * @param dimensions the number of elements in the vector. Must be strictly positive.
+   * @return the vector type.
+   */
+  public static VectorType vector(DataType subtype, int dimensions) {
+    checkNotNull(subtype, "subtype cannot be null");
+    checkArgument(dimensions > 0, "dimensions must be strictly positive (was %s)", dimensions);
+    return new VectorType(subtype, dimensions);
+  }
+
   /**
    * Returns the Duration type, introduced in Cassandra 3.10.
    *
@@ -697,7 +718,7 @@ public abstract class DataType {
 
     private final String customClassName;
 
-    private CustomType(DataType.Name name, String className) {
+    CustomType(DataType.Name name, String className) {
       super(name);
       this.customClassName = className;
     }
@@ -736,4 +757,60 @@ public abstract class DataType {
       return String.format("'%s'", customClassName);
     }
   }
+
+  /**
+   * A vector type: a fixed number of elements of the same subtype, for example {@code vector<float,
+   * 1536>}.
+   *
+   * <p>Vectors are not a native type of the protocol: they are transmitted as a custom type named
+   * {@code org.apache.cassandra.db.marshal.VectorType(<subtype>,<dimensions>)}. This class extends
+   * {@link CustomType} for that reason, but provides structured access to the subtype and number of
+   * dimensions. Equality is inherited from {@link CustomType}: since the class name is derived from
+   * the subtype and dimensions, two vectors are equal if and only if they have the same structure,
+   * and a vector is equal to a plain custom type with the same class name.
+   *
+   * <p>Elements of a fixed-length subtype (such as {@code float}) are serialized back to back,
+   * without any length prefix. The driver provides codecs that map vectors of {@code float} and
+   * {@code double} to primitive arrays ({@code float[]} and {@code double[]}), see {@link
+   * TypeCodec#floatVector(VectorType)}.
+   */
+  public static class VectorType extends CustomType {
+
+    private final DataType subtype;
+    private final int dimensions;
+
+    private VectorType(DataType subtype, int dimensions) {
+      super(Name.CUSTOM, DataTypeClassNameParser.vectorClassName(subtype, dimensions));
+      this.subtype = subtype;
+      this.dimensions = dimensions;
+    }
+
+    /**
+     * Returns the type of the elements of this vector.
+     *
+     * @return the type of the elements of this vector.
+     */
+    public DataType getSubtype() {
+      return subtype;
+    }
+
+    /**
+     * Returns the number of elements of this vector.
+     *
+     * @return the number of elements of this vector.
+     */
+    public int getDimensions() {
+      return dimensions;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("vector<%s, %d>", subtype, dimensions);
+    }
+
+    @Override
+    public String asFunctionParameterString() {
+      return String.format("vector<%s, %d>", subtype.asFunctionParameterString(), dimensions);
+    }
+  }
 }
@@ -17,7 +17,7 @@ package com.datastax.driver.core;
 
 import com.datastax.driver.core.exceptions.DriverInternalError;
 import com.datastax.driver.core.utils.Bytes;
-import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableBiMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -54,9 +54,10 @@ class DataTypeClassNameParser {
   private static final String UDT_TYPE = "org.apache.cassandra.db.marshal.UserType";
   private static final String TUPLE_TYPE = "org.apache.cassandra.db.marshal.TupleType";
   private static final String DURATION_TYPE = "org.apache.cassandra.db.marshal.DurationType";
+  private static final String VECTOR_TYPE = "org.apache.cassandra.db.marshal.VectorType";
 
-  private static ImmutableMap<String, DataType> cassTypeToDataType =
-      new ImmutableMap.Builder<String, DataType>()
+  private static ImmutableBiMap<String, DataType> cassTypeToDataType =
+      new ImmutableBiMap.Builder<String, DataType>()
           .put("org.apache.cassandra.db.marshal.AsciiType", DataType.ascii())
           .put("org.apache.cassandra.db.marshal.LongType", DataType.bigint())
           .put("org.apache.cassandra.db.marshal.BytesType", DataType.blob())
@@ -79,6 +80,9 @@ class DataTypeClassNameParser {
           .put(DURATION_TYPE, DataType.duration())
           .build();
 
+  private static final ImmutableBiMap<DataType, String> dataTypeToCassType =
+      cassTypeToDataType.inverse();
+
   static DataType parseOne(
       String className, ProtocolVersion protocolVersion, CodecRegistry codecRegistry) {
     boolean frozen = false;
@@ -142,6 +146,22 @@ class DataTypeClassNameParser {
       return new TupleType(types, protocolVersion, codecRegistry);
     }
 
+    if (isVectorType(next)) {
+      List<String> params = parser.getTypeParameters();
+      if (params.size() != 2)
+        throw new DriverInternalError(
+            String.format("Expecting two parameters for vector type, got %s", params));
+      DataType subtype = parseOne(params.get(0), protocolVersion, codecRegistry);
+      int dimensions;
+      try {
+        dimensions = Integer.parseInt(params.get(1));
+      } catch (NumberFormatException e) {
+        throw new DriverInternalError(
+            String.format("Invalid dimensions for vector type: %s", params.get(1)), e);
+      }
+      return DataType.vector(subtype, dimensions);
+    }
+
     DataType type = cassTypeToDataType.get(next);
     return type == null ? DataType.custom(className) : type;
   }
@@ -183,6 +203,79 @@ class DataTypeClassNameParser {
     return className.equals(DURATION_TYPE);
   }
 
+  public static boolean isVectorType(String className) {
+    return className.startsWith(VECTOR_TYPE);
+  }
+
+  /** Returns the server-side class name of a vector type, as it appears in the protocol. */
+  static String vectorClassName(DataType subtype, int dimensions) {
+    return VECTOR_TYPE + "(" + toClassName(subtype) + "," + dimensions + ")";
+  }
+
+  // The reverse of parseOne(). Vectors are the only place where the driver needs it, since their
+  // class name embeds the class name of their subtype.
+  private static String toClassName(DataType type) {
+    String className;
+    switch (type.getName()) {
+      case CUSTOM:
+        return ((DataType.CustomType) type).getCustomTypeClassName();
+      case LIST:
+        className = LIST_TYPE + "(" + toClassName(type.getTypeArguments().get(0)) + ")";
+        break;
+      case SET:
+        className = SET_TYPE + "(" + toClassName(type.getTypeArguments().get(0)) + ")";
+        break;
+      case MAP:
+        className =
+            MAP_TYPE
+                + "("
+                + toClassName(type.getTypeArguments().get(0))
+                + ","
+                + toClassName(type.getTypeArguments().get(1))
+                + ")";
+        break;
+      case TUPLE:
+        {
+          StringBuilder sb = new StringBuilder(TUPLE_TYPE).append('(');
+          List<DataType> componentTypes = ((TupleType) type).getComponentTypes();
+          for (int i = 0; i < componentTypes.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(toClassName(componentTypes.get(i)));
+          }
+          className = sb.append(')').toString();
+          break;
+        }
+      case UDT:
+        {
+          UserType userType = (UserType) type;
+          StringBuilder sb =
+              new StringBuilder(UDT_TYPE)
+                  .append('(')
+                  .append(userType.getKeyspace())
+                  .append(',')
+                  .append(toHex(userType.getTypeName()));
+          for (UserType.Field field : userType) {
+            sb.append(',')
+                .append(toHex(field.getName()))
+                .append(':')
+                .append(toClassName(field.getType()));
+          }
+          className = sb.append(')').toString();
+          break;
+        }
+      default:
+        className = dataTypeToCassType.get(type);
+        if (className == null) throw new IllegalArgumentException("Unsupported type " + type);
+        return className;
+    }
+    return type.isFrozen() ? FROZEN_TYPE + "(" + className + ")" : className;
+  }
+
+  private static String toHex(String name) {
+    return Bytes.toRawHexString(
+        TypeCodec.varchar().serialize(name, ProtocolVersion.NEWEST_SUPPORTED));
+  }
+
   static ParseResult parseWithComposite(
       String className, ProtocolVersion protocolVersion, CodecRegistry codecRegistry) {
     Parser parser = new Parser(className, 0);
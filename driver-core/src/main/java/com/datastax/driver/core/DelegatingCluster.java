@@ -126,6 +126,16 @@ public abstract class DelegatingCluster extends Cluster {
     return delegate().unregister(tracker);
   }
 
+  @Override
+  public Cluster register(NodeMetricsRecorder recorder) {
+    return delegate().register(recorder);
+  }
+
+  @Override
+  public Cluster unregister(NodeMetricsRecorder recorder) {
+    return delegate().unregister(recorder);
+  }
+
   @Override
   public Cluster register(SchemaChangeListener listener) {
     return delegate().register(listener);
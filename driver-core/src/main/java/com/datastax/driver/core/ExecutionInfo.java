@@ -125,6 +125,11 @@ public class ExecutionInfo {
         incomingPayload);
   }
 
+  /** A copy of this object for another execution of the same request. */
+  ExecutionInfo withStatement(Statement newStatement) {
+    return with(trace, warnings, pagingState, newStatement, protocolVersion, codecRegistry);
+  }
+
   /**
    * The list of tried hosts for this query.
    *
@@ -0,0 +1,462 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link NodeMetricsRecorder} that counts requests and errors, and records latencies in <a
+ * href="http://hdrhistogram.github.io/HdrHistogram/">HdrHistogram</a>s, for each node and for each
+ * shard of ScyllaDB nodes.
+ *
+ * <p>Recording a request does not allocate nor take any lock: latencies go to an HdrHistogram
+ * {@link Recorder}, and counts to striped counters. The cost of aggregating them is paid when the
+ * metrics are read.
+ *
+ * <p>Latencies are recorded in microseconds. They are cumulative: the histograms returned by this
+ * class cover all the requests recorded since it was registered. Per-shard latencies are only
+ * recorded if they were enabled when creating the recorder.
+ *
+ * <p>Each recorded node, and each recorded shard, keeps three histograms: the two halves of the
+ * {@link Recorder} and the cumulative histogram; each read also copies the cumulative histogram.
+ * With the default settings (latencies up to two minutes, 2 significant digits), a histogram takes
+ * about 22 KB, so about 66 KB per node, and as much per shard if per-shard latencies are enabled:
+ * about 4 MB for a node with 64 shards. Each additional significant digit makes the histograms
+ * about seven times larger; raising the highest trackable latency only grows them logarithmically.
+ *
+ * <p>If the cluster has metrics enabled (see {@link Cluster#getMetrics()}), this recorder also
+ * exposes its per-node metrics in the cluster's {@link Metrics#getRegistry() registry}, so that
+ * existing reporters pick them up. For each node, it registers a gauge named {@code
+ * node-requests.<node>}, a gauge named {@code node-errors.<node>} and a histogram named {@code
+ * node-latency.<node>}. The statistics and metrics of a node are discarded when it is removed from
+ * the cluster.
+ *
+ * <p>This class uses HdrHistogram, which is an optional dependency of the driver. You need to add
+ * it to your application's classpath in order to use this class.
+ */
+public class HdrNodeMetricsRecorder implements NodeMetricsRecorder {
+
+  private static final Logger logger = LoggerFactory.getLogger(HdrNodeMetricsRecorder.class);
+
+  private static final String REQUESTS_PREFIX = "node-requests.";
+  private static final String ERRORS_PREFIX = "node-errors.";
+  private static final String LATENCY_PREFIX = "node-latency.";
+
+  private static final long DEFAULT_HIGHEST_TRACKABLE_LATENCY_MILLIS = TimeUnit.MINUTES.toMillis(2);
+  private static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+
+  private final long highestTrackableLatencyMicros;
+  private final int significantDigits;
+  private final boolean recordShardLatencies;
+  private final ConcurrentMap<Host, NodeStats> nodes = new ConcurrentHashMap<Host, NodeStats>();
+  private final Host.StateListener hostListener = new HostListener();
+  private volatile Cluster cluster;
+
+  /**
+   * Creates a new instance that tracks latencies up to two minutes with 2 significant digits, and
+   * does not record per-shard latencies; longer latencies are recorded as two minutes.
+   */
+  public HdrNodeMetricsRecorder() {
+    this(DEFAULT_HIGHEST_TRACKABLE_LATENCY_MILLIS);
+  }
+
+  /**
+   * Creates a new instance that tracks latencies with 2 significant digits, and does not record
+   * per-shard latencies.
+   *
+   * @param highestTrackableLatencyMillis the highest latency that the histograms can track, in
+   *     milliseconds. Longer latencies are recorded as this value.
+   */
+  public HdrNodeMetricsRecorder(long highestTrackableLatencyMillis) {
+    this(highestTrackableLatencyMillis, DEFAULT_SIGNIFICANT_DIGITS, false);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param highestTrackableLatencyMillis the highest latency that the histograms can track, in
+   *     milliseconds. Longer latencies are recorded as this value.
+   * @param significantDigits the number of significant decimal digits of the recorded latencies,
+   *     between 0 and 5. Each additional digit makes the histograms about seven times larger.
+   * @param recordShardLatencies whether to also record latencies for each shard of ScyllaDB nodes,
+   *     see {@link #getLatencies(Host, int)}. This multiplies the memory used by the recorder by
+   *     the number of shards of the nodes.
+   */
+  public HdrNodeMetricsRecorder(
+      long highestTrackableLatencyMillis, int significantDigits, boolean recordShardLatencies) {
+    checkArgument(
+        highestTrackableLatencyMillis > 0,
+        "highestTrackableLatencyMillis must be strictly positive (got %s)",
+        highestTrackableLatencyMillis);
+    checkArgument(
+        significantDigits >= 0 && significantDigits <= 5,
+        "significantDigits must be between 0 and 5 (got %s)",
+        significantDigits);
+    this.highestTrackableLatencyMicros =
+        TimeUnit.MILLISECONDS.toMicros(highestTrackableLatencyMillis);
+    this.significantDigits = significantDigits;
+    this.recordShardLatencies = recordShardLatencies;
+  }
+
+  @Override
+  public void record(Host host, int shardId, long latencyNanos, Exception exception) {
+    NodeStats stats = nodes.get(host);
+    if (stats == null) stats = newNodeStats(host);
+
+    long latencyMicros =
+        Math.min(
+            Math.max(TimeUnit.NANOSECONDS.toMicros(latencyNanos), 0),
+            highestTrackableLatencyMicros);
+    stats.requests.increment();
+    if (exception != null) stats.errors.increment();
+    stats.latencies.record(latencyMicros);
+    if (recordShardLatencies && shardId >= 0) stats.shard(shardId).record(latencyMicros);
+  }
+
+  /**
+   * Returns the number of requests recorded for the given node.
+   *
+   * @param host the node.
+   * @return the number of requests, including the failed ones.
+   */
+  public long getRequestCount(Host host) {
+    NodeStats stats = nodes.get(host);
+    return stats == null ? 0 : stats.requests.sum();
+  }
+
+  /**
+   * Returns the number of failed requests recorded for the given node.
+   *
+   * @param host the node.
+   * @return the number of failed requests.
+   */
+  public long getErrorCount(Host host) {
+    NodeStats stats = nodes.get(host);
+    return stats == null ? 0 : stats.errors.sum();
+  }
+
+  /**
+   * Returns the latencies recorded for the given node, in microseconds.
+   *
+   * @param host the node.
+   * @return a copy of the histogram of latencies, or {@code null} if no request to this node has
+   *     been recorded yet.
+   */
+  public Histogram getLatencies(Host host) {
+    NodeStats stats = nodes.get(host);
+    return stats == null ? null : stats.latencies.snapshot();
+  }
+
+  /**
+   * Returns the latencies recorded for the given shard of a node, in microseconds.
+   *
+   * @param host the node.
+   * @param shardId the shard. Use {@code 0} for nodes that are not sharded.
+   * @return a copy of the histogram of latencies, or {@code null} if no request to this shard has
+   *     been recorded yet, or if this recorder does not record per-shard latencies.
+   */
+  public Histogram getLatencies(Host host, int shardId) {
+    NodeStats stats = nodes.get(host);
+    if (stats == null) return null;
+    AtomicReferenceArray<LatencyStats> shards = stats.shards;
+    if (shardId < 0 || shardId >= shards.length()) return null;
+    LatencyStats shard = shards.get(shardId);
+    return shard == null ? null : shard.snapshot();
+  }
+
+  @Override
+  public void onRegister(Cluster cluster) {
+    this.cluster = cluster;
+    cluster.register(hostListener);
+    Metrics metrics = cluster.manager.metrics;
+    if (metrics != null) {
+      for (NodeStats stats : nodes.values()) register(metrics.getRegistry(), stats);
+    }
+  }
+
+  @Override
+  public void onUnregister(Cluster cluster) {
+    this.cluster = null;
+    // the cluster's listeners and metrics are unavailable once it is closed
+    if (cluster.isClosed()) return;
+    cluster.unregister(hostListener);
+    Metrics metrics = cluster.manager.metrics;
+    if (metrics != null) {
+      for (NodeStats stats : nodes.values()) unregister(metrics.getRegistry(), stats);
+    }
+  }
+
+  private NodeStats newNodeStats(Host host) {
+    NodeStats stats = new NodeStats(host);
+    NodeStats previous = nodes.putIfAbsent(host, stats);
+    if (previous != null) return previous;
+
+    Cluster cluster = this.cluster;
+    Metrics metrics = cluster == null ? null : cluster.manager.metrics;
+    if (metrics != null) register(metrics.getRegistry(), stats);
+    return stats;
+  }
+
+  private void register(MetricRegistry registry, final NodeStats stats) {
+    register(
+        registry,
+        stats,
+        REQUESTS_PREFIX,
+        new Gauge<Long>() {
+          @Override
+          public Long getValue() {
+            return stats.requests.sum();
+          }
+        });
+    register(
+        registry,
+        stats,
+        ERRORS_PREFIX,
+        new Gauge<Long>() {
+          @Override
+          public Long getValue() {
+            return stats.errors.sum();
+          }
+        });
+    register(registry, stats, LATENCY_PREFIX, new LatencyHistogram(stats));
+  }
+
+  private void register(MetricRegistry registry, NodeStats stats, String prefix, Metric metric) {
+    String name = MetricsUtil.hostMetricName(prefix, stats.host);
+    try {
+      registry.register(name, metric);
+      stats.metricNames.add(name);
+    } catch (IllegalArgumentException e) {
+      // another recorder, or an earlier node with the same address, already registered it
+      logger.warn("Could not register metric {}: {}", name, e.getMessage());
+    }
+  }
+
+  // Only removes the metrics that this recorder registered, not those of other recorders
+  private void unregister(MetricRegistry registry, NodeStats stats) {
+    for (String name : stats.metricNames) registry.remove(name);
+    stats.metricNames.clear();
+  }
+
+  private void onRemove(Host host) {
+    NodeStats stats = nodes.remove(host);
+    Cluster cluster = this.cluster;
+    Metrics metrics = cluster == null ? null : cluster.manager.metrics;
+    if (stats != null && metrics != null) unregister(metrics.getRegistry(), stats);
+  }
+
+  private class HostListener implements Host.StateListener {
+    @Override
+    public void onAdd(Host host) {}
+
+    @Override
+    public void onUp(Host host) {}
+
+    @Override
+    public void onDown(Host host) {}
+
+    @Override
+    public void onRemove(Host host) {
+      HdrNodeMetricsRecorder.this.onRemove(host);
+    }
+
+    @Override
+    public void onRegister(Cluster cluster) {}
+
+    @Override
+    public void onUnregister(Cluster cluster) {}
+  }
+
+  private class NodeStats {
+    final Host host;
+    // the names of the metrics that this recorder registered for the node
+    final List<String> metricNames = new CopyOnWriteArrayList<String>();
+    final StripedCounter requests = new StripedCounter();
+    final StripedCounter errors = new StripedCounter();
+    final LatencyStats latencies = new LatencyStats();
+    volatile AtomicReferenceArray<LatencyStats> shards;
+
+    NodeStats(Host host) {
+      this.host = host;
+      ShardingInfo shardingInfo = host.getShardingInfo();
+      this.shards =
+          new AtomicReferenceArray<LatencyStats>(
+              shardingInfo == null ? 1 : shardingInfo.getShardsCount());
+    }
+
+    LatencyStats shard(int shardId) {
+      AtomicReferenceArray<LatencyStats> shards = this.shards;
+      if (shardId >= shards.length()) shards = grow(shardId + 1);
+      LatencyStats shard = shards.get(shardId);
+      if (shard == null) {
+        shard = new LatencyStats();
+        if (!shards.compareAndSet(shardId, null, shard)) shard = shards.get(shardId);
+      }
+      return shard;
+    }
+
+    // the node's sharding info was unknown or changed since the stats were created
+    private synchronized AtomicReferenceArray<LatencyStats> grow(int length) {
+      AtomicReferenceArray<LatencyStats> shards = this.shards;
+      if (length <= shards.length()) return shards;
+      AtomicReferenceArray<LatencyStats> grown = new AtomicReferenceArray<LatencyStats>(length);
+      for (int i = 0; i < shards.length(); i++) {
+        // make sure that concurrent writers to the old array can't lose a new entry
+        LatencyStats shard = shards.get(i);
+        if (shard == null) {
+          shards.compareAndSet(i, null, new LatencyStats());
+          shard = shards.get(i);
+        }
+        grown.set(i, shard);
+      }
+      this.shards = grown;
+      return grown;
+    }
+  }
+
+  private class LatencyStats {
+    private final Recorder recorder =
+        new Recorder(highestTrackableLatencyMicros, significantDigits);
+    private final Histogram cumulative =
+        new Histogram(highestTrackableLatencyMicros, significantDigits);
+    private Histogram interval;
+
+    void record(long latencyMicros) {
+      recorder.recordValue(latencyMicros);
+    }
+
+    synchronized Histogram snapshot() {
+      interval = recorder.getIntervalHistogram(interval);
+      cumulative.add(interval);
+      return cumulative.copy();
+    }
+  }
+
+  /**
+   * Exposes the latencies of a node as a Codahale histogram. Values are recorded directly in the
+   * underlying HdrHistogram, the histogram's own reservoir is never updated.
+   */
+  private static class LatencyHistogram extends com.codahale.metrics.Histogram {
+    private final NodeStats stats;
+
+    LatencyHistogram(final NodeStats stats) {
+      super(
+          new Reservoir() {
+            @Override
+            public int size() {
+              return (int) Math.min(stats.requests.sum(), Integer.MAX_VALUE);
+            }
+
+            @Override
+            public void update(long value) {
+              throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Snapshot getSnapshot() {
+              return new HdrSnapshot(stats.latencies.snapshot());
+            }
+          });
+      this.stats = stats;
+    }
+
+    @Override
+    public void update(long value) {
+      throw new UnsupportedOperationException("Latencies are recorded by HdrNodeMetricsRecorder");
+    }
+
+    @Override
+    public long getCount() {
+      return stats.requests.sum();
+    }
+  }
+
+  private static class HdrSnapshot extends Snapshot {
+    private final Histogram histogram;
+
+    HdrSnapshot(Histogram histogram) {
+      this.histogram = histogram;
+    }
+
+    @Override
+    public double getValue(double quantile) {
+      return histogram.getValueAtPercentile(quantile * 100);
+    }
+
+    /** Returns one value per recorded bucket, not per recorded request. */
+    @Override
+    public long[] getValues() {
+      int size = 0;
+      for (HistogramIterationValue ignored : histogram.recordedValues()) size += 1;
+      long[] values = new long[size];
+      int i = 0;
+      for (HistogramIterationValue value : histogram.recordedValues())
+        values[i++] = value.getValueIteratedTo();
+      return values;
+    }
+
+    @Override
+    public int size() {
+      return (int) Math.min(histogram.getTotalCount(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long getMax() {
+      return histogram.getMaxValue();
+    }
+
+    @Override
+    public double getMean() {
+      return histogram.getMean();
+    }
+
+    @Override
+    public long getMin() {
+      return histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue();
+    }
+
+    @Override
+    public double getStdDev() {
+      return histogram.getStdDeviation();
+    }
+
+    @Override
+    public void dump(OutputStream output) {
+      PrintWriter out = new PrintWriter(output);
+      for (long value : getValues()) out.println(value);
+      out.flush();
+    }
+  }
+}
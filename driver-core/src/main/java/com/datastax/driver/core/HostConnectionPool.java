@@ -45,6 +45,7 @@ import io.netty.util.concurrent.EventExecutor;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -100,6 +101,10 @@ class HostConnectionPool implements Connection.Owner {
 
   private long advShardAwarenessBlockedUntil = 0;
 
+  // Whether a connection to the host has completed its handshake, so that the options it supports
+  // are known (see PoolingOptions.setPipelineHandshake)
+  private volatile boolean hostOptionsKnown;
+
   private enum Phase {
     INITIALIZING,
     READY,
@@ -254,7 +259,11 @@ class HostConnectionPool implements Connection.Owner {
    *     reuse as part of this pool. Might be null or already used by another pool.
    */
   ListenableFuture<Void> initAsync(Connection reusedConnection) {
-    if (reusedConnection != null && reusedConnection.setOwner(this)) {
+    // the pools of a workload class may authenticate with other credentials than the reused
+    // connection, so they always open their own
+    if (reusedConnection != null
+        && manager.workloadClass == null
+        && reusedConnection.setOwner(this)) {
       return initAsyncWithConnection(reusedConnection);
     }
     try {
@@ -270,6 +279,7 @@ class HostConnectionPool implements Connection.Owner {
   ListenableFuture<Void> initAsyncWithConnection(Connection reusedConnection) {
     Executor initExecutor =
         manager.cluster.manager.configuration.getPoolingOptions().getInitializationExecutor();
+    hostOptionsKnown = true;
 
     // Create initial core connections
     final int coreSize = options().getCoreConnectionsPerHost(hostDistance);
@@ -306,14 +316,16 @@ class HostConnectionPool implements Connection.Owner {
     List<Connection> newConnections = manager.connectionFactory().newConnections(this, toCreate);
     connections.addAll(newConnections);
 
+    int[] shardIds = new int[newConnections.size()];
+    int serverPort = 0;
     if (canUseAdvancedShardAwareness()) {
       ShardingInfo shardingInfo = host.getShardingInfo();
       boolean isSSLUsed = null != manager.configuration().getProtocolOptions().getSSLOptions();
-      int serverPort = shardingInfo.getShardAwarePort(isSSLUsed);
+      serverPort = shardingInfo.getShardAwarePort(isSSLUsed);
 
       int shardId = 0;
       int shardConnectionIndex = 0;
-      for (Connection connection : newConnections) {
+      for (int i = 0; i < shardIds.length; i++) {
         if (shardConnectionIndex == connectionsPerShard) {
           shardConnectionIndex = 0;
           shardId++;
@@ -326,18 +338,14 @@ class HostConnectionPool implements Connection.Owner {
           }
         }
 
-        ListenableFuture<Void> connectionFuture =
-            connection.initAsync(shardId, serverPort, isTracingRequested());
-        connectionFutures.add(handleErrors(connectionFuture, initExecutor));
+        shardIds[i] = shardId;
 
         shardConnectionIndex++;
       }
     } else {
-      for (Connection connection : newConnections) {
-        ListenableFuture<Void> connectionFuture = connection.initAsync(isTracingRequested());
-        connectionFutures.add(handleErrors(connectionFuture, initExecutor));
-      }
+      Arrays.fill(shardIds, -1);
     }
+    connectionFutures.addAll(initConnections(newConnections, shardIds, serverPort, initExecutor));
 
     final SettableFuture<Void> initFuture = SettableFuture.create();
 
@@ -346,6 +354,68 @@ class HostConnectionPool implements Connection.Owner {
     return initFuture;
   }
 
+  /**
+   * Starts initializing the given connections, at most {@link
+   * PoolingOptions#getConnectionInitConcurrency()} at a time.
+   *
+   * @return the futures of the initializations, in the same order as {@code connections}.
+   */
+  private List<ListenableFuture<Void>> initConnections(
+      final List<Connection> connections,
+      final int[] shardIds,
+      final int serverPort,
+      final Executor initExecutor) {
+    final int count = connections.size();
+    int concurrency = options().getConnectionInitConcurrency();
+    if (concurrency <= 0 || concurrency >= count) {
+      List<ListenableFuture<Void>> futures = Lists.newArrayListWithCapacity(count);
+      for (int i = 0; i < count; i++) {
+        ListenableFuture<Void> connectionFuture =
+            connections.get(i).initAsync(shardIds[i], serverPort, isTracingRequested());
+        futures.add(handleErrors(connectionFuture, initExecutor));
+      }
+      return futures;
+    }
+
+    final List<SettableFuture<Void>> futures = Lists.newArrayListWithCapacity(count);
+    for (int i = 0; i < count; i++) futures.add(SettableFuture.<Void>create());
+    final AtomicInteger next = new AtomicInteger();
+    Runnable initNext =
+        new Runnable() {
+          @Override
+          public void run() {
+            final int i = next.getAndIncrement();
+            if (i >= count) return;
+            final Runnable initNext = this;
+            ListenableFuture<Void> connectionFuture;
+            try {
+              connectionFuture =
+                  connections.get(i).initAsync(shardIds[i], serverPort, isTracingRequested());
+            } catch (RuntimeException e) {
+              connectionFuture = Futures.immediateFailedFuture(e);
+            }
+            GuavaCompatibility.INSTANCE.addCallback(
+                handleErrors(connectionFuture, initExecutor),
+                new FutureCallback<Void>() {
+                  @Override
+                  public void onSuccess(Void result) {
+                    futures.get(i).set(null);
+                    initNext.run();
+                  }
+
+                  @Override
+                  public void onFailure(Throwable t) {
+                    futures.get(i).setException(t);
+                    initNext.run();
+                  }
+                },
+                initExecutor);
+          }
+        };
+    for (int i = 0; i < concurrency; i++) initNext.run();
+    return new ArrayList<ListenableFuture<Void>>(futures);
+  }
+
   private void addCallback(
       final List<Connection> connections,
       final List<ListenableFuture<Void>> connectionFutures,
@@ -411,6 +481,7 @@ class HostConnectionPool implements Connection.Owner {
                 }
               }
               initFuture.set(null);
+              manager.checkReadiness();
             }
           }
 
@@ -466,7 +537,33 @@ class HostConnectionPool implements Connection.Owner {
   }
 
   private PoolingOptions options() {
-    return manager.configuration().getPoolingOptions();
+    return manager.poolingOptions();
+  }
+
+  boolean canPipelineHandshake() {
+    return hostOptionsKnown && options().isPipelineHandshake();
+  }
+
+  /**
+   * The number of core connections that this pool aims to keep open (the number of shards times the
+   * core connections per shard), or 0 if it is not initialized.
+   */
+  int coreConnectionsTarget() {
+    List<Connection>[] connections = this.connections;
+    if (phase.get() != Phase.READY || connections == null) return 0;
+    return connections.length * connectionsPerShard;
+  }
+
+  /**
+   * The number of core connections that are currently open, counting at most the target per shard.
+   */
+  int openCoreConnections() {
+    List<Connection>[] connections = this.connections;
+    if (phase.get() != Phase.READY || connections == null) return 0;
+    int count = 0;
+    for (List<Connection> shardConnections : connections)
+      count += Math.min(shardConnections.size(), connectionsPerShard);
+    return count;
   }
 
   private Connection findLeastBusyForShard(int shardId) {
@@ -488,6 +585,21 @@ class HostConnectionPool implements Connection.Owner {
       int maxQueueSize,
       Token.Factory partitioner,
       ByteBuffer routingKey) {
+    return borrowConnection(timeout, unit, maxQueueSize, partitioner, routingKey, false);
+  }
+
+  /**
+   * @param pinShard whether, if the shard that owns the routing key has no connection, the other
+   *     shards are tried in a deterministic order (starting with the next one) instead of from a
+   *     random one. This keeps the requests on the same partition on the same shard.
+   */
+  ListenableFuture<Connection> borrowConnection(
+      long timeout,
+      TimeUnit unit,
+      int maxQueueSize,
+      Token.Factory partitioner,
+      ByteBuffer routingKey,
+      boolean pinShard) {
     Phase phase = this.phase.get();
     if (phase != Phase.READY)
       return Futures.immediateFailedFuture(
@@ -519,7 +631,10 @@ class HostConnectionPool implements Connection.Owner {
         }
       }
       // connections for this shard are still being initialized so pick connection for any shard
-      int firstShardToCheck = RAND.nextInt(connections.length);
+      int firstShardToCheck =
+          pinShard && routingKey != null
+              ? (shardId + 1) % connections.length
+              : RAND.nextInt(connections.length);
       int shardToCheck = firstShardToCheck;
       do {
         leastBusy = findLeastBusyForShard(shardToCheck);
@@ -574,7 +689,7 @@ class HostConnectionPool implements Connection.Owner {
       if (totalInFlightCount > currentCapacity) maybeSpawnNewConnection(shardId);
     }
 
-    return leastBusy.setKeyspaceAsync(manager.poolsState.keyspace);
+    return leastBusy.setKeyspaceAsync(connectionKeyspace());
   }
 
   private ListenableFuture<Connection> enqueue(
@@ -662,7 +777,7 @@ class HostConnectionPool implements Connection.Owner {
         // Ensure that the keyspace set on the connection is the one set on the pool state, in the
         // general case it will be.
         ListenableFuture<Connection> setKeyspaceFuture =
-            connection.setKeyspaceAsync(manager.poolsState.keyspace);
+            connection.setKeyspaceAsync(connectionKeyspace());
         // Slight optimization, if the keyspace was already correct the future will be complete, so
         // simply complete it here.
         if (setKeyspaceFuture.isDone()) {
@@ -782,7 +897,7 @@ class HostConnectionPool implements Connection.Owner {
               shardId);
           newConnection = manager.connectionFactory().open(this, effectiveShardId, serverPort);
           if (newConnection.shardId() == shardId) {
-            newConnection.setKeyspace(manager.poolsState.keyspace);
+            newConnection.setKeyspace(connectionKeyspace());
           } else {
             newConnection = sharedState.addConnectionToClose(shardId, newConnection);
             if (newConnection == null) {
@@ -805,6 +920,7 @@ class HostConnectionPool implements Connection.Owner {
       }
 
       dequeue(newConnection);
+      manager.checkReadiness();
       return ConnectionResult.SUCCESS;
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
@@ -1039,6 +1155,18 @@ class HostConnectionPool implements Connection.Owner {
     }
   }
 
+  /**
+   * Returns the keyspace that connections must be bound to. With protocol versions that support
+   * {@link ProtocolFeature#KEYSPACE_ON_QUERY}, the keyspace is sent with each request instead, so
+   * connections never switch keyspaces.
+   */
+  private String connectionKeyspace() {
+    return ProtocolFeature.KEYSPACE_ON_QUERY.isSupportedBy(
+            manager.cluster.manager.protocolVersion())
+        ? null
+        : manager.poolsState.keyspace;
+  }
+
   static class PoolState {
     volatile String keyspace;
 
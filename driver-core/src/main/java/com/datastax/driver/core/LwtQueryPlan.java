@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.datastax.driver.core.policies.LoadBalancingPolicy;
+import com.google.common.collect.AbstractIterator;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * The query plan of a lightweight transaction in {@link
+ * QueryOptions.LwtRoutingMode#PRIMARY_REPLICA} mode.
+ *
+ * <p>It returns the replicas of the partition in ring order, starting with the primary replica, so
+ * that all clients pick the same coordinator for a given partition. Replicas that are down or
+ * ignored by the load balancing policy are skipped. Then it falls back to the query plan of the
+ * load balancing policy, minus the replicas; that plan is only computed if the replicas are
+ * exhausted.
+ */
+class LwtQueryPlan extends AbstractIterator<Host> {
+
+  private final LoadBalancingPolicy policy;
+  private final String keyspace;
+  private final Statement statement;
+  private final Set<Host> replicas;
+  private final Iterator<Host> replicasIterator;
+  private Iterator<Host> fallback;
+
+  /**
+   * @param replicas the replicas, in ring order starting with the primary replica, as returned by
+   *     {@link Metadata#getReplicas(String, Token.Factory, java.nio.ByteBuffer)}.
+   */
+  LwtQueryPlan(
+      LoadBalancingPolicy policy, String keyspace, Statement statement, Set<Host> replicas) {
+    this.policy = policy;
+    this.keyspace = keyspace;
+    this.statement = statement;
+    this.replicas = replicas;
+    this.replicasIterator = replicas.iterator();
+  }
+
+  @Override
+  protected Host computeNext() {
+    while (replicasIterator.hasNext()) {
+      Host host = replicasIterator.next();
+      if (host.isUp() && policy.distance(host) != HostDistance.IGNORED) return host;
+    }
+    if (fallback == null) fallback = policy.newQueryPlan(keyspace, statement);
+    while (fallback.hasNext()) {
+      Host host = fallback.next();
+      if (!replicas.contains(host)) return host;
+    }
+    return endOfData();
+  }
+}
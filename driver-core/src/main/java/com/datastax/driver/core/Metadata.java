@@ -21,6 +21,7 @@
  */
 package com.datastax.driver.core;
 
+import com.codahale.metrics.Timer;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
@@ -33,6 +34,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,6 +43,7 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -133,14 +136,20 @@ public class Metadata {
     lock.lock();
     try {
       if (tokenMap == null) return;
-      this.tokenMap =
-          TokenMap.build(
-              tokenMap.factory,
-              tokenMap.primaryToTokens,
-              keyspaces.values(),
-              tokenMap.ring,
-              tokenMap.tokenRanges,
-              tokenMap.tokenToPrimary);
+      Timer.Context rebuildContext = startTokenMapRebuild();
+      try {
+        this.tokenMap =
+            TokenMap.build(
+                tokenMap.factory,
+                tokenMap.primaryToTokens,
+                keyspaces.values(),
+                tokenMap.ring,
+                tokenMap.tokenRanges,
+                tokenMap.tokenToPrimary,
+                cluster.executor);
+      } finally {
+        if (rebuildContext != null) rebuildContext.stop();
+      }
     } finally {
       lock.unlock();
     }
@@ -150,12 +159,25 @@ public class Metadata {
   void rebuildTokenMap(Token.Factory factory, Map<Host, Set<Token>> allTokens) {
     lock.lock();
     try {
-      this.tokenMap = TokenMap.build(factory, allTokens, keyspaces.values());
+      Timer.Context rebuildContext = startTokenMapRebuild();
+      try {
+        this.tokenMap = TokenMap.build(factory, allTokens, keyspaces.values(), cluster.executor);
+      } finally {
+        if (rebuildContext != null) rebuildContext.stop();
+      }
+      // the ring may have changed, forget the ranges that are gone
+      Metrics metrics = cluster.metrics;
+      if (metrics != null) metrics.retainCasWriteTimeoutRanges(tokenMap.tokenRanges);
     } finally {
       lock.unlock();
     }
   }
 
+  private Timer.Context startTokenMapRebuild() {
+    Metrics metrics = cluster.metrics;
+    return metrics == null ? null : metrics.getTokenMapRebuildTimer().time();
+  }
+
   Host newHost(EndPoint endPoint) {
     return new Host(endPoint, cluster.convictionPolicyFactory, cluster);
   }
@@ -726,6 +748,27 @@ public class Metadata {
     return new TokenRange(start, end, current.factory);
   }
 
+  /**
+   * Returns the range of the ring that contains the given token, or {@code null} if the token map
+   * is not initialized.
+   */
+  TokenRange getTokenRange(Token token) {
+    TokenMap current = tokenMap;
+    return (current == null) ? null : current.getTokenRange(token);
+  }
+
+  /** The number of token to replicas entries in the token map, or 0 if it is not initialized. */
+  int tokenMapReplicaEntries() {
+    TokenMap current = tokenMap;
+    return (current == null) ? 0 : current.replicaEntries;
+  }
+
+  /** The number of distinct replica sets in the token map, or 0 if it is not initialized. */
+  int tokenMapReplicaSets() {
+    TokenMap current = tokenMap;
+    return (current == null) ? 0 : current.replicaSets;
+  }
+
   Token.Factory tokenFactory() {
     TokenMap current = tokenMap;
     return (current == null) ? null : current.factory;
@@ -849,6 +892,8 @@ public class Metadata {
     private final List<Token> ring;
     private final Set<TokenRange> tokenRanges;
     private final Map<Token, Host> tokenToPrimary;
+    private final int replicaEntries;
+    private final int replicaSets;
 
     private TokenMap(
         Token.Factory factory,
@@ -857,7 +902,9 @@ public class Metadata {
         Map<Token, Host> tokenToPrimary,
         Map<Host, Set<Token>> primaryToTokens,
         Map<String, Map<Token, Set<Host>>> tokenToHostsByKeyspace,
-        Map<String, Map<Host, Set<TokenRange>>> hostsToRangesByKeyspace) {
+        Map<String, Map<Host, Set<TokenRange>>> hostsToRangesByKeyspace,
+        int replicaEntries,
+        int replicaSets) {
       this.factory = factory;
       this.ring = ring;
       this.tokenRanges = tokenRanges;
@@ -865,6 +912,8 @@ public class Metadata {
       this.primaryToTokens = primaryToTokens;
       this.tokenToHostsByKeyspace = tokenToHostsByKeyspace;
       this.hostsToRangesByKeyspace = hostsToRangesByKeyspace;
+      this.replicaEntries = replicaEntries;
+      this.replicaSets = replicaSets;
       for (Map.Entry<Host, Set<Token>> entry : primaryToTokens.entrySet()) {
         Host host = entry.getKey();
         host.setTokens(ImmutableSet.copyOf(entry.getValue()));
@@ -874,7 +923,8 @@ public class Metadata {
     private static TokenMap build(
         Token.Factory factory,
         Map<Host, Set<Token>> allTokens,
-        Collection<KeyspaceMetadata> keyspaces) {
+        Collection<KeyspaceMetadata> keyspaces,
+        Executor executor) {
       Map<Token, Host> tokenToPrimary = new HashMap<Token, Host>();
       Set<Token> allSorted = new TreeSet<Token>();
       for (Map.Entry<Host, ? extends Collection<Token>> entry : allTokens.entrySet()) {
@@ -890,7 +940,7 @@ public class Metadata {
       }
       List<Token> ring = new ArrayList<Token>(allSorted);
       Set<TokenRange> tokenRanges = makeTokenRanges(ring, factory);
-      return build(factory, allTokens, keyspaces, ring, tokenRanges, tokenToPrimary);
+      return build(factory, allTokens, keyspaces, ring, tokenRanges, tokenToPrimary, executor);
     }
 
     private static TokenMap build(
@@ -899,7 +949,8 @@ public class Metadata {
         Collection<KeyspaceMetadata> keyspaces,
         List<Token> ring,
         Set<TokenRange> tokenRanges,
-        Map<Token, Host> tokenToPrimary) {
+        Map<Token, Host> tokenToPrimary,
+        Executor executor) {
       Set<Host> hosts = allTokens.keySet();
       Map<String, Map<Token, Set<Host>>> tokenToHosts =
           new HashMap<String, Map<Token, Set<Host>>>();
@@ -914,7 +965,8 @@ public class Metadata {
           ksTokens =
               (strategy == null)
                   ? makeNonReplicatedMap(tokenToPrimary)
-                  : strategy.computeTokenToReplicaMap(keyspace.getName(), tokenToPrimary, ring);
+                  : strategy.computeTokenToReplicaMap(
+                      keyspace.getName(), tokenToPrimary, ring, executor);
           replStrategyToHosts.put(strategy, ksTokens);
         }
 
@@ -932,8 +984,24 @@ public class Metadata {
         }
         hostsToRanges.put(keyspace.getName(), ksRanges);
       }
+      // keyspaces with the same strategy share the same map, and maps share their replica sets
+      int replicaEntries = 0;
+      Set<Set<Host>> replicaSets =
+          Collections.newSetFromMap(new IdentityHashMap<Set<Host>, Boolean>());
+      for (Map<Token, Set<Host>> ksTokens : replStrategyToHosts.values()) {
+        replicaEntries += ksTokens.size();
+        replicaSets.addAll(ksTokens.values());
+      }
       return new TokenMap(
-          factory, ring, tokenRanges, tokenToPrimary, allTokens, tokenToHosts, hostsToRanges);
+          factory,
+          ring,
+          tokenRanges,
+          tokenToPrimary,
+          allTokens,
+          tokenToHosts,
+          hostsToRanges,
+          replicaEntries,
+          replicaSets.size());
     }
 
     private Set<Host> getReplicas(String keyspace, Token token) {
@@ -955,6 +1023,21 @@ public class Metadata {
       return tokenToHosts.get(ring.get(i));
     }
 
+    private TokenRange getTokenRange(Token token) {
+      if (ring.isEmpty()) return null;
+      // JAVA-684: if there is only one token, the ring is the range ]minToken, minToken]
+      if (ring.size() == 1) return new TokenRange(factory.minToken(), factory.minToken(), factory);
+
+      // the range ends at the closest "primary" token on the ring, and starts at the previous one
+      int i = Collections.binarySearch(ring, token);
+      if (i < 0) {
+        i = -i - 1;
+        if (i >= ring.size()) i = 0;
+      }
+      Token start = ring.get(i == 0 ? ring.size() - 1 : i - 1);
+      return new TokenRange(start, ring.get(i), factory);
+    }
+
     private static Map<Token, Set<Host>> makeNonReplicatedMap(Map<Token, Host> input) {
       Map<Token, Set<Host>> output = new HashMap<Token, Set<Host>>(input.size());
       for (Map.Entry<Token, Host> entry : input.entrySet())
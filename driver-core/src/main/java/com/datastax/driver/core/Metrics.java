@@ -34,7 +34,10 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Metrics exposed by the driver.
@@ -56,8 +59,52 @@ public class Metrics {
   private final Errors errors = new Errors();
 
   private final Timer requests = registry.timer("requests");
+  private final Timer schemaRefreshes = registry.timer("schema-refreshes");
+  private final Timer tokenMapRebuilds = registry.timer("token-map-rebuilds");
   private final Meter bytesSent = registry.meter("bytes-sent");
   private final Meter bytesReceived = registry.meter("bytes-received");
+  private final Timer sslHandshakes = registry.timer("ssl-handshakes");
+  private final Counter nearCacheHits = registry.counter("near-cache-hits");
+  private final Counter nearCacheMisses = registry.counter("near-cache-misses");
+  private final Counter coalescedRequests = registry.counter("coalesced-requests");
+
+  // Pruned to the ranges of the current ring when the token map is rebuilt for new hosts, so it
+  // holds at most one entry per range (plus stray entries recorded concurrently with a rebuild,
+  // which are dropped on the next one)
+  private final ConcurrentMap<TokenRange, AtomicLong> casWriteTimeoutsByRange =
+      new ConcurrentHashMap<TokenRange, AtomicLong>();
+  private final Gauge<Map<TokenRange, Long>> lwtContention =
+      registry.register(
+          "lwt-contention",
+          new Gauge<Map<TokenRange, Long>>() {
+            @Override
+            public Map<TokenRange, Long> getValue() {
+              Map<TokenRange, Long> result =
+                  new HashMap<TokenRange, Long>(casWriteTimeoutsByRange.size());
+              for (Map.Entry<TokenRange, AtomicLong> entry : casWriteTimeoutsByRange.entrySet())
+                result.put(entry.getKey(), entry.getValue().get());
+              return result;
+            }
+          });
+
+  private final Gauge<Integer> tokenMapReplicaEntries =
+      registry.register(
+          "token-map-replica-entries",
+          new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+              return manager.metadata.tokenMapReplicaEntries();
+            }
+          });
+  private final Gauge<Integer> tokenMapReplicaSets =
+      registry.register(
+          "token-map-replica-sets",
+          new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+              return manager.metadata.tokenMapReplicaSets();
+            }
+          });
 
   private final Gauge<Integer> knownHosts =
       registry.register(
@@ -136,9 +183,15 @@ public class Metrics {
   private final Gauge<Integer> reconnectionSchedulerQueueSize;
   private final Gauge<Integer> taskSchedulerQueueSize;
   private final Gauge<Map<Host, Integer>> shardAwarenessInfo;
+  private final Map<String, WorkloadClassMetrics> workloadClassMetrics;
 
   Metrics(final Cluster.Manager manager) {
     this.manager = manager;
+    Map<String, WorkloadClassMetrics> workloadClassMetrics =
+        new HashMap<String, WorkloadClassMetrics>();
+    for (String name : manager.configuration.getWorkloadClasses().keySet())
+      workloadClassMetrics.put(name, new WorkloadClassMetrics(name));
+    this.workloadClassMetrics = workloadClassMetrics;
     this.executorQueueDepth =
         registry.register("executor-queue-depth", buildQueueSizeGauge(manager.executorQueue));
     this.blockingExecutorQueueDepth =
@@ -237,6 +290,58 @@ public class Metrics {
     return requests;
   }
 
+  /**
+   * Returns metrics on the schema refreshes performed by the control connection.
+   *
+   * <p>Each refresh is timed from the moment the system tables are queried until the new schema
+   * metadata has been applied and the {@link SchemaChangeListener}s have been notified. A growing
+   * latency here usually means that large schema migrations are keeping the control connection
+   * busy.
+   *
+   * @return a {@code Timer} metric object exposing the rate and duration of schema refreshes.
+   */
+  public Timer getSchemaRefreshTimer() {
+    return schemaRefreshes;
+  }
+
+  /**
+   * Returns metrics on the rebuilds of the token map, which maps tokens to the replicas of each
+   * keyspace.
+   *
+   * <p>The token map is rebuilt when the ring changes, or when a schema refresh adds or drops a
+   * keyspace or modifies its replication settings; other schema changes do not trigger a rebuild.
+   *
+   * @return a {@code Timer} metric object exposing the rate and duration of token map rebuilds.
+   */
+  public Timer getTokenMapRebuildTimer() {
+    return tokenMapRebuilds;
+  }
+
+  /**
+   * Returns the number of token to replicas entries in the token map.
+   *
+   * <p>Keyspaces with the same replication settings share their entries, so this is the number of
+   * tokens in the ring times the number of distinct replication settings.
+   *
+   * @return the number of entries in the token map.
+   */
+  public Gauge<Integer> getTokenMapReplicaEntries() {
+    return tokenMapReplicaEntries;
+  }
+
+  /**
+   * Returns the number of distinct replica sets in the token map.
+   *
+   * <p>Tokens that have the same replicas (in the same order) share a single set, so this is
+   * usually much lower than {@link #getTokenMapReplicaEntries()}, and is a better indication of the
+   * memory used by the token map.
+   *
+   * @return the number of distinct replica sets in the token map.
+   */
+  public Gauge<Integer> getTokenMapReplicaSets() {
+    return tokenMapReplicaSets;
+  }
+
   /**
    * Returns an object grouping metrics related to the errors encountered.
    *
@@ -400,6 +505,103 @@ public class Metrics {
     return bytesReceived;
   }
 
+  /**
+   * Returns metrics on the SSL handshakes performed when opening connections.
+   *
+   * <p>Each handshake is timed from the moment the connection is established until the handshake
+   * completes; failed handshakes are not recorded. Handshakes that resume a cached session are
+   * usually much faster than full ones, which shows in the distribution of durations.
+   *
+   * @return a {@code Timer} metric object exposing the rate and duration of SSL handshakes.
+   */
+  public Timer getSslHandshakeTimer() {
+    return sslHandshakes;
+  }
+
+  /**
+   * Returns the number of executions that were served by the near cache of a session (see {@link
+   * QueryOptions#setNearCacheSize(int)}).
+   *
+   * <p>This includes executions that were coalesced with an identical read already in progress, if
+   * that read provided their result. Executions that waited for a read whose result spans several
+   * pages, or that failed, are counted as {@linkplain #getNearCacheMisses() misses}.
+   *
+   * @return the number of near cache hits so far.
+   */
+  public Counter getNearCacheHits() {
+    return nearCacheHits;
+  }
+
+  /**
+   * Returns the number of cacheable executions that were not served by the near cache of a session
+   * (see {@link QueryOptions#setNearCacheSize(int)}): executions that were not found in the cache
+   * and were therefore sent to the cluster, and executions that waited for a read that did not
+   * provide a result.
+   *
+   * @return the number of near cache misses so far.
+   */
+  public Counter getNearCacheMisses() {
+    return nearCacheMisses;
+  }
+
+  /**
+   * Returns the number of executions that waited for an identical read already in flight, instead
+   * of sending their own request (see {@link QueryOptions#setCoalesceReads(boolean)}).
+   *
+   * @return the number of coalesced requests so far.
+   */
+  public Counter getCoalescedRequests() {
+    return coalescedRequests;
+  }
+
+  /**
+   * Returns the number of CAS write timeouts (see {@link Errors#getCasWriteTimeouts()}) per token
+   * range of the ring.
+   *
+   * <p>A CAS write timeout usually means that concurrent lightweight transactions on the same
+   * partition prevented each other from completing their Paxos round. This gauge shows which parts
+   * of the ring suffer from it; ranges that never had a CAS write timeout are not included.
+   *
+   * <p>Note that the ranges are those of the ring at the time of each timeout; when the ring
+   * changes, the counts of the ranges that no longer exist are discarded.
+   *
+   * @return the number of CAS write timeouts per token range.
+   * @see QueryOptions#setLwtRoutingMode(QueryOptions.LwtRoutingMode)
+   */
+  public Gauge<Map<TokenRange, Long>> getLwtContention() {
+    return lwtContention;
+  }
+
+  /**
+   * Returns an object grouping the metrics of a workload class.
+   *
+   * @param name the name of the workload class.
+   * @return an object grouping the metrics of the class.
+   * @throws IllegalArgumentException if the class is not declared in the configuration of the
+   *     cluster.
+   * @see Cluster.Builder#withWorkloadClasses(WorkloadClass...)
+   */
+  public WorkloadClassMetrics getWorkloadClassMetrics(String name) {
+    WorkloadClassMetrics metrics = workloadClassMetrics.get(name);
+    if (metrics == null) throw new IllegalArgumentException("Unknown workload class " + name);
+    return metrics;
+  }
+
+  void recordCasWriteTimeout(TokenRange range) {
+    AtomicLong count = casWriteTimeoutsByRange.get(range);
+    if (count == null) {
+      AtomicLong newCount = new AtomicLong();
+      count = casWriteTimeoutsByRange.putIfAbsent(range, newCount);
+      if (count == null) count = newCount;
+    }
+    count.incrementAndGet();
+  }
+
+  /** Discards the CAS write timeout counts of the token ranges that are not in the given set. */
+  void retainCasWriteTimeoutRanges(Set<TokenRange> ranges) {
+    casWriteTimeoutsByRange.keySet().retainAll(ranges);
+  }
+
   void shutdown() {
     if (jmxReporter != null) jmxReporter.stop();
   }
@@ -422,6 +624,109 @@ public class Metrics {
     }
   }
 
+  /**
+   * Metrics on the requests of a workload class, and on its dedicated connection pools.
+   *
+   * <p>The requests of the class are also accounted for in the cluster-wide metrics, such as {@link
+   * #getRequestsTimer()} or {@link #getOpenConnections()}.
+   */
+  public class WorkloadClassMetrics {
+
+    private final String name;
+    private final Timer requests;
+    private final Gauge<Integer> openConnections;
+    private final Gauge<Integer> inFlightRequests;
+    private final Gauge<Integer> requestQueueDepth;
+
+    private WorkloadClassMetrics(final String name) {
+      this.name = name;
+      String prefix = "workload-classes." + name + ".";
+      this.requests = registry.timer(prefix + "requests");
+      this.openConnections =
+          registry.register(
+              prefix + "open-connections",
+              new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                  int value = 0;
+                  for (SessionManager session : manager.sessions)
+                    if (isOfThisClass(session))
+                      for (HostConnectionPool pool : session.pools.values()) value += pool.opened();
+                  return value;
+                }
+              });
+      this.inFlightRequests =
+          registry.register(
+              prefix + "inflight-requests",
+              new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                  int value = 0;
+                  for (SessionManager session : manager.sessions)
+                    if (isOfThisClass(session))
+                      for (HostConnectionPool pool : session.pools.values())
+                        value += pool.totalInFlight.get();
+                  return value;
+                }
+              });
+      this.requestQueueDepth =
+          registry.register(
+              prefix + "request-queue-depth",
+              new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                  int value = 0;
+                  for (SessionManager session : manager.sessions)
+                    if (isOfThisClass(session))
+                      for (HostConnectionPool pool : session.pools.values())
+                        value += pool.pendingBorrowCount.get();
+                  return value;
+                }
+              });
+    }
+
+    private boolean isOfThisClass(SessionManager session) {
+      return session.workloadClass != null && session.workloadClass.getName().equals(name);
+    }
+
+    /**
+     * Returns metrics on the requests of this class.
+     *
+     * @return a {@code Timer} metric object exposing the rate and latency of the requests of this
+     *     class.
+     */
+    public Timer getRequestsTimer() {
+      return requests;
+    }
+
+    /**
+     * Returns the number of currently opened connections in the pools of this class.
+     *
+     * @return the number of currently opened connections in the pools of this class.
+     */
+    public Gauge<Integer> getOpenConnections() {
+      return openConnections;
+    }
+
+    /**
+     * Returns the number of in flight requests in the pools of this class.
+     *
+     * @return the number of in flight requests in the pools of this class.
+     */
+    public Gauge<Integer> getInFlightRequests() {
+      return inFlightRequests;
+    }
+
+    /**
+     * Returns the number of requests of this class that wait for a connection.
+     *
+     * @return the number of enqueued requests in the pools of this class.
+     */
+    public Gauge<Integer> getRequestQueueDepth() {
+      return requestQueueDepth;
+    }
+  }
+
   /** Metrics on errors encountered. */
   public class Errors {
 
@@ -429,9 +734,11 @@ public class Metrics {
     private final Counter authenticationErrors = registry.counter("authentication-errors");
 
     private final Counter writeTimeouts = registry.counter("write-timeouts");
+    private final Counter casWriteTimeouts = registry.counter("cas-write-timeouts");
     private final Counter readTimeouts = registry.counter("read-timeouts");
     private final Counter unavailables = registry.counter("unavailables");
     private final Counter clientTimeouts = registry.counter("client-timeouts");
+    private final Counter deadlinesExceeded = registry.counter("deadlines-exceeded");
 
     private final Counter otherErrors = registry.counter("other-errors");
 
@@ -443,6 +750,8 @@ public class Metrics {
     private final Counter retriesOnConnectionError =
         registry.counter("retries-on-connection-error");
     private final Counter retriesOnOtherErrors = registry.counter("retries-on-other-errors");
+    private final Counter retriesRejected = registry.counter("retries-rejected");
+    private final Counter retriesRerouted = registry.counter("retries-rerouted");
 
     private final Counter ignores = registry.counter("ignores");
     private final Counter ignoresOnWriteTimeout = registry.counter("ignores-on-write-timeout");
@@ -454,6 +763,11 @@ public class Metrics {
     private final Counter ignoresOnOtherErrors = registry.counter("ignores-on-other-errors");
 
     private final Counter speculativeExecutions = registry.counter("speculative-executions");
+    private final Counter speculativeExecutionsWon = registry.counter("speculative-executions-won");
+    private final Counter speculativeExecutionsWasted =
+        registry.counter("speculative-executions-wasted");
+    private final Counter speculativeExecutionsThrottled =
+        registry.counter("speculative-executions-throttled");
 
     /**
      * Returns the number of errors while connecting to Cassandra nodes.
@@ -490,6 +804,19 @@ public class Metrics {
       return writeTimeouts;
     }
 
+    /**
+     * Returns the number of write requests that returned a timeout during the Paxos phase of a
+     * lightweight transaction (write type {@link WriteType#CAS}). They are also counted in {@link
+     * #getWriteTimeouts()}.
+     *
+     * <p>See {@link Metrics#getLwtContention()} for a breakdown per token range.
+     *
+     * @return the number of CAS write timeouts.
+     */
+    public Counter getCasWriteTimeouts() {
+      return casWriteTimeouts;
+    }
+
     /**
      * Returns the number of read requests that returned a timeout (independently of the final
      * decision taken by the {@link com.datastax.driver.core.policies.RetryPolicy}).
@@ -519,6 +846,17 @@ public class Metrics {
       return clientTimeouts;
     }
 
+    /**
+     * Returns the number of requests that did not complete within their overall timeout, and failed
+     * with a {@link com.datastax.driver.core.exceptions.DeadlineExceededException}.
+     *
+     * @return the number of requests that exceeded their deadline.
+     * @see QueryOptions#setRequestTimeoutMillis(int)
+     */
+    public Counter getDeadlinesExceeded() {
+      return deadlinesExceeded;
+    }
+
     /**
      * Returns the number of requests that returned errors not accounted for by another metric. This
      * includes all types of invalid requests.
@@ -540,6 +878,29 @@ public class Metrics {
       return retries;
     }
 
+    /**
+     * Returns the number of times the {@link com.datastax.driver.core.policies.RetryPolicy} decided
+     * to retry, but the retry was rejected by a {@link
+     * com.datastax.driver.core.policies.RetryBudgetPolicy} (because the retry budget was exhausted,
+     * or the host's circuit was open), and the error was returned to the client instead.
+     *
+     * @return the number of rejected retries.
+     */
+    public Counter getRetriesRejected() {
+      return retriesRejected;
+    }
+
+    /**
+     * Returns the number of times the {@link com.datastax.driver.core.policies.RetryPolicy} decided
+     * to retry on the same host, but the retry was sent to the next host instead because the host's
+     * circuit was open (see {@link com.datastax.driver.core.policies.RetryBudgetPolicy}).
+     *
+     * @return the number of rerouted retries.
+     */
+    public Counter getRetriesRerouted() {
+      return retriesRerouted;
+    }
+
     /**
      * Returns the number of times a request was retried due to the {@link
      * com.datastax.driver.core.policies.RetryPolicy}, after a read timed out.
@@ -693,5 +1054,37 @@ public class Metrics {
     public Counter getSpeculativeExecutions() {
       return speculativeExecutions;
     }
+
+    /**
+     * Returns the number of times a speculative execution completed a request before all the
+     * executions that were started earlier for the same request.
+     *
+     * @return the number of speculative executions that won.
+     */
+    public Counter getSpeculativeExecutionsWon() {
+      return speculativeExecutionsWon;
+    }
+
+    /**
+     * Returns the number of speculative executions that were started but did not provide the result
+     * of their request, either because another execution completed first, or because the request
+     * failed.
+     *
+     * @return the number of wasted speculative executions.
+     */
+    public Counter getSpeculativeExecutionsWasted() {
+      return speculativeExecutionsWasted;
+    }
+
+    /**
+     * Returns the number of times a speculative execution was due, but was not started because the
+     * {@link SpeculativeExecutionPolicy} ran out of budget (see {@link
+     * SpeculativeExecutionPolicy.ThrottledSpeculativeExecutionPlan}).
+     *
+     * @return the number of throttled speculative executions.
+     */
+    public Counter getSpeculativeExecutionsThrottled() {
+      return speculativeExecutionsThrottled;
+    }
   }
 }
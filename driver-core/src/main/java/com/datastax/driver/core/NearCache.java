@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.datastax.driver.core.RequestCoalescer.CoalescedFuture;
+import com.datastax.driver.core.RequestCoalescer.InFlightRead;
+import com.datastax.driver.core.RequestCoalescer.Key;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.FutureCallback;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves repeated executions of idempotent reads from the results of a previous execution.
+ *
+ * <p>Results are keyed by prepared statement id and bound values, in a bounded LRU cache. Each
+ * entry expires according to the TTL of the statement that loaded it. Concurrent executions of a
+ * read that is not cached yet all wait for the same request.
+ *
+ * @see QueryOptions#setNearCacheSize(int)
+ */
+class NearCache {
+
+  private final SessionManager session;
+  private final Cache<Key, Entry> entries;
+
+  NearCache(SessionManager session, int maxSize) {
+    this.session = session;
+    this.entries = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+  }
+
+  /** Whether the results of the given statement can be served from this cache. */
+  boolean isCacheable(Statement statement) {
+    return statement.getNearCacheTtlMillis() > 0
+        && RequestCoalescer.isIdempotentRead(
+            statement, session.cluster.manager.configuration.getQueryOptions());
+  }
+
+  /** Executes the given statement, which must be {@link #isCacheable(Statement) cacheable}. */
+  ResultSetFuture executeAsync(BoundStatement statement) {
+    Key key = new Key(statement, session.cluster.manager.configuration.getQueryOptions());
+    ConcurrentMap<Key, Entry> map = entries.asMap();
+    while (true) {
+      Entry entry = map.get(key);
+      if (entry == null) {
+        entry = new Entry();
+        Entry previous = map.putIfAbsent(key, entry);
+        if (previous == null) {
+          if (session.cluster.manager.metrics != null)
+            session.cluster.manager.metrics.getNearCacheMisses().inc();
+          return load(key, entry, statement);
+        }
+        entry = previous;
+      }
+      if (entry.isExpired(System.nanoTime())) {
+        map.remove(key, entry);
+        continue;
+      }
+      if (session.cluster.manager.metrics != null) count(entry);
+      return entry.newFuture(session, statement);
+    }
+  }
+
+  /**
+   * Counts an execution that found an entry: it is a hit if the entry provides the result, and a
+   * miss if the execution ends up sending its own request or failing.
+   */
+  private void count(Entry entry) {
+    final Metrics metrics = session.cluster.manager.metrics;
+    GuavaCompatibility.INSTANCE.addCallback(
+        entry.result,
+        new FutureCallback<ArrayBackedResultSet>() {
+          @Override
+          public void onSuccess(ArrayBackedResultSet shared) {
+            if (shared == null) metrics.getNearCacheMisses().inc();
+            else metrics.getNearCacheHits().inc();
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            metrics.getNearCacheMisses().inc();
+          }
+        });
+  }
+
+  private ResultSetFuture load(final Key key, final Entry entry, final BoundStatement statement) {
+    final CoalescedFuture future = new CoalescedFuture();
+    GuavaCompatibility.INSTANCE.addCallback(
+        session.executeUncachedAsync(statement),
+        new FutureCallback<ResultSet>() {
+          @Override
+          public void onSuccess(ResultSet result) {
+            // copy before handing the result over, the caller will consume it
+            ArrayBackedResultSet cached = ArrayBackedResultSet.copyOf(result);
+            if (cached == null) entries.asMap().remove(key, entry);
+            else
+              entry.expiresAtNanos =
+                  System.nanoTime()
+                      + TimeUnit.MILLISECONDS.toNanos(statement.getNearCacheTtlMillis());
+            entry.result.set(cached);
+            future.complete(result);
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            entries.asMap().remove(key, entry);
+            entry.result.setException(t);
+            future.fail(t);
+          }
+        });
+    // note that cancelling the returned future does not cancel the request, other executions
+    // might be waiting for it
+    return future;
+  }
+
+  private static class Entry extends InFlightRead {
+    volatile long expiresAtNanos = Long.MAX_VALUE;
+
+    boolean isExpired(long now) {
+      if (!result.isDone()) return false;
+      // failed entries are removed right away, but a concurrent execution might still see them
+      try {
+        if (result.get() == null) return true;
+      } catch (Exception e) {
+        return true;
+      }
+      return now - expiresAtNanos >= 0;
+    }
+  }
+}
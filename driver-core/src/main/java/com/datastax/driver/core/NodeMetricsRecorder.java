@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+/**
+ * Interface for objects that record metrics per node, and per shard of ScyllaDB nodes.
+ *
+ * <p>Unlike the cluster-wide {@link Metrics}, which are always maintained, implementations of this
+ * interface are only invoked once registered against a Cluster through {@link
+ * Cluster#register(NodeMetricsRecorder)}, so applications only pay for the per-node metrics they
+ * ask for. {@link HdrNodeMetricsRecorder} is the implementation provided by the driver.
+ */
+public interface NodeMetricsRecorder {
+
+  /**
+   * A method that is called after each request to a node, with the duration of that request.
+   *
+   * <p>This method is called on the driver's I/O threads, possibly concurrently, at the end of
+   * every request to a node. Implementations should therefore be thread-safe, and as cheap as
+   * possible: ideally, they should not allocate or block.
+   *
+   * <p>Requests that got cancelled, for example because another {@linkplain
+   * com.datastax.driver.core.policies.SpeculativeExecutionPolicy speculative execution} completed
+   * first, are not recorded.
+   *
+   * @param host the node on which the request was performed. This parameter is never {@code null}.
+   * @param shardId the shard of the connection that the request was sent through, {@code 0} if the
+   *     node is not sharded, or {@code -1} if the request failed before it was assigned a
+   *     connection.
+   * @param latencyNanos the latency in nanoseconds of the request, from the moment it was sent to
+   *     the node until the response was received (or the request timed out).
+   * @param exception the error returned for the request, or {@code null} if it succeeded.
+   */
+  void record(Host host, int shardId, long latencyNanos, Exception exception);
+
+  /**
+   * Gets invoked when the recorder is registered with a cluster.
+   *
+   * @param cluster the cluster that this recorder is registered with.
+   */
+  void onRegister(Cluster cluster);
+
+  /**
+   * Gets invoked when the recorder is unregistered from a cluster, or at cluster shutdown if the
+   * recorder was not unregistered.
+   *
+   * @param cluster the cluster that this recorder was registered with.
+   */
+  void onUnregister(Cluster cluster);
+}
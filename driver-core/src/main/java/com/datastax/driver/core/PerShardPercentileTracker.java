@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@code PercentileTracker} that maintains a separate histogram for each shard of each host.
+ *
+ * <p>On Scylla, each shard of a node serves the requests for the tokens it owns, so a single
+ * overloaded shard can be slow while the rest of the node is healthy. This tracker records the
+ * latency of each request under the shard of the connection that served it; each shard will only be
+ * compared to itself. When looking up a percentile for a statement, the shard is computed from its
+ * routing key, the same way the connection pool does.
+ *
+ * <p>Measurements for which the shard cannot be determined (hosts that don't report sharding
+ * information, or statements without a routing key) are recorded in a per-host histogram instead.
+ */
+public class PerShardPercentileTracker extends PercentileTracker {
+
+  private volatile Cluster cluster;
+
+  private PerShardPercentileTracker(
+      long highestTrackableLatencyMillis,
+      int numberOfSignificantValueDigits,
+      int minRecordedValues,
+      long intervalMs) {
+    super(
+        highestTrackableLatencyMillis,
+        numberOfSignificantValueDigits,
+        minRecordedValues,
+        intervalMs);
+  }
+
+  @Override
+  public void onRegister(Cluster cluster) {
+    this.cluster = cluster;
+  }
+
+  @Override
+  public void onUnregister(Cluster cluster) {
+    this.cluster = null;
+  }
+
+  /**
+   * Records the latency of a request that was served by the given shard. This is what the driver
+   * calls, so that it does not have to compute the shard from the routing key of each request.
+   *
+   * @param shardId the shard of the connection, or -1 if the request was not sent.
+   */
+  void update(
+      Host host, int shardId, Statement statement, Exception exception, long newLatencyNanos) {
+    if (!include(host, statement, exception)) return;
+    if (shardId >= 0 && host.getShardingInfo() == null) shardId = -1;
+    record(new ShardKey(host, shardId), newLatencyNanos);
+  }
+
+  @Override
+  protected Object computeKey(Host host, Statement statement, Exception exception) {
+    if (host == null) return null;
+    return new ShardKey(host, shardId(host, statement));
+  }
+
+  private int shardId(Host host, Statement statement) {
+    ShardingInfo shardingInfo = host.getShardingInfo();
+    Cluster cluster = this.cluster;
+    if (shardingInfo == null || statement == null || cluster == null) return -1;
+    Configuration configuration = cluster.getConfiguration();
+    Metadata metadata = cluster.getMetadata();
+    if (configuration == null || metadata == null) return -1;
+    ByteBuffer routingKey =
+        statement.getRoutingKey(
+            configuration.getProtocolOptions().getProtocolVersion(),
+            configuration.getCodecRegistry());
+    if (routingKey == null) return -1;
+    Token token = metadata.newToken(statement.getPartitioner(), routingKey);
+    return shardingInfo.shardId(token);
+  }
+
+  /** The key of a histogram: a host, and a shard id or -1 if the shard is unknown. */
+  static final class ShardKey {
+    final Host host;
+    final int shardId;
+
+    ShardKey(Host host, int shardId) {
+      this.host = host;
+      this.shardId = shardId;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other == this) return true;
+      if (!(other instanceof ShardKey)) return false;
+      ShardKey that = (ShardKey) other;
+      return this.shardId == that.shardId && this.host.equals(that.host);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * host.hashCode() + shardId;
+    }
+
+    @Override
+    public String toString() {
+      return host + (shardId < 0 ? "" : "#" + shardId);
+    }
+  }
+
+  /**
+   * Returns a builder to create a new instance.
+   *
+   * @param highestTrackableLatencyMillis the highest expected latency. If a higher value is
+   *     reported, it will be ignored and a warning will be logged. A good rule of thumb is to set
+   *     it slightly higher than {@link SocketOptions#getReadTimeoutMillis()}.
+   * @return the builder.
+   */
+  public static Builder builder(long highestTrackableLatencyMillis) {
+    return new Builder(highestTrackableLatencyMillis);
+  }
+
+  /** Helper class to build {@code PerShardPercentileTracker} instances with a fluent interface. */
+  public static class Builder
+      extends PercentileTracker.Builder<Builder, PerShardPercentileTracker> {
+
+    Builder(long highestTrackableLatencyMillis) {
+      super(highestTrackableLatencyMillis);
+    }
+
+    @Override
+    protected Builder self() {
+      return this;
+    }
+
+    @Override
+    public PerShardPercentileTracker build() {
+      return new PerShardPercentileTracker(
+          highestTrackableLatencyMillis,
+          numberOfSignificantValueDigits,
+          minRecordedValues,
+          intervalMs);
+    }
+  }
+}
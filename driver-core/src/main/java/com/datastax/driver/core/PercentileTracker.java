@@ -112,10 +112,14 @@ public abstract class PercentileTracker implements LatencyTracker {
   @Override
   public void update(Host host, Statement statement, Exception exception, long newLatencyNanos) {
     if (!include(host, statement, exception)) return;
+    record(computeKey(host, statement, exception), newLatencyNanos);
+  }
 
+  /** Records a latency in the histogram of the given key, if it is not null. */
+  void record(Object key, long newLatencyNanos) {
     long latencyMs = NANOSECONDS.toMillis(newLatencyNanos);
     try {
-      Recorder recorder = getRecorder(host, statement, exception);
+      Recorder recorder = getRecorder(key);
       if (recorder != null) recorder.recordValue(latencyMs);
     } catch (ArrayIndexOutOfBoundsException e) {
       logger.warn(
@@ -148,8 +152,7 @@ public abstract class PercentileTracker implements LatencyTracker {
     return histogram.getValueAtPercentile(percentile);
   }
 
-  private Recorder getRecorder(Host host, Statement statement, Exception exception) {
-    Object key = computeKey(host, statement, exception);
+  private Recorder getRecorder(Object key) {
     if (key == null) return null;
 
     Recorder recorder = recorders.get(key);
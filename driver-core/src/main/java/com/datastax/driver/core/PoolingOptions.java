@@ -134,6 +134,9 @@ public class PoolingOptions {
   /** The default value for {@link #getHeartbeatIntervalSeconds()} ({@value}). */
   public static final int DEFAULT_HEARTBEAT_INTERVAL_SECONDS = 30;
 
+  /** The default value for {@link #getConnectionInitConcurrency()} ({@value}, unbounded). */
+  public static final int DEFAULT_CONNECTION_INIT_CONCURRENCY = 0;
+
   private static final Executor DEFAULT_INITIALIZATION_EXECUTOR =
       GuavaCompatibility.INSTANCE.sameThreadExecutor();
 
@@ -157,6 +160,10 @@ public class PoolingOptions {
 
   private volatile Executor initializationExecutor = DEFAULT_INITIALIZATION_EXECUTOR;
 
+  private volatile int connectionInitConcurrency = DEFAULT_CONNECTION_INIT_CONCURRENCY;
+  private volatile boolean pipelineHandshake = false;
+  private volatile boolean sharedPools = false;
+
   public PoolingOptions() {}
 
   void register(Cluster.Manager manager) {
@@ -569,6 +576,104 @@ public class PoolingOptions {
     return this;
   }
 
+  /**
+   * Returns the maximum number of connections that a pool initializes at the same time.
+   *
+   * @return the maximum, or 0 if it is unbounded.
+   * @see #setConnectionInitConcurrency(int)
+   */
+  public int getConnectionInitConcurrency() {
+    return connectionInitConcurrency;
+  }
+
+  /**
+   * Sets the maximum number of connections that a pool initializes at the same time.
+   *
+   * <p>When a pool is created, it opens all its core connections (one or more per shard for Scylla
+   * nodes) in parallel. With many shards and many hosts, this can cause a burst of handshakes on
+   * both the client and the servers; this option bounds the number of connections that each pool
+   * initializes concurrently, the next one starting as soon as a previous one is ready.
+   *
+   * <p>The default value for this option is 0, which means unbounded.
+   *
+   * @param connectionInitConcurrency the new value, or 0 for unbounded.
+   * @return this {@code PoolingOptions}
+   * @throws IllegalArgumentException if the value is negative.
+   * @see Session#getReadyFuture(double)
+   */
+  public PoolingOptions setConnectionInitConcurrency(int connectionInitConcurrency) {
+    if (connectionInitConcurrency < 0)
+      throw new IllegalArgumentException("Connection init concurrency must be positive or 0");
+    this.connectionInitConcurrency = connectionInitConcurrency;
+    return this;
+  }
+
+  /**
+   * Returns whether pooled connections pipeline their protocol handshake.
+   *
+   * @return whether the handshake is pipelined.
+   * @see #setPipelineHandshake(boolean)
+   */
+  public boolean isPipelineHandshake() {
+    return pipelineHandshake;
+  }
+
+  /**
+   * Sets whether pooled connections pipeline their protocol handshake.
+   *
+   * <p>Initializing a connection normally takes several round trips: an {@code OPTIONS} request
+   * (that tells the driver which shard the connection belongs to), then a {@code STARTUP} request
+   * whose options depend on the response, then possibly authentication. Once a pool has opened its
+   * first connection to a host, the driver already knows the options that the host supports, so
+   * with this option enabled, the following connections send {@code OPTIONS} and {@code STARTUP}
+   * back to back, saving one round trip per connection.
+   *
+   * <p><b>This is an advanced option.</b> It is disabled by default.
+   *
+   * @param pipelineHandshake whether to pipeline the handshake.
+   * @return this {@code PoolingOptions}
+   */
+  public PoolingOptions setPipelineHandshake(boolean pipelineHandshake) {
+    this.pipelineHandshake = pipelineHandshake;
+    return this;
+  }
+
+  /**
+   * Returns whether the sessions of the cluster share their connection pools.
+   *
+   * @return whether connection pools are shared.
+   * @see #setSharedPools(boolean)
+   */
+  public boolean isSharedPools() {
+    return sharedPools;
+  }
+
+  /**
+   * Sets whether the sessions of the cluster share their connection pools.
+   *
+   * <p>By default, each session opens its own connections to each host (and, with Scylla, to each
+   * shard), and binds them to its keyspace with a {@code USE} query. An application that opens one
+   * session per keyspace or per tenant therefore multiplies its number of connections by its number
+   * of sessions. With this option enabled, all the sessions of the cluster borrow their connections
+   * from the same pools, so the number of connections only depends on the number of hosts and
+   * shards.
+   *
+   * <p>Shared connections are never bound to a keyspace: the keyspace passed to {@link
+   * Cluster#connect(String)} is only used as the session's {@link Session#getLoggedKeyspace()
+   * logged keyspace}. With protocol v5 or above, it is sent along with each request; with older
+   * versions, it is only used for routing purposes, so queries must use fully-qualified table
+   * names. In both cases, sessions reject {@code USE} queries.
+   *
+   * <p>This option must be set before the first session gets created. It is disabled by default.
+   *
+   * @param sharedPools whether to share connection pools between sessions.
+   * @return this {@code PoolingOptions}
+   */
+  public PoolingOptions setSharedPools(boolean sharedPools) {
+    this.sharedPools = sharedPools;
+    return this;
+  }
+
   synchronized void setProtocolVersion(ProtocolVersion actualVersion) {
     this.protocolVersion = actualVersion;
 
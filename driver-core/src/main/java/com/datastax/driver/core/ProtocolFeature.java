@@ -30,6 +30,12 @@ enum ProtocolFeature {
   /** The capability of assigning client-generated timestamps to write requests. */
   CLIENT_TIMESTAMPS,
 
+  /**
+   * The capability of sending the keyspace along with {@code QUERY}, {@code BATCH} and {@code
+   * PREPARE} requests, instead of binding the connection to it with a {@code USE} query.
+   */
+  KEYSPACE_ON_QUERY,
+
 //
 ;
 
@@ -47,6 +53,8 @@ enum ProtocolFeature {
         return version.compareTo(ProtocolVersion.V4) >= 0;
       case CLIENT_TIMESTAMPS:
         return version.compareTo(ProtocolVersion.V3) >= 0;
+      case KEYSPACE_ON_QUERY:
+        return version.compareTo(ProtocolVersion.V5) >= 0;
       default:
         return false;
     }
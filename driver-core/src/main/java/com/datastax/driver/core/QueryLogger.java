@@ -19,9 +19,15 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 import com.datastax.driver.core.querybuilder.BuiltStatement;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,6 +101,21 @@ import org.slf4j.LoggerFactory;
  * behavior), or using a {@link Builder#withDynamicThreshold(PercentileTracker, double) dynamic
  * threshold} based on latency percentiles.
  *
+ * <p><strong>Asynchronous logging</strong>
+ *
+ * <p>By default, the query logger formats its messages on the thread that completes the request,
+ * which is usually a Netty I/O thread. That is fine when few queries get logged, but when most
+ * queries are slow or failing (typically during an incident), formatting statements and their
+ * parameters adds to the latency of all requests. With {@link Builder#withAsyncLogging(int)}, the
+ * request path only adds an entry to a bounded lock-free buffer, and a dedicated thread formats and
+ * logs the messages; entries that do not fit in the buffer are dropped and counted (see {@link
+ * #getDroppedLogs()}). Note that in that mode, statements are formatted after their execution, so
+ * they must not be modified once executed.
+ *
+ * <p>Independently, {@link Builder#withMaxLogsPerSecond(int)} caps the number of messages logged
+ * per second; messages beyond that limit are skipped before being formatted (in asynchronous mode,
+ * before being buffered), and counted (see {@link #getThrottledLogs()}).
+ *
  * <p>This class is thread-safe.
  *
  * @since 2.0.10
@@ -131,6 +152,12 @@ public abstract class QueryLogger implements LatencyTracker {
    */
   public static final int DEFAULT_MAX_LOGGED_PARAMETERS = 50;
 
+  /**
+   * The default maximum number of messages that the driver logs per second, {@code -1} meaning that
+   * the number of messages is not limited.
+   */
+  public static final int DEFAULT_MAX_LOGS_PER_SECOND = -1;
+
   // Loggers
 
   /**
@@ -198,6 +225,12 @@ public abstract class QueryLogger implements LatencyTracker {
 
   @VisibleForTesting static final String FURTHER_PARAMS_OMITTED = " [further parameters omitted]";
 
+  private static final Logger logger = LoggerFactory.getLogger(QueryLogger.class);
+
+  // Set on the writer threads of asynchronous mode: their entries acquired a log permit before
+  // they were buffered
+  private static final ThreadLocal<Boolean> ON_WRITER_THREAD = new ThreadLocal<Boolean>();
+
   protected volatile Cluster cluster;
 
   private volatile ProtocolVersion protocolVersion;
@@ -208,15 +241,36 @@ public abstract class QueryLogger implements LatencyTracker {
 
   protected volatile int maxLoggedParameters;
 
+  protected volatile int maxLogsPerSecond;
+
+  // The capacity of the buffer of asynchronous mode, 0 if messages are logged synchronously
+  private final int asyncBufferCapacity;
+
+  // The writer started by the last registration, null if not registered or in synchronous mode
+  private final AtomicReference<AsyncWriter> asyncWriter = new AtomicReference<AsyncWriter>();
+
+  // The second of the current rate limiting window, and the number of messages logged in it
+  private final AtomicLong currentSecond = new AtomicLong();
+  private final AtomicInteger logsInCurrentSecond = new AtomicInteger();
+
+  private final AtomicLong droppedLogs = new AtomicLong();
+  private final AtomicLong throttledLogs = new AtomicLong();
+
   /**
    * Private constructor. Instances of QueryLogger should be obtained via the {@link #builder()}
    * method.
    */
   private QueryLogger(
-      int maxQueryStringLength, int maxParameterValueLength, int maxLoggedParameters) {
+      int maxQueryStringLength,
+      int maxParameterValueLength,
+      int maxLoggedParameters,
+      int maxLogsPerSecond,
+      int asyncBufferCapacity) {
     this.maxQueryStringLength = maxQueryStringLength;
     this.maxParameterValueLength = maxParameterValueLength;
     this.maxLoggedParameters = maxLoggedParameters;
+    this.maxLogsPerSecond = maxLogsPerSecond;
+    this.asyncBufferCapacity = asyncBufferCapacity;
   }
 
   /**
@@ -234,11 +288,26 @@ public abstract class QueryLogger implements LatencyTracker {
   @Override
   public void onRegister(Cluster cluster) {
     this.cluster = cluster;
+    if (asyncBufferCapacity > 0) {
+      AsyncWriter writer = new AsyncWriter(cluster, asyncBufferCapacity);
+      new ThreadFactoryBuilder()
+          .setNameFormat(cluster.getClusterName() + "-query-logger-%d")
+          .setDaemon(true)
+          .build()
+          .newThread(writer)
+          .start();
+      // if the logger was registered again, the previous writer flushes its entries and exits
+      AsyncWriter previous = asyncWriter.getAndSet(writer);
+      if (previous != null) previous.stop();
+    }
   }
 
   @Override
   public void onUnregister(Cluster cluster) {
-    // nothing to do
+    AsyncWriter writer = asyncWriter.get();
+    // only stop the writer of the registration with this cluster, not one started since
+    if (writer != null && writer.cluster == cluster && asyncWriter.compareAndSet(writer, null))
+      writer.stop();
   }
 
   /**
@@ -254,8 +323,15 @@ public abstract class QueryLogger implements LatencyTracker {
         int maxQueryStringLength,
         int maxParameterValueLength,
         int maxLoggedParameters,
+        int maxLogsPerSecond,
+        int asyncBufferCapacity,
         long slowQueryLatencyThresholdMillis) {
-      super(maxQueryStringLength, maxParameterValueLength, maxLoggedParameters);
+      super(
+          maxQueryStringLength,
+          maxParameterValueLength,
+          maxLoggedParameters,
+          maxLogsPerSecond,
+          asyncBufferCapacity);
       this.setSlowQueryLatencyThresholdMillis(slowQueryLatencyThresholdMillis);
     }
 
@@ -286,6 +362,11 @@ public abstract class QueryLogger implements LatencyTracker {
       this.slowQueryLatencyThresholdMillis = slowQueryLatencyThresholdMillis;
     }
 
+    @Override
+    boolean isSlow(Host host, Statement statement, long latencyMs) {
+      return latencyMs > slowQueryLatencyThresholdMillis;
+    }
+
     @Override
     protected void maybeLogNormalOrSlowQuery(Host host, Statement statement, long latencyMs) {
       if (latencyMs > slowQueryLatencyThresholdMillis) {
@@ -296,7 +377,7 @@ public abstract class QueryLogger implements LatencyTracker {
     }
 
     protected void maybeLogSlowQuery(Host host, Statement statement, long latencyMs) {
-      if (SLOW_LOGGER.isDebugEnabled()) {
+      if (SLOW_LOGGER.isDebugEnabled() && tryAcquireLogPermit()) {
         String message =
             String.format(
                 SLOW_TEMPLATE_MILLIS,
@@ -325,9 +406,16 @@ public abstract class QueryLogger implements LatencyTracker {
         int maxQueryStringLength,
         int maxParameterValueLength,
         int maxLoggedParameters,
+        int maxLogsPerSecond,
+        int asyncBufferCapacity,
         double slowQueryLatencyThresholdPercentile,
         PercentileTracker percentileLatencyTracker) {
-      super(maxQueryStringLength, maxParameterValueLength, maxLoggedParameters);
+      super(
+          maxQueryStringLength,
+          maxParameterValueLength,
+          maxLoggedParameters,
+          maxLogsPerSecond,
+          asyncBufferCapacity);
       this.setSlowQueryLatencyThresholdPercentile(slowQueryLatencyThresholdPercentile);
       this.setPercentileLatencyTracker(percentileLatencyTracker);
     }
@@ -383,6 +471,14 @@ public abstract class QueryLogger implements LatencyTracker {
       this.slowQueryLatencyThresholdPercentile = slowQueryLatencyThresholdPercentile;
     }
 
+    @Override
+    boolean isSlow(Host host, Statement statement, long latencyMs) {
+      long threshold =
+          percentileLatencyTracker.getLatencyAtPercentile(
+              host, statement, null, slowQueryLatencyThresholdPercentile);
+      return threshold >= 0 && latencyMs > threshold;
+    }
+
     @Override
     protected void maybeLogNormalOrSlowQuery(Host host, Statement statement, long latencyMs) {
       long threshold =
@@ -397,7 +493,7 @@ public abstract class QueryLogger implements LatencyTracker {
 
     protected void maybeLogSlowQuery(
         Host host, Statement statement, long latencyMs, long threshold) {
-      if (SLOW_LOGGER.isDebugEnabled()) {
+      if (SLOW_LOGGER.isDebugEnabled() && tryAcquireLogPermit()) {
         String message =
             String.format(
                 SLOW_TEMPLATE_PERCENTILE,
@@ -439,6 +535,10 @@ public abstract class QueryLogger implements LatencyTracker {
 
     private boolean constantThreshold = true;
 
+    private int maxLogsPerSecond = DEFAULT_MAX_LOGS_PER_SECOND;
+
+    private int asyncBufferCapacity = 0;
+
     /**
      * Enables slow query latency tracking based on constant thresholds.
      *
@@ -527,6 +627,41 @@ public abstract class QueryLogger implements LatencyTracker {
       return this;
     }
 
+    /**
+     * Set the maximum number of messages that the query logger logs per second. Messages beyond
+     * that limit are skipped, and counted by {@link QueryLogger#getThrottledLogs()}.
+     *
+     * <p>This is useful to bound the cost of logging when many queries are slow or failing at the
+     * same time. The default value is {@link #DEFAULT_MAX_LOGS_PER_SECOND}.
+     *
+     * @param maxLogsPerSecond the maximum number of messages logged per second. It must be strictly
+     *     positive or {@code -1}, in which case the number of messages is not limited.
+     * @return this {@link Builder} instance (for method chaining).
+     */
+    public Builder withMaxLogsPerSecond(int maxLogsPerSecond) {
+      this.maxLogsPerSecond = maxLogsPerSecond;
+      return this;
+    }
+
+    /**
+     * Enable asynchronous logging.
+     *
+     * <p>The threads that complete requests only add an entry to a bounded buffer, and a dedicated
+     * thread formats and logs the messages. When the buffer is full, new entries are dropped and
+     * counted by {@link QueryLogger#getDroppedLogs()}.
+     *
+     * @param bufferCapacity the capacity of the buffer (rounded up to the next power of two, and to
+     *     at least 2). It must be strictly positive.
+     * @return this {@link Builder} instance (for method chaining).
+     */
+    public Builder withAsyncLogging(int bufferCapacity) {
+      if (bufferCapacity <= 0)
+        throw new IllegalArgumentException(
+            "Invalid bufferCapacity, should be > 0, got " + bufferCapacity);
+      this.asyncBufferCapacity = bufferCapacity;
+      return this;
+    }
+
     /**
      * Build the {@link QueryLogger} instance.
      *
@@ -540,12 +675,16 @@ public abstract class QueryLogger implements LatencyTracker {
             maxQueryStringLength,
             maxParameterValueLength,
             maxLoggedParameters,
+            maxLogsPerSecond,
+            asyncBufferCapacity,
             slowQueryLatencyThresholdMillis);
       } else {
         return new DynamicThresholdQueryLogger(
             maxQueryStringLength,
             maxParameterValueLength,
             maxLoggedParameters,
+            maxLogsPerSecond,
+            asyncBufferCapacity,
             slowQueryLatencyThresholdPercentile,
             percentileLatencyTracker);
       }
@@ -639,6 +778,61 @@ public abstract class QueryLogger implements LatencyTracker {
     this.maxLoggedParameters = maxLoggedParameters;
   }
 
+  /**
+   * Return the maximum number of messages that the query logger logs per second. The default value
+   * is {@link #DEFAULT_MAX_LOGS_PER_SECOND}.
+   *
+   * @return the maximum number of messages logged per second, or {@code -1} if it is not limited.
+   */
+  public int getMaxLogsPerSecond() {
+    return maxLogsPerSecond;
+  }
+
+  /**
+   * Set the maximum number of messages that the query logger logs per second. Messages beyond that
+   * limit are skipped, and counted by {@link #getThrottledLogs()}.
+   *
+   * @param maxLogsPerSecond the maximum number of messages logged per second. It must be strictly
+   *     positive or {@code -1}, in which case the number of messages is not limited.
+   * @throws IllegalArgumentException if {@code maxLogsPerSecond <= 0 && maxLogsPerSecond != -1}.
+   */
+  public void setMaxLogsPerSecond(int maxLogsPerSecond) {
+    if (maxLogsPerSecond <= 0 && maxLogsPerSecond != -1)
+      throw new IllegalArgumentException(
+          "Invalid maxLogsPerSecond, should be > 0 or -1, got " + maxLogsPerSecond);
+    this.maxLogsPerSecond = maxLogsPerSecond;
+  }
+
+  /**
+   * Return whether this query logger formats and logs its messages on a dedicated thread.
+   *
+   * @return whether logging is asynchronous.
+   * @see Builder#withAsyncLogging(int)
+   */
+  public boolean isAsync() {
+    return asyncBufferCapacity > 0;
+  }
+
+  /**
+   * Return the number of messages that were dropped because the buffer of asynchronous logging was
+   * full.
+   *
+   * @return the number of dropped messages since this query logger was created.
+   */
+  public long getDroppedLogs() {
+    return droppedLogs.get();
+  }
+
+  /**
+   * Return the number of messages that were skipped because the {@link #getMaxLogsPerSecond()
+   * maximum number of messages per second} was reached.
+   *
+   * @return the number of skipped messages since this query logger was created.
+   */
+  public long getThrottledLogs() {
+    return throttledLogs.get();
+  }
+
   /** {@inheritDoc} */
   @Override
   public void update(Host host, Statement statement, Exception exception, long newLatencyNanos) {
@@ -649,6 +843,20 @@ public abstract class QueryLogger implements LatencyTracker {
     if (statement instanceof StatementWrapper)
       statement = ((StatementWrapper) statement).getWrappedStatement();
 
+    AsyncWriter writer = asyncWriter.get();
+    if (writer != null) {
+      // throttle before buffering, so that skipped messages don't take slots
+      if (isLoggable(host, statement, exception, newLatencyNanos) && tryAcquireLogPermit()) {
+        if (writer.buffer.offer(new LogEntry(host, statement, exception, newLatencyNanos)))
+          writer.signal();
+        else droppedLogs.incrementAndGet();
+      }
+      return;
+    }
+    log(host, statement, exception, newLatencyNanos);
+  }
+
+  private void log(Host host, Statement statement, Exception exception, long newLatencyNanos) {
     long latencyMs = NANOSECONDS.toMillis(newLatencyNanos);
     if (exception == null) {
       maybeLogNormalOrSlowQuery(host, statement, latencyMs);
@@ -659,8 +867,49 @@ public abstract class QueryLogger implements LatencyTracker {
 
   protected abstract void maybeLogNormalOrSlowQuery(Host host, Statement statement, long latencyMs);
 
+  /**
+   * Whether the given query is above the slow query threshold. Only used to filter the entries of
+   * asynchronous mode, {@link #maybeLogNormalOrSlowQuery(Host, Statement, long)} makes the final
+   * decision.
+   */
+  abstract boolean isSlow(Host host, Statement statement, long latencyMs);
+
+  /**
+   * Whether a request may get logged at all, so that asynchronous mode only buffers the requests
+   * that a logger is enabled for.
+   */
+  private boolean isLoggable(
+      Host host, Statement statement, Exception exception, long newLatencyNanos) {
+    if (exception != null)
+      return ERROR_LOGGER.isDebugEnabled()
+          && !(exception instanceof CancelledSpeculativeExecutionException);
+    boolean normal = NORMAL_LOGGER.isDebugEnabled();
+    boolean slow = SLOW_LOGGER.isDebugEnabled();
+    if (normal == slow) return normal;
+    return isSlow(host, statement, NANOSECONDS.toMillis(newLatencyNanos)) ? slow : normal;
+  }
+
+  /**
+   * Counts a message against the {@link #getMaxLogsPerSecond() limit of messages per second}.
+   *
+   * @return whether the message can be logged.
+   */
+  protected boolean tryAcquireLogPermit() {
+    if (ON_WRITER_THREAD.get() != null) return true;
+    int maxLogsPerSecond = this.maxLogsPerSecond;
+    if (maxLogsPerSecond == -1) return true;
+    long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+    long current = currentSecond.get();
+    // a message may slip into the previous window during the reset, that's good enough
+    if (second != current && currentSecond.compareAndSet(current, second))
+      logsInCurrentSecond.set(0);
+    if (logsInCurrentSecond.incrementAndGet() <= maxLogsPerSecond) return true;
+    throttledLogs.incrementAndGet();
+    return false;
+  }
+
   protected void maybeLogNormalQuery(Host host, Statement statement, long latencyMs) {
-    if (NORMAL_LOGGER.isDebugEnabled()) {
+    if (NORMAL_LOGGER.isDebugEnabled() && tryAcquireLogPermit()) {
       String message =
           String.format(
               NORMAL_TEMPLATE,
@@ -675,7 +924,8 @@ public abstract class QueryLogger implements LatencyTracker {
   protected void maybeLogErrorQuery(
       Host host, Statement statement, Exception exception, long latencyMs) {
     if (ERROR_LOGGER.isDebugEnabled()
-        && !(exception instanceof CancelledSpeculativeExecutionException)) {
+        && !(exception instanceof CancelledSpeculativeExecutionException)
+        && tryAcquireLogPermit()) {
       String message =
           String.format(
               ERROR_TEMPLATE,
@@ -967,4 +1217,75 @@ public abstract class QueryLogger implements LatencyTracker {
     }
     return remaining;
   }
+
+  private static class LogEntry {
+    final Host host;
+    final Statement statement;
+    final Exception exception;
+    final long latencyNanos;
+
+    LogEntry(Host host, Statement statement, Exception exception, long latencyNanos) {
+      this.host = host;
+      this.statement = statement;
+      this.exception = exception;
+      this.latencyNanos = latencyNanos;
+    }
+  }
+
+  /** Formats and logs the entries of the buffer of asynchronous mode, on a dedicated thread. */
+  private class AsyncWriter implements Runnable {
+
+    final Cluster cluster;
+    final BoundedRingBuffer<LogEntry> buffer;
+    private volatile boolean running = true;
+    private volatile Thread thread;
+    // whether the thread is parked (or about to be) until producers add an entry
+    private volatile boolean waiting;
+
+    AsyncWriter(Cluster cluster, int bufferCapacity) {
+      this.cluster = cluster;
+      this.buffer = new BoundedRingBuffer<LogEntry>(bufferCapacity);
+    }
+
+    @Override
+    public void run() {
+      thread = Thread.currentThread();
+      ON_WRITER_THREAD.set(Boolean.TRUE);
+      while (running) {
+        if (drain()) continue;
+        waiting = true;
+        // an entry offered before the flag was visible doesn't wake this thread up, check again
+        if (!drain() && running) LockSupport.park(this);
+        waiting = false;
+      }
+      // log what was buffered before the logger was unregistered
+      drain();
+    }
+
+    /** @return whether there was anything to log. */
+    private boolean drain() {
+      boolean logged = false;
+      LogEntry entry;
+      while ((entry = buffer.poll()) != null) {
+        logged = true;
+        try {
+          log(entry.host, entry.statement, entry.exception, entry.latencyNanos);
+        } catch (RuntimeException e) {
+          logger.warn("Unexpected error while logging query", e);
+        }
+      }
+      return logged;
+    }
+
+    /** Wakes the thread up after an entry was added, if it is waiting for one. */
+    void signal() {
+      if (waiting) LockSupport.unpark(thread);
+    }
+
+    void stop() {
+      running = false;
+      Thread thread = this.thread;
+      if (thread != null) LockSupport.unpark(thread);
+    }
+  }
 }
@@ -36,6 +36,43 @@ public class QueryOptions {
   /** The default value for {@link #getDefaultIdempotence()}: {@code false}. */
   public static final boolean DEFAULT_IDEMPOTENCE = false;
 
+  /** The default value for {@link #getAutoPrepareThreshold()}: 0 (disabled). */
+  public static final int DEFAULT_AUTO_PREPARE_THRESHOLD = 0;
+
+  /** The default value for {@link #getAutoPrepareCacheSize()}: 1000. */
+  public static final int DEFAULT_AUTO_PREPARE_CACHE_SIZE = 1000;
+
+  /** The default value for {@link #getNearCacheSize()}: 0 (disabled). */
+  public static final int DEFAULT_NEAR_CACHE_SIZE = 0;
+
+  /** The default value for {@link #isCoalesceReads()}: {@code false}. */
+  public static final boolean DEFAULT_COALESCE_READS = false;
+
+  /** The default value for {@link #getLwtRoutingMode()}: {@link LwtRoutingMode#PRIMARY_REPLICA}. */
+  public static final LwtRoutingMode DEFAULT_LWT_ROUTING_MODE = LwtRoutingMode.PRIMARY_REPLICA;
+
+  /** The default value for {@link #isLwtSpeculativeExecutionEnabled()}: {@code false}. */
+  public static final boolean DEFAULT_LWT_SPECULATIVE_EXECUTION = false;
+
+  /** The default value for {@link #getRequestTimeoutMillis()}: 0 (no overall timeout). */
+  public static final int DEFAULT_REQUEST_TIMEOUT_MILLIS = 0;
+
+  /**
+   * How lightweight transactions (statements for which {@link Statement#isLWT()} returns {@code
+   * true}) are routed.
+   *
+   * @see #setLwtRoutingMode(LwtRoutingMode)
+   */
+  public enum LwtRoutingMode {
+    /** Route LWTs like any other statement, with the load balancing policy. */
+    REGULAR,
+    /**
+     * Send LWTs to the replicas of their partition in ring order, starting with the primary
+     * replica, and to the shard that owns the partition on each replica.
+     */
+    PRIMARY_REPLICA
+  }
+
   public static final int DEFAULT_MAX_PENDING_REFRESH_NODE_LIST_REQUESTS = 20;
 
   public static final int DEFAULT_MAX_PENDING_REFRESH_NODE_REQUESTS = 20;
@@ -69,6 +106,13 @@ public class QueryOptions {
   private volatile boolean reprepareOnUp = true;
   private volatile Cluster.Manager manager;
   private volatile boolean prepareOnAllHosts = true;
+  private volatile int autoPrepareThreshold = DEFAULT_AUTO_PREPARE_THRESHOLD;
+  private volatile int autoPrepareCacheSize = DEFAULT_AUTO_PREPARE_CACHE_SIZE;
+  private volatile int nearCacheSize = DEFAULT_NEAR_CACHE_SIZE;
+  private volatile boolean coalesceReads = DEFAULT_COALESCE_READS;
+  private volatile LwtRoutingMode lwtRoutingMode = DEFAULT_LWT_ROUTING_MODE;
+  private volatile boolean lwtSpeculativeExecution = DEFAULT_LWT_SPECULATIVE_EXECUTION;
+  private volatile int requestTimeoutMillis = DEFAULT_REQUEST_TIMEOUT_MILLIS;
 
   /**
    * Creates a new {@link QueryOptions} instance using the {@link #DEFAULT_CONSISTENCY_LEVEL},
@@ -230,6 +274,260 @@ public class QueryOptions {
     return this.prepareOnAllHosts;
   }
 
+  /**
+   * Sets the number of executions after which a {@link SimpleStatement} or {@link
+   * com.datastax.driver.core.querybuilder.BuiltStatement BuiltStatement} gets prepared
+   * transparently.
+   *
+   * <p>When this option is enabled, sessions count the executions of each distinct query string (in
+   * a given keyspace). Once a query string has been executed that many times, it is prepared in the
+   * background, and subsequent executions of statements with that query string are sent as {@link
+   * BoundStatement}s: the server does not parse the query again, and the driver can compute the
+   * routing key from the prepared metadata, which makes token-aware routing work without code
+   * changes.
+   *
+   * <p>This only applies to statements with positional values (or no values at all). If preparing a
+   * query fails, it keeps being executed as a regular statement. Note that {@link
+   * ExecutionInfo#getStatement()} returns the bound statement for auto-prepared executions.
+   *
+   * <p>The option is disabled by default. It is read on each execution, so it can be changed at
+   * runtime.
+   *
+   * @param autoPrepareThreshold the number of executions after which a query gets prepared, or 0 to
+   *     disable automatic preparation.
+   * @return this {@code QueryOptions} instance.
+   * @throws IllegalArgumentException if {@code autoPrepareThreshold < 0}.
+   * @see #setAutoPrepareCacheSize(int)
+   */
+  public QueryOptions setAutoPrepareThreshold(int autoPrepareThreshold) {
+    if (autoPrepareThreshold < 0)
+      throw new IllegalArgumentException(
+          "Invalid auto-prepare threshold, should be >= 0, got " + autoPrepareThreshold);
+    this.autoPrepareThreshold = autoPrepareThreshold;
+    return this;
+  }
+
+  /**
+   * Returns the number of executions after which a regular statement gets prepared transparently.
+   *
+   * @return the value, or 0 if automatic preparation is disabled.
+   * @see #setAutoPrepareThreshold(int)
+   */
+  public int getAutoPrepareThreshold() {
+    return autoPrepareThreshold;
+  }
+
+  /**
+   * Sets the maximum number of query strings that each session tracks for automatic preparation.
+   *
+   * <p>When the limit is reached, the least recently used query strings are evicted, and will have
+   * to reach the {@link #setAutoPrepareThreshold(int) threshold} again to be prepared (this is
+   * cheap, the server still has them in its cache).
+   *
+   * <p>This option is read when a session is created, changing it has no effect on existing
+   * sessions.
+   *
+   * @param autoPrepareCacheSize the maximum number of tracked query strings.
+   * @return this {@code QueryOptions} instance.
+   * @throws IllegalArgumentException if {@code autoPrepareCacheSize <= 0}.
+   */
+  public QueryOptions setAutoPrepareCacheSize(int autoPrepareCacheSize) {
+    if (autoPrepareCacheSize <= 0)
+      throw new IllegalArgumentException(
+          "Invalid auto-prepare cache size, should be > 0, got " + autoPrepareCacheSize);
+    this.autoPrepareCacheSize = autoPrepareCacheSize;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of query strings that each session tracks for automatic preparation.
+   *
+   * @return the value.
+   * @see #setAutoPrepareCacheSize(int)
+   */
+  public int getAutoPrepareCacheSize() {
+    return autoPrepareCacheSize;
+  }
+
+  /**
+   * Sets the maximum number of results that each session keeps in its near cache.
+   *
+   * <p>The near cache serves repeated reads of rarely-changing rows without contacting the cluster.
+   * Only {@link BoundStatement}s of {@code SELECT} queries that are {@linkplain
+   * Statement#isIdempotent() idempotent} and have a {@linkplain
+   * Statement#setNearCacheTtlMillis(long) near cache TTL} are cached, keyed by their prepared
+   * statement, bound values and the options that can change their result, such as the consistency
+   * levels, the target host or the workload class; results that span several pages are never
+   * cached. Concurrent executions of the same cacheable read are coalesced into a single request.
+   *
+   * <p>When the limit is reached, the least recently used results are evicted. Hits and misses are
+   * reported by {@link Metrics#getNearCacheHits()} and {@link Metrics#getNearCacheMisses()}.
+   *
+   * <p>The near cache is disabled by default. This option is read when a session is created,
+   * changing it has no effect on existing sessions.
+   *
+   * @param nearCacheSize the maximum number of cached results, or 0 to disable the near cache.
+   * @return this {@code QueryOptions} instance.
+   * @throws IllegalArgumentException if {@code nearCacheSize < 0}.
+   */
+  public QueryOptions setNearCacheSize(int nearCacheSize) {
+    if (nearCacheSize < 0)
+      throw new IllegalArgumentException(
+          "Invalid near cache size, should be >= 0, got " + nearCacheSize);
+    this.nearCacheSize = nearCacheSize;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of results that each session keeps in its near cache.
+   *
+   * @return the value, or 0 if the near cache is disabled.
+   * @see #setNearCacheSize(int)
+   */
+  public int getNearCacheSize() {
+    return nearCacheSize;
+  }
+
+  /**
+   * Sets whether sessions coalesce concurrent executions of identical reads.
+   *
+   * <p>When this option is enabled, an execution of a {@link BoundStatement} of a {@code SELECT}
+   * query that is {@linkplain Statement#isIdempotent() idempotent} does not send a request if an
+   * execution of the same prepared statement with the same values is already in flight: it waits
+   * for the result of that execution instead. This reduces the load on hot partitions when many
+   * threads issue the same read at the same time. Each execution gets its own copy of the result;
+   * if the result spans several pages, the waiting executions send their own request after all.
+   *
+   * <p>Executions are only coalesced if they also have the same consistency level, serial
+   * consistency level, read timeout, request timeout, retry policy, {@linkplain
+   * Statement#setHost(Host) target host} and {@linkplain Statement#setWorkloadClass(String)
+   * workload class}. Traced executions and executions with a {@linkplain
+   * Statement#setOutgoingPayload(java.util.Map) custom payload} are never coalesced.
+   *
+   * <p>Note that the coalesced executions share the outcome of the first one, including its errors,
+   * and that cancelling the first execution does not cancel its request. Coalesced executions are
+   * counted by {@link Metrics#getCoalescedRequests()}. Reads that are served by the {@linkplain
+   * #setNearCacheSize(int) near cache} are always coalesced.
+   *
+   * <p>The option is disabled by default. It is read on each execution, so it can be changed at
+   * runtime.
+   *
+   * @param coalesceReads whether to coalesce identical reads.
+   * @return this {@code QueryOptions} instance.
+   */
+  public QueryOptions setCoalesceReads(boolean coalesceReads) {
+    this.coalesceReads = coalesceReads;
+    return this;
+  }
+
+  /**
+   * Returns whether sessions coalesce concurrent executions of identical reads.
+   *
+   * @return the value.
+   * @see #setCoalesceReads(boolean)
+   */
+  public boolean isCoalesceReads() {
+    return coalesceReads;
+  }
+
+  /**
+   * Sets how lightweight transactions are routed.
+   *
+   * <p>The Paxos rounds of concurrent LWTs on the same partition contend with each other if they
+   * are coordinated by different nodes. With {@link LwtRoutingMode#PRIMARY_REPLICA} (the default),
+   * every client sends the LWTs on a given partition to the same coordinator: the first replica of
+   * the partition in ring order that the load balancing policy does not ignore, then the next ones
+   * in the same order if it fails, and finally the other hosts of the load balancing policy's query
+   * plan. On each replica, the request goes to a connection of the shard that owns the partition;
+   * if that shard has no connection yet, the next shards are tried in order.
+   *
+   * <p>This only applies to statements that have a routing key and a keyspace; the others are
+   * routed with the load balancing policy.
+   *
+   * @param lwtRoutingMode the routing mode.
+   * @return this {@code QueryOptions} instance.
+   * @see #setLwtSpeculativeExecutionEnabled(boolean)
+   */
+  public QueryOptions setLwtRoutingMode(LwtRoutingMode lwtRoutingMode) {
+    if (lwtRoutingMode == null) throw new NullPointerException("lwtRoutingMode cannot be null");
+    this.lwtRoutingMode = lwtRoutingMode;
+    return this;
+  }
+
+  /**
+   * Returns how lightweight transactions are routed.
+   *
+   * @return the routing mode.
+   * @see #setLwtRoutingMode(LwtRoutingMode)
+   */
+  public LwtRoutingMode getLwtRoutingMode() {
+    return lwtRoutingMode;
+  }
+
+  /**
+   * Sets whether speculative executions are allowed for lightweight transactions.
+   *
+   * <p>A speculative execution of an LWT is sent to another coordinator while the first one is
+   * still running its Paxos round, so the two compete for the same partition. For that reason, they
+   * are disabled by default, even for idempotent statements.
+   *
+   * @param enabled whether to allow speculative executions for LWTs.
+   * @return this {@code QueryOptions} instance.
+   */
+  public QueryOptions setLwtSpeculativeExecutionEnabled(boolean enabled) {
+    this.lwtSpeculativeExecution = enabled;
+    return this;
+  }
+
+  /**
+   * Returns whether speculative executions are allowed for lightweight transactions.
+   *
+   * @return whether they are allowed.
+   * @see #setLwtSpeculativeExecutionEnabled(boolean)
+   */
+  public boolean isLwtSpeculativeExecutionEnabled() {
+    return lwtSpeculativeExecution;
+  }
+
+  /**
+   * Sets the default overall timeout of requests, retries and speculative executions included.
+   *
+   * <p>{@link SocketOptions#setReadTimeoutMillis(int) The read timeout} applies to each attempt, so
+   * a request that gets retried, or that triggers speculative executions, can run for much longer.
+   * Once this timeout has elapsed since a request was sent, the driver fails it with a {@link
+   * com.datastax.driver.core.exceptions.DeadlineExceededException}, cancels its outstanding
+   * executions (which frees their connections and stream ids), and stops retrying it. Speculative
+   * executions that would only start after the deadline are not scheduled, and retries that would
+   * not get a response before the deadline are not sent: the driver assumes that a retry takes as
+   * long as the attempt that failed (but no longer than the read timeout), and if the deadline
+   * comes first, fails the request with a {@code DeadlineExceededException} right away.
+   *
+   * <p>With paging, each page is a separate request with its own deadline.
+   *
+   * <p>This can be overridden for individual statements with {@link
+   * Statement#setRequestTimeoutMillis(int)}.
+   *
+   * @param requestTimeoutMillis the timeout, or 0 to disable it (the default).
+   * @return this {@code QueryOptions} instance.
+   * @throws IllegalArgumentException if the value is negative.
+   */
+  public QueryOptions setRequestTimeoutMillis(int requestTimeoutMillis) {
+    if (requestTimeoutMillis < 0)
+      throw new IllegalArgumentException("Request timeout must be positive or 0");
+    this.requestTimeoutMillis = requestTimeoutMillis;
+    return this;
+  }
+
+  /**
+   * Returns the default overall timeout of requests.
+   *
+   * @return the timeout, or 0 if it is disabled.
+   * @see #setRequestTimeoutMillis(int)
+   */
+  public int getRequestTimeoutMillis() {
+    return requestTimeoutMillis;
+  }
+
   /**
    * Set whether the driver should re-prepare all cached prepared statements on a host when it marks
    * it back up.
@@ -497,7 +795,14 @@ public class QueryOptions {
         && this.refreshNodeIntervalMillis == other.refreshNodeIntervalMillis
         && this.refreshSchemaIntervalMillis == other.refreshSchemaIntervalMillis
         && this.reprepareOnUp == other.reprepareOnUp
-        && this.prepareOnAllHosts == other.prepareOnAllHosts);
+        && this.prepareOnAllHosts == other.prepareOnAllHosts
+        && this.autoPrepareThreshold == other.autoPrepareThreshold
+        && this.autoPrepareCacheSize == other.autoPrepareCacheSize
+        && this.nearCacheSize == other.nearCacheSize
+        && this.coalesceReads == other.coalesceReads
+        && this.lwtRoutingMode == other.lwtRoutingMode
+        && this.lwtSpeculativeExecution == other.lwtSpeculativeExecution
+        && this.requestTimeoutMillis == other.requestTimeoutMillis);
   }
 
   @Override
@@ -515,7 +820,14 @@ public class QueryOptions {
         refreshNodeIntervalMillis,
         refreshSchemaIntervalMillis,
         reprepareOnUp,
-        prepareOnAllHosts);
+        prepareOnAllHosts,
+        autoPrepareThreshold,
+        autoPrepareCacheSize,
+        nearCacheSize,
+        coalesceReads,
+        lwtRoutingMode,
+        lwtSpeculativeExecution,
+        requestTimeoutMillis);
   }
 
   public boolean isConsistencySet() {
@@ -24,6 +24,11 @@ import javax.net.ssl.SSLEngine;
 /**
  * {@link RemoteEndpointAwareSSLOptions} implementation based on built-in JDK classes.
  *
+ * <p>All the connections opened with an instance share its {@link SSLContext}, and therefore its
+ * client session cache: engines are created with the address and port of the remote endpoint
+ * (which, for connections to the shard-aware port, is that port), so that reconnecting to the same
+ * node and port can resume a previous session instead of performing a full handshake.
+ *
  * @see <a href="https://datastax-oss.atlassian.net/browse/JAVA-1364">JAVA-1364</a>
  * @since 3.2.0
  */
@@ -26,6 +26,11 @@ import java.net.InetSocketAddress;
  * <p>Netty has the ability to use OpenSSL if available, instead of the JDK's built-in engine. This
  * yields better performance.
  *
+ * <p>The context should be built once and shared: all the connections opened with an instance use
+ * it, and handlers are created with the address and port of the remote endpoint (which, for
+ * connections to the shard-aware port, is that port), so that the providers that cache client
+ * sessions can resume them.
+ *
  * @see <a href="https://datastax-oss.atlassian.net/browse/JAVA-1364">JAVA-1364</a>
  * @since 3.2.0
  */
@@ -15,16 +15,22 @@
  */
 package com.datastax.driver.core;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,6 +76,15 @@ abstract class ReplicationStrategy {
   abstract Map<Token, Set<Host>> computeTokenToReplicaMap(
       String keyspaceName, Map<Token, Host> tokenToPrimary, List<Token> ring);
 
+  /**
+   * Same as {@link #computeTokenToReplicaMap(String, Map, List)}, but strategies may use the given
+   * executor (if not null) to split the work on large rings.
+   */
+  Map<Token, Set<Host>> computeTokenToReplicaMap(
+      String keyspaceName, Map<Token, Host> tokenToPrimary, List<Token> ring, Executor executor) {
+    return computeTokenToReplicaMap(keyspaceName, tokenToPrimary, ring);
+  }
+
   private static Token getTokenWrapping(int i, List<Token> ring) {
     return ring.get(i % ring.size());
   }
@@ -118,6 +133,10 @@ abstract class ReplicationStrategy {
   static class NetworkTopologyStrategy extends ReplicationStrategy {
     private static final Logger logger = LoggerFactory.getLogger(NetworkTopologyStrategy.class);
 
+    // Rings smaller than this are computed on the calling thread, which is fast enough
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int CHUNK_SIZE = 512;
+
     private final Map<String, ReplicationFactor> replicationFactors;
 
     private NetworkTopologyStrategy(Map<String, ReplicationFactor> replicationFactors) {
@@ -127,126 +146,351 @@ abstract class ReplicationStrategy {
     @Override
     Map<Token, Set<Host>> computeTokenToReplicaMap(
         String keyspaceName, Map<Token, Host> tokenToPrimary, List<Token> ring) {
+      return computeTokenToReplicaMap(keyspaceName, tokenToPrimary, ring, null);
+    }
+
+    @Override
+    Map<Token, Set<Host>> computeTokenToReplicaMap(
+        String keyspaceName, Map<Token, Host> tokenToPrimary, List<Token> ring, Executor executor) {
+      return computeTokenToReplicaMap(
+          keyspaceName, tokenToPrimary, ring, executor, Runtime.getRuntime().availableProcessors());
+    }
+
+    @VisibleForTesting
+    Map<Token, Set<Host>> computeTokenToReplicaMap(
+        String keyspaceName,
+        Map<Token, Host> tokenToPrimary,
+        List<Token> ring,
+        Executor executor,
+        int parallelism) {
 
       logger.debug("Computing token to replica map for keyspace: {}.", keyspaceName);
 
       // Track how long it takes to compute the token to replica map
       long startTime = System.currentTimeMillis();
 
-      // This is essentially a copy of org.apache.cassandra.locator.NetworkTopologyStrategy
-      Map<String, Set<String>> racks = getRacksInDcs(tokenToPrimary.values());
-      Map<Token, Set<Host>> replicaMap = new HashMap<Token, Set<Host>>(tokenToPrimary.size());
-      Map<String, Integer> dcHostCount = Maps.newHashMapWithExpectedSize(replicationFactors.size());
-      Set<String> warnedDcs = Sets.newHashSetWithExpectedSize(replicationFactors.size());
-      // find maximum number of nodes in each DC
-      for (Host host : Sets.newHashSet(tokenToPrimary.values())) {
-        String dc = host.getDatacenter();
-        if (dcHostCount.get(dc) == null) {
-          dcHostCount.put(dc, 0);
+      // This is essentially a copy of org.apache.cassandra.locator.NetworkTopologyStrategy, except
+      // that hosts, DCs and racks are replaced by indexes so that walking the ring does not
+      // allocate
+      Layout layout = new Layout(tokenToPrimary, ring);
+      int[][] replicas = new int[ring.size()][];
+      int[] achievedFactors = new int[layout.dcCount];
+      Arrays.fill(achievedFactors, Integer.MAX_VALUE);
+
+      int chunks = (ring.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+      int helpers = Math.min(chunks, parallelism) - 1;
+      if (executor == null || ring.size() < PARALLEL_THRESHOLD || helpers <= 0) {
+        Walker walker = new Walker(layout);
+        for (int i = 0; i < ring.size(); i++) replicas[i] = walker.replicasFor(i);
+        walker.mergeAchievedFactors(achievedFactors);
+      } else {
+        new ParallelComputation(layout, replicas, chunks).run(executor, helpers, achievedFactors);
+      }
+
+      // If we haven't found enough replicas after a whole trip around the ring, this probably
+      // means that the replication factors are broken.
+      // Warn the user because that leads to quadratic performance of this method (JAVA-702).
+      for (int dc = 0; dc < layout.dcCount; dc++) {
+        if (achievedFactors[dc] < layout.dcFactors[dc]) {
+          logger.warn(
+              "Error while computing token map for keyspace {} with datacenter {}: "
+                  + "could not achieve replication factor {} (found {} replicas only), "
+                  + "check your keyspace replication settings.",
+              keyspaceName,
+              layout.dcs[dc],
+              layout.dcFactors[dc],
+              achievedFactors[dc]);
         }
-        dcHostCount.put(dc, dcHostCount.get(dc) + 1);
       }
+
+      // Most tokens share one of a few replica combinations: store each combination once
+      Map<ReplicaKey, Set<Host>> interned = new HashMap<ReplicaKey, Set<Host>>();
+      Map<Token, Set<Host>> replicaMap = new HashMap<Token, Set<Host>>(tokenToPrimary.size());
       for (int i = 0; i < ring.size(); i++) {
-        Map<String, Set<Host>> allDcReplicas = new HashMap<String, Set<Host>>();
-        Map<String, Set<String>> seenRacks = new HashMap<String, Set<String>>();
-        Map<String, Set<Host>> skippedDcEndpoints = new HashMap<String, Set<Host>>();
-        for (String dc : replicationFactors.keySet()) {
-          allDcReplicas.put(dc, new HashSet<Host>());
-          seenRacks.put(dc, new HashSet<String>());
-          skippedDcEndpoints.put(dc, new LinkedHashSet<Host>()); // preserve order
+        ReplicaKey key = new ReplicaKey(replicas[i]);
+        Set<Host> hosts = interned.get(key);
+        if (hosts == null) {
+          ImmutableSet.Builder<Host> builder = ImmutableSet.builder();
+          for (int host : replicas[i]) builder.add(layout.hosts[host]);
+          hosts = builder.build();
+          interned.put(key, hosts);
         }
+        replicaMap.put(ring.get(i), hosts);
+      }
 
-        // Preserve order - primary replica will be first
-        Set<Host> replicas = new LinkedHashSet<Host>();
-        for (int j = 0; j < ring.size() && !allDone(allDcReplicas, dcHostCount); j++) {
-          Host h = tokenToPrimary.get(getTokenWrapping(i + j, ring));
-          String dc = h.getDatacenter();
-          if (dc == null || !allDcReplicas.containsKey(dc)) continue;
+      long duration = System.currentTimeMillis() - startTime;
+      logger.debug(
+          "Token to replica map computation for keyspace {} completed in {} milliseconds "
+              + "({} tokens, {} distinct replica sets)",
+          keyspaceName,
+          duration,
+          ring.size(),
+          interned.size());
 
-          Integer rf = replicationFactors.get(dc).fullReplicas();
-          Set<Host> dcReplicas = allDcReplicas.get(dc);
-          if (rf == null || dcReplicas.size() >= rf) continue;
+      return replicaMap;
+    }
 
-          String rack = h.getRack();
-          // Check if we already visited all racks in dc
-          if (rack == null || seenRacks.get(dc).size() == racks.get(dc).size()) {
-            replicas.add(h);
-            dcReplicas.add(h);
+    /** The ring, with hosts, DCs and racks replaced by indexes. */
+    private class Layout {
+      final int ringSize;
+      // the index of the primary host of each token of the ring
+      final int[] primaries;
+      final Host[] hosts;
+      // for each host, the index of its DC, or -1 if it is not replicated to
+      final int[] hostDcs;
+      // for each host, the index of its rack (unique across DCs), or -1 if it has none
+      final int[] hostRacks;
+      final int rackCount;
+
+      final int dcCount;
+      final String[] dcs;
+      final int[] dcFactors;
+      // the number of replicas that can actually be found in each DC
+      final int[] dcTargets;
+      // the number of distinct racks in each DC, including the null rack
+      final int[] dcRackCounts;
+
+      Layout(Map<Token, Host> tokenToPrimary, List<Token> ring) {
+        ringSize = ring.size();
+        dcCount = replicationFactors.size();
+        dcs = new String[dcCount];
+        dcFactors = new int[dcCount];
+        Map<String, Integer> dcIndexes = Maps.newHashMapWithExpectedSize(dcCount);
+        for (Map.Entry<String, ReplicationFactor> entry : replicationFactors.entrySet()) {
+          int dc = dcIndexes.size();
+          dcIndexes.put(entry.getKey(), dc);
+          dcs[dc] = entry.getKey();
+          dcFactors[dc] = entry.getValue().fullReplicas();
+        }
+
+        Map<Host, Integer> hostIndexes = new HashMap<Host, Integer>();
+        primaries = new int[ringSize];
+        for (int i = 0; i < ringSize; i++) {
+          Host host = tokenToPrimary.get(ring.get(i));
+          Integer index = hostIndexes.get(host);
+          if (index == null) {
+            index = hostIndexes.size();
+            hostIndexes.put(host, index);
+          }
+          primaries[i] = index;
+        }
+
+        hosts = new Host[hostIndexes.size()];
+        hostDcs = new int[hosts.length];
+        hostRacks = new int[hosts.length];
+        int[] dcHostCounts = new int[dcCount];
+        dcRackCounts = new int[dcCount];
+        Map<String, Set<String>> racksInDcs = new HashMap<String, Set<String>>();
+        Map<String, Integer> rackIndexes = new HashMap<String, Integer>();
+        for (Map.Entry<Host, Integer> entry : hostIndexes.entrySet()) {
+          Host host = entry.getKey();
+          int index = entry.getValue();
+          hosts[index] = host;
+          Integer dc = host.getDatacenter() == null ? null : dcIndexes.get(host.getDatacenter());
+          hostDcs[index] = dc == null ? -1 : dc;
+          if (dc != null) {
+            dcHostCounts[dc] += 1;
+            Set<String> racks = racksInDcs.get(dcs[dc]);
+            if (racks == null) {
+              racks = new HashSet<String>();
+              racksInDcs.put(dcs[dc], racks);
+            }
+            if (racks.add(host.getRack())) dcRackCounts[dc] += 1;
+          }
+          String rack = host.getRack();
+          if (rack == null || dc == null) {
+            hostRacks[index] = -1;
           } else {
-            // Is this a new rack?
-            if (seenRacks.get(dc).contains(rack)) {
-              skippedDcEndpoints.get(dc).add(h);
-            } else {
-              replicas.add(h);
-              dcReplicas.add(h);
-              seenRacks.get(dc).add(rack);
-              // If we've run out of distinct racks, add the nodes skipped so far
-              if (seenRacks.get(dc).size() == racks.get(dc).size()) {
-                Iterator<Host> skippedIt = skippedDcEndpoints.get(dc).iterator();
-                while (skippedIt.hasNext() && dcReplicas.size() < rf) {
-                  Host nextSkipped = skippedIt.next();
-                  replicas.add(nextSkipped);
-                  dcReplicas.add(nextSkipped);
-                }
-              }
+            // racks with the same name in different DCs are different racks
+            String key = dcs[dc] + '\u0000' + rack;
+            Integer rackIndex = rackIndexes.get(key);
+            if (rackIndex == null) {
+              rackIndex = rackIndexes.size();
+              rackIndexes.put(key, rackIndex);
             }
+            hostRacks[index] = rackIndex;
           }
         }
+        rackCount = rackIndexes.size();
 
-        // If we haven't found enough replicas after a whole trip around the ring, this probably
-        // means that the replication factors are broken.
-        // Warn the user because that leads to quadratic performance of this method (JAVA-702).
-        for (Map.Entry<String, Set<Host>> entry : allDcReplicas.entrySet()) {
-          String dcName = entry.getKey();
-          int expectedFactor = replicationFactors.get(dcName).fullReplicas();
-          int achievedFactor = entry.getValue().size();
-          if (achievedFactor < expectedFactor && !warnedDcs.contains(dcName)) {
-            logger.warn(
-                "Error while computing token map for keyspace {} with datacenter {}: "
-                    + "could not achieve replication factor {} (found {} replicas only), "
-                    + "check your keyspace replication settings.",
-                keyspaceName,
-                dcName,
-                expectedFactor,
-                achievedFactor);
-            // only warn once per DC
-            warnedDcs.add(dcName);
+        dcTargets = new int[dcCount];
+        for (int dc = 0; dc < dcCount; dc++)
+          dcTargets[dc] = Math.min(dcFactors[dc], dcHostCounts[dc]);
+      }
+    }
+
+    /**
+     * Walks the ring to find the replicas of tokens. The scratch state is reset between tokens by
+     * bumping an epoch rather than clearing arrays; instances are not thread-safe.
+     */
+    private static class Walker {
+      private final Layout layout;
+      private final int[] dcReplicaCounts;
+      private final int[] dcSeenRackCounts;
+      private final int[][] dcSkipped;
+      private final int[] dcSkippedCounts;
+      private final int[] hostAdded;
+      private final int[] hostSkipped;
+      private final int[] rackSeen;
+      private final int[] buffer;
+      private final int[] achievedFactors;
+      private int epoch;
+
+      Walker(Layout layout) {
+        this.layout = layout;
+        dcReplicaCounts = new int[layout.dcCount];
+        dcSeenRackCounts = new int[layout.dcCount];
+        dcSkipped = new int[layout.dcCount][layout.hosts.length];
+        dcSkippedCounts = new int[layout.dcCount];
+        hostAdded = new int[layout.hosts.length];
+        hostSkipped = new int[layout.hosts.length];
+        rackSeen = new int[layout.rackCount];
+        buffer = new int[layout.hosts.length];
+        achievedFactors = new int[layout.dcCount];
+        Arrays.fill(achievedFactors, Integer.MAX_VALUE);
+      }
+
+      /** Returns the indexes of the replicas of the i-th token, primary replica first. */
+      int[] replicasFor(int i) {
+        epoch += 1;
+        Arrays.fill(dcReplicaCounts, 0);
+        Arrays.fill(dcSeenRackCounts, 0);
+        Arrays.fill(dcSkippedCounts, 0);
+        int pendingDcs = 0;
+        for (int dc = 0; dc < layout.dcCount; dc++) if (layout.dcTargets[dc] > 0) pendingDcs += 1;
+
+        int count = 0;
+        for (int j = 0; j < layout.ringSize && pendingDcs > 0; j++) {
+          int host = layout.primaries[(i + j) % layout.ringSize];
+          int dc = layout.hostDcs[host];
+          if (dc < 0) continue;
+
+          int rf = layout.dcFactors[dc];
+          int before = dcReplicaCounts[dc];
+          if (before >= rf) continue;
+
+          int rack = layout.hostRacks[host];
+          // Check if we already visited all racks in dc
+          if (rack < 0 || dcSeenRackCounts[dc] == layout.dcRackCounts[dc]) {
+            count = add(host, dc, count);
+          } else if (rackSeen[rack] == epoch) {
+            // Is this a new rack?
+            if (hostSkipped[host] != epoch) {
+              hostSkipped[host] = epoch;
+              dcSkipped[dc][dcSkippedCounts[dc]++] = host;
+            }
+          } else {
+            count = add(host, dc, count);
+            rackSeen[rack] = epoch;
+            dcSeenRackCounts[dc] += 1;
+            // If we've run out of distinct racks, add the nodes skipped so far
+            if (dcSeenRackCounts[dc] == layout.dcRackCounts[dc]) {
+              for (int k = 0; k < dcSkippedCounts[dc] && dcReplicaCounts[dc] < rf; k++)
+                count = add(dcSkipped[dc][k], dc, count);
+            }
           }
+          if (before < layout.dcTargets[dc] && dcReplicaCounts[dc] >= layout.dcTargets[dc])
+            pendingDcs -= 1;
         }
 
-        replicaMap.put(ring.get(i), ImmutableSet.copyOf(replicas));
+        for (int dc = 0; dc < layout.dcCount; dc++)
+          achievedFactors[dc] = Math.min(achievedFactors[dc], dcReplicaCounts[dc]);
+        return Arrays.copyOf(buffer, count);
       }
 
-      long duration = System.currentTimeMillis() - startTime;
-      logger.debug(
-          "Token to replica map computation for keyspace {} completed in {} milliseconds",
-          keyspaceName,
-          duration);
+      private int add(int host, int dc, int count) {
+        if (hostAdded[host] == epoch) return count;
+        hostAdded[host] = epoch;
+        dcReplicaCounts[dc] += 1;
+        buffer[count] = host;
+        return count + 1;
+      }
 
-      return replicaMap;
+      void mergeAchievedFactors(int[] result) {
+        for (int dc = 0; dc < result.length; dc++)
+          result[dc] = Math.min(result[dc], achievedFactors[dc]);
+      }
     }
 
-    private boolean allDone(Map<String, Set<Host>> map, Map<String, Integer> dcHostCount) {
-      for (Map.Entry<String, Set<Host>> entry : map.entrySet()) {
-        String dc = entry.getKey();
-        int dcCount = dcHostCount.get(dc) == null ? 0 : dcHostCount.get(dc);
-        if (entry.getValue().size() < Math.min(replicationFactors.get(dc).fullReplicas(), dcCount))
-          return false;
+    /**
+     * Splits the ring in chunks that the calling thread and helper tasks claim until there are none
+     * left. The calling thread only waits for the chunks that are being computed, so this completes
+     * even if the helpers never get to run (for example if they are queued behind the caller on a
+     * single-threaded executor).
+     */
+    private static class ParallelComputation {
+      private final Layout layout;
+      private final int[][] replicas;
+      private final int chunks;
+      private final AtomicInteger nextChunk = new AtomicInteger();
+      private final CountDownLatch done;
+      private final List<Walker> walkers = new CopyOnWriteArrayList<Walker>();
+      private volatile RuntimeException error;
+
+      ParallelComputation(Layout layout, int[][] replicas, int chunks) {
+        this.layout = layout;
+        this.replicas = replicas;
+        this.chunks = chunks;
+        this.done = new CountDownLatch(chunks);
+      }
+
+      void run(Executor executor, int helpers, int[] achievedFactors) {
+        Runnable helper =
+            new Runnable() {
+              @Override
+              public void run() {
+                computeChunks();
+              }
+            };
+        try {
+          for (int i = 0; i < helpers; i++) executor.execute(helper);
+        } catch (RejectedExecutionException e) {
+          // the executor is shutting down, the calling thread will do the remaining work
+        }
+        computeChunks();
+        Uninterruptibles.awaitUninterruptibly(done);
+        if (error != null) throw error;
+        for (Walker walker : walkers) walker.mergeAchievedFactors(achievedFactors);
       }
-      return true;
-    }
 
-    private Map<String, Set<String>> getRacksInDcs(Iterable<Host> hosts) {
-      Map<String, Set<String>> result = new HashMap<String, Set<String>>();
-      for (Host host : hosts) {
-        Set<String> racks = result.get(host.getDatacenter());
-        if (racks == null) {
-          racks = new HashSet<String>();
-          result.put(host.getDatacenter(), racks);
+      private void computeChunks() {
+        Walker walker = null;
+        int chunk;
+        while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+          try {
+            if (walker == null) {
+              walker = new Walker(layout);
+              walkers.add(walker);
+            }
+            int end = Math.min((chunk + 1) * CHUNK_SIZE, layout.ringSize);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) replicas[i] = walker.replicasFor(i);
+          } catch (RuntimeException e) {
+            error = e;
+          } finally {
+            done.countDown();
+          }
         }
-        racks.add(host.getRack());
       }
-      return result;
+    }
+
+    private static class ReplicaKey {
+      private final int[] hosts;
+      private final int hashCode;
+
+      ReplicaKey(int[] hosts) {
+        this.hosts = hosts;
+        this.hashCode = Arrays.hashCode(hosts);
+      }
+
+      @Override
+      public boolean equals(Object other) {
+        return other instanceof ReplicaKey && Arrays.equals(hosts, ((ReplicaKey) other).hosts);
+      }
+
+      @Override
+      public int hashCode() {
+        return hashCode;
+      }
     }
 
     @Override
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.datastax.driver.core.policies.RetryPolicy;
+import com.datastax.driver.core.utils.MoreObjects;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.SettableFuture;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Coalesces concurrent executions of identical idempotent reads: while a read is in flight, other
+ * executions of the same prepared statement with the same values wait for its result instead of
+ * sending their own request.
+ *
+ * <p>Each execution gets its own copy of the result. Results that span several pages can't be
+ * shared, the executions that were waiting for them send their own request instead.
+ *
+ * <p>Only executions with the same consistency levels, timeouts, retry policy, target host and
+ * workload class are coalesced, see {@link Key}. Traced executions and executions with a custom
+ * payload are never coalesced, since each of them expects its own trace or server-side handling.
+ *
+ * @see QueryOptions#setCoalesceReads(boolean)
+ */
+class RequestCoalescer {
+
+  private final SessionManager session;
+  private final ConcurrentMap<Key, InFlightRead> inFlight =
+      new ConcurrentHashMap<Key, InFlightRead>();
+
+  RequestCoalescer(SessionManager session) {
+    this.session = session;
+  }
+
+  /**
+   * Whether the given statement is an idempotent read that can be shared between several
+   * executions: an untraced bound {@code SELECT} statement without custom payload, that does not
+   * resume paging.
+   */
+  static boolean isIdempotentRead(Statement statement, QueryOptions queryOptions) {
+    if (!(statement instanceof BoundStatement)
+        || statement.getPagingState() != null
+        || statement.isTracing()
+        || statement.getOutgoingPayload() != null
+        || !statement.isIdempotentWithDefault(queryOptions)) return false;
+    String query = ((BoundStatement) statement).preparedStatement().getQueryString();
+    int i = 0;
+    while (i < query.length() && Character.isWhitespace(query.charAt(i))) i += 1;
+    return query.regionMatches(true, i, "SELECT", 0, 6);
+  }
+
+  /** Executes the given statement, which must be an {@link #isIdempotentRead idempotent read}. */
+  ResultSetFuture executeAsync(BoundStatement statement) {
+    final Key key = new Key(statement, session.cluster.manager.configuration.getQueryOptions());
+    final InFlightRead read = new InFlightRead();
+    InFlightRead existing = inFlight.putIfAbsent(key, read);
+    if (existing != null) {
+      if (session.cluster.manager.metrics != null)
+        session.cluster.manager.metrics.getCoalescedRequests().inc();
+      return existing.newFuture(session, statement);
+    }
+
+    final CoalescedFuture future = new CoalescedFuture();
+    GuavaCompatibility.INSTANCE.addCallback(
+        session.executeUncachedAsync(statement),
+        new FutureCallback<ResultSet>() {
+          @Override
+          public void onSuccess(ResultSet result) {
+            inFlight.remove(key, read);
+            read.result.set(ArrayBackedResultSet.copyOf(result));
+            future.complete(result);
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            inFlight.remove(key, read);
+            read.result.setException(t);
+            future.fail(t);
+          }
+        });
+    // note that cancelling the returned future does not cancel the request, other executions
+    // might be waiting for it
+    return future;
+  }
+
+  /** The result of a read, that several executions can wait for. */
+  static class InFlightRead {
+    // a copy of the result that is never iterated, or null if it spans several pages
+    final SettableFuture<ArrayBackedResultSet> result = SettableFuture.create();
+
+    /** Returns a future that completes with a copy of the result of the read. */
+    ResultSetFuture newFuture(final SessionManager session, final BoundStatement statement) {
+      final CoalescedFuture future = new CoalescedFuture();
+      GuavaCompatibility.INSTANCE.addCallback(
+          result,
+          new FutureCallback<ArrayBackedResultSet>() {
+            @Override
+            public void onSuccess(ArrayBackedResultSet shared) {
+              if (shared == null) future.setSource(session.executeUncachedAsync(statement));
+              else future.complete(ArrayBackedResultSet.copyOf(shared, statement));
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+              future.fail(t);
+            }
+          });
+      return future;
+    }
+  }
+
+  static class CoalescedFuture extends ChainedResultSetFuture {
+    void complete(ResultSet result) {
+      set(result);
+    }
+
+    void fail(Throwable t) {
+      setException(t);
+    }
+  }
+
+  /**
+   * Identifies a read by its prepared statement and bound values, and by the options that can
+   * change its outcome: the consistency levels and the request timeout (after applying the
+   * defaults), the read timeout, the retry policy, the {@linkplain Statement#setHost(Host) target
+   * host} and the {@linkplain Statement#setWorkloadClass(String) workload class}.
+   */
+  static class Key {
+    private final MD5Digest id;
+    private final ByteBuffer[] values;
+    private final ConsistencyLevel consistencyLevel;
+    private final ConsistencyLevel serialConsistencyLevel;
+    private final int readTimeoutMillis;
+    private final RetryPolicy retryPolicy;
+    private final int requestTimeoutMillis;
+    private final Host host;
+    private final String workloadClass;
+
+    Key(BoundStatement statement, QueryOptions queryOptions) {
+      this.id = statement.preparedStatement().getPreparedId().boundValuesMetadata.id;
+      this.values = statement.wrapper.values.clone();
+      ConsistencyLevel consistencyLevel = statement.getConsistencyLevel();
+      this.consistencyLevel =
+          consistencyLevel == null ? queryOptions.getConsistencyLevel() : consistencyLevel;
+      ConsistencyLevel serialConsistencyLevel = statement.getSerialConsistencyLevel();
+      this.serialConsistencyLevel =
+          serialConsistencyLevel == null
+              ? queryOptions.getSerialConsistencyLevel()
+              : serialConsistencyLevel;
+      this.readTimeoutMillis = statement.getReadTimeoutMillis();
+      this.retryPolicy = statement.getRetryPolicy();
+      int requestTimeoutMillis = statement.getRequestTimeoutMillis();
+      this.requestTimeoutMillis =
+          requestTimeoutMillis < 0 ? queryOptions.getRequestTimeoutMillis() : requestTimeoutMillis;
+      this.host = statement.getHost();
+      this.workloadClass = statement.getWorkloadClass();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other == this) return true;
+      if (!(other instanceof Key)) return false;
+      Key that = (Key) other;
+      return this.id.equals(that.id)
+          && Arrays.equals(this.values, that.values)
+          && this.consistencyLevel == that.consistencyLevel
+          && this.serialConsistencyLevel == that.serialConsistencyLevel
+          && this.readTimeoutMillis == that.readTimeoutMillis
+          && MoreObjects.equal(this.retryPolicy, that.retryPolicy)
+          && this.requestTimeoutMillis == that.requestTimeoutMillis
+          && MoreObjects.equal(this.host, that.host)
+          && MoreObjects.equal(this.workloadClass, that.workloadClass);
+    }
+
+    @Override
+    public int hashCode() {
+      return MoreObjects.hashCode(
+          id,
+          Arrays.hashCode(values),
+          consistencyLevel,
+          serialConsistencyLevel,
+          readTimeoutMillis,
+          retryPolicy,
+          requestTimeoutMillis,
+          host,
+          workloadClass);
+    }
+  }
+}
@@ -21,11 +21,11 @@
  */
 package com.datastax.driver.core;
 
-import com.codahale.metrics.Timer;
 import com.datastax.driver.core.exceptions.BootstrappingException;
 import com.datastax.driver.core.exceptions.BusyConnectionException;
 import com.datastax.driver.core.exceptions.BusyPoolException;
 import com.datastax.driver.core.exceptions.ConnectionException;
+import com.datastax.driver.core.exceptions.DeadlineExceededException;
 import com.datastax.driver.core.exceptions.DriverException;
 import com.datastax.driver.core.exceptions.DriverInternalError;
 import com.datastax.driver.core.exceptions.NoHostAvailableException;
@@ -37,9 +37,12 @@ import com.datastax.driver.core.exceptions.ServerError;
 import com.datastax.driver.core.exceptions.UnavailableException;
 import com.datastax.driver.core.exceptions.WriteFailureException;
 import com.datastax.driver.core.exceptions.WriteTimeoutException;
+import com.datastax.driver.core.policies.LoadBalancingPolicy;
+import com.datastax.driver.core.policies.RetryBudgetPolicy;
 import com.datastax.driver.core.policies.RetryPolicy;
 import com.datastax.driver.core.policies.RetryPolicy.RetryDecision.Type;
 import com.datastax.driver.core.policies.SpeculativeExecutionPolicy.SpeculativeExecutionPlan;
+import com.datastax.driver.core.policies.SpeculativeExecutionPolicy.ThrottledSpeculativeExecutionPlan;
 import com.datastax.driver.core.tracing.TracingInfo;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
@@ -78,23 +81,32 @@ class RequestHandler {
   private static final int PARTITION_KEY_MAX_LENGTH = 1000;
   private static final int REPLICAS_MAX_LENGTH = 1000;
 
-  final String id;
+  private static final String INITIAL_EXECUTION_NAME = "speculative_execution.0";
 
   private final SessionManager manager;
+  // The session that holds the pools to send the request through: manager itself, or the internal
+  // session of the statement's workload class
+  private final SessionManager poolsSession;
   private final Callback callback;
 
-  private final QueryPlan queryPlan;
+  private final Iterator<Host> queryPlan;
   private final SpeculativeExecutionPlan speculativeExecutionPlan;
   private final boolean allowSpeculativeExecutions;
-  private final Set<SpeculativeExecution> runningExecutions = Sets.newCopyOnWriteArraySet();
-  private final Set<Timeout> scheduledExecutions = Sets.newCopyOnWriteArraySet();
+  private final boolean lwtRouting;
+  // Most requests only ever have one execution, so it is stored inline. The collections are only
+  // allocated if speculative executions get scheduled.
+  private volatile SpeculativeExecution initialExecution;
+  private volatile Set<SpeculativeExecution> speculativeExecutions;
+  private volatile Set<Timeout> scheduledExecutions;
   private final Statement statement;
   private final io.netty.util.Timer scheduler;
+  // The overall timeout of the request (0 if none), and the task that enforces it
+  private final int requestTimeoutMillis;
+  private volatile Timeout deadlineTimeout;
 
   private volatile List<Host> triedHosts;
   private volatile ConcurrentMap<EndPoint, Throwable> errors;
 
-  private final Timer.Context timerContext;
   private final long startTime;
 
   private final AtomicBoolean isDone = new AtomicBoolean();
@@ -102,8 +114,8 @@ class RequestHandler {
 
   private final TracingInfo tracingInfo;
 
-  private Iterator<Host> getReplicas(
-      String loggedKeyspace, Statement statement, Iterator<Host> fallback) {
+  private Iterator<Host> newLwtQueryPlan(String loggedKeyspace, Statement statement) {
+    LoadBalancingPolicy policy = manager.loadBalancingPolicy();
     ProtocolVersion protocolVersion = manager.cluster.manager.protocolVersion();
     CodecRegistry codecRegistry = manager.cluster.manager.configuration.getCodecRegistry();
     ByteBuffer partitionKey = statement.getRoutingKey(protocolVersion, codecRegistry);
@@ -113,7 +125,7 @@ class RequestHandler {
     }
 
     if (partitionKey == null || keyspace == null) {
-      return fallback;
+      return policy.newQueryPlan(loggedKeyspace, statement);
     }
 
     Token.Factory partitioner = statement.getPartitioner();
@@ -124,47 +136,54 @@ class RequestHandler {
             .getReplicas(Metadata.quote(keyspace), partitioner, partitionKey);
 
     // replicas are stored in the right order starting with the primary replica
-    return replicas.iterator();
+    return new LwtQueryPlan(policy, loggedKeyspace, statement, replicas);
   }
 
   public RequestHandler(
-      SessionManager manager, Callback callback, Statement statement, TracingInfo tracingInfo) {
-    this.id = Long.toString(System.identityHashCode(this));
-    if (logger.isTraceEnabled()) logger.trace("[{}] {}", id, statement);
+      SessionManager manager,
+      SessionManager poolsSession,
+      Callback callback,
+      Statement statement,
+      TracingInfo tracingInfo) {
+    if (logger.isTraceEnabled()) logger.trace("[{}] {}", id(), statement);
     this.manager = manager;
+    this.poolsSession = poolsSession;
     this.callback = callback;
     this.scheduler = manager.cluster.manager.connectionFactory.timer;
 
     callback.register(this);
 
+    QueryOptions queryOptions = manager.configuration().getQueryOptions();
+    this.lwtRouting =
+        statement.isLWT()
+            && queryOptions.getLwtRoutingMode() == QueryOptions.LwtRoutingMode.PRIMARY_REPLICA;
+
     // If host is explicitly set on statement, bypass load balancing policy.
     if (statement.getHost() != null) {
-      this.queryPlan = new QueryPlan(Iterators.singletonIterator(statement.getHost()));
-    } else if (statement.isLWT()) {
-      this.queryPlan =
-          new QueryPlan(
-              getReplicas(
-                  manager.poolsState.keyspace,
-                  statement,
-                  manager
-                      .loadBalancingPolicy()
-                      .newQueryPlan(manager.poolsState.keyspace, statement)));
+      this.queryPlan = Iterators.singletonIterator(statement.getHost());
+    } else if (lwtRouting) {
+      this.queryPlan = newLwtQueryPlan(manager.getLoggedKeyspace(), statement);
     } else {
       this.queryPlan =
-          new QueryPlan(
-              manager.loadBalancingPolicy().newQueryPlan(manager.poolsState.keyspace, statement));
+          manager.loadBalancingPolicy().newQueryPlan(manager.getLoggedKeyspace(), statement);
     }
 
     this.speculativeExecutionPlan =
-        manager.speculativeExecutionPolicy().newPlan(manager.poolsState.keyspace, statement);
+        manager.speculativeExecutionPolicy().newPlan(manager.getLoggedKeyspace(), statement);
+    // concurrent executions of the same LWT would compete with each other for the Paxos round
     this.allowSpeculativeExecutions =
         statement != Statement.DEFAULT
-            && statement.isIdempotentWithDefault(manager.configuration().getQueryOptions());
+            && statement.isIdempotentWithDefault(queryOptions)
+            && (!statement.isLWT() || queryOptions.isLwtSpeculativeExecutionEnabled());
     this.statement = statement;
 
-    this.timerContext = metricsEnabled() ? metrics().getRequestsTimer().time() : null;
     this.startTime = System.nanoTime();
 
+    int requestTimeoutMillis = statement.getRequestTimeoutMillis();
+    if (requestTimeoutMillis < 0) requestTimeoutMillis = queryOptions.getRequestTimeoutMillis();
+    // internal requests (such as preparations) are not bound by the user's deadlines
+    this.requestTimeoutMillis = statement == Statement.DEFAULT ? 0 : requestTimeoutMillis;
+
     ConsistencyLevel consistency = statement.getConsistencyLevel();
     if (consistency == null) consistency = Statement.DEFAULT.getConsistencyLevel();
 
@@ -231,10 +250,51 @@ class RequestHandler {
     if (operationType != null) this.tracingInfo.setOperationType(operationType);
   }
 
+  // Only used for logging, so don't compute it eagerly
+  String id() {
+    return Long.toString(System.identityHashCode(this));
+  }
+
   void sendRequest() {
+    if (requestTimeoutMillis > 0)
+      deadlineTimeout =
+          scheduler.newTimeout(new DeadlineTask(), requestTimeoutMillis, TimeUnit.MILLISECONDS);
     startNewExecution();
   }
 
+  /**
+   * Whether the deadline of the request will have passed in {@code delayMillis} milliseconds from
+   * now.
+   */
+  private boolean isPastDeadline(long delayMillis) {
+    return requestTimeoutMillis > 0
+        && System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(delayMillis)
+            >= TimeUnit.MILLISECONDS.toNanos(requestTimeoutMillis);
+  }
+
+  private class DeadlineTask implements TimerTask {
+    @Override
+    public void run(Timeout timeout) throws Exception {
+      if (!isDone.get()) {
+        // We're on the timer thread so reschedule to another executor
+        manager
+            .executor()
+            .execute(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    onDeadlineExceeded();
+                  }
+                });
+      }
+    }
+  }
+
+  private void onDeadlineExceeded() {
+    if (setFinalException(null, null, new DeadlineExceededException(requestTimeoutMillis))
+        && metricsEnabled()) metrics().getErrorMetrics().getDeadlinesExceeded().inc();
+  }
+
   // Called when the corresponding ResultSetFuture is cancelled by the client
   void cancel() {
     if (!isDone.compareAndSet(false, true)) return;
@@ -249,69 +309,136 @@ class RequestHandler {
     int position = executionIndex.getAndIncrement();
 
     SpeculativeExecution execution = new SpeculativeExecution(request, position);
-    runningExecutions.add(execution);
+    if (position == 0) initialExecution = execution;
+    else getSpeculativeExecutions().add(execution);
     execution.findNextHostAndQuery();
   }
 
+  private Set<SpeculativeExecution> getSpeculativeExecutions() {
+    if (speculativeExecutions == null) {
+      synchronized (RequestHandler.this) {
+        if (speculativeExecutions == null) {
+          speculativeExecutions = Sets.newCopyOnWriteArraySet();
+        }
+      }
+    }
+    return speculativeExecutions;
+  }
+
+  private Set<Timeout> getScheduledExecutions() {
+    if (scheduledExecutions == null) {
+      synchronized (RequestHandler.this) {
+        if (scheduledExecutions == null) {
+          scheduledExecutions = Sets.newCopyOnWriteArraySet();
+        }
+      }
+    }
+    return scheduledExecutions;
+  }
+
   private void scheduleExecution(long delayMillis) {
     if (isDone.get() || delayMillis < 0) return;
+    if (isPastDeadline(delayMillis)) {
+      if (logger.isTraceEnabled())
+        logger.trace("[{}] Not scheduling speculative execution past the deadline", id());
+      return;
+    }
     if (logger.isTraceEnabled())
-      logger.trace("[{}] Schedule next speculative execution in {} ms", id, delayMillis);
+      logger.trace("[{}] Schedule next speculative execution in {} ms", id(), delayMillis);
     if (delayMillis == 0) {
       // kick off request immediately
       scheduleExecutionImmediately();
     } else {
-      scheduledExecutions.add(
-          scheduler.newTimeout(newExecutionTask, delayMillis, TimeUnit.MILLISECONDS));
+      getScheduledExecutions()
+          .add(scheduler.newTimeout(new NewExecutionTask(), delayMillis, TimeUnit.MILLISECONDS));
     }
   }
 
-  private final TimerTask newExecutionTask =
-      new TimerTask() {
-        @Override
-        public void run(final Timeout timeout) throws Exception {
-          scheduledExecutions.remove(timeout);
-          if (!isDone.get()) {
-            // We're on the timer thread so reschedule to another executor
-            manager
-                .executor()
-                .execute(
-                    new Runnable() {
-                      @Override
-                      public void run() {
-                        scheduleExecutionImmediately();
-                      }
-                    });
-          }
-        }
-      };
+  private class NewExecutionTask implements TimerTask {
+    @Override
+    public void run(final Timeout timeout) throws Exception {
+      scheduledExecutions.remove(timeout);
+      if (!isDone.get()) {
+        // We're on the timer thread so reschedule to another executor
+        manager
+            .executor()
+            .execute(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    scheduleExecutionImmediately();
+                  }
+                });
+      }
+    }
+  }
 
   private void scheduleExecutionImmediately() {
+    if (speculativeExecutionPlan instanceof ThrottledSpeculativeExecutionPlan
+        && !((ThrottledSpeculativeExecutionPlan) speculativeExecutionPlan).tryStartExecution()) {
+      if (logger.isTraceEnabled())
+        logger.trace("[{}] Speculative execution throttled by the policy", id());
+      if (metricsEnabled()) metrics().getErrorMetrics().getSpeculativeExecutionsThrottled().inc();
+      return;
+    }
     if (metricsEnabled()) metrics().getErrorMetrics().getSpeculativeExecutions().inc();
     startNewExecution();
   }
 
+  // Called once the request is done, to account for the outcome of speculative executions
+  private void updateSpeculativeExecutionMetrics(SpeculativeExecution winner) {
+    int speculativeExecutions = executionIndex.get() - 1;
+    if (speculativeExecutions <= 0 || !metricsEnabled()) return;
+    Metrics.Errors errorMetrics = metrics().getErrorMetrics();
+    if (winner != null && winner.position > 0) {
+      errorMetrics.getSpeculativeExecutionsWon().inc();
+      speculativeExecutions -= 1;
+    }
+    if (speculativeExecutions > 0)
+      errorMetrics.getSpeculativeExecutionsWasted().inc(speculativeExecutions);
+  }
+
   private void cancelPendingExecutions(SpeculativeExecution ignore) {
-    for (SpeculativeExecution execution : runningExecutions)
-      if (execution != ignore) // not vital but this produces nicer logs
-      execution.cancel();
-    for (Timeout execution : scheduledExecutions) execution.cancel();
+    SpeculativeExecution initialExecution = this.initialExecution;
+    if (initialExecution != null && initialExecution != ignore) initialExecution.cancel();
+    if (speculativeExecutions != null)
+      for (SpeculativeExecution execution : speculativeExecutions)
+        if (execution != ignore) // not vital but this produces nicer logs
+        execution.cancel();
+    if (scheduledExecutions != null)
+      for (Timeout execution : scheduledExecutions) execution.cancel();
+    Timeout deadlineTimeout = this.deadlineTimeout;
+    if (deadlineTimeout != null) deadlineTimeout.cancel();
+  }
+
+  private void stopRequestTimer() {
+    if (metricsEnabled()) {
+      long latency = System.nanoTime() - startTime;
+      metrics().getRequestsTimer().update(latency, TimeUnit.NANOSECONDS);
+      WorkloadClass workloadClass = poolsSession.workloadClass;
+      if (workloadClass != null)
+        metrics()
+            .getWorkloadClassMetrics(workloadClass.getName())
+            .getRequestsTimer()
+            .update(latency, TimeUnit.NANOSECONDS);
+    }
   }
 
   private void setFinalResult(
       SpeculativeExecution execution, Connection connection, Message.Response response) {
     if (!isDone.compareAndSet(false, true)) {
       if (logger.isTraceEnabled())
-        logger.trace("[{}] Got beaten to setting the result", execution.id);
+        logger.trace("[{}] Got beaten to setting the result", execution.id());
       return;
     }
 
-    if (logger.isTraceEnabled()) logger.trace("[{}] Setting final result", execution.id);
+    if (logger.isTraceEnabled()) logger.trace("[{}] Setting final result", execution.id());
 
     cancelPendingExecutions(execution);
+    updateSpeculativeExecutionMetrics(execution);
 
     try {
-      if (timerContext != null) timerContext.stop();
+      stopRequestTimer();
 
       ExecutionInfo info;
       int speculativeExecutions = executionIndex.get() - 1;
@@ -373,6 +500,20 @@ class RequestHandler {
     }
   }
 
+  private void recordCasWriteTimeout() {
+    metrics().getErrorMetrics().getCasWriteTimeouts().inc();
+    Metadata metadata = manager.cluster.getMetadata();
+    Token.Factory partitioner = statement.getPartitioner();
+    if (partitioner == null) partitioner = metadata.tokenFactory();
+    ByteBuffer routingKey =
+        statement.getRoutingKey(
+            manager.cluster.manager.protocolVersion(),
+            manager.cluster.manager.configuration.getCodecRegistry());
+    if (partitioner == null || routingKey == null) return;
+    TokenRange range = metadata.getTokenRange(partitioner.hash(routingKey));
+    if (range != null) metrics().recordCasWriteTimeout(range);
+  }
+
   private void logServerWarnings(List<String> warnings) {
     // truncate the statement query to the DEFAULT_MAX_QUERY_STRING_LENGTH, if necessary
     final String queryString = QUERY_LOGGER.statementAsString(statement);
@@ -382,27 +523,30 @@ class RequestHandler {
     }
   }
 
-  private void setFinalException(
+  // execution is null if the exception does not come from a particular execution
+  private boolean setFinalException(
       SpeculativeExecution execution, Connection connection, Exception exception) {
+    String id = logger.isTraceEnabled() ? (execution == null ? id() : execution.id()) : null;
     if (!isDone.compareAndSet(false, true)) {
-      if (logger.isTraceEnabled())
-        logger.trace("[{}] Got beaten to setting final exception", execution.id);
-      return;
+      if (logger.isTraceEnabled()) logger.trace("[{}] Got beaten to setting final exception", id);
+      return false;
     }
 
-    if (logger.isTraceEnabled()) logger.trace("[{}] Setting final exception", execution.id);
+    if (logger.isTraceEnabled()) logger.trace("[{}] Setting final exception", id);
 
     cancelPendingExecutions(execution);
+    updateSpeculativeExecutionMetrics(null);
 
     tracingInfo.recordException(exception);
     tracingInfo.setStatus(TracingInfo.StatusCode.ERROR, exception.toString());
     tracingInfo.tracingFinished();
 
     try {
-      if (timerContext != null) timerContext.stop();
+      stopRequestTimer();
     } finally {
       callback.onException(connection, exception, System.nanoTime() - startTime, /*unused*/ 0);
     }
+    return true;
   }
 
   // Triggered when an execution reaches the end of the query plan.
@@ -410,8 +554,10 @@ class RequestHandler {
   private void reportNoMoreHosts(SpeculativeExecution execution) {
     execution.parentTracingInfo.setRetryCount(execution.retryCount());
     execution.parentTracingInfo.tracingFinished();
-    runningExecutions.remove(execution);
-    if (runningExecutions.isEmpty())
+    if (execution == initialExecution) initialExecution = null;
+    else if (speculativeExecutions != null) speculativeExecutions.remove(execution);
+    if (initialExecution == null
+        && (speculativeExecutions == null || speculativeExecutions.isEmpty()))
       setFinalException(
           execution,
           null,
@@ -459,7 +605,6 @@ class RequestHandler {
    * informs the RequestHandler, which will decide what to do
    */
   class SpeculativeExecution implements Connection.ResponseCallback {
-    final String id;
     private final Message.Request request;
     private final int position;
     private volatile Host current;
@@ -478,26 +623,36 @@ class RequestHandler {
 
     private volatile Connection.ResponseHandler connectionHandler;
 
+    // when the current attempt was written, to estimate how long a retry would take
+    private volatile long attemptStartTime;
+
     private final TracingInfo parentTracingInfo;
     private TracingInfo currentChildTracingInfo;
 
     SpeculativeExecution(Message.Request request, int position) {
-      this.id = RequestHandler.this.id + "-" + position;
       this.request = request;
       this.position = position;
       this.queryStateRef = new AtomicReference<QueryState>(QueryState.INITIAL);
       this.parentTracingInfo =
           manager.getTracingInfoFactory().buildTracingInfo(RequestHandler.this.tracingInfo);
-      this.parentTracingInfo.setNameAndStartTime("speculative_execution." + position);
-      if (logger.isTraceEnabled()) logger.trace("[{}] Starting", id);
+      this.parentTracingInfo.setNameAndStartTime(
+          position == 0 ? INITIAL_EXECUTION_NAME : "speculative_execution." + position);
+      if (logger.isTraceEnabled()) logger.trace("[{}] Starting", id());
+    }
+
+    String id() {
+      return RequestHandler.this.id() + "-" + position;
     }
 
     void findNextHostAndQuery() {
+      // don't move on to another host if the request can't complete anymore
+      if (isPastDeadline(0)) {
+        onDeadlineExceeded();
+        return;
+      }
       try {
         Host host;
-        while (!isDone.get()
-            && (host = queryPlan.next()) != null
-            && !queryStateRef.get().isCancelled()) {
+        while (!isDone.get() && (host = nextHost()) != null && !queryStateRef.get().isCancelled()) {
           if (query(host)) {
             if (hostMetricsEnabled()) {
               metrics().getRegistry().counter(MetricsUtil.hostMetricName("writes.", host)).inc();
@@ -525,10 +680,10 @@ class RequestHandler {
     }
 
     private boolean query(final Host host) {
-      HostConnectionPool pool = manager.pools.get(host);
+      HostConnectionPool pool = poolsSession.pools.get(host);
       if (pool == null || pool.isClosed()) return false;
 
-      if (logger.isTraceEnabled()) logger.trace("[{}] Querying node {}", id, host);
+      if (logger.isTraceEnabled()) logger.trace("[{}] Querying node {}", id(), host);
 
       currentChildTracingInfo = manager.getTracingInfoFactory().buildTracingInfo(parentTracingInfo);
       currentChildTracingInfo.setNameAndStartTime("query");
@@ -543,14 +698,15 @@ class RequestHandler {
       CodecRegistry codecRegistry = manager.cluster.manager.configuration.getCodecRegistry();
       ByteBuffer routingKey = statement.getRoutingKey(protocolVersion, codecRegistry);
 
-      PoolingOptions poolingOptions = manager.configuration().getPoolingOptions();
+      PoolingOptions poolingOptions = poolsSession.poolingOptions();
       ListenableFuture<Connection> connectionFuture =
           pool.borrowConnection(
               poolingOptions.getPoolTimeoutMillis(),
               TimeUnit.MILLISECONDS,
               poolingOptions.getMaxQueueSize(),
               statement.getPartitioner(),
-              routingKey);
+              routingKey,
+              lwtRouting);
       GuavaCompatibility.INSTANCE.addCallback(
           connectionFuture,
           new FutureCallback<Connection>() {
@@ -625,6 +781,7 @@ class RequestHandler {
           break;
       }
 
+      attemptStartTime = System.nanoTime();
       connectionHandler =
           connection.write(responseCallback, statement.getReadTimeoutMillis(), false);
       // Only start the timeout when we're sure connectionHandler is set. This avoids an edge case
@@ -655,6 +812,7 @@ class RequestHandler {
       } else {
         decision = RetryPolicy.RetryDecision.rethrow();
       }
+      decision = checkRetryBudget(decision);
       if (metricsEnabled()) {
         if (exception instanceof OperationTimedOutException) {
           metrics().getErrorMetrics().getClientTimeouts().inc();
@@ -679,17 +837,42 @@ class RequestHandler {
       return decision;
     }
 
+    /**
+     * Applies the budget of the retry policy, if it is a {@link RetryBudgetPolicy}, to a decision.
+     * This must be done before the decision is counted in the metrics, so that rejected retries are
+     * not reported as retries.
+     */
+    private RetryPolicy.RetryDecision checkRetryBudget(RetryPolicy.RetryDecision retryDecision) {
+      RetryPolicy retryPolicy = retryPolicy();
+      if (retryDecision.getType() != Type.RETRY || !(retryPolicy instanceof RetryBudgetPolicy))
+        return retryDecision;
+      RetryPolicy.RetryDecision checked =
+          ((RetryBudgetPolicy) retryPolicy).checkRetry(current, retryDecision);
+      if (checked != retryDecision && metricsEnabled()) {
+        if (checked.getType() != Type.RETRY) metrics().getErrorMetrics().getRetriesRejected().inc();
+        else metrics().getErrorMetrics().getRetriesRerouted().inc();
+      }
+      return checked;
+    }
+
     private void processRetryDecision(
         RetryPolicy.RetryDecision retryDecision,
         Connection connection,
         Exception exceptionToReport) {
       switch (retryDecision.getType()) {
         case RETRY:
+          if (isRetryPastDeadline()) {
+            if (logger.isDebugEnabled())
+              logger.debug("[{}] Not retrying, the retry can't complete before the deadline", id());
+            logError(connection.endPoint, exceptionToReport);
+            onDeadlineExceeded();
+            break;
+          }
           retriesByPolicy++;
           if (logger.isDebugEnabled())
             logger.debug(
                 "[{}] Doing retry {} for query {} at consistency {}",
-                id,
+                id(),
                 retriesByPolicy,
                 statement,
                 retryDecision.getRetryConsistencyLevel());
@@ -708,17 +891,36 @@ class RequestHandler {
       }
     }
 
+    /**
+     * Whether a retry would get its response after the deadline, assuming that it takes as long as
+     * the attempt that just failed, but no longer than the read timeout.
+     */
+    private boolean isRetryPastDeadline() {
+      if (requestTimeoutMillis <= 0) return false;
+      long expectedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - attemptStartTime);
+      long readTimeoutMillis = statement.getReadTimeoutMillis();
+      if (readTimeoutMillis < 0)
+        readTimeoutMillis = manager.configuration().getSocketOptions().getReadTimeoutMillis();
+      if (readTimeoutMillis > 0) expectedMillis = Math.min(expectedMillis, readTimeoutMillis);
+      return isPastDeadline(expectedMillis);
+    }
+
     private void retry(final boolean retryCurrent, ConsistencyLevel newConsistencyLevel) {
       final Host h = current;
       if (newConsistencyLevel != null) this.retryConsistencyLevel = newConsistencyLevel;
 
       if (queryStateRef.get().isCancelled()) return;
 
+      if (isPastDeadline(0)) {
+        onDeadlineExceeded();
+        return;
+      }
       if (!retryCurrent || !query(h)) findNextHostAndQuery();
     }
 
     private void logError(EndPoint endPoint, Throwable exception) {
-      logger.debug("[{}] Error querying {} : {}", id, endPoint, exception.toString());
+      if (logger.isDebugEnabled())
+        logger.debug("[{}] Error querying {} : {}", id(), endPoint, exception.toString());
       if (errors == null) {
         synchronized (RequestHandler.this) {
           if (errors == null) {
@@ -739,7 +941,7 @@ class RequestHandler {
           return;
         } else if (previous.inProgress
             && queryStateRef.compareAndSet(previous, QueryState.CANCELLED_WHILE_IN_PROGRESS)) {
-          if (logger.isTraceEnabled()) logger.trace("[{}] Cancelled while in progress", id);
+          if (logger.isTraceEnabled()) logger.trace("[{}] Cancelled while in progress", id());
           // The connectionHandler should be non-null, but we might miss the update if we're racing
           // with write().
           // If it's still null, this will be handled by re-checking queryStateRef at the end of
@@ -759,7 +961,7 @@ class RequestHandler {
           return;
         } else if (!previous.inProgress
             && queryStateRef.compareAndSet(previous, QueryState.CANCELLED_WHILE_COMPLETE)) {
-          if (logger.isTraceEnabled()) logger.trace("[{}] Cancelled while complete", id);
+          if (logger.isTraceEnabled()) logger.trace("[{}] Cancelled while complete", id());
           Host queriedHost = current;
           if (queriedHost != null && statement != Statement.DEFAULT) {
             manager.cluster.manager.reportQuery(
@@ -825,6 +1027,7 @@ class RequestHandler {
                         rte.getReceivedAcknowledgements(),
                         rte.wasDataRetrieved(),
                         retriesByPolicy);
+                retry = checkRetryBudget(retry);
                 if (metricsEnabled()) {
                   metrics().getErrorMetrics().getReadTimeouts().inc();
                   if (retry.getType() == Type.RETRY)
@@ -850,8 +1053,10 @@ class RequestHandler {
                 else {
                   retry = RetryPolicy.RetryDecision.rethrow();
                 }
+                retry = checkRetryBudget(retry);
                 if (metricsEnabled()) {
                   metrics().getErrorMetrics().getWriteTimeouts().inc();
+                  if (wte.getWriteType() == WriteType.CAS) recordCasWriteTimeout();
                   if (retry.getType() == Type.RETRY)
                     metrics().getErrorMetrics().getRetriesOnWriteTimeout().inc();
                   if (retry.getType() == Type.IGNORE)
@@ -869,6 +1074,7 @@ class RequestHandler {
                         ue.getRequiredReplicas(),
                         ue.getAliveReplicas(),
                         retriesByPolicy);
+                retry = checkRetryBudget(retry);
                 if (metricsEnabled()) {
                   metrics().getErrorMetrics().getUnavailables().inc();
                   if (retry.getType() == Type.RETRY)
@@ -923,7 +1129,12 @@ class RequestHandler {
 
                 String currentKeyspace = connection.keyspace();
                 String prepareKeyspace = toPrepare.getQueryKeyspace();
+                // with KEYSPACE_ON_QUERY, the keyspace is sent with the PREPARE request instead
+                boolean keyspaceOnQuery =
+                    ProtocolFeature.KEYSPACE_ON_QUERY.isSupportedBy(
+                        manager.cluster.manager.protocolVersion());
                 if (prepareKeyspace != null
+                    && !keyspaceOnQuery
                     && (currentKeyspace == null || !currentKeyspace.equals(prepareKeyspace))) {
                   // This shouldn't happen in normal use, because a user shouldn't try to execute
                   // a prepared statement with the wrong keyspace set.
@@ -949,7 +1160,12 @@ class RequestHandler {
                 TracingInfo prepareTracingInfo =
                     manager.getTracingInfoFactory().buildTracingInfo(parentTracingInfo);
                 prepareTracingInfo.setNameAndStartTime("prepare");
-                write(connection, prepareAndRetry(toPrepare.getQueryString(), prepareTracingInfo));
+                write(
+                    connection,
+                    prepareAndRetry(
+                        toPrepare.getQueryString(),
+                        keyspaceOnQuery ? prepareKeyspace : null,
+                        prepareTracingInfo));
                 // we're done for now, the prepareAndRetry callback will handle the rest
                 return;
               case READ_FAILURE:
@@ -990,13 +1206,14 @@ class RequestHandler {
         setFinalException(connection, e);
       } finally {
         if (queriedHost != null && statement != Statement.DEFAULT) {
-          manager.cluster.manager.reportQuery(queriedHost, statement, exceptionToReport, latency);
+          manager.cluster.manager.reportQuery(
+              queriedHost, connection.shardId(), statement, exceptionToReport, latency);
         }
       }
     }
 
     private Connection.ResponseCallback prepareAndRetry(
-        final String toPrepare, final TracingInfo prepareTracingInfo) {
+        final String toPrepare, final String keyspace, final TracingInfo prepareTracingInfo) {
       // do not bother inspecting retry policy at this step, no other decision
       // makes sense than retry on the same host if the query was prepared,
       // or on another host, if an error/timeout occurred.
@@ -1006,7 +1223,7 @@ class RequestHandler {
 
         @Override
         public Message.Request request() {
-          Requests.Prepare request = new Requests.Prepare(toPrepare);
+          Requests.Prepare request = new Requests.Prepare(toPrepare, keyspace);
           // propagate the original custom payload in the prepare request
           request.setCustomPayload(statement.getOutgoingPayload());
           return request;
@@ -1130,7 +1347,12 @@ class RequestHandler {
                 "An unexpected error happened while handling exception " + exception, e));
       } finally {
         if (queriedHost != null && statement != Statement.DEFAULT)
-          manager.cluster.manager.reportQuery(queriedHost, statement, exception, latency);
+          manager.cluster.manager.reportQuery(
+              queriedHost,
+              connection == null ? -1 : connection.shardId(),
+              statement,
+              exception,
+              latency);
       }
     }
 
@@ -1169,7 +1391,8 @@ class RequestHandler {
             new DriverInternalError("An unexpected error happened while handling timeout", e));
       } finally {
         if (queriedHost != null && statement != Statement.DEFAULT)
-          manager.cluster.manager.reportQuery(queriedHost, statement, timeoutException, latency);
+          manager.cluster.manager.reportQuery(
+              queriedHost, connection.shardId(), statement, timeoutException, latency);
       }
       return true;
     }
@@ -1256,20 +1479,8 @@ class RequestHandler {
     }
   }
 
-  /**
-   * Wraps the iterator return by {@link com.datastax.driver.core.policies.LoadBalancingPolicy} to
-   * make it safe for concurrent access by multiple threads.
-   */
-  static class QueryPlan {
-    private final Iterator<Host> iterator;
-
-    QueryPlan(Iterator<Host> iterator) {
-      this.iterator = iterator;
-    }
-
-    /** @return null if there are no more hosts */
-    synchronized Host next() {
-      return iterator.hasNext() ? iterator.next() : null;
-    }
+  /** @return null if there are no more hosts */
+  private synchronized Host nextHost() {
+    return queryPlan.hasNext() ? queryPlan.next() : null;
   }
 }
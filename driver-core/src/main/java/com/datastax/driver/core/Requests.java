@@ -275,6 +275,7 @@ class Requests {
     SERIAL_CONSISTENCY(0x00000010),
     DEFAULT_TIMESTAMP(0x00000020),
     VALUE_NAMES(0x00000040),
+    WITH_KEYSPACE(0x00000080),
     NOW_IN_SECONDS(0x00000100),
     ;
 
@@ -320,7 +321,8 @@ class Requests {
             null,
             ConsistencyLevel.SERIAL,
             Long.MIN_VALUE,
-            Integer.MIN_VALUE);
+            Integer.MIN_VALUE,
+            null);
 
     private final EnumSet<QueryFlag> flags = EnumSet.noneOf(QueryFlag.class);
     private final Message.Request.Type requestType;
@@ -333,6 +335,8 @@ class Requests {
     final ConsistencyLevel serialConsistency;
     final long defaultTimestamp;
     final int nowInSeconds;
+    // only set with protocol versions that support KEYSPACE_ON_QUERY
+    final String keyspace;
 
     QueryProtocolOptions(
         Message.Request.Type requestType,
@@ -344,7 +348,8 @@ class Requests {
         ByteBuffer pagingState,
         ConsistencyLevel serialConsistency,
         long defaultTimestamp,
-        int nowInSeconds) {
+        int nowInSeconds,
+        String keyspace) {
 
       Preconditions.checkArgument(positionalValues.length == 0 || namedValues.isEmpty());
 
@@ -358,6 +363,7 @@ class Requests {
       this.serialConsistency = serialConsistency;
       this.defaultTimestamp = defaultTimestamp;
       this.nowInSeconds = nowInSeconds;
+      this.keyspace = keyspace;
 
       // Populate flags
       if (positionalValues.length > 0) {
@@ -372,6 +378,7 @@ class Requests {
       if (pagingState != null) flags.add(QueryFlag.PAGING_STATE);
       if (serialConsistency != ConsistencyLevel.SERIAL) flags.add(QueryFlag.SERIAL_CONSISTENCY);
       if (defaultTimestamp != Long.MIN_VALUE) flags.add(QueryFlag.DEFAULT_TIMESTAMP);
+      if (keyspace != null) flags.add(QueryFlag.WITH_KEYSPACE);
       if (nowInSeconds != Integer.MIN_VALUE) flags.add(QueryFlag.NOW_IN_SECONDS);
     }
 
@@ -386,7 +393,8 @@ class Requests {
           pagingState,
           serialConsistency,
           defaultTimestamp,
-          nowInSeconds);
+          nowInSeconds,
+          keyspace);
     }
 
     void encode(ByteBuf dest, ProtocolVersion version) {
@@ -418,6 +426,8 @@ class Requests {
             CBUtil.writeConsistencyLevel(serialConsistency, dest);
           if (version.compareTo(ProtocolVersion.V3) >= 0
               && flags.contains(QueryFlag.DEFAULT_TIMESTAMP)) dest.writeLong(defaultTimestamp);
+          if (version.compareTo(ProtocolVersion.V5) >= 0 && flags.contains(QueryFlag.WITH_KEYSPACE))
+            CBUtil.writeString(keyspace, dest);
           if (version.compareTo(ProtocolVersion.V5) >= 0
               && flags.contains(QueryFlag.NOW_IN_SECONDS)) dest.writeInt(nowInSeconds);
           break;
@@ -456,6 +466,8 @@ class Requests {
             size += CBUtil.sizeOfConsistencyLevel(serialConsistency);
           if (version.compareTo(ProtocolVersion.V3) >= 0
               && flags.contains(QueryFlag.DEFAULT_TIMESTAMP)) size += 8;
+          if (version.compareTo(ProtocolVersion.V5) >= 0 && flags.contains(QueryFlag.WITH_KEYSPACE))
+            size += CBUtil.sizeOfString(keyspace);
           if (version.compareTo(ProtocolVersion.V5) >= 0
               && flags.contains(QueryFlag.NOW_IN_SECONDS)) size += 4;
           return size;
@@ -467,14 +479,15 @@ class Requests {
     @Override
     public String toString() {
       return String.format(
-          "[cl=%s, positionalVals=%s, namedVals=%s, skip=%b, psize=%d, state=%s, serialCl=%s]",
+          "[cl=%s, positionalVals=%s, namedVals=%s, skip=%b, psize=%d, state=%s, serialCl=%s%s]",
           consistency,
           Arrays.toString(positionalValues),
           namedValues,
           skipMetadata,
           pageSize,
           pagingState,
-          serialConsistency);
+          serialConsistency,
+          keyspace == null ? "" : ", ks=" + keyspace);
     }
   }
 
@@ -581,25 +594,30 @@ class Requests {
     final ConsistencyLevel serialConsistency;
     final long defaultTimestamp;
     final int nowInSeconds;
+    // only set with protocol versions that support KEYSPACE_ON_QUERY
+    final String keyspace;
 
     BatchProtocolOptions(
         ConsistencyLevel consistency,
         ConsistencyLevel serialConsistency,
         long defaultTimestamp,
-        int nowInSeconds) {
+        int nowInSeconds,
+        String keyspace) {
       this.consistency = consistency;
       this.serialConsistency = serialConsistency;
       this.defaultTimestamp = defaultTimestamp;
       this.nowInSeconds = nowInSeconds;
+      this.keyspace = keyspace;
 
       if (serialConsistency != ConsistencyLevel.SERIAL) flags.add(QueryFlag.SERIAL_CONSISTENCY);
       if (defaultTimestamp != Long.MIN_VALUE) flags.add(QueryFlag.DEFAULT_TIMESTAMP);
+      if (keyspace != null) flags.add(QueryFlag.WITH_KEYSPACE);
       if (nowInSeconds != Integer.MIN_VALUE) flags.add(QueryFlag.NOW_IN_SECONDS);
     }
 
     BatchProtocolOptions copy(ConsistencyLevel newConsistencyLevel) {
       return new BatchProtocolOptions(
-          newConsistencyLevel, serialConsistency, defaultTimestamp, nowInSeconds);
+          newConsistencyLevel, serialConsistency, defaultTimestamp, nowInSeconds, keyspace);
     }
 
     void encode(ByteBuf dest, ProtocolVersion version) {
@@ -615,6 +633,8 @@ class Requests {
           if (flags.contains(QueryFlag.SERIAL_CONSISTENCY))
             CBUtil.writeConsistencyLevel(serialConsistency, dest);
           if (flags.contains(QueryFlag.DEFAULT_TIMESTAMP)) dest.writeLong(defaultTimestamp);
+          if (version.compareTo(ProtocolVersion.V5) >= 0 && flags.contains(QueryFlag.WITH_KEYSPACE))
+            CBUtil.writeString(keyspace, dest);
           if (version.compareTo(ProtocolVersion.V5) >= 0
               && flags.contains(QueryFlag.NOW_IN_SECONDS)) dest.writeInt(nowInSeconds);
           break;
@@ -636,6 +656,8 @@ class Requests {
           if (flags.contains(QueryFlag.SERIAL_CONSISTENCY))
             size += CBUtil.sizeOfConsistencyLevel(serialConsistency);
           if (flags.contains(QueryFlag.DEFAULT_TIMESTAMP)) size += 8;
+          if (version.compareTo(ProtocolVersion.V5) >= 0 && flags.contains(QueryFlag.WITH_KEYSPACE))
+            size += CBUtil.sizeOfString(keyspace);
           if (version.compareTo(ProtocolVersion.V5) >= 0
               && flags.contains(QueryFlag.NOW_IN_SECONDS)) size += 4;
           return size;
@@ -647,7 +669,11 @@ class Requests {
     @Override
     public String toString() {
       return String.format(
-          "[cl=%s, serialCl=%s, defaultTs=%d]", consistency, serialConsistency, defaultTimestamp);
+          "[cl=%s, serialCl=%s, defaultTs=%d%s]",
+          consistency,
+          serialConsistency,
+          defaultTimestamp,
+          keyspace == null ? "" : ", ks=" + keyspace);
     }
   }
 
@@ -661,8 +687,12 @@ class Requests {
             CBUtil.writeLongString(msg.query, dest);
 
             if (version.compareTo(ProtocolVersion.V5) >= 0) {
-              // Write empty flags for now, to communicate that no keyspace is being set.
-              dest.writeInt(0);
+              if (msg.keyspace == null) {
+                dest.writeInt(0);
+              } else {
+                dest.writeInt(WITH_KEYSPACE_FLAG);
+                CBUtil.writeString(msg.keyspace, dest);
+              }
             }
           }
 
@@ -672,26 +702,36 @@ class Requests {
 
             if (version.compareTo(ProtocolVersion.V5) >= 0) {
               size += 4; // flags
+              if (msg.keyspace != null) size += CBUtil.sizeOfString(msg.keyspace);
             }
             return size;
           }
         };
 
+    private static final int WITH_KEYSPACE_FLAG = 0x01;
+
     private final String query;
+    // only set with protocol versions that support KEYSPACE_ON_QUERY
+    final String keyspace;
 
     Prepare(String query) {
+      this(query, null);
+    }
+
+    Prepare(String query, String keyspace) {
       super(Message.Request.Type.PREPARE);
       this.query = query;
+      this.keyspace = keyspace;
     }
 
     @Override
     protected Request copyInternal() {
-      return new Prepare(query);
+      return new Prepare(query, keyspace);
     }
 
     @Override
     public String toString() {
-      return "PREPARE " + query;
+      return keyspace == null ? "PREPARE " + query : "PREPARE " + query + " (ks=" + keyspace + ')';
     }
   }
 
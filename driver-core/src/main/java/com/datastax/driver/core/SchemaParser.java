@@ -107,10 +107,11 @@ abstract class SchemaParser {
         // building the whole schema or a keyspace
         assert rows.keyspaces != null;
         Map<String, KeyspaceMetadata> keyspaces = buildKeyspaces(rows, cassandraVersion, cluster);
-        updateKeyspaces(metadata, metadata.keyspaces, keyspaces, targetKeyspace);
-        // If we rebuild all from scratch or have an updated keyspace, rebuild the token map
-        // since some replication on some keyspace may have changed
-        metadata.rebuildTokenMap();
+        boolean replicationChanged =
+            updateKeyspaces(metadata, metadata.keyspaces, keyspaces, targetKeyspace);
+        // Only rebuild the token map if a keyspace was added or dropped, or if the replication
+        // settings of an existing keyspace changed: other schema changes don't affect replicas
+        if (replicationChanged) metadata.rebuildTokenMap();
       } else {
         assert targetKeyspace != null;
         KeyspaceMetadata keyspace = metadata.keyspaces.get(targetKeyspace);
@@ -416,12 +417,17 @@ abstract class SchemaParser {
   }
 
   // Update oldKeyspaces with the changes contained in newKeyspaces.
-  // This method also takes care of triggering the relevant events
-  private void updateKeyspaces(
+  // This method also takes care of triggering the relevant events.
+  // Keyspaces that did not change at all are left untouched, so that a full refresh triggered by a
+  // burst of unrelated schema changes only replaces the keyspaces that were actually modified.
+  // Returns whether the token map needs to be rebuilt, that is if a keyspace was added or removed,
+  // or if the replication settings of an existing keyspace changed.
+  private boolean updateKeyspaces(
       Metadata metadata,
       Map<String, KeyspaceMetadata> oldKeyspaces,
       Map<String, KeyspaceMetadata> newKeyspaces,
       String keyspaceToRebuild) {
+    boolean replicationChanged = false;
     Iterator<KeyspaceMetadata> it = oldKeyspaces.values().iterator();
     while (it.hasNext()) {
       KeyspaceMetadata oldKeyspace = it.next();
@@ -431,15 +437,26 @@ abstract class SchemaParser {
       if ((keyspaceToRebuild == null || keyspaceToRebuild.equals(keyspaceName))
           && !newKeyspaces.containsKey(keyspaceName)) {
         it.remove();
+        replicationChanged = true;
         metadata.triggerOnKeyspaceRemoved(oldKeyspace);
       }
     }
     for (KeyspaceMetadata newKeyspace : newKeyspaces.values()) {
-      KeyspaceMetadata oldKeyspace = oldKeyspaces.put(newKeyspace.getName(), newKeyspace);
+      KeyspaceMetadata oldKeyspace = oldKeyspaces.get(newKeyspace.getName());
+      if (oldKeyspace != null && isUnchanged(oldKeyspace, newKeyspace)) {
+        continue;
+      }
+      oldKeyspaces.put(newKeyspace.getName(), newKeyspace);
       if (oldKeyspace == null) {
+        replicationChanged = true;
         metadata.triggerOnKeyspaceAdded(newKeyspace);
-      } else if (!oldKeyspace.equals(newKeyspace)) {
-        metadata.triggerOnKeyspaceChanged(newKeyspace, oldKeyspace);
+      } else {
+        if (!oldKeyspace.getReplication().equals(newKeyspace.getReplication())) {
+          replicationChanged = true;
+        }
+        if (!oldKeyspace.equals(newKeyspace)) {
+          metadata.triggerOnKeyspaceChanged(newKeyspace, oldKeyspace);
+        }
       }
       Map<String, TableMetadata> oldTables =
           oldKeyspace == null
@@ -467,6 +484,18 @@ abstract class SchemaParser {
               : new HashMap<String, MaterializedViewMetadata>(oldKeyspace.views);
       updateViews(metadata, oldViews, newKeyspace.views, null);
     }
+    return replicationChanged;
+  }
+
+  // Whether a freshly parsed keyspace is identical to the one we already know, including all its
+  // elements. KeyspaceMetadata.equals only considers the keyspace options and its tables.
+  private static boolean isUnchanged(KeyspaceMetadata oldKeyspace, KeyspaceMetadata newKeyspace) {
+    return oldKeyspace.isVirtual() == newKeyspace.isVirtual()
+        && oldKeyspace.equals(newKeyspace)
+        && oldKeyspace.userTypes.equals(newKeyspace.userTypes)
+        && oldKeyspace.functions.equals(newKeyspace.functions)
+        && oldKeyspace.aggregates.equals(newKeyspace.aggregates)
+        && oldKeyspace.views.equals(newKeyspace.views);
   }
 
   private void updateTables(
@@ -487,19 +516,19 @@ abstract class SchemaParser {
       }
     }
     for (TableMetadata newTable : newTables.values()) {
-      TableMetadata oldTable = oldTables.put(newTable.getName(), newTable);
+      TableMetadata oldTable = oldTables.get(newTable.getName());
       if (oldTable == null) {
+        oldTables.put(newTable.getName(), newTable);
         metadata.triggerOnTableAdded(newTable);
-      } else {
+      } else if (!oldTable.equals(newTable)) {
+        oldTables.put(newTable.getName(), newTable);
         // if we're updating a table only, we need to copy views from old table to the new table.
         if (tableToRebuild != null) {
           for (MaterializedViewMetadata view : oldTable.getViews()) {
             view.setBaseTable(newTable);
           }
         }
-        if (!oldTable.equals(newTable)) {
-          metadata.triggerOnTableChanged(newTable, oldTable);
-        }
+        metadata.triggerOnTableChanged(newTable, oldTable);
       }
     }
   }
@@ -520,10 +549,12 @@ abstract class SchemaParser {
       }
     }
     for (UserType newType : newTypes.values()) {
-      UserType oldType = oldTypes.put(newType.getTypeName(), newType);
+      UserType oldType = oldTypes.get(newType.getTypeName());
       if (oldType == null) {
+        oldTypes.put(newType.getTypeName(), newType);
         metadata.triggerOnUserTypeAdded(newType);
       } else if (!newType.equals(oldType)) {
+        oldTypes.put(newType.getTypeName(), newType);
         metadata.triggerOnUserTypeChanged(newType, oldType);
       }
     }
@@ -550,10 +581,12 @@ abstract class SchemaParser {
       String newFunctionName =
           Metadata.fullFunctionName(
               newFunction.getSimpleName(), newFunction.getArguments().values());
-      FunctionMetadata oldFunction = oldFunctions.put(newFunctionName, newFunction);
+      FunctionMetadata oldFunction = oldFunctions.get(newFunctionName);
       if (oldFunction == null) {
+        oldFunctions.put(newFunctionName, newFunction);
         metadata.triggerOnFunctionAdded(newFunction);
       } else if (!newFunction.equals(oldFunction)) {
+        oldFunctions.put(newFunctionName, newFunction);
         metadata.triggerOnFunctionChanged(newFunction, oldFunction);
       }
     }
@@ -578,10 +611,12 @@ abstract class SchemaParser {
     for (AggregateMetadata newAggregate : newAggregates.values()) {
       String newAggregateName =
           Metadata.fullFunctionName(newAggregate.getSimpleName(), newAggregate.getArgumentTypes());
-      AggregateMetadata oldAggregate = oldAggregates.put(newAggregateName, newAggregate);
+      AggregateMetadata oldAggregate = oldAggregates.get(newAggregateName);
       if (oldAggregate == null) {
+        oldAggregates.put(newAggregateName, newAggregate);
         metadata.triggerOnAggregateAdded(newAggregate);
       } else if (!newAggregate.equals(oldAggregate)) {
+        oldAggregates.put(newAggregateName, newAggregate);
         metadata.triggerOnAggregateChanged(newAggregate, oldAggregate);
       }
     }
@@ -387,6 +387,36 @@ public interface Session extends Closeable {
    */
   Cluster getCluster();
 
+  /**
+   * Returns a future that completes when this session has opened the given fraction of its core
+   * connections.
+   *
+   * <p>Session initialization only waits for the connection pools to be created. With Scylla, pools
+   * have one or more connections per shard, and some of them may still be opening after
+   * initialization, in which case requests for those shards are routed to other connections. This
+   * method allows an application to wait until routing is shard-aware, for example before reporting
+   * itself ready to receive traffic:
+   *
+   * <pre>{@code
+   * Session session = cluster.connect();
+   * // wait until all core connections to all shards are open
+   * session.getReadyFuture(1.0).get(30, TimeUnit.SECONDS);
+   * }</pre>
+   *
+   * The fraction is computed over all the pools of the session: it is the number of open core
+   * connections (counting at most the core number per shard), divided by the total number of core
+   * connections. Pools are those of the hosts that are up when the fraction is checked.
+   *
+   * <p>This method does not initialize the session: the future completes once the session has been
+   * initialized and the fraction is reached. It fails if the session gets closed before that.
+   *
+   * @param fraction the fraction of core connections to wait for, in {@code ]0, 1]}.
+   * @return the future.
+   * @throws IllegalArgumentException if the fraction is out of range.
+   * @see PoolingOptions#setConnectionInitConcurrency(int)
+   */
+  ListenableFuture<Session> getReadyFuture(double fraction);
+
   /**
    * Return a snapshot of the state of this Session.
    *
@@ -46,10 +46,12 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -64,18 +66,79 @@ class SessionManager extends AbstractSession {
   final Cluster cluster;
   final ConcurrentMap<Host, HostConnectionPool> pools;
   final HostConnectionPool.PoolState poolsState;
+  // When connection pools are shared, the internal session that owns them (null otherwise)
+  final SessionManager poolsOwner;
+  // For the internal session that holds the pools of a workload class, that class (null otherwise)
+  final WorkloadClass workloadClass;
+  // The internal sessions that hold the pools of each workload class, indexed by class name
+  final Map<String, SessionManager> workloadSessions;
   private final AtomicReference<ListenableFuture<Session>> initFuture =
       new AtomicReference<ListenableFuture<Session>>();
   final AtomicReference<CloseFuture> closeFuture = new AtomicReference<CloseFuture>();
 
+  private final AutoPreparedStatements autoPreparedStatements;
+  private final NearCache nearCache;
+  private final RequestCoalescer requestCoalescer;
+
+  // Futures returned by getReadyFuture() that are not completed yet
+  private final List<ReadinessWaiter> readinessWaiters =
+      new CopyOnWriteArrayList<ReadinessWaiter>();
+
   private volatile boolean isInit;
   private volatile boolean isClosing;
 
+  // The logged keyspace of a session that shares its pools, since its connections can't be bound
+  private volatile String sharedKeyspace;
+
   // Package protected, only Cluster should construct that.
   SessionManager(Cluster cluster) {
+    this(cluster, null);
+  }
+
+  /**
+   * Creates a session that borrows its connections from the pools of {@code poolsOwner}, or that
+   * owns its pools if it is null.
+   *
+   * @see PoolingOptions#setSharedPools(boolean)
+   */
+  SessionManager(Cluster cluster, SessionManager poolsOwner) {
     this.cluster = cluster;
+    this.poolsOwner = poolsOwner;
+    this.workloadClass = null;
+    if (poolsOwner == null) {
+      this.pools = new ConcurrentHashMap<Host, HostConnectionPool>();
+      this.poolsState = new HostConnectionPool.PoolState();
+      Map<String, SessionManager> workloadSessions = new HashMap<String, SessionManager>();
+      for (WorkloadClass workloadClass : cluster.getConfiguration().getWorkloadClasses().values())
+        workloadSessions.put(workloadClass.getName(), new SessionManager(this, workloadClass));
+      this.workloadSessions = Collections.unmodifiableMap(workloadSessions);
+    } else {
+      this.pools = poolsOwner.pools;
+      this.poolsState = poolsOwner.poolsState;
+      this.workloadSessions = poolsOwner.workloadSessions;
+    }
+    this.autoPreparedStatements =
+        new AutoPreparedStatements(
+            this, cluster.getConfiguration().getQueryOptions().getAutoPrepareCacheSize());
+    int nearCacheSize = cluster.getConfiguration().getQueryOptions().getNearCacheSize();
+    this.nearCache = nearCacheSize > 0 ? new NearCache(this, nearCacheSize) : null;
+    this.requestCoalescer = new RequestCoalescer(this);
+  }
+
+  /**
+   * Creates the internal session that holds the pools of a workload class. Its connections follow
+   * the keyspace of {@code parent}.
+   */
+  private SessionManager(SessionManager parent, WorkloadClass workloadClass) {
+    this.cluster = parent.cluster;
+    this.poolsOwner = null;
+    this.workloadClass = workloadClass;
     this.pools = new ConcurrentHashMap<Host, HostConnectionPool>();
-    this.poolsState = new HostConnectionPool.PoolState();
+    this.poolsState = parent.poolsState;
+    this.workloadSessions = Collections.emptyMap();
+    this.autoPreparedStatements = null; // never executes statements itself
+    this.nearCache = null;
+    this.requestCoalescer = null;
   }
 
   @Override
@@ -103,8 +166,33 @@ class SessionManager extends AbstractSession {
     final SettableFuture<Session> myInitFuture = SettableFuture.create();
     if (!initFuture.compareAndSet(null, myInitFuture)) return initFuture.get();
 
+    if (poolsOwner != null) {
+      // the owner creates the pools and keeps them up to date with host events
+      GuavaCompatibility.INSTANCE.addCallback(
+          poolsOwner.initAsync(),
+          new FutureCallback<Session>() {
+            @Override
+            public void onSuccess(Session result) {
+              isInit = true;
+              myInitFuture.set(SessionManager.this);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+              SessionManager.this.closeAsync(); // don't leak the session
+              myInitFuture.setException(t);
+            }
+          });
+      return myInitFuture;
+    }
+
     Collection<Host> hosts = cluster.getMetadata().allHosts();
-    ListenableFuture<?> allPoolsCreatedFuture = createPools(hosts);
+    List<ListenableFuture<?>> creationFutures =
+        Lists.newArrayListWithCapacity(workloadSessions.size() + 1);
+    creationFutures.add(createPools(hosts));
+    for (SessionManager workloadSession : workloadSessions.values())
+      creationFutures.add(workloadSession.initAsync());
+    ListenableFuture<?> allPoolsCreatedFuture = Futures.allAsList(creationFutures);
     ListenableFuture<?> allPoolsUpdatedFuture =
         GuavaCompatibility.INSTANCE.transformAsync(
             allPoolsCreatedFuture,
@@ -123,6 +211,7 @@ class SessionManager extends AbstractSession {
           @Override
           public void onSuccess(Object result) {
             myInitFuture.set(SessionManager.this);
+            checkReadiness();
           }
 
           @Override
@@ -143,12 +232,42 @@ class SessionManager extends AbstractSession {
 
   @Override
   public String getLoggedKeyspace() {
-    return poolsState.keyspace;
+    return poolsOwner == null ? poolsState.keyspace : sharedKeyspace;
+  }
+
+  /**
+   * Sets the logged keyspace of a session that shares its pools, in lieu of a {@code USE} query.
+   *
+   * @param keyspace the keyspace, in its internal (unquoted) form.
+   */
+  void setSharedKeyspace(String keyspace) {
+    assert poolsOwner != null;
+    this.sharedKeyspace = keyspace;
   }
 
   @Override
-  public ResultSetFuture executeAsync(final Statement statement) {
+  public ResultSetFuture executeAsync(Statement statement) {
+    if (poolsOwner != null && isUseQuery(statement))
+      // the connection would stay bound to that keyspace for the other sessions
+      throw new IllegalStateException(
+          "USE queries are not supported when connection pools are shared, "
+              + "use fully-qualified table names instead");
+    String workloadClass = statement.getWorkloadClass();
+    if (workloadClass != null && !workloadSessions.containsKey(workloadClass))
+      throw new IllegalArgumentException("Unknown workload class " + workloadClass);
+    if (nearCache != null && nearCache.isCacheable(statement))
+      return nearCache.executeAsync((BoundStatement) statement);
+    QueryOptions queryOptions = configuration().getQueryOptions();
+    if (queryOptions.isCoalesceReads()
+        && RequestCoalescer.isIdempotentRead(statement, queryOptions))
+      return requestCoalescer.executeAsync((BoundStatement) statement);
+    return executeUncachedAsync(statement);
+  }
+
+  /** Executes the given statement, bypassing the near cache. */
+  ResultSetFuture executeUncachedAsync(Statement statement) {
     if (isInit) {
+      statement = maybeAutoPrepare(statement);
       DefaultResultSetFuture future =
           new DefaultResultSetFuture(
               this, cluster.manager.protocolVersion(), makeRequestMessage(statement, null));
@@ -161,6 +280,7 @@ class SessionManager extends AbstractSession {
       // version).
       // Because of the way the future is built, we need another 'proxy' future that we can return
       // now.
+      final Statement userStatement = statement;
       final ChainedResultSetFuture chainedFuture = new ChainedResultSetFuture();
       final TracingInfo tracingInfo = getTracingInfoFactory().buildTracingInfo();
       this.initAsync()
@@ -168,6 +288,7 @@ class SessionManager extends AbstractSession {
               new Runnable() {
                 @Override
                 public void run() {
+                  Statement statement = maybeAutoPrepare(userStatement);
                   DefaultResultSetFuture actualFuture =
                       new DefaultResultSetFuture(
                           SessionManager.this,
@@ -182,14 +303,59 @@ class SessionManager extends AbstractSession {
     }
   }
 
+  private boolean isUseQuery(Statement statement) {
+    if (!(statement instanceof RegularStatement)) return false;
+    String query =
+        ((RegularStatement) statement)
+            .getQueryString(cluster.manager.configuration.getCodecRegistry())
+            .trim();
+    return query.length() > 3
+        && query.regionMatches(true, 0, "USE", 0, 3)
+        && (Character.isWhitespace(query.charAt(3)) || query.charAt(3) == '"');
+  }
+
+  /**
+   * Returns the bound statement to execute instead of the given one if it is a regular statement
+   * that got automatically prepared, or the statement itself otherwise.
+   *
+   * @see QueryOptions#setAutoPrepareThreshold(int)
+   */
+  private Statement maybeAutoPrepare(Statement statement) {
+    int threshold = configuration().getQueryOptions().getAutoPrepareThreshold();
+    if (threshold <= 0 || !(statement instanceof RegularStatement)) return statement;
+    ProtocolVersion protocolVersion = cluster.manager.protocolVersion();
+    if (protocolVersion == ProtocolVersion.V1) return statement;
+    BoundStatement bound =
+        autoPreparedStatements.maybeBind(
+            (RegularStatement) statement,
+            poolsState.keyspace,
+            threshold,
+            protocolVersion,
+            cluster.manager.configuration.getCodecRegistry());
+    return bound == null ? statement : bound;
+  }
+
   @Override
   protected ListenableFuture<PreparedStatement> prepareAsync(
       String query, Map<String, ByteBuffer> customPayload) {
-    Requests.Prepare request = new Requests.Prepare(query);
+    String keyspace = requestKeyspace(cluster.manager.protocolVersion());
+    Requests.Prepare request = new Requests.Prepare(query, keyspace);
     request.setCustomPayload(customPayload);
     Connection.Future future = new Connection.Future(request);
     execute(future, Statement.DEFAULT);
-    return toPreparedStatement(query, future);
+    return toPreparedStatement(query, keyspace == null ? poolsState.keyspace : keyspace, future);
+  }
+
+  /**
+   * Returns the keyspace to send with {@code QUERY}, {@code BATCH} and {@code PREPARE} requests, or
+   * {@code null} if the protocol version does not support it, in which case connections get bound
+   * to the keyspace instead.
+   */
+  String requestKeyspace(ProtocolVersion protocolVersion) {
+    // the protocol version is unknown until the cluster is initialized
+    if (protocolVersion == null
+        || !ProtocolFeature.KEYSPACE_ON_QUERY.isSupportedBy(protocolVersion)) return null;
+    return getLoggedKeyspace();
   }
 
   @Override
@@ -198,13 +364,25 @@ class SessionManager extends AbstractSession {
     if (future != null) return future;
 
     isClosing = true;
+    if (poolsOwner != null) {
+      // the pools are only closed with the last session that shares them
+      future = cluster.manager.releaseSharedSession(this);
+      return closeFuture.compareAndSet(null, future) ? future : closeFuture.get();
+    }
     cluster.manager.removeSession(this);
 
-    List<CloseFuture> futures = new ArrayList<CloseFuture>(pools.size());
+    List<CloseFuture> futures = new ArrayList<CloseFuture>(pools.size() + workloadSessions.size());
     for (HostConnectionPool pool : pools.values()) futures.add(pool.closeAsync());
+    for (SessionManager workloadSession : workloadSessions.values())
+      futures.add(workloadSession.closeAsync());
 
     future = new CloseFuture.Forwarding(futures);
 
+    for (ReadinessWaiter waiter : readinessWaiters) {
+      if (readinessWaiters.remove(waiter))
+        waiter.future.setException(new IllegalStateException("Session was closed"));
+    }
+
     return closeFuture.compareAndSet(null, future)
         ? future
         : closeFuture.get(); // We raced, it's ok, return the future that was actually set
@@ -215,6 +393,51 @@ class SessionManager extends AbstractSession {
     return closeFuture.get() != null;
   }
 
+  @Override
+  public ListenableFuture<Session> getReadyFuture(double fraction) {
+    if (fraction <= 0 || fraction > 1)
+      throw new IllegalArgumentException("fraction must be in ]0, 1], got " + fraction);
+    if (poolsOwner != null)
+      return GuavaCompatibility.INSTANCE.transform(
+          poolsOwner.getReadyFuture(fraction), Functions.<Session>constant(this));
+    ReadinessWaiter waiter = new ReadinessWaiter(fraction);
+    readinessWaiters.add(waiter);
+    if (isClosing && readinessWaiters.remove(waiter))
+      waiter.future.setException(new IllegalStateException("Session was closed"));
+    checkReadiness();
+    return waiter.future;
+  }
+
+  /**
+   * Completes the futures returned by {@link #getReadyFuture(double)} whose fraction of core
+   * connections is open. Called whenever a pool opens a connection or is removed.
+   */
+  void checkReadiness() {
+    if (readinessWaiters.isEmpty() || !isInit) return;
+    ListenableFuture<Session> init = initFuture.get();
+    if (init == null || !init.isDone()) return;
+
+    long target = 0, open = 0;
+    for (HostConnectionPool pool : pools.values()) {
+      target += pool.coreConnectionsTarget();
+      open += pool.openCoreConnections();
+    }
+    for (ReadinessWaiter waiter : readinessWaiters) {
+      // a session with no pools has nothing to wait for
+      if (open >= Math.ceil(waiter.fraction * target) && readinessWaiters.remove(waiter))
+        waiter.future.set(this);
+    }
+  }
+
+  private static class ReadinessWaiter {
+    final double fraction;
+    final SettableFuture<Session> future = SettableFuture.create();
+
+    ReadinessWaiter(double fraction) {
+      this.fraction = fraction;
+    }
+  }
+
   @Override
   public Cluster getCluster() {
     return cluster;
@@ -226,7 +449,7 @@ class SessionManager extends AbstractSession {
   }
 
   private ListenableFuture<PreparedStatement> toPreparedStatement(
-      final String query, final Connection.Future future) {
+      final String query, final String queryKeyspace, final Connection.Future future) {
     return GuavaCompatibility.INSTANCE.transformAsync(
         future,
         new AsyncFunction<Response, PreparedStatement>() {
@@ -240,11 +463,7 @@ class SessionManager extends AbstractSession {
                     Responses.Result.Prepared pmsg = (Responses.Result.Prepared) rm;
                     PreparedStatement stmt =
                         DefaultPreparedStatement.fromMessage(
-                            pmsg,
-                            cluster,
-                            query,
-                            poolsState.keyspace,
-                            future.getHost().getLwtInfo());
+                            pmsg, cluster, query, queryKeyspace, future.getHost().getLwtInfo());
                     stmt = cluster.manager.addPrepared(stmt);
                     if (cluster.getConfiguration().getQueryOptions().isPrepareOnAllHosts()) {
                       // All Sessions are connected to the same nodes so it's enough to prepare only
@@ -281,6 +500,25 @@ class SessionManager extends AbstractSession {
     return cluster.manager.connectionFactory;
   }
 
+  /**
+   * Returns the pooling options of this session's pools: those of its workload class for the
+   * internal session of a class, the cluster's otherwise.
+   */
+  PoolingOptions poolingOptions() {
+    return workloadClass == null
+        ? configuration().getPoolingOptions()
+        : workloadClass.getPoolingOptions();
+  }
+
+  /**
+   * Returns the session whose pools the given statement must be sent through, or {@code null} if it
+   * refers to an unknown workload class.
+   */
+  private SessionManager poolsSession(Statement statement) {
+    String name = statement.getWorkloadClass();
+    return name == null ? this : workloadSessions.get(name);
+  }
+
   Configuration configuration() {
     return cluster.manager.configuration;
   }
@@ -451,7 +689,9 @@ class SessionManager extends AbstractSession {
 
   CloseFuture removePool(Host host) {
     final HostConnectionPool pool = pools.remove(host);
-    return pool == null ? CloseFuture.immediateFuture() : pool.closeAsync();
+    if (pool == null) return CloseFuture.immediateFuture();
+    checkReadiness();
+    return pool.closeAsync();
   }
 
   /*
@@ -648,7 +888,8 @@ class SessionManager extends AbstractSession {
               usedPagingState,
               serialConsistency,
               defaultTimestamp,
-              nowInSeconds);
+              nowInSeconds,
+              requestKeyspace(protocolVersion));
       request = new Requests.Query(qString, options, statement.isTracing());
     } else if (statement instanceof BoundStatement) {
       BoundStatement bs = (BoundStatement) statement;
@@ -678,7 +919,8 @@ class SessionManager extends AbstractSession {
               usedPagingState,
               serialConsistency,
               defaultTimestamp,
-              nowInSeconds);
+              nowInSeconds,
+              null); // the statement was prepared with its keyspace
       request =
           new Requests.Execute(
               bs.statement.getPreparedId().boundValuesMetadata.id,
@@ -698,7 +940,11 @@ class SessionManager extends AbstractSession {
       BatchStatement.IdAndValues idAndVals = bs.getIdAndValues(protocolVersion, codecRegistry);
       Requests.BatchProtocolOptions options =
           new Requests.BatchProtocolOptions(
-              consistency, serialConsistency, defaultTimestamp, nowInSeconds);
+              consistency,
+              serialConsistency,
+              defaultTimestamp,
+              nowInSeconds,
+              requestKeyspace(protocolVersion));
       request =
           new Requests.Batch(
               bs.batchType, idAndVals.ids, idAndVals.values, options, statement.isTracing());
@@ -723,14 +969,25 @@ class SessionManager extends AbstractSession {
           null, new IllegalStateException("Could not send request, session is closed"), 0, 0);
       return;
     }
-    if (isInit) new RequestHandler(this, callback, statement, tracingInfo).sendRequest();
+    final SessionManager poolsSession = poolsSession(statement);
+    if (poolsSession == null) {
+      callback.onException(
+          null,
+          new IllegalArgumentException("Unknown workload class " + statement.getWorkloadClass()),
+          0,
+          0);
+      return;
+    }
+    if (isInit)
+      new RequestHandler(this, poolsSession, callback, statement, tracingInfo).sendRequest();
     else
       this.initAsync()
           .addListener(
               new Runnable() {
                 @Override
                 public void run() {
-                  new RequestHandler(SessionManager.this, callback, statement, tracingInfo)
+                  new RequestHandler(
+                          SessionManager.this, poolsSession, callback, statement, tracingInfo)
                       .sendRequest();
                 }
               },
@@ -745,6 +1002,10 @@ class SessionManager extends AbstractSession {
   private ListenableFuture<PreparedStatement> prepare(
       final PreparedStatement statement, EndPoint toExclude) {
     final String query = statement.getQueryString();
+    final String keyspace =
+        ProtocolFeature.KEYSPACE_ON_QUERY.isSupportedBy(cluster.manager.protocolVersion())
+            ? statement.getQueryKeyspace()
+            : null;
     List<ListenableFuture<Response>> futures = Lists.newArrayListWithExpectedSize(pools.size());
     for (final Map.Entry<Host, HostConnectionPool> entry : pools.entrySet()) {
       if (entry.getKey().getEndPoint().equals(toExclude)) continue;
@@ -763,7 +1024,8 @@ class SessionManager extends AbstractSession {
                 new AsyncFunction<Connection, Response>() {
                   @Override
                   public ListenableFuture<Response> apply(final Connection c) throws Exception {
-                    Connection.Future responseFuture = c.write(new Requests.Prepare(query));
+                    Connection.Future responseFuture =
+                        c.write(new Requests.Prepare(query, keyspace));
                     GuavaCompatibility.INSTANCE.addCallback(
                         responseFuture,
                         new FutureCallback<Response>() {
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The end point of a connection to the shard-aware port of a node: it resolves to the address of
+ * the node's regular end point, with the shard-aware port.
+ *
+ * <p>This is what the driver's own SSL options see for such connections, so that SSL sessions get
+ * cached (and resumed) per address and port actually connected to: a session negotiated with the
+ * regular port is not offered to the shard-aware one, and vice versa.
+ */
+class ShardAwarePortEndPoint implements EndPoint {
+
+  private final EndPoint endPoint;
+  private final InetSocketAddress address;
+
+  ShardAwarePortEndPoint(EndPoint endPoint, InetSocketAddress address) {
+    this.endPoint = endPoint;
+    this.address = address;
+  }
+
+  @Override
+  public InetSocketAddress resolve() {
+    return address;
+  }
+
+  @Override
+  public String toString() {
+    return endPoint + " (port " + address.getPort() + ")";
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.codahale.metrics.Timer;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the SSL handshake of a connection. It must be placed before the SSL handler in the
+ * pipeline, and removes itself once the channel is active.
+ */
+class SslHandshakeMeter extends ChannelInboundHandlerAdapter {
+
+  private final SslHandler sslHandler;
+  private final Timer handshakes;
+
+  SslHandshakeMeter(SslHandler sslHandler, Timer handshakes) {
+    this.sslHandler = sslHandler;
+    this.handshakes = handshakes;
+  }
+
+  @Override
+  public void channelActive(ChannelHandlerContext ctx) throws Exception {
+    final long start = System.nanoTime();
+    sslHandler
+        .handshakeFuture()
+        .addListener(
+            new GenericFutureListener<Future<Channel>>() {
+              @Override
+              public void operationComplete(Future<Channel> future) {
+                if (future.isSuccess())
+                  handshakes.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+              }
+            });
+    ctx.pipeline().remove(this);
+    super.channelActive(ctx);
+  }
+}
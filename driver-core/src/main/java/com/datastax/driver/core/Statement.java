@@ -75,6 +75,9 @@ public abstract class Statement {
   private volatile int fetchSize;
   private volatile long defaultTimestamp = Long.MIN_VALUE;
   private volatile int readTimeoutMillis = Integer.MIN_VALUE;
+  private volatile int requestTimeoutMillis = Integer.MIN_VALUE;
+  private volatile String workloadClass;
+  private volatile long nearCacheTtlMillis;
   private volatile RetryPolicy retryPolicy;
   private volatile ByteBuffer pagingState;
   protected volatile Boolean idempotent;
@@ -375,6 +378,96 @@ public abstract class Statement {
     return readTimeoutMillis;
   }
 
+  /**
+   * Overrides the default overall timeout ({@link QueryOptions#getRequestTimeoutMillis()}) for this
+   * statement.
+   *
+   * <p>Unlike the {@link #setReadTimeoutMillis(int) read timeout}, which applies to each attempt,
+   * this timeout covers the whole execution, retries and speculative executions included.
+   *
+   * @param requestTimeoutMillis the timeout to set. Negative values are not allowed. If it is 0,
+   *     the overall timeout will be disabled for this statement.
+   * @return this {@code Statement} object.
+   */
+  public Statement setRequestTimeoutMillis(int requestTimeoutMillis) {
+    Preconditions.checkArgument(requestTimeoutMillis >= 0, "request timeout must be >= 0");
+    this.requestTimeoutMillis = requestTimeoutMillis;
+    return this;
+  }
+
+  /**
+   * Return the overall timeout that was set for this statement.
+   *
+   * @return the timeout. Note that a negative value means that the default {@link
+   *     QueryOptions#getRequestTimeoutMillis()} will be used.
+   */
+  public int getRequestTimeoutMillis() {
+    return requestTimeoutMillis;
+  }
+
+  /**
+   * Assigns this statement to a workload class, so that it gets sent through the dedicated
+   * connection pools of that class.
+   *
+   * <p>The class must have been declared with {@link
+   * Cluster.Builder#withWorkloadClasses(WorkloadClass...)}, otherwise the execution of this
+   * statement fails with an {@link IllegalArgumentException}.
+   *
+   * @param workloadClass the name of the workload class, or {@code null} to use the regular
+   *     connection pools of the session (the default).
+   * @return this {@code Statement} object.
+   */
+  public Statement setWorkloadClass(String workloadClass) {
+    this.workloadClass = workloadClass;
+    return this;
+  }
+
+  /**
+   * Returns the name of the workload class of this statement.
+   *
+   * @return the name, or {@code null} if the statement uses the regular connection pools.
+   */
+  public String getWorkloadClass() {
+    return workloadClass;
+  }
+
+  /**
+   * Sets how long the results of this statement may be served from the session's near cache.
+   *
+   * <p>This only has an effect if the near cache is enabled (see {@link
+   * QueryOptions#setNearCacheSize(int)}), and if this statement is an idempotent {@link
+   * BoundStatement} of a {@code SELECT} query. Cached results are not invalidated by writes: only
+   * use this for rows that rarely change, and for which stale reads are acceptable for the duration
+   * of the TTL.
+   *
+   * <p>Results are cached per prepared statement, bound values, consistency level, serial
+   * consistency level and request timeout (the defaults of {@link QueryOptions} apply if they are
+   * not set), read timeout, retry policy, {@linkplain #setHost(Host) target host} and {@linkplain
+   * #setWorkloadClass(String) workload class}: a read at {@code QUORUM} is never served a result
+   * that was read at {@code ONE}, and a read pinned to a host is never served a result read from
+   * another host. Traced statements and statements with a {@linkplain #setOutgoingPayload(Map)
+   * custom payload} are never cached.
+   *
+   * @param nearCacheTtlMillis the TTL, in milliseconds. 0 (the default) means that the results of
+   *     this statement are never cached.
+   * @return this {@code Statement} object.
+   * @throws IllegalArgumentException if {@code nearCacheTtlMillis < 0}.
+   */
+  public Statement setNearCacheTtlMillis(long nearCacheTtlMillis) {
+    Preconditions.checkArgument(nearCacheTtlMillis >= 0, "near cache TTL must be >= 0");
+    this.nearCacheTtlMillis = nearCacheTtlMillis;
+    return this;
+  }
+
+  /**
+   * Returns how long the results of this statement may be served from the session's near cache.
+   *
+   * @return the TTL, in milliseconds, or 0 if the results of this statement are never cached.
+   */
+  public long getNearCacheTtlMillis() {
+    return nearCacheTtlMillis;
+  }
+
   /**
    * Sets the paging state.
    *
@@ -671,6 +764,28 @@ public abstract class Statement {
     return this;
   }
 
+  /**
+   * Copies the execution options of this statement (but not its query nor its values) to another
+   * statement.
+   */
+  void copyOptionsTo(Statement target) {
+    target.consistency = consistency;
+    target.serialConsistency = serialConsistency;
+    target.traceQuery = traceQuery;
+    target.fetchSize = fetchSize;
+    target.defaultTimestamp = defaultTimestamp;
+    target.readTimeoutMillis = readTimeoutMillis;
+    target.requestTimeoutMillis = requestTimeoutMillis;
+    target.workloadClass = workloadClass;
+    target.nearCacheTtlMillis = nearCacheTtlMillis;
+    target.retryPolicy = retryPolicy;
+    target.pagingState = pagingState;
+    target.idempotent = isIdempotent();
+    target.outgoingPayload = outgoingPayload;
+    target.host = host;
+    target.nowInSeconds = nowInSeconds;
+  }
+
   public Host getLastHost() {
     return lastHost;
   }
@@ -168,6 +168,39 @@ public abstract class StatementWrapper extends Statement {
     return wrapped.getReadTimeoutMillis();
   }
 
+  @Override
+  public Statement setRequestTimeoutMillis(int requestTimeoutMillis) {
+    wrapped.setRequestTimeoutMillis(requestTimeoutMillis);
+    return this;
+  }
+
+  @Override
+  public int getRequestTimeoutMillis() {
+    return wrapped.getRequestTimeoutMillis();
+  }
+
+  @Override
+  public Statement setWorkloadClass(String workloadClass) {
+    wrapped.setWorkloadClass(workloadClass);
+    return this;
+  }
+
+  @Override
+  public String getWorkloadClass() {
+    return wrapped.getWorkloadClass();
+  }
+
+  @Override
+  public Statement setNearCacheTtlMillis(long nearCacheTtlMillis) {
+    wrapped.setNearCacheTtlMillis(nearCacheTtlMillis);
+    return this;
+  }
+
+  @Override
+  public long getNearCacheTtlMillis() {
+    return wrapped.getNearCacheTtlMillis();
+  }
+
   @Override
   public Statement setPagingState(PagingState pagingState, CodecRegistry codecRegistry) {
     wrapped.setPagingState(pagingState, codecRegistry);
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that spreads its updates over several cells, to avoid contention when it is incremented
+ * by many threads (a poor man's {@code LongAdder}, which is not available on Java 6).
+ *
+ * <p>Each thread updates the cell selected by its id; cells are padded so that they don't share a
+ * cache line. Reading the counter sums all the cells, and is therefore more expensive than an
+ * update.
+ */
+class StripedCounter {
+
+  // 8 longs = 64 bytes, the size of a cache line on most architectures
+  private static final int PADDING = 8;
+
+  private final int mask;
+  private final AtomicLongArray cells;
+
+  StripedCounter() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  StripedCounter(int stripes) {
+    int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+    this.mask = size - 1;
+    this.cells = new AtomicLongArray(size * PADDING);
+  }
+
+  void increment() {
+    add(1);
+  }
+
+  void add(long delta) {
+    int stripe = (int) Thread.currentThread().getId() & mask;
+    cells.addAndGet(stripe * PADDING, delta);
+  }
+
+  long sum() {
+    long sum = 0;
+    for (int i = 0; i < cells.length(); i += PADDING) sum += cells.get(i);
+    return sum;
+  }
+}
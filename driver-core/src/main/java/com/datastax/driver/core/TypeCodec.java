@@ -36,6 +36,7 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -421,6 +422,59 @@ public abstract class TypeCodec<T> {
     return DurationCodec.instance;
   }
 
+  /**
+   * Return a newly-created codec for the given vector type of {@code float}, that maps it to a
+   * primitive {@code float[]}.
+   *
+   * <p>The elements are copied in bulk from and to the serialized form, without boxing. This is the
+   * recommended mapping for vector embeddings, and the one that the default {@link CodecRegistry}
+   * returns when no Java type is specified.
+   *
+   * <p>This method does not cache returned instances and returns a newly-allocated object at each
+   * invocation.
+   *
+   * @param type the vector type this codec should handle. Its subtype must be {@code float}.
+   * @return A newly-created codec for the given vector type.
+   */
+  public static TypeCodec<float[]> floatVector(DataType.VectorType type) {
+    return new FloatVectorCodec(type);
+  }
+
+  /**
+   * Return a newly-created codec for the given vector type of {@code double}, that maps it to a
+   * primitive {@code double[]}.
+   *
+   * <p>The elements are copied in bulk from and to the serialized form, without boxing.
+   *
+   * <p>This method does not cache returned instances and returns a newly-allocated object at each
+   * invocation.
+   *
+   * @param type the vector type this codec should handle. Its subtype must be {@code double}.
+   * @return A newly-created codec for the given vector type.
+   */
+  public static TypeCodec<double[]> doubleVector(DataType.VectorType type) {
+    return new DoubleVectorCodec(type);
+  }
+
+  /**
+   * Return a newly-created codec for the given vector type, that maps it to a {@link List} of its
+   * elements, as handled by the given element codec.
+   *
+   * <p>This works for any subtype, but requires boxing for numeric ones; prefer {@link
+   * #floatVector(DataType.VectorType)} and {@link #doubleVector(DataType.VectorType)} when
+   * applicable.
+   *
+   * <p>This method does not cache returned instances and returns a newly-allocated object at each
+   * invocation.
+   *
+   * @param type the vector type this codec should handle.
+   * @param elementCodec the codec that will handle elements of this vector.
+   * @return A newly-created codec for the given vector type.
+   */
+  public static <E> TypeCodec<List<E>> vector(DataType.VectorType type, TypeCodec<E> elementCodec) {
+    return new VectorCodec<E>(type, elementCodec);
+  }
+
   protected final TypeToken<T> javaType;
 
   protected final DataType cqlType;
@@ -2710,4 +2764,358 @@ public abstract class TypeCodec<T> {
       return value.toString();
     }
   }
+
+  /**
+   * Base class for the codecs that map a {@link DataType.VectorType vector type} of a fixed-length
+   * numeric subtype to a primitive array.
+   *
+   * <p>Vector elements are serialized back to back, without length prefixes, so the whole array can
+   * be copied in bulk through a view of the buffer.
+   */
+  private abstract static class PrimitiveVectorCodec<T> extends TypeCodec<T> {
+
+    protected final int dimensions;
+    private final int elementSize;
+
+    private PrimitiveVectorCodec(
+        DataType.VectorType cqlType, Class<T> javaType, DataType subtype, int elementSize) {
+      super(cqlType, javaType);
+      checkArgument(
+          cqlType.getSubtype().equals(subtype), "Expecting vector of %s, got %s", subtype, cqlType);
+      this.dimensions = cqlType.getDimensions();
+      this.elementSize = elementSize;
+    }
+
+    @Override
+    public ByteBuffer serialize(T value, ProtocolVersion protocolVersion) {
+      if (value == null) return null;
+      int length = length(value);
+      if (length != dimensions)
+        throw new InvalidTypeException(
+            String.format(
+                "Invalid number of elements for %s, expecting %d but got %d",
+                cqlType, dimensions, length));
+      ByteBuffer bytes = ByteBuffer.allocate(dimensions * elementSize);
+      write(value, bytes);
+      return bytes;
+    }
+
+    @Override
+    public T deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
+      if (bytes == null || bytes.remaining() == 0) return null;
+      if (bytes.remaining() != dimensions * elementSize)
+        throw new InvalidTypeException(
+            String.format(
+                "Invalid value for %s, expecting %d bytes but got %d",
+                cqlType, dimensions * elementSize, bytes.remaining()));
+      return read(bytes.duplicate().order(ByteOrder.BIG_ENDIAN));
+    }
+
+    @Override
+    public String format(T value) {
+      if (value == null) return "NULL";
+      StringBuilder sb = new StringBuilder("[");
+      for (int i = 0; i < length(value); i++) {
+        if (i > 0) sb.append(", ");
+        sb.append(formatElement(value, i));
+      }
+      return sb.append(']').toString();
+    }
+
+    @Override
+    public T parse(String value) {
+      if (value == null || value.isEmpty() || value.equalsIgnoreCase("NULL")) return null;
+      List<String> elements = parseVectorLiteral(value);
+      if (elements.size() != dimensions)
+        throw new InvalidTypeException(
+            String.format(
+                "Invalid number of elements for %s, expecting %d but got %d",
+                cqlType, dimensions, elements.size()));
+      try {
+        return parseElements(elements);
+      } catch (NumberFormatException e) {
+        throw new InvalidTypeException(
+            String.format("Cannot parse vector value from \"%s\"", value), e);
+      }
+    }
+
+    protected abstract int length(T value);
+
+    protected abstract void write(T value, ByteBuffer bytes);
+
+    protected abstract T read(ByteBuffer bytes);
+
+    protected abstract String formatElement(T value, int i);
+
+    protected abstract T parseElements(List<String> elements);
+  }
+
+  /**
+   * This codec maps a CQL {@link DataType#vector(DataType, int) vector} of {@code float} to a Java
+   * {@code float[]}.
+   */
+  private static class FloatVectorCodec extends PrimitiveVectorCodec<float[]> {
+
+    private FloatVectorCodec(DataType.VectorType cqlType) {
+      super(cqlType, float[].class, DataType.cfloat(), 4);
+    }
+
+    @Override
+    protected int length(float[] value) {
+      return value.length;
+    }
+
+    @Override
+    protected void write(float[] value, ByteBuffer bytes) {
+      bytes.asFloatBuffer().put(value);
+    }
+
+    @Override
+    protected float[] read(ByteBuffer bytes) {
+      float[] value = new float[dimensions];
+      bytes.asFloatBuffer().get(value);
+      return value;
+    }
+
+    @Override
+    protected String formatElement(float[] value, int i) {
+      return Float.toString(value[i]);
+    }
+
+    @Override
+    protected float[] parseElements(List<String> elements) {
+      float[] value = new float[elements.size()];
+      for (int i = 0; i < value.length; i++) value[i] = Float.parseFloat(elements.get(i));
+      return value;
+    }
+  }
+
+  /**
+   * This codec maps a CQL {@link DataType#vector(DataType, int) vector} of {@code double} to a Java
+   * {@code double[]}.
+   */
+  private static class DoubleVectorCodec extends PrimitiveVectorCodec<double[]> {
+
+    private DoubleVectorCodec(DataType.VectorType cqlType) {
+      super(cqlType, double[].class, DataType.cdouble(), 8);
+    }
+
+    @Override
+    protected int length(double[] value) {
+      return value.length;
+    }
+
+    @Override
+    protected void write(double[] value, ByteBuffer bytes) {
+      bytes.asDoubleBuffer().put(value);
+    }
+
+    @Override
+    protected double[] read(ByteBuffer bytes) {
+      double[] value = new double[dimensions];
+      bytes.asDoubleBuffer().get(value);
+      return value;
+    }
+
+    @Override
+    protected String formatElement(double[] value, int i) {
+      return Double.toString(value[i]);
+    }
+
+    @Override
+    protected double[] parseElements(List<String> elements) {
+      double[] value = new double[elements.size()];
+      for (int i = 0; i < value.length; i++) value[i] = Double.parseDouble(elements.get(i));
+      return value;
+    }
+  }
+
+  /**
+   * This codec maps a CQL {@link DataType#vector(DataType, int) vector} of any subtype to a Java
+   * {@link List}.
+   *
+   * <p>Elements of a fixed-length subtype are serialized back to back; elements of other subtypes
+   * are prefixed by their length, encoded as an unsigned vint. Implementation note: this codec
+   * returns mutable, non thread-safe {@link ArrayList} instances.
+   */
+  private static class VectorCodec<E> extends TypeCodec<List<E>> {
+
+    private final TypeCodec<E> eltCodec;
+    private final int dimensions;
+    private final int elementSize;
+
+    private VectorCodec(DataType.VectorType cqlType, TypeCodec<E> eltCodec) {
+      super(cqlType, TypeTokens.listOf(eltCodec.getJavaType()));
+      checkArgument(
+          eltCodec.accepts(cqlType.getSubtype()),
+          "Expecting codec for %s, got %s",
+          cqlType.getSubtype(),
+          eltCodec);
+      this.eltCodec = eltCodec;
+      this.dimensions = cqlType.getDimensions();
+      this.elementSize = fixedLength(cqlType.getSubtype());
+    }
+
+    // The subtypes that Cassandra serializes without a length prefix in vectors
+    private static int fixedLength(DataType subtype) {
+      switch (subtype.getName()) {
+        case BOOLEAN:
+          return 1;
+        case INT:
+        case FLOAT:
+          return 4;
+        case BIGINT:
+        case DOUBLE:
+        case TIMESTAMP:
+          return 8;
+        case UUID:
+        case TIMEUUID:
+          return 16;
+        default:
+          return -1;
+      }
+    }
+
+    @Override
+    public ByteBuffer serialize(List<E> value, ProtocolVersion protocolVersion) {
+      if (value == null) return null;
+      if (value.size() != dimensions)
+        throw new InvalidTypeException(
+            String.format(
+                "Invalid number of elements for %s, expecting %d but got %d",
+                cqlType, dimensions, value.size()));
+      ByteBuffer[] bbs = new ByteBuffer[dimensions];
+      int size = 0;
+      int i = 0;
+      for (E elt : value) {
+        if (elt == null) {
+          throw new NullPointerException("Vector elements cannot be null");
+        }
+        ByteBuffer bb;
+        try {
+          bb = eltCodec.serialize(elt, protocolVersion);
+        } catch (ClassCastException e) {
+          throw new InvalidTypeException(
+              String.format(
+                  "Invalid type for %s element, expecting %s but got %s",
+                  cqlType, eltCodec.getJavaType(), elt.getClass()),
+              e);
+        }
+        int length = bb.remaining();
+        if (elementSize < 0) size += VIntCoding.computeUnsignedVIntSize(length);
+        else if (length != elementSize)
+          throw new InvalidTypeException(
+              String.format(
+                  "Invalid size for %s element, expecting %d bytes but got %d",
+                  cqlType, elementSize, length));
+        size += length;
+        bbs[i++] = bb;
+      }
+      ByteBuffer result = ByteBuffer.allocate(size);
+      for (ByteBuffer bb : bbs) {
+        if (elementSize < 0) VIntCoding.writeUnsignedVInt(bb.remaining(), result);
+        result.put(bb.duplicate());
+      }
+      result.flip();
+      return result;
+    }
+
+    @Override
+    public List<E> deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
+      if (bytes == null || bytes.remaining() == 0) return null;
+      try {
+        ByteBuffer input = bytes.duplicate();
+        List<E> value = new ArrayList<E>(dimensions);
+        for (int i = 0; i < dimensions; i++) {
+          int length = elementSize < 0 ? (int) VIntCoding.readUnsignedVInt(input) : elementSize;
+          if (length > input.remaining()) throw new BufferUnderflowException();
+          ByteBuffer databb = input.slice();
+          databb.limit(length);
+          input.position(input.position() + length);
+          value.add(eltCodec.deserialize(databb, protocolVersion));
+        }
+        if (input.hasRemaining())
+          throw new InvalidTypeException(
+              String.format(
+                  "Invalid value for %s, %d bytes remaining after %d elements",
+                  cqlType, input.remaining(), dimensions));
+        return value;
+      } catch (BufferUnderflowException e) {
+        throw new InvalidTypeException("Not enough bytes to deserialize vector", e);
+      }
+    }
+
+    @Override
+    public String format(List<E> value) {
+      if (value == null) return "NULL";
+      StringBuilder sb = new StringBuilder("[");
+      int i = 0;
+      for (E v : value) {
+        if (i++ != 0) sb.append(", ");
+        sb.append(eltCodec.format(v));
+      }
+      return sb.append(']').toString();
+    }
+
+    @Override
+    public List<E> parse(String value) {
+      if (value == null || value.isEmpty() || value.equalsIgnoreCase("NULL")) return null;
+      List<String> elements = parseVectorLiteral(value);
+      if (elements.size() != dimensions)
+        throw new InvalidTypeException(
+            String.format(
+                "Invalid number of elements for %s, expecting %d but got %d",
+                cqlType, dimensions, elements.size()));
+      List<E> result = new ArrayList<E>(dimensions);
+      for (String element : elements) result.add(eltCodec.parse(element));
+      return result;
+    }
+
+    @Override
+    public boolean accepts(Object value) {
+      checkNotNull(value, "Parameter value cannot be null");
+      if (value instanceof List) {
+        List<?> list = (List<?>) value;
+        return list.isEmpty() || eltCodec.accepts(list.get(0));
+      }
+      return false;
+    }
+  }
+
+  /** Splits a vector literal, such as {@code [1.0, 2.0]}, into the literals of its elements. */
+  private static List<String> parseVectorLiteral(String value) {
+    int idx = ParseUtils.skipSpaces(value, 0);
+    if (idx >= value.length() || value.charAt(idx++) != '[')
+      throw new InvalidTypeException(
+          String.format("Cannot parse vector value from \"%s\", expecting '['", value));
+
+    List<String> elements = new ArrayList<String>();
+    idx = ParseUtils.skipSpaces(value, idx);
+    if (idx < value.length() && value.charAt(idx) == ']') return elements;
+
+    while (idx < value.length()) {
+      int n;
+      try {
+        n = ParseUtils.skipCQLValue(value, idx);
+      } catch (IllegalArgumentException e) {
+        throw new InvalidTypeException(
+            String.format(
+                "Cannot parse vector value from \"%s\", invalid CQL value at character %d",
+                value, idx),
+            e);
+      }
+      elements.add(value.substring(idx, n));
+      idx = ParseUtils.skipSpaces(value, n);
+      if (idx >= value.length()) break;
+      if (value.charAt(idx) == ']') return elements;
+      if (value.charAt(idx++) != ',')
+        throw new InvalidTypeException(
+            String.format(
+                "Cannot parse vector value from \"%s\", at character %d expecting ',' but got '%c'",
+                value, idx, value.charAt(idx - 1)));
+      idx = ParseUtils.skipSpaces(value, idx);
+    }
+    throw new InvalidTypeException(
+        String.format("Malformed vector value \"%s\", missing closing ']'", value));
+  }
 }
@@ -48,6 +48,7 @@ import io.netty.util.concurrent.FastThreadLocal;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Variable length encoding inspired from Google <a
@@ -86,6 +87,23 @@ class VIntCoding {
     return retval;
   }
 
+  static long readUnsignedVInt(ByteBuffer input) {
+    int firstByte = input.get();
+
+    // Bail out early if this is one byte, necessary or it fails later
+    if (firstByte >= 0) return firstByte;
+
+    int size = numberOfExtraBytesToRead(firstByte);
+    long retval = firstByte & firstByteValueMask(size);
+    for (int ii = 0; ii < size; ii++) {
+      byte b = input.get();
+      retval <<= 8;
+      retval |= b & 0xff;
+    }
+
+    return retval;
+  }
+
   static long readVInt(DataInput input) throws IOException {
     return decodeZigZag64(readUnsignedVInt(input));
   }
@@ -128,6 +146,16 @@ class VIntCoding {
     output.write(VIntCoding.encodeVInt(value, size), 0, size);
   }
 
+  static void writeUnsignedVInt(long value, ByteBuffer output) {
+    int size = VIntCoding.computeUnsignedVIntSize(value);
+    if (size == 1) {
+      output.put((byte) value);
+      return;
+    }
+
+    output.put(VIntCoding.encodeVInt(value, size), 0, size);
+  }
+
   private static byte[] encodeVInt(long value, int size) {
     byte encodingSpace[] = encodingBuffer.get();
     int extraBytes = size - 1;
@@ -177,7 +205,7 @@ class VIntCoding {
   }
 
   /** Compute the number of bytes that would be needed to encode an unsigned varint. */
-  private static int computeUnsignedVIntSize(final long value) {
+  static int computeUnsignedVIntSize(final long value) {
     int magnitude =
         Long.numberOfLeadingZeros(
             value | 1); // | with 1 to ensure magntiude <= 63, so (63 - 1) / 7 <= 8
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A class of workload that gets its own, dedicated connection pools.
+ *
+ * <p>Requests of different natures (for example latency-sensitive OLTP queries and bulk analytics)
+ * that run through the same connections compete for their stream ids and write queues, so a burst
+ * of one slows down the others. Statements {@linkplain Statement#setWorkloadClass(String) tagged}
+ * with a workload class are sent through separate connections, sized with the class' own {@link
+ * PoolingOptions}; they also have separate {@linkplain Metrics#getWorkloadClassMetrics(String)
+ * metrics}.
+ *
+ * <p>A workload class can also authenticate its connections with its own credentials. With
+ * ScyllaDB, this is how requests get attached to a different service level, and therefore to a
+ * different share of the server resources (see workload prioritization in the ScyllaDB
+ * documentation).
+ *
+ * <p>Workload classes are declared with {@link
+ * Cluster.Builder#withWorkloadClasses(WorkloadClass...)}. Each session that owns its connection
+ * pools opens an additional pool per class and per host, so keep the number of classes small.
+ */
+public class WorkloadClass {
+
+  private final String name;
+  private final PoolingOptions poolingOptions;
+  private final AuthProvider authProvider;
+
+  /**
+   * Creates a new workload class that authenticates with the credentials of the cluster.
+   *
+   * @param name the name of the class, that statements refer to.
+   * @param poolingOptions the options of the connection pools of this class. It must be a different
+   *     instance from the cluster's, and from the other classes'.
+   */
+  public WorkloadClass(String name, PoolingOptions poolingOptions) {
+    this(name, poolingOptions, null);
+  }
+
+  /**
+   * Creates a new workload class.
+   *
+   * @param name the name of the class, that statements refer to.
+   * @param poolingOptions the options of the connection pools of this class. It must be a different
+   *     instance from the cluster's, and from the other classes'.
+   * @param authProvider the provider that authenticates the connections of this class, or {@code
+   *     null} to use the one of the cluster.
+   */
+  public WorkloadClass(String name, PoolingOptions poolingOptions, AuthProvider authProvider) {
+    Preconditions.checkNotNull(name, "name cannot be null");
+    Preconditions.checkNotNull(poolingOptions, "poolingOptions cannot be null");
+    this.name = name;
+    this.poolingOptions = poolingOptions;
+    this.authProvider = authProvider;
+  }
+
+  /**
+   * Returns the name of this class.
+   *
+   * @return the name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the options of the connection pools of this class.
+   *
+   * <p>The pools of this class read all their settings from these options: the number of
+   * connections per host (which are spread over the shards of ScyllaDB nodes), the maximum number
+   * of requests per connection, the new connection threshold, the idle timeout, the pool timeout
+   * and queue size, the connection initialization concurrency and the handshake pipelining. Only
+   * the settings that apply to connections or to the cluster as a whole are taken from the pooling
+   * options of the cluster: the heartbeat interval, the initialization executor and {@link
+   * PoolingOptions#setSharedPools(boolean) shared pools}.
+   *
+   * @return the pooling options.
+   */
+  public PoolingOptions getPoolingOptions() {
+    return poolingOptions;
+  }
+
+  /**
+   * Returns the provider that authenticates the connections of this class.
+   *
+   * @return the provider, or {@code null} if the connections use the one of the cluster.
+   */
+  public AuthProvider getAuthProvider() {
+    return authProvider;
+  }
+
+  @Override
+  public String toString() {
+    return "WorkloadClass(" + name + ")";
+  }
+}
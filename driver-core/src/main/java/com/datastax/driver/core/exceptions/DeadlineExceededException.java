@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.exceptions;
+
+/**
+ * Thrown when a request did not complete within its overall timeout, retries and speculative
+ * executions included.
+ *
+ * <p>Unlike {@link OperationTimedOutException}, which applies to each attempt on a given host, this
+ * is a final outcome: the driver gives up on the request, cancels its outstanding executions and
+ * does not retry it.
+ *
+ * @see com.datastax.driver.core.Statement#setRequestTimeoutMillis(int)
+ * @see com.datastax.driver.core.QueryOptions#setRequestTimeoutMillis(int)
+ */
+public class DeadlineExceededException extends DriverException {
+
+  private static final long serialVersionUID = 0;
+
+  private final int timeoutMillis;
+
+  public DeadlineExceededException(int timeoutMillis) {
+    this(timeoutMillis, null);
+  }
+
+  private DeadlineExceededException(int timeoutMillis, Throwable cause) {
+    super(String.format("Request did not complete within %d ms", timeoutMillis), cause);
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Returns the overall timeout that the request exceeded.
+   *
+   * @return the timeout, in milliseconds.
+   */
+  public int getTimeoutMillis() {
+    return timeoutMillis;
+  }
+
+  @Override
+  public DeadlineExceededException copy() {
+    return new DeadlineExceededException(timeoutMillis, this);
+  }
+}
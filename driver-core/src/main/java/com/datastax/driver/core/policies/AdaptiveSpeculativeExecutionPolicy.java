@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.LatencyTracker;
+import com.datastax.driver.core.PerShardPercentileTracker;
+import com.datastax.driver.core.PercentileTracker;
+import com.datastax.driver.core.Statement;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A policy that triggers speculative executions when the request to the current host is above a
+ * given percentile, while bounding the overall extra load that speculative executions create.
+ *
+ * <p>Like {@link PercentileSpeculativeExecutionPolicy}, the delay before a speculative execution is
+ * the latency at the configured percentile; it is meant to be used with a {@link
+ * PerShardPercentileTracker}, so that the delay is computed from the latencies of the shard that
+ * the statement is routed to.
+ *
+ * <p>In addition, speculative executions are drawn from a token bucket: each request adds {@link
+ * Builder#withMaxSpeculativeRatio(double) a fraction of a token} to the bucket, and each
+ * speculative execution that is actually sent consumes a whole token. When the bucket is empty,
+ * speculative executions are skipped. In other words, speculative executions can't exceed the given
+ * ratio of the total number of requests over time, with a {@link Builder#withMaxBurst(int) bounded
+ * burst}. This protects the cluster from amplification storms: when it becomes slow as a whole,
+ * most requests would otherwise exceed their percentile and get duplicated.
+ *
+ * <p>The number of speculative executions that were sent, that won the race against the initial
+ * execution, or that were wasted, is reported in {@link
+ * com.datastax.driver.core.Metrics.Errors#getSpeculativeExecutions()} and the related metrics.
+ */
+public class AdaptiveSpeculativeExecutionPolicy implements SpeculativeExecutionPolicy {
+
+  // Tokens are stored as fixed-point numbers to allow fractional deposits
+  private static final long TOKEN = 10000;
+
+  private final PercentileTracker percentileTracker;
+  private final double percentile;
+  private final int maxSpeculativeExecutions;
+  private final long deposit;
+  private final long capacity;
+
+  private final AtomicLong tokens;
+
+  private AdaptiveSpeculativeExecutionPolicy(
+      PercentileTracker percentileTracker,
+      double percentile,
+      int maxSpeculativeExecutions,
+      double maxSpeculativeRatio,
+      int maxBurst) {
+    this.percentileTracker = percentileTracker;
+    this.percentile = percentile;
+    this.maxSpeculativeExecutions = maxSpeculativeExecutions;
+    this.deposit = Math.max(1, Math.round(maxSpeculativeRatio * TOKEN));
+    this.capacity = maxBurst * TOKEN;
+    this.tokens = new AtomicLong(capacity);
+  }
+
+  /**
+   * Returns a builder to create a new instance.
+   *
+   * @param percentileTracker the component that will record latencies. It will get {@link
+   *     Cluster#register(LatencyTracker) registered} with the cluster when this policy initializes.
+   *     A {@link PerShardPercentileTracker} is recommended.
+   * @return the builder.
+   */
+  public static Builder builder(PercentileTracker percentileTracker) {
+    return new Builder(percentileTracker);
+  }
+
+  @Override
+  public SpeculativeExecutionPlan newPlan(String loggedKeyspace, final Statement statement) {
+    onNewRequest();
+    return new ThrottledSpeculativeExecutionPlan() {
+      private final AtomicInteger remaining = new AtomicInteger(maxSpeculativeExecutions);
+
+      @Override
+      public long nextExecution(Host lastQueried) {
+        if (remaining.getAndDecrement() > 0)
+          return percentileTracker.getLatencyAtPercentile(lastQueried, statement, null, percentile);
+        else return -1;
+      }
+
+      @Override
+      public boolean tryStartExecution() {
+        return tryAcquireToken();
+      }
+    };
+  }
+
+  private void onNewRequest() {
+    // Only read the shared counter in the common case where the bucket is full. Concurrent
+    // deposits can overshoot the capacity by a few tokens, which is harmless.
+    if (tokens.get() < capacity) tokens.addAndGet(deposit);
+  }
+
+  private boolean tryAcquireToken() {
+    while (true) {
+      long current = tokens.get();
+      if (current < TOKEN) return false;
+      if (tokens.compareAndSet(current, current - TOKEN)) return true;
+    }
+  }
+
+  /** @return the number of speculative executions that can currently be started. */
+  @VisibleForTesting
+  long availableExecutions() {
+    return tokens.get() / TOKEN;
+  }
+
+  @Override
+  public void init(Cluster cluster) {
+    cluster.register(percentileTracker);
+  }
+
+  @Override
+  public void close() {
+    // nothing
+  }
+
+  /** Helper class to build {@code AdaptiveSpeculativeExecutionPolicy} instances. */
+  public static class Builder {
+
+    public static final double DEFAULT_PERCENTILE = 99.0;
+    public static final int DEFAULT_MAX_SPECULATIVE_EXECUTIONS = 1;
+    public static final double DEFAULT_MAX_SPECULATIVE_RATIO = 0.05;
+    public static final int DEFAULT_MAX_BURST = 100;
+
+    private final PercentileTracker percentileTracker;
+    private double percentile = DEFAULT_PERCENTILE;
+    private int maxSpeculativeExecutions = DEFAULT_MAX_SPECULATIVE_EXECUTIONS;
+    private double maxSpeculativeRatio = DEFAULT_MAX_SPECULATIVE_RATIO;
+    private int maxBurst = DEFAULT_MAX_BURST;
+
+    Builder(PercentileTracker percentileTracker) {
+      this.percentileTracker = checkNotNull(percentileTracker, "percentileTracker cannot be null");
+    }
+
+    /**
+     * Sets the percentile that a request's latency must fall into to be considered slow.
+     *
+     * <p>If not set explicitly, this value defaults to 99.0.
+     *
+     * @param percentile the percentile (ex: {@code 99.0}).
+     * @return this builder.
+     */
+    public Builder withPercentile(double percentile) {
+      checkArgument(
+          percentile >= 0.0 && percentile < 100,
+          "percentile must be between 0.0 and 100 (was %s)",
+          percentile);
+      this.percentile = percentile;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of speculative executions that will be triggered for a given request
+     * (this does not include the initial, normal request).
+     *
+     * <p>If not set explicitly, this value defaults to 1.
+     *
+     * @param maxSpeculativeExecutions the new value. Must be strictly positive.
+     * @return this builder.
+     */
+    public Builder withMaxSpeculativeExecutions(int maxSpeculativeExecutions) {
+      checkArgument(
+          maxSpeculativeExecutions > 0,
+          "number of speculative executions must be strictly positive (was %s)",
+          maxSpeculativeExecutions);
+      this.maxSpeculativeExecutions = maxSpeculativeExecutions;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of speculative executions, as a ratio of the total number of
+     * requests.
+     *
+     * <p>For example, with a ratio of 0.05, the driver will not send more than 5 speculative
+     * executions for every 100 requests, on average.
+     *
+     * <p>If not set explicitly, this value defaults to 0.05.
+     *
+     * @param maxSpeculativeRatio the new value. Must be strictly positive, and at most 1.
+     * @return this builder.
+     */
+    public Builder withMaxSpeculativeRatio(double maxSpeculativeRatio) {
+      checkArgument(
+          maxSpeculativeRatio > 0 && maxSpeculativeRatio <= 1,
+          "max speculative ratio must be in ]0, 1] (was %s)",
+          maxSpeculativeRatio);
+      this.maxSpeculativeRatio = maxSpeculativeRatio;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of speculative executions that can be sent in a burst, that is the
+     * capacity of the token bucket.
+     *
+     * <p>If not set explicitly, this value defaults to 100.
+     *
+     * @param maxBurst the new value. Must be strictly positive.
+     * @return this builder.
+     */
+    public Builder withMaxBurst(int maxBurst) {
+      checkArgument(maxBurst > 0, "max burst must be strictly positive (was %s)", maxBurst);
+      this.maxBurst = maxBurst;
+      return this;
+    }
+
+    /**
+     * Builds the {@code AdaptiveSpeculativeExecutionPolicy} instance configured with this builder.
+     *
+     * @return the instance.
+     */
+    public AdaptiveSpeculativeExecutionPolicy build() {
+      return new AdaptiveSpeculativeExecutionPolicy(
+          percentileTracker, percentile, maxSpeculativeExecutions, maxSpeculativeRatio, maxBurst);
+    }
+  }
+}
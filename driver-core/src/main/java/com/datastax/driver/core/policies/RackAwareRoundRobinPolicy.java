@@ -0,0 +1,397 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.Configuration;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.HostDistance;
+import com.datastax.driver.core.Statement;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.AbstractIterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A rack aware Round-robin load balancing policy.
+ *
+ * <p>This policy works like {@link DCAwareRoundRobinPolicy}, except that within the local data
+ * center, it tries the nodes of the local rack (typically, the availability zone the client runs
+ * in) first, in a round-robin fashion, and only then the nodes of the other racks. This avoids
+ * cross-rack hops, which usually add latency and, in cloud deployments, transfer costs.
+ *
+ * <p>All the nodes of the local data center are considered {@link HostDistance#LOCAL LOCAL}, so the
+ * driver keeps connections to the other racks and can fail over to them immediately.
+ *
+ * <p>When wrapped by a {@link TokenAwarePolicy}, the replicas of the local rack are also tried
+ * before the other local replicas.
+ */
+public class RackAwareRoundRobinPolicy implements LoadBalancingPolicy {
+
+  private static final Logger logger = LoggerFactory.getLogger(RackAwareRoundRobinPolicy.class);
+
+  /**
+   * Returns a builder to create a new instance.
+   *
+   * @return the builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private static final String UNSET = "";
+
+  private final ConcurrentMap<String, CopyOnWriteArrayList<Host>> perDcLiveHosts =
+      new ConcurrentHashMap<String, CopyOnWriteArrayList<Host>>();
+  private final CopyOnWriteArrayList<Host> localRackLiveHosts = new CopyOnWriteArrayList<Host>();
+  private final AtomicInteger index = new AtomicInteger();
+
+  @VisibleForTesting volatile String localDc;
+  private final String localRack;
+
+  private final int usedHostsPerRemoteDc;
+  private final boolean dontHopForLocalCL;
+
+  private volatile Configuration configuration;
+
+  private RackAwareRoundRobinPolicy(
+      String localDc,
+      String localRack,
+      int usedHostsPerRemoteDc,
+      boolean allowRemoteDCsForLocalConsistencyLevel) {
+    this.localDc = localDc == null ? UNSET : localDc;
+    this.localRack = localRack;
+    this.usedHostsPerRemoteDc = usedHostsPerRemoteDc;
+    this.dontHopForLocalCL = !allowRemoteDCsForLocalConsistencyLevel;
+  }
+
+  @Override
+  public void init(Cluster cluster, Collection<Host> hosts) {
+    if (localDc != UNSET)
+      logger.info("Using provided data-center name '{}' for RackAwareRoundRobinPolicy", localDc);
+    logger.info("Using provided rack name '{}' for RackAwareRoundRobinPolicy", localRack);
+
+    this.configuration = cluster.getConfiguration();
+
+    for (Host host : hosts) onUp(host);
+
+    if (localRackLiveHosts.isEmpty())
+      logger.warn(
+          "None of the contact points is in the local rack. Local DC = {}, local rack = {}.",
+          localDc,
+          localRack);
+
+    this.index.set(new Random().nextInt(Math.max(hosts.size(), 1)));
+  }
+
+  private String dc(Host host) {
+    String dc = host.getDatacenter();
+    return dc == null ? localDc : dc;
+  }
+
+  /**
+   * Returns whether the given host is in the local rack of the local data center.
+   *
+   * @param host the host.
+   * @return whether the host is in the local rack.
+   */
+  public boolean isLocalRack(Host host) {
+    String dc = dc(host);
+    return (dc == UNSET || dc.equals(localDc)) && localRack.equals(host.getRack());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static CopyOnWriteArrayList<Host> cloneList(CopyOnWriteArrayList<Host> list) {
+    return (CopyOnWriteArrayList<Host>) list.clone();
+  }
+
+  /**
+   * Return the HostDistance for the provided host.
+   *
+   * <p>This policy consider all the nodes in the local datacenter as {@code LOCAL}, whatever their
+   * rack. For each remote datacenter, it considers a configurable number of hosts as {@code REMOTE}
+   * and the rest is {@code IGNORED}.
+   *
+   * @param host the host of which to return the distance of.
+   * @return the HostDistance to {@code host}.
+   */
+  @Override
+  public HostDistance distance(Host host) {
+    String dc = dc(host);
+    if (dc == UNSET || dc.equals(localDc)) return HostDistance.LOCAL;
+
+    CopyOnWriteArrayList<Host> dcHosts = perDcLiveHosts.get(dc);
+    if (dcHosts == null || usedHostsPerRemoteDc == 0) return HostDistance.IGNORED;
+
+    // We need to clone, otherwise our subList call is not thread safe
+    dcHosts = cloneList(dcHosts);
+    return dcHosts.subList(0, Math.min(dcHosts.size(), usedHostsPerRemoteDc)).contains(host)
+        ? HostDistance.REMOTE
+        : HostDistance.IGNORED;
+  }
+
+  /**
+   * Returns the hosts to use for a new query.
+   *
+   * <p>The returned plan will first try each known host in the local rack, then the other hosts in
+   * the local datacenter, and then, if none of the local hosts is reachable, up to a configurable
+   * number of hosts per remote datacenter. The order of the hosts in each of the first two groups
+   * follows a Round-robin algorithm.
+   *
+   * @param loggedKeyspace the keyspace currently logged in on for this query.
+   * @param statement the query for which to build the plan.
+   * @return a new query plan, i.e. an iterator indicating which host to try first for querying,
+   *     which one to use as failover, etc...
+   */
+  @Override
+  public Iterator<Host> newQueryPlan(String loggedKeyspace, final Statement statement) {
+
+    final List<Host> rackHosts = cloneList(localRackLiveHosts);
+    CopyOnWriteArrayList<Host> localLiveHosts = perDcLiveHosts.get(localDc);
+    final List<Host> dcHosts = new ArrayList<Host>();
+    if (localLiveHosts != null) {
+      for (Host host : localLiveHosts) if (!rackHosts.contains(host)) dcHosts.add(host);
+    }
+    final int startIdx = index.getAndIncrement();
+
+    return new AbstractIterator<Host>() {
+
+      private int idx = startIdx;
+      private int remainingRack = rackHosts.size();
+      private int remainingLocal = dcHosts.size();
+
+      // For remote Dcs
+      private Iterator<String> remoteDcs;
+      private List<Host> currentDcHosts;
+      private int currentDcRemaining;
+
+      @Override
+      protected Host computeNext() {
+        while (true) {
+          if (remainingRack > 0) {
+            remainingRack--;
+            return pick(rackHosts);
+          }
+
+          if (remainingLocal > 0) {
+            remainingLocal--;
+            return pick(dcHosts);
+          }
+
+          if (currentDcHosts != null && currentDcRemaining > 0) {
+            currentDcRemaining--;
+            return pick(currentDcHosts);
+          }
+
+          ConsistencyLevel cl =
+              statement.getConsistencyLevel() == null
+                  ? configuration.getQueryOptions().getConsistencyLevel()
+                  : statement.getConsistencyLevel();
+
+          if (dontHopForLocalCL && cl.isDCLocal()) return endOfData();
+
+          if (remoteDcs == null) {
+            Set<String> copy = new HashSet<String>(perDcLiveHosts.keySet());
+            copy.remove(localDc);
+            remoteDcs = copy.iterator();
+          }
+
+          if (!remoteDcs.hasNext()) break;
+
+          String nextRemoteDc = remoteDcs.next();
+          CopyOnWriteArrayList<Host> nextDcHosts = perDcLiveHosts.get(nextRemoteDc);
+          if (nextDcHosts != null) {
+            // Clone for thread safety
+            List<Host> remoteHosts = cloneList(nextDcHosts);
+            currentDcHosts =
+                remoteHosts.subList(0, Math.min(remoteHosts.size(), usedHostsPerRemoteDc));
+            currentDcRemaining = currentDcHosts.size();
+          }
+        }
+        return endOfData();
+      }
+
+      private Host pick(List<Host> hosts) {
+        int c = idx++ % hosts.size();
+        if (c < 0) {
+          c += hosts.size();
+        }
+        return hosts.get(c);
+      }
+    };
+  }
+
+  @Override
+  public void onUp(Host host) {
+    String dc = dc(host);
+
+    // If the localDC was in "auto-discover" mode and it's the first host for which we have a DC,
+    // use it.
+    if (localDc == UNSET && dc != UNSET) {
+      logger.info(
+          "Using data-center name '{}' for RackAwareRoundRobinPolicy (if this is incorrect, please provide the correct datacenter name with RackAwareRoundRobinPolicy.Builder.withLocalDc)",
+          dc);
+      localDc = dc;
+    }
+
+    if (isLocalRack(host)) localRackLiveHosts.addIfAbsent(host);
+
+    CopyOnWriteArrayList<Host> dcHosts = perDcLiveHosts.get(dc);
+    if (dcHosts == null) {
+      CopyOnWriteArrayList<Host> newMap =
+          new CopyOnWriteArrayList<Host>(Collections.singletonList(host));
+      dcHosts = perDcLiveHosts.putIfAbsent(dc, newMap);
+      // If we've successfully put our new host, we're good, otherwise we've been beaten so continue
+      if (dcHosts == null) return;
+    }
+    dcHosts.addIfAbsent(host);
+  }
+
+  @Override
+  public void onDown(Host host) {
+    localRackLiveHosts.remove(host);
+    CopyOnWriteArrayList<Host> dcHosts = perDcLiveHosts.get(dc(host));
+    if (dcHosts != null) dcHosts.remove(host);
+  }
+
+  @Override
+  public void onAdd(Host host) {
+    onUp(host);
+  }
+
+  @Override
+  public void onRemove(Host host) {
+    onDown(host);
+  }
+
+  @Override
+  public void close() {
+    // nothing to do
+  }
+
+  /** Helper class to build the policy. */
+  public static class Builder {
+    private String localDc;
+    private String localRack;
+    private int usedHostsPerRemoteDc;
+    private boolean allowRemoteDCsForLocalConsistencyLevel;
+
+    /**
+     * Sets the name of the datacenter that will be considered "local" by the policy.
+     *
+     * <p>If this method isn't called, the policy will default to the datacenter of the first node
+     * connected to. See {@link DCAwareRoundRobinPolicy.Builder#withLocalDc(String)} for details.
+     *
+     * @param localDc the name of the datacenter. It should not be {@code null}.
+     * @return this builder.
+     */
+    public Builder withLocalDc(String localDc) {
+      Preconditions.checkArgument(
+          !Strings.isNullOrEmpty(localDc),
+          "localDc name can't be null or empty. If you want to let the policy autodetect the datacenter, don't call Builder.withLocalDC");
+      this.localDc = localDc;
+      return this;
+    }
+
+    /**
+     * Sets the name of the rack that will be considered "local" by the policy, typically the
+     * availability zone that the client runs in.
+     *
+     * <p>This must be the name as known by the server (in other words, the name in that appears in
+     * {@code system.peers}, or in the output of admin tools like nodetool). This method must be
+     * called.
+     *
+     * @param localRack the name of the rack. It should not be {@code null}.
+     * @return this builder.
+     */
+    public Builder withLocalRack(String localRack) {
+      Preconditions.checkArgument(
+          !Strings.isNullOrEmpty(localRack), "localRack name can't be null or empty");
+      this.localRack = localRack;
+      return this;
+    }
+
+    /**
+     * Sets the number of hosts per remote datacenter that the policy should consider.
+     *
+     * <p>See {@link DCAwareRoundRobinPolicy.Builder#withUsedHostsPerRemoteDc(int)}.
+     *
+     * @param usedHostsPerRemoteDc the number.
+     * @return this builder.
+     * @deprecated This functionality will be removed in the next major release of the driver. DC
+     *     failover shouldn't be done in the driver, which does not have the necessary context to
+     *     know what makes sense considering application semantics.
+     */
+    @Deprecated
+    public Builder withUsedHostsPerRemoteDc(int usedHostsPerRemoteDc) {
+      Preconditions.checkArgument(
+          usedHostsPerRemoteDc >= 0, "usedHostsPerRemoteDc must be equal or greater than 0");
+      this.usedHostsPerRemoteDc = usedHostsPerRemoteDc;
+      return this;
+    }
+
+    /**
+     * Allows the policy to return remote hosts when building query plans for queries having
+     * consistency level {@code LOCAL_ONE} or {@code LOCAL_QUORUM}.
+     *
+     * <p>See {@link DCAwareRoundRobinPolicy.Builder#allowRemoteDCsForLocalConsistencyLevel()}.
+     *
+     * @return this builder.
+     * @deprecated This functionality will be removed in the next major release of the driver. DC
+     *     failover shouldn't be done in the driver, which does not have the necessary context to
+     *     know what makes sense considering application semantics.
+     */
+    @Deprecated
+    public Builder allowRemoteDCsForLocalConsistencyLevel() {
+      this.allowRemoteDCsForLocalConsistencyLevel = true;
+      return this;
+    }
+
+    /**
+     * Builds the policy configured by this builder.
+     *
+     * @return the policy.
+     * @throws IllegalStateException if the local rack was not set.
+     */
+    public RackAwareRoundRobinPolicy build() {
+      if (localRack == null)
+        throw new IllegalStateException(
+            "The local rack must be set with RackAwareRoundRobinPolicy.Builder.withLocalRack");
+      if (usedHostsPerRemoteDc == 0 && allowRemoteDCsForLocalConsistencyLevel) {
+        logger.warn(
+            "Setting allowRemoteDCsForLocalConsistencyLevel has no effect if usedHostsPerRemoteDc = 0. "
+                + "This setting will be ignored");
+      }
+      return new RackAwareRoundRobinPolicy(
+          localDc, localRack, usedHostsPerRemoteDc, allowRemoteDCsForLocalConsistencyLevel);
+    }
+  }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.LatencyTracker;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.WriteType;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A retry policy that bounds the number of retries issued by its child policy, and optionally stops
+ * retrying on hosts that are failing.
+ *
+ * <p>Retry budget: over a sliding window of one minute, the number of retries can't exceed a {@link
+ * Builder#withRetryRatio(double) given ratio} of the number of successful requests (with a {@link
+ * Builder#withMinRetriesPerMinute(int) minimum}, so that retries are still possible when the
+ * traffic is low). When the cluster becomes unhealthy as a whole, this prevents retries from
+ * multiplying the load at the worst possible moment; once the budget is exhausted, retry decisions
+ * from the child policy are turned into {@link RetryDecision#rethrow() rethrows}.
+ *
+ * <p>Circuit breaker: if {@link Builder#withCircuitBreaker(double, int) enabled}, the policy also
+ * tracks the error rate of each host over the same window. When it exceeds the threshold, the
+ * host's circuit is considered open, and decisions to retry on that same host are either {@link
+ * CircuitBreakerAction#REROUTE rerouted} to the next host in the query plan, or {@link
+ * CircuitBreakerAction#FAIL_FAST rethrown}. Which errors are counted can be customized with {@link
+ * Builder#withErrorFilter(ErrorAwarePolicy.ErrorFilter)}; by default, it is the same as {@link
+ * ErrorAwarePolicy}.
+ *
+ * <p>This policy must be the top-level retry policy of the cluster: the driver consults it through
+ * {@link #checkRetry(Host, RetryDecision)} with the host that failed, which is not available to the
+ * regular {@code RetryPolicy} methods. Retries that were rejected or rerouted are reported in
+ * {@link com.datastax.driver.core.Metrics.Errors#getRetriesRejected()} and {@link
+ * com.datastax.driver.core.Metrics.Errors#getRetriesRerouted()}.
+ */
+public class RetryBudgetPolicy implements RetryPolicy {
+
+  /** What to do when the driver wants to retry on a host whose circuit is open. */
+  public enum CircuitBreakerAction {
+    /** Retry on the next host of the query plan instead. */
+    REROUTE,
+    /** Don't retry, and return the error to the client. */
+    FAIL_FAST
+  }
+
+  private final RetryPolicy childPolicy;
+  private final double retryRatio;
+  private final int minRetriesPerMinute;
+  private final double maxErrorRate;
+  private final int minRequestsPerMinute;
+  private final CircuitBreakerAction circuitBreakerAction;
+  private final ErrorAwarePolicy.ErrorFilter errorFilter;
+  private final Clock clock;
+
+  private final RollingCount successes;
+  private final RollingCount retries;
+  private volatile Cluster cluster;
+  @VisibleForTesting final RequestTracker requestTracker = new RequestTracker();
+
+  private RetryBudgetPolicy(Builder builder) {
+    this.childPolicy = builder.childPolicy;
+    this.retryRatio = builder.retryRatio;
+    this.minRetriesPerMinute = builder.minRetriesPerMinute;
+    this.maxErrorRate = builder.maxErrorRate;
+    this.minRequestsPerMinute = builder.minRequestsPerMinute;
+    this.circuitBreakerAction = builder.circuitBreakerAction;
+    this.errorFilter = builder.errorFilter;
+    this.clock = builder.clock;
+    this.successes = new RollingCount(clock);
+    this.retries = new RollingCount(clock);
+  }
+
+  /**
+   * Returns a builder to create a new instance.
+   *
+   * @param childPolicy the policy that makes the actual retry decisions.
+   * @return the builder.
+   */
+  public static Builder builder(RetryPolicy childPolicy) {
+    return new Builder(childPolicy);
+  }
+
+  @Override
+  public RetryDecision onReadTimeout(
+      Statement statement,
+      ConsistencyLevel cl,
+      int requiredResponses,
+      int receivedResponses,
+      boolean dataRetrieved,
+      int nbRetry) {
+    return childPolicy.onReadTimeout(
+        statement, cl, requiredResponses, receivedResponses, dataRetrieved, nbRetry);
+  }
+
+  @Override
+  public RetryDecision onWriteTimeout(
+      Statement statement,
+      ConsistencyLevel cl,
+      WriteType writeType,
+      int requiredAcks,
+      int receivedAcks,
+      int nbRetry) {
+    return childPolicy.onWriteTimeout(
+        statement, cl, writeType, requiredAcks, receivedAcks, nbRetry);
+  }
+
+  @Override
+  public RetryDecision onUnavailable(
+      Statement statement,
+      ConsistencyLevel cl,
+      int requiredReplica,
+      int aliveReplica,
+      int nbRetry) {
+    return childPolicy.onUnavailable(statement, cl, requiredReplica, aliveReplica, nbRetry);
+  }
+
+  @Override
+  public RetryDecision onRequestError(
+      Statement statement, ConsistencyLevel cl, DriverException e, int nbRetry) {
+    return childPolicy.onRequestError(statement, cl, e, nbRetry);
+  }
+
+  /**
+   * Applies the retry budget and the circuit breaker to a decision of the child policy.
+   *
+   * <p>This is invoked by the driver for every decision of type {@link RetryDecision.Type#RETRY};
+   * it should not be called by client code.
+   *
+   * @param host the host that the failed execution was sent to.
+   * @param decision the decision of the child policy.
+   * @return the decision to apply: either {@code decision} itself, a decision to retry on the next
+   *     host, or a decision to rethrow.
+   */
+  public RetryDecision checkRetry(Host host, RetryDecision decision) {
+    if (decision.getType() != RetryDecision.Type.RETRY) return decision;
+
+    if (decision.isRetryCurrent() && isCircuitOpen(host)) {
+      if (circuitBreakerAction == CircuitBreakerAction.FAIL_FAST) return RetryDecision.rethrow();
+      decision = RetryDecision.tryNextHost(decision.getRetryConsistencyLevel());
+    }
+    return tryAcquireRetry() ? decision : RetryDecision.rethrow();
+  }
+
+  private boolean tryAcquireRetry() {
+    long allowed = Math.max(minRetriesPerMinute, (long) (retryRatio * successes.get()));
+    return retries.incrementIfBelow(allowed);
+  }
+
+  /**
+   * Returns whether the circuit of a host is currently open, in other words if its error rate over
+   * the last minute is above the threshold. This always returns {@code false} if the circuit
+   * breaker is disabled.
+   *
+   * @param host the host.
+   * @return whether the circuit is open.
+   */
+  public boolean isCircuitOpen(Host host) {
+    if (minRequestsPerMinute <= 0 || host == null) return false;
+    HostCounts counts = requestTracker.hostsCounts.get(host);
+    if (counts == null) return false;
+    long requests = counts.requests.get();
+    return requests >= minRequestsPerMinute && counts.errors.get() >= maxErrorRate * requests;
+  }
+
+  @Override
+  public void init(Cluster cluster) {
+    childPolicy.init(cluster);
+    cluster.register(requestTracker);
+    this.cluster = cluster;
+  }
+
+  @Override
+  public void close() {
+    childPolicy.close();
+    Cluster cluster = this.cluster;
+    // trackers are unregistered automatically when the cluster closes
+    if (cluster != null && !cluster.isClosed()) cluster.unregister(requestTracker);
+  }
+
+  private static class HostCounts {
+    final RollingCount requests;
+    final RollingCount errors;
+
+    HostCounts(Clock clock) {
+      this.requests = new RollingCount(clock);
+      this.errors = new RollingCount(clock);
+    }
+  }
+
+  @VisibleForTesting
+  class RequestTracker implements LatencyTracker {
+
+    private final ConcurrentMap<Host, HostCounts> hostsCounts =
+        new ConcurrentHashMap<Host, HostCounts>();
+
+    @Override
+    public void update(Host host, Statement statement, Exception exception, long newLatencyNanos) {
+      if (exception == null) {
+        successes.increment();
+        if (minRequestsPerMinute > 0) getOrCreateCounts(host).requests.increment();
+      } else if (minRequestsPerMinute > 0 && exception instanceof DriverException) {
+        // Other exceptions are internal signals, such as cancelled speculative executions
+        HostCounts counts = getOrCreateCounts(host);
+        counts.requests.increment();
+        if (errorFilter.shouldConsiderError(exception, host, statement)) counts.errors.increment();
+      }
+    }
+
+    private HostCounts getOrCreateCounts(Host host) {
+      HostCounts counts = hostsCounts.get(host);
+      if (counts == null) {
+        HostCounts tmp = new HostCounts(clock);
+        counts = hostsCounts.putIfAbsent(host, tmp);
+        if (counts == null) counts = tmp;
+      }
+      return counts;
+    }
+
+    @Override
+    public void onRegister(Cluster cluster) {
+      // nothing to do.
+    }
+
+    @Override
+    public void onUnregister(Cluster cluster) {
+      // nothing to do.
+    }
+  }
+
+  /** Helper class to build {@code RetryBudgetPolicy} instances. */
+  public static class Builder {
+
+    public static final double DEFAULT_RETRY_RATIO = 0.1;
+    public static final int DEFAULT_MIN_RETRIES_PER_MINUTE = 60;
+
+    private final RetryPolicy childPolicy;
+    private double retryRatio = DEFAULT_RETRY_RATIO;
+    private int minRetriesPerMinute = DEFAULT_MIN_RETRIES_PER_MINUTE;
+    private double maxErrorRate;
+    private int minRequestsPerMinute; // 0 = circuit breaker disabled
+    private CircuitBreakerAction circuitBreakerAction = CircuitBreakerAction.REROUTE;
+    private ErrorAwarePolicy.ErrorFilter errorFilter = new ErrorAwarePolicy.DefaultErrorFilter();
+    private Clock clock = Clock.DEFAULT;
+
+    Builder(RetryPolicy childPolicy) {
+      this.childPolicy = checkNotNull(childPolicy, "childPolicy cannot be null");
+    }
+
+    /**
+     * Sets the maximum number of retries, as a ratio of the number of successful requests over the
+     * last minute.
+     *
+     * <p>If not set explicitly, this value defaults to 0.1 (at most one retry for every 10
+     * successful requests).
+     *
+     * @param retryRatio the new value. Must be positive.
+     * @return this builder.
+     */
+    public Builder withRetryRatio(double retryRatio) {
+      checkArgument(retryRatio >= 0, "retry ratio must be positive (was %s)", retryRatio);
+      this.retryRatio = retryRatio;
+      return this;
+    }
+
+    /**
+     * Sets the number of retries that are always allowed over a minute, regardless of the number of
+     * successful requests.
+     *
+     * <p>If not set explicitly, this value defaults to 60.
+     *
+     * @param minRetriesPerMinute the new value. Must be positive.
+     * @return this builder.
+     */
+    public Builder withMinRetriesPerMinute(int minRetriesPerMinute) {
+      checkArgument(
+          minRetriesPerMinute >= 0,
+          "min retries per minute must be positive (was %s)",
+          minRetriesPerMinute);
+      this.minRetriesPerMinute = minRetriesPerMinute;
+      return this;
+    }
+
+    /**
+     * Enables the per-host circuit breaker.
+     *
+     * <p>It is disabled by default.
+     *
+     * @param maxErrorRate the ratio of errors to requests over the last minute above which a host's
+     *     circuit opens. Must be in ]0, 1].
+     * @param minRequestsPerMinute the minimum number of requests to a host over the last minute
+     *     before its error rate is considered. Must be strictly positive.
+     * @return this builder.
+     */
+    public Builder withCircuitBreaker(double maxErrorRate, int minRequestsPerMinute) {
+      checkArgument(
+          maxErrorRate > 0 && maxErrorRate <= 1,
+          "max error rate must be in ]0, 1] (was %s)",
+          maxErrorRate);
+      checkArgument(
+          minRequestsPerMinute > 0,
+          "min requests per minute must be strictly positive (was %s)",
+          minRequestsPerMinute);
+      this.maxErrorRate = maxErrorRate;
+      this.minRequestsPerMinute = minRequestsPerMinute;
+      return this;
+    }
+
+    /**
+     * Sets what to do when the driver wants to retry on a host whose circuit is open.
+     *
+     * <p>If not set explicitly, this value defaults to {@link CircuitBreakerAction#REROUTE}.
+     *
+     * @param circuitBreakerAction the new value.
+     * @return this builder.
+     */
+    public Builder withCircuitBreakerAction(CircuitBreakerAction circuitBreakerAction) {
+      this.circuitBreakerAction =
+          checkNotNull(circuitBreakerAction, "circuitBreakerAction cannot be null");
+      return this;
+    }
+
+    /**
+     * Provides a filter that will decide which errors are counted in the error rate of a host.
+     *
+     * <p>If not set explicitly, the same errors as {@link ErrorAwarePolicy} are counted.
+     *
+     * @param errorFilter the filter.
+     * @return this builder.
+     */
+    public Builder withErrorFilter(ErrorAwarePolicy.ErrorFilter errorFilter) {
+      this.errorFilter = checkNotNull(errorFilter, "errorFilter cannot be null");
+      return this;
+    }
+
+    @VisibleForTesting
+    Builder withClock(Clock clock) {
+      this.clock = clock;
+      return this;
+    }
+
+    /**
+     * Builds the {@code RetryBudgetPolicy} instance configured with this builder.
+     *
+     * @return the instance.
+     */
+    public RetryBudgetPolicy build() {
+      return new RetryBudgetPolicy(this);
+    }
+  }
+}
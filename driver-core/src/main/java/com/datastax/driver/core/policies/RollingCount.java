@@ -59,6 +59,30 @@ class RollingCount {
     return state.get().totalCount;
   }
 
+  /**
+   * Same as {@link #get()}, but also includes the events recorded in the current interval. This is
+   * slightly more expensive, but doesn't lag behind when the count is used to enforce a limit.
+   */
+  long getIncludingCurrentInterval() {
+    tickIfNecessary();
+    return state.get().totalCount + currentInterval.get();
+  }
+
+  /**
+   * Increments the count if {@link #getIncludingCurrentInterval()} is below the given limit, as a
+   * single atomic operation.
+   *
+   * @return whether the count was incremented.
+   */
+  boolean incrementIfBelow(long limit) {
+    tickIfNecessary();
+    while (true) {
+      long current = currentInterval.get();
+      if (state.get().totalCount + current >= limit) return false;
+      if (currentInterval.compareAndSet(current, current + 1)) return true;
+    }
+  }
+
   private void tickIfNecessary() {
     State oldState = state.get();
     long newTick = clock.nanoTime();
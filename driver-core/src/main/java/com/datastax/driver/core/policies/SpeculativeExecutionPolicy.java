@@ -73,4 +73,24 @@ public interface SpeculativeExecutionPolicy {
      */
     long nextExecution(Host lastQueried);
   }
+
+  /**
+   * A plan that can veto a speculative execution at the moment it is about to start.
+   *
+   * <p>{@link #nextExecution(Host)} is invoked each time a host is queried, which is typically long
+   * before we know whether the speculative execution will actually be needed: most of them get
+   * cancelled because the response arrived in time. If a plan implements this interface, the driver
+   * will also invoke {@link #tryStartExecution()} when the delay has elapsed, right before sending
+   * the speculative query; this allows plans to enforce a bound on the extra load caused by
+   * speculative executions.
+   */
+  interface ThrottledSpeculativeExecutionPlan extends SpeculativeExecutionPlan {
+    /**
+     * Invoked when a speculative execution previously scheduled by this plan is about to start.
+     *
+     * @return whether the speculative execution can be sent. If {@code false}, it will be skipped,
+     *     and no further speculative executions will be scheduled for the current execution.
+     */
+    boolean tryStartExecution();
+  }
 }
@@ -61,6 +61,12 @@ import java.util.Set;
  * be considered having priority. For example, if you wrap {@link DCAwareRoundRobinPolicy} with this
  * token aware policy, replicas from remote data centers may only be returned after all the hosts of
  * the local data center.
+ *
+ * <p>If the child policy is (or wraps) a {@link RackAwareRoundRobinPolicy}, the {@link
+ * ReplicaOrdering#TOPOLOGICAL TOPOLOGICAL} and {@link ReplicaOrdering#RANDOM RANDOM} strategies
+ * return the local replicas of the local rack first, then the other local replicas, each group in
+ * the order dictated by the strategy. With {@link ReplicaOrdering#NEUTRAL NEUTRAL}, the child
+ * policy's query plan already puts the local rack first.
  */
 public class TokenAwarePolicy implements ChainableLoadBalancingPolicy {
 
@@ -103,6 +109,7 @@ public class TokenAwarePolicy implements ChainableLoadBalancingPolicy {
   private volatile Metadata clusterMetadata;
   private volatile ProtocolVersion protocolVersion;
   private volatile CodecRegistry codecRegistry;
+  private volatile RackAwareRoundRobinPolicy rackAwarePolicy;
 
   /**
    * Creates a new {@code TokenAware} policy.
@@ -151,6 +158,7 @@ public class TokenAwarePolicy implements ChainableLoadBalancingPolicy {
     clusterMetadata = cluster.getMetadata();
     protocolVersion = cluster.getConfiguration().getProtocolOptions().getProtocolVersion();
     codecRegistry = cluster.getConfiguration().getCodecRegistry();
+    rackAwarePolicy = findRackAwarePolicy(childPolicy);
     childPolicy.init(cluster, hosts);
   }
 
@@ -233,10 +241,16 @@ public class TokenAwarePolicy implements ChainableLoadBalancingPolicy {
     } else {
 
       final Iterator<Host> replicasIterator;
+      RackAwareRoundRobinPolicy rackAwarePolicy = this.rackAwarePolicy;
 
       if (replicaOrdering == ReplicaOrdering.RANDOM) {
         List<Host> replicasList = Lists.newArrayList(replicas);
         Collections.shuffle(replicasList);
+        if (rackAwarePolicy != null) localRackFirst(replicasList, rackAwarePolicy);
+        replicasIterator = replicasList.iterator();
+      } else if (rackAwarePolicy != null) {
+        List<Host> replicasList = Lists.newArrayList(replicas);
+        localRackFirst(replicasList, rackAwarePolicy);
         replicasIterator = replicasList.iterator();
       } else {
         replicasIterator = replicas.iterator();
@@ -268,6 +282,27 @@ public class TokenAwarePolicy implements ChainableLoadBalancingPolicy {
     }
   }
 
+  // Moves the replicas of the local rack to the front of the list, preserving the relative order of
+  // both groups
+  private static void localRackFirst(List<Host> replicas, RackAwareRoundRobinPolicy policy) {
+    int next = 0;
+    for (int i = 0; i < replicas.size(); i++) {
+      Host host = replicas.get(i);
+      if (policy.isLocalRack(host)) {
+        if (i != next) replicas.add(next, replicas.remove(i));
+        next += 1;
+      }
+    }
+  }
+
+  private static RackAwareRoundRobinPolicy findRackAwarePolicy(LoadBalancingPolicy policy) {
+    while (true) {
+      if (policy instanceof RackAwareRoundRobinPolicy) return (RackAwareRoundRobinPolicy) policy;
+      if (!(policy instanceof ChainableLoadBalancingPolicy)) return null;
+      policy = ((ChainableLoadBalancingPolicy) policy).getChildPolicy();
+    }
+  }
+
   @Override
   public void onUp(Host host) {
     childPolicy.onUp(host);
@@ -334,6 +334,11 @@ public class AsyncQueryTest extends CCMTestsSupport {
       return session.getCluster();
     }
 
+    @Override
+    public ListenableFuture<Session> getReadyFuture(double fraction) {
+      return session.getReadyFuture(fraction);
+    }
+
     @Override
     public State getState() {
       return session.getState();
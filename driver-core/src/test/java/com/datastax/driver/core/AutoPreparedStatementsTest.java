@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.ColumnDefinitions.Definition;
+import com.datastax.driver.core.utils.Bytes;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class AutoPreparedStatementsTest {
+
+  private static final String QUERY = "SELECT v FROM ks.t WHERE k = ?";
+
+  private AbstractSession session;
+  private PreparedStatement prepared;
+  private AutoPreparedStatements statements;
+
+  @BeforeMethod(groups = "unit")
+  public void setup() {
+    session = mock(AbstractSession.class);
+    prepared = mock(PreparedStatement.class);
+    when(prepared.getPreparedId())
+        .thenReturn(
+            new PreparedId(
+                new PreparedId.PreparedMetadata(MD5Digest.wrap(new byte[] {1}), null),
+                new PreparedId.PreparedMetadata(MD5Digest.wrap(new byte[] {2}), null),
+                new int[] {0},
+                ProtocolVersion.V4));
+    when(prepared.getVariables())
+        .thenReturn(
+            new ColumnDefinitions(
+                new Definition[] {new Definition("ks", "t", "k", DataType.cint())},
+                CodecRegistry.DEFAULT_INSTANCE));
+    when(prepared.getCodecRegistry()).thenReturn(CodecRegistry.DEFAULT_INSTANCE);
+    when(session.prepareAsync(QUERY)).thenReturn(Futures.immediateFuture(prepared));
+    statements = new AutoPreparedStatements(session, 10);
+  }
+
+  @Test(groups = "unit")
+  public void should_prepare_query_once_threshold_is_reached() {
+    assertThat(maybeBind(new SimpleStatement(QUERY, 1), "ks")).isNull();
+    verify(session, never()).prepareAsync(QUERY);
+    assertThat(maybeBind(new SimpleStatement(QUERY, 2), "ks")).isNull();
+    verify(session, times(1)).prepareAsync(QUERY);
+
+    Statement statement =
+        new SimpleStatement(QUERY, 3)
+            .setConsistencyLevel(ConsistencyLevel.QUORUM)
+            .setFetchSize(42)
+            .setIdempotent(true)
+            .setOutgoingPayload(ImmutableMap.of("k", Bytes.fromHexString("0xcafe")));
+    BoundStatement bound = maybeBind((RegularStatement) statement, "ks");
+    assertThat(bound).isNotNull();
+    assertThat(bound.preparedStatement()).isSameAs(prepared);
+    assertThat(bound.getInt(0)).isEqualTo(3);
+    assertThat(bound.getConsistencyLevel()).isEqualTo(ConsistencyLevel.QUORUM);
+    assertThat(bound.getFetchSize()).isEqualTo(42);
+    assertThat(bound.isIdempotent()).isTrue();
+    assertThat(bound.getOutgoingPayload()).isEqualTo(statement.getOutgoingPayload());
+    assertThat(bound.getRoutingKey(ProtocolVersion.V4, CodecRegistry.DEFAULT_INSTANCE))
+        .isEqualTo(TypeCodec.cint().serialize(3, ProtocolVersion.V4));
+
+    maybeBind(new SimpleStatement(QUERY, 4), "ks");
+    verify(session, times(1)).prepareAsync(QUERY);
+  }
+
+  @Test(groups = "unit")
+  public void should_count_executions_per_keyspace() {
+    maybeBind(new SimpleStatement(QUERY, 1), "ks1");
+    maybeBind(new SimpleStatement(QUERY, 1), "ks2");
+    maybeBind(new SimpleStatement(QUERY, 1), null);
+    verify(session, never()).prepareAsync(QUERY);
+
+    maybeBind(new SimpleStatement(QUERY, 1), "ks1");
+    verify(session, times(1)).prepareAsync(QUERY);
+    assertThat(maybeBind(new SimpleStatement(QUERY, 1), "ks1")).isNotNull();
+    assertThat(maybeBind(new SimpleStatement(QUERY, 1), "ks2")).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_not_bind_until_preparation_completes() {
+    SettableFuture<PreparedStatement> future = SettableFuture.create();
+    when(session.prepareAsync(QUERY)).thenReturn(future);
+    maybeBind(new SimpleStatement(QUERY, 1), "ks");
+    maybeBind(new SimpleStatement(QUERY, 1), "ks");
+    assertThat(maybeBind(new SimpleStatement(QUERY, 1), "ks")).isNull();
+
+    future.set(prepared);
+    assertThat(maybeBind(new SimpleStatement(QUERY, 1), "ks")).isNotNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_not_retry_failed_preparation() {
+    when(session.prepareAsync(QUERY))
+        .thenReturn(Futures.<PreparedStatement>immediateFailedFuture(new RuntimeException("mock")));
+    for (int i = 0; i < 5; i++) assertThat(maybeBind(new SimpleStatement(QUERY, 1), "ks")).isNull();
+    verify(session, times(1)).prepareAsync(QUERY);
+  }
+
+  @Test(groups = "unit")
+  public void should_execute_as_is_if_values_do_not_match_prepared_variables() {
+    maybeBind(new SimpleStatement(QUERY, 1), "ks");
+    maybeBind(new SimpleStatement(QUERY, 1), "ks");
+    assertThat(maybeBind(new SimpleStatement(QUERY, 1, 2), "ks")).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_ignore_statements_with_named_values() {
+    for (int i = 0; i < 5; i++) {
+      SimpleStatement statement =
+          new SimpleStatement(QUERY, ImmutableMap.<String, Object>of("k", 1));
+      assertThat(maybeBind(statement, "ks")).isNull();
+    }
+    verify(session, never()).prepareAsync(QUERY);
+  }
+
+  private BoundStatement maybeBind(RegularStatement statement, String keyspace) {
+    return statements.maybeBind(
+        statement, keyspace, 2, ProtocolVersion.V4, CodecRegistry.DEFAULT_INSTANCE);
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+public class BoundedRingBufferTest {
+
+  @Test(groups = "unit")
+  public void should_round_capacity_to_power_of_two() {
+    assertThat(new BoundedRingBuffer<Object>(1).capacity()).isEqualTo(2);
+    assertThat(new BoundedRingBuffer<Object>(2).capacity()).isEqualTo(2);
+    assertThat(new BoundedRingBuffer<Object>(5).capacity()).isEqualTo(8);
+    assertThat(new BoundedRingBuffer<Object>(8).capacity()).isEqualTo(8);
+  }
+
+  @Test(groups = "unit")
+  public void should_reject_elements_when_full() {
+    BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<Integer>(4);
+    assertThat(buffer.poll()).isNull();
+    for (int i = 0; i < 4; i++) assertThat(buffer.offer(i)).isTrue();
+    assertThat(buffer.offer(4)).isFalse();
+
+    assertThat(buffer.poll()).isEqualTo(0);
+    assertThat(buffer.offer(4)).isTrue();
+    for (int i = 1; i <= 4; i++) assertThat(buffer.poll()).isEqualTo(i);
+    assertThat(buffer.poll()).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_not_overwrite_elements_with_smallest_capacity() {
+    BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<Integer>(1);
+    assertThat(buffer.offer(0)).isTrue();
+    assertThat(buffer.offer(1)).isTrue();
+    assertThat(buffer.offer(2)).isFalse();
+    assertThat(buffer.poll()).isEqualTo(0);
+    assertThat(buffer.poll()).isEqualTo(1);
+    assertThat(buffer.poll()).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_not_lose_elements_with_concurrent_producers() throws Exception {
+    final BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<Integer>(64);
+    final int producers = 4;
+    final int elementsPerProducer = 10000;
+    final AtomicInteger rejected = new AtomicInteger();
+    final CountDownLatch done = new CountDownLatch(producers);
+    for (int p = 0; p < producers; p++) {
+      new Thread() {
+        @Override
+        public void run() {
+          for (int i = 0; i < elementsPerProducer; i++)
+            if (!buffer.offer(i)) rejected.incrementAndGet();
+          done.countDown();
+        }
+      }.start();
+    }
+    int consumed = 0;
+    while (done.getCount() > 0) if (buffer.poll() != null) consumed++;
+    while (buffer.poll() != null) consumed++;
+    assertThat(consumed + rejected.get()).isEqualTo(producers * elementsPerProducer);
+  }
+}
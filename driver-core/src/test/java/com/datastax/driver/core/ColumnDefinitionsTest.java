@@ -15,6 +15,8 @@
  */
 package com.datastax.driver.core;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 import static org.testng.Assert.assertTrue;
 
 import org.testng.annotations.Test;
@@ -78,4 +80,57 @@ public class ColumnDefinitionsTest {
 
     assertTrue(defs.getType("column").equals(DataType.text()));
   }
+
+  @Test(groups = "unit")
+  public void should_return_same_result_for_repeated_lookups() {
+    ColumnDefinitions defs =
+        new ColumnDefinitions(
+            new ColumnDefinitions.Definition[] {
+              new ColumnDefinitions.Definition("ks", "cf", "foo", DataType.text()),
+              new ColumnDefinitions.Definition("ks", "cf", "FOO", DataType.cint()),
+              new ColumnDefinitions.Definition("ks", "cf", "bar", DataType.text())
+            },
+            CodecRegistry.DEFAULT_INSTANCE);
+
+    String quoted = "\"FOO\"";
+    for (int i = 0; i < 3; i++) {
+      assertThat(defs.getIndexOf("Foo")).isEqualTo(0);
+      assertThat(defs.getIndexOf(quoted)).isEqualTo(1);
+      assertThat(defs.getIndexOf(new StringBuilder("BAR").toString())).isEqualTo(2);
+      assertThat(defs.getIndexOf("baz")).isEqualTo(-1);
+      assertThat(defs.contains("\"Bar\"")).isFalse();
+    }
+    assertThat(defs.findAllIdx("foo")).containsExactly(0, 1);
+    assertThat(defs.findAllIdx("\"foo\"")).containsExactly(0);
+  }
+
+  @Test(groups = "unit")
+  public void should_resolve_column_ref_once_per_definitions() {
+    ColumnDefinitions defs1 =
+        new ColumnDefinitions(
+            new ColumnDefinitions.Definition[] {
+              new ColumnDefinitions.Definition("ks", "cf", "foo", DataType.text()),
+              new ColumnDefinitions.Definition("ks", "cf", "bar", DataType.text())
+            },
+            CodecRegistry.DEFAULT_INSTANCE);
+    ColumnDefinitions defs2 =
+        new ColumnDefinitions(
+            new ColumnDefinitions.Definition[] {
+              new ColumnDefinitions.Definition("ks", "cf", "bar", DataType.text())
+            },
+            CodecRegistry.DEFAULT_INSTANCE);
+
+    ColumnRef bar = ColumnRef.of("BAR");
+    assertThat(bar.getIndex(defs1)).isEqualTo(1);
+    assertThat(bar.getIndex(defs1)).isEqualTo(1);
+    assertThat(bar.getIndex(defs2)).isEqualTo(0);
+    assertThat(bar.getIndex(defs1)).isEqualTo(1);
+
+    try {
+      ColumnRef.of("\"Bar\"").getIndex(defs1);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
 }
@@ -18,6 +18,7 @@ package com.datastax.driver.core;
 import static com.datastax.driver.core.Assertions.assertThat;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
 
@@ -155,6 +156,27 @@ public class DataTypeClassNameParserTest {
     assertEquals(type.getComponentTypes().get(2), DataType.cfloat());
   }
 
+  @Test(groups = "unit")
+  public void parseVectorTest() {
+    String s =
+        "org.apache.cassandra.db.marshal.VectorType(org.apache.cassandra.db.marshal.FloatType,3)";
+    DataType type = DataTypeClassNameParser.parseOne(s, protocolVersion, codecRegistry);
+    assertEquals(type, DataType.vector(DataType.cfloat(), 3));
+    assertEquals(((DataType.CustomType) type).getCustomTypeClassName(), s);
+    // equality with a plain custom type of the same class name must be symmetric
+    assertEquals(type, DataType.custom(s));
+    assertEquals(DataType.custom(s), type);
+    assertEquals(type.hashCode(), DataType.custom(s).hashCode());
+    assertNotEquals(type, DataType.vector(DataType.cfloat(), 4));
+
+    // vector<frozen<list<text>>, 2>
+    s =
+        "org.apache.cassandra.db.marshal.VectorType(org.apache.cassandra.db.marshal.FrozenType(org.apache.cassandra.db.marshal.ListType(org.apache.cassandra.db.marshal.UTF8Type)),2)";
+    type = DataTypeClassNameParser.parseOne(s, protocolVersion, codecRegistry);
+    assertEquals(type, DataType.vector(DataType.frozenList(DataType.text()), 2));
+    assertEquals(((DataType.CustomType) type).getCustomTypeClassName(), s);
+  }
+
   @Test(groups = "unit")
   public void parseNestedCollectionTest() {
     // map<text, frozen<map<int,int>>>
@@ -39,6 +39,7 @@ import static com.datastax.driver.core.DataType.tinyint;
 import static com.datastax.driver.core.DataType.uuid;
 import static com.datastax.driver.core.DataType.varchar;
 import static com.datastax.driver.core.DataType.varint;
+import static com.datastax.driver.core.DataType.vector;
 import static com.datastax.driver.core.DataTypeCqlNameParser.parse;
 import static com.datastax.driver.core.Metadata.quote;
 
@@ -149,6 +150,14 @@ public class DataTypeCqlNameParserTest extends CCMTestsSupport {
         .isEqualTo(cluster().getMetadata().newTupleType(cint(), list(text())));
   }
 
+  @Test(groups = "short")
+  public void should_parse_vector_types() {
+    assertThat(parse("vector<float, 3>", cluster(), null, null, null, false, false))
+        .isEqualTo(vector(cfloat(), 3));
+    assertThat(parse("vector<list<text>,2>", cluster(), null, null, null, false, false))
+        .isEqualTo(vector(list(text()), 2));
+  }
+
   @Test(groups = "short")
   public void should_parse_user_defined_type_when_definition_in_current_user_types() {
     Metadata metadata = cluster().getMetadata();
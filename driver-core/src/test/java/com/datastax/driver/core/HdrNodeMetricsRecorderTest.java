@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.scassandra.http.client.PrimingRequest.queryBuilder;
+import static org.scassandra.http.client.PrimingRequest.then;
+import static org.scassandra.http.client.Result.syntax_error;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.exceptions.SyntaxError;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+
+public class HdrNodeMetricsRecorderTest extends ScassandraTestBase {
+
+  @Test(groups = "short")
+  public void should_record_requests_errors_and_latencies_per_node() {
+    primingClient.prime(
+        queryBuilder()
+            .withQuery("SELECT slow FROM foo")
+            .withThen(then().withFixedDelay(50L))
+            .build());
+    primingClient.prime(
+        queryBuilder()
+            .withQuery("SELECT error FROM foo")
+            .withThen(then().withResult(syntax_error))
+            .build());
+    Cluster cluster = createClusterBuilder().build();
+    try {
+      final HdrNodeMetricsRecorder recorder =
+          new HdrNodeMetricsRecorder(TimeUnit.MINUTES.toMillis(2), 2, true);
+      cluster.register(recorder);
+      Session session = cluster.connect();
+      final Host host = retrieveSingleHost(cluster);
+
+      session.execute("SELECT fast FROM foo");
+      session.execute("SELECT slow FROM foo");
+      try {
+        session.execute("SELECT error FROM foo");
+      } catch (SyntaxError e) {
+        // expected
+      }
+
+      // requests are recorded after their result is set, so the last one might lag behind
+      ConditionChecker.check()
+          .every(10)
+          .that(
+              new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                  return recorder.getRequestCount(host) == 3;
+                }
+              })
+          .becomesTrue();
+      assertThat(recorder.getErrorCount(host)).isEqualTo(1);
+      org.HdrHistogram.Histogram latencies = recorder.getLatencies(host);
+      assertThat(latencies.getTotalCount()).isEqualTo(3);
+      assertThat(latencies.getMaxValue()).isGreaterThanOrEqualTo(50000);
+      // Scassandra is not sharded
+      assertThat(recorder.getLatencies(host, 0).getTotalCount()).isEqualTo(3);
+      assertThat(recorder.getLatencies(host, 1)).isNull();
+
+      Histogram histogram =
+          (Histogram)
+              cluster
+                  .getMetrics()
+                  .getRegistry()
+                  .getMetrics()
+                  .get(MetricsUtil.hostMetricName("node-latency.", host));
+      assertThat(histogram.getCount()).isEqualTo(3);
+      assertThat(histogram.getSnapshot().getMax()).isGreaterThanOrEqualTo(50000);
+
+      cluster.unregister(recorder);
+      assertThat(cluster.getMetrics().getRegistry().getNames())
+          .doesNotContain(MetricsUtil.hostMetricName("node-latency.", host));
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "short")
+  public void should_discard_removed_nodes_and_only_unregister_own_metrics() throws Exception {
+    Cluster cluster = createClusterBuilder().build();
+    try {
+      final HdrNodeMetricsRecorder recorder = new HdrNodeMetricsRecorder();
+      cluster.register(recorder);
+      Session session = cluster.connect();
+      final Host host = retrieveSingleHost(cluster);
+      MetricRegistry registry = cluster.getMetrics().getRegistry();
+      // registered by another component, with the same prefix
+      registry.register("node-latency.other", new Counter());
+
+      session.execute("SELECT foo FROM bar");
+      ConditionChecker.check()
+          .every(10)
+          .that(
+              new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                  return recorder.getRequestCount(host) == 1;
+                }
+              })
+          .becomesTrue();
+      assertThat(registry.getNames()).contains(MetricsUtil.hostMetricName("node-requests.", host));
+      // per-shard latencies are opt-in
+      assertThat(recorder.getLatencies(host, 0)).isNull();
+
+      cluster.manager.triggerOnRemove(host).get();
+
+      assertThat(recorder.getRequestCount(host)).isZero();
+      assertThat(recorder.getLatencies(host)).isNull();
+      assertThat(registry.getNames())
+          .doesNotContain(
+              MetricsUtil.hostMetricName("node-requests.", host),
+              MetricsUtil.hostMetricName("node-errors.", host),
+              MetricsUtil.hostMetricName("node-latency.", host));
+
+      cluster.unregister(recorder);
+      assertThat(registry.getNames()).contains("node-latency.other");
+    } finally {
+      cluster.close();
+    }
+  }
+}
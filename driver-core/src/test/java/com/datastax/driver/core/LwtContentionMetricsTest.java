@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Map;
+import java.util.Set;
+import org.testng.annotations.Test;
+
+public class LwtContentionMetricsTest extends ScassandraTestBase {
+
+  @Test(groups = "short")
+  public void should_discard_ranges_that_are_no_longer_in_the_ring() {
+    Cluster cluster = createClusterBuilder().build();
+    try {
+      cluster.init();
+      Host host = retrieveSingleHost(cluster);
+      Metadata metadata = cluster.getMetadata();
+      Metrics metrics = cluster.getMetrics();
+      Token.Factory factory = Token.M3PToken.FACTORY;
+      Token t0 = factory.fromString("0");
+      Token t50 = factory.fromString("50");
+      Token t100 = factory.fromString("100");
+
+      metadata.rebuildTokenMap(factory, tokens(host, t0, t100));
+      for (TokenRange range : metadata.getTokenRanges()) metrics.recordCasWriteTimeout(range);
+      assertThat(metrics.getLwtContention().getValue()).hasSize(2);
+
+      // ]0, 100] is split, ]100, 0] is unchanged
+      metadata.rebuildTokenMap(factory, tokens(host, t0, t50, t100));
+
+      TokenRange unchanged = metadata.newTokenRange(t100, t0);
+      assertThat(metrics.getLwtContention().getValue()).isEqualTo(ImmutableMap.of(unchanged, 1L));
+    } finally {
+      cluster.close();
+    }
+  }
+
+  private static Map<Host, Set<Token>> tokens(Host host, Token... tokens) {
+    return ImmutableMap.<Host, Set<Token>>of(host, ImmutableSet.copyOf(tokens));
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.policies.LoadBalancingPolicy;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class LwtQueryPlanTest {
+
+  private final Statement statement =
+      new SimpleStatement("UPDATE t SET v = 1 WHERE k = 1 IF v = 0");
+
+  private Host host1, host2, host3, host4;
+  private LoadBalancingPolicy policy;
+
+  @BeforeMethod(groups = "unit")
+  public void setup() {
+    host1 = upHost();
+    host2 = upHost();
+    host3 = upHost();
+    host4 = upHost();
+    policy = mock(LoadBalancingPolicy.class);
+    when(policy.distance(any(Host.class))).thenReturn(HostDistance.LOCAL);
+    when(policy.newQueryPlan("ks", statement))
+        .thenReturn(Lists.newArrayList(host4, host3, host2, host1).iterator());
+  }
+
+  @Test(groups = "unit")
+  public void should_return_replicas_in_ring_order_then_other_hosts() {
+    LwtQueryPlan plan = new LwtQueryPlan(policy, "ks", statement, ImmutableSet.of(host2, host1));
+    assertThat(Lists.newArrayList(plan)).containsExactly(host2, host1, host4, host3);
+  }
+
+  @Test(groups = "unit")
+  public void should_skip_replicas_that_are_down_or_ignored() {
+    when(host2.isUp()).thenReturn(false);
+    when(policy.distance(host3)).thenReturn(HostDistance.IGNORED);
+    LwtQueryPlan plan =
+        new LwtQueryPlan(policy, "ks", statement, ImmutableSet.of(host2, host3, host1));
+    assertThat(Lists.newArrayList(plan)).containsExactly(host1, host4);
+  }
+
+  @Test(groups = "unit")
+  public void should_only_compute_fallback_plan_when_replicas_are_exhausted() {
+    LwtQueryPlan plan = new LwtQueryPlan(policy, "ks", statement, ImmutableSet.of(host2, host1));
+    assertThat(plan.next()).isSameAs(host2);
+    assertThat(plan.next()).isSameAs(host1);
+    verify(policy, never()).newQueryPlan("ks", statement);
+    assertThat(plan.next()).isSameAs(host4);
+  }
+
+  private static Host upHost() {
+    Host host = mock(Host.class);
+    when(host.isUp()).thenReturn(true);
+    return host;
+  }
+}
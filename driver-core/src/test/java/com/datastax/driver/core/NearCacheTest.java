@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.scassandra.http.client.PrimingRequest.then;
+import static org.testng.Assert.fail;
+
+import com.datastax.driver.core.exceptions.DriverException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.scassandra.cql.PrimitiveType;
+import org.scassandra.http.client.PrimingRequest;
+import org.scassandra.http.client.Result;
+import org.scassandra.http.client.types.ColumnMetadata;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class NearCacheTest extends ScassandraTestBase {
+
+  private static final String QUERY = "SELECT v FROM ks.t WHERE k = ?";
+
+  private Cluster cluster;
+  private Session session;
+  private PreparedStatement prepared;
+
+  @BeforeMethod(groups = "short")
+  public void setup() {
+    prime(0);
+    cluster =
+        createClusterBuilder()
+            .withQueryOptions(new QueryOptions().setNearCacheSize(10))
+            .withWorkloadClasses(new WorkloadClass("analytics", new PoolingOptions()))
+            .build();
+    session = cluster.connect();
+    prepared = session.prepare(QUERY);
+  }
+
+  @AfterMethod(groups = "short", alwaysRun = true)
+  public void teardown() {
+    if (cluster != null) cluster.close();
+  }
+
+  @Test(groups = "short")
+  public void should_serve_repeated_reads_from_cache() {
+    for (int i = 0; i < 3; i++) assertThat(read(1, 60000).one().getString("v")).isEqualTo("foo");
+    assertThat(executions()).isEqualTo(1);
+    assertThat(cluster.getMetrics().getNearCacheMisses().getCount()).isEqualTo(1);
+    assertThat(cluster.getMetrics().getNearCacheHits().getCount()).isEqualTo(2);
+
+    // different values
+    read(2, 60000);
+    assertThat(executions()).isEqualTo(2);
+  }
+
+  @Test(groups = "short")
+  public void should_expire_results_after_statement_ttl() throws InterruptedException {
+    read(1, 50);
+    Thread.sleep(100);
+    read(1, 50);
+    assertThat(executions()).isEqualTo(2);
+  }
+
+  @Test(groups = "short")
+  public void should_not_cache_statements_without_ttl_or_not_idempotent() {
+    session.execute(prepared.bind(1).setIdempotent(true));
+    session.execute(prepared.bind(1).setIdempotent(true));
+    session.execute(prepared.bind(1).setNearCacheTtlMillis(60000));
+    session.execute(prepared.bind(1).setNearCacheTtlMillis(60000));
+    assertThat(executions()).isEqualTo(4);
+  }
+
+  @Test(groups = "short")
+  public void should_coalesce_concurrent_reads() {
+    primingClient.clearAllPrimes();
+    prime(200);
+    List<ResultSetFuture> futures = new ArrayList<ResultSetFuture>();
+    for (int i = 0; i < 5; i++)
+      futures.add(
+          session.executeAsync(prepared.bind(1).setIdempotent(true).setNearCacheTtlMillis(60000)));
+    for (ResultSetFuture future : futures)
+      assertThat(future.getUninterruptibly().one().getString("v")).isEqualTo("foo");
+    assertThat(executions()).isEqualTo(1);
+    assertThat(cluster.getMetrics().getNearCacheMisses().getCount()).isEqualTo(1);
+    assertThat(cluster.getMetrics().getNearCacheHits().getCount()).isEqualTo(4);
+  }
+
+  @Test(groups = "short")
+  public void should_not_serve_reads_at_different_consistency_levels() {
+    session.execute(
+        prepared
+            .bind(1)
+            .setIdempotent(true)
+            .setNearCacheTtlMillis(60000)
+            .setConsistencyLevel(ConsistencyLevel.ONE));
+    session.execute(
+        prepared
+            .bind(1)
+            .setIdempotent(true)
+            .setNearCacheTtlMillis(60000)
+            .setConsistencyLevel(ConsistencyLevel.QUORUM));
+    assertThat(executions()).isEqualTo(2);
+    assertThat(cluster.getMetrics().getNearCacheMisses().getCount()).isEqualTo(2);
+    assertThat(cluster.getMetrics().getNearCacheHits().getCount()).isEqualTo(0);
+  }
+
+  @Test(groups = "short")
+  public void should_not_serve_reads_with_different_target_hosts() {
+    Host host = retrieveSingleHost(cluster);
+    assertNotServed(cacheable(1), cacheable(1).setHost(host));
+  }
+
+  @Test(groups = "short")
+  public void should_not_serve_reads_in_different_workload_classes() {
+    assertNotServed(cacheable(1), cacheable(1).setWorkloadClass("analytics"));
+  }
+
+  @Test(groups = "short")
+  public void should_not_serve_reads_with_different_request_timeouts() {
+    assertNotServed(cacheable(1), cacheable(1).setRequestTimeoutMillis(5000));
+  }
+
+  @Test(groups = "short")
+  public void should_count_waiters_of_failed_reads_as_misses() {
+    primingClient.clearAllPrimes();
+    primingClient.prime(
+        PrimingRequest.preparedStatementBuilder()
+            .withQuery(QUERY)
+            .withThen(
+                then()
+                    .withVariableTypes(PrimitiveType.INT)
+                    .withResult(Result.server_error)
+                    .withFixedDelay(200L))
+            .build());
+    List<ResultSetFuture> futures = new ArrayList<ResultSetFuture>();
+    for (int i = 0; i < 3; i++)
+      futures.add(
+          session.executeAsync(prepared.bind(1).setIdempotent(true).setNearCacheTtlMillis(60000)));
+    for (ResultSetFuture future : futures) {
+      try {
+        future.getUninterruptibly();
+        fail("expected an error");
+      } catch (DriverException e) {
+        // expected
+      }
+    }
+    assertThat(cluster.getMetrics().getNearCacheMisses().getCount()).isEqualTo(3);
+    assertThat(cluster.getMetrics().getNearCacheHits().getCount()).isEqualTo(0);
+  }
+
+  private void assertNotServed(Statement first, Statement second) {
+    session.execute(first);
+    session.execute(second);
+    assertThat(executions()).isEqualTo(2);
+    assertThat(cluster.getMetrics().getNearCacheHits().getCount()).isEqualTo(0);
+  }
+
+  private Statement cacheable(int k) {
+    return prepared.bind(k).setIdempotent(true).setNearCacheTtlMillis(60000);
+  }
+
+  private ResultSet read(int k, long ttlMillis) {
+    return session.execute(prepared.bind(k).setIdempotent(true).setNearCacheTtlMillis(ttlMillis));
+  }
+
+  private int executions() {
+    return activityClient.retrievePreparedStatementExecutions().size();
+  }
+
+  private void prime(long delayMillis) {
+    Map<String, ?> row = ImmutableMap.of("v", "foo");
+    primingClient.prime(
+        PrimingRequest.preparedStatementBuilder()
+            .withQuery(QUERY)
+            .withThen(
+                then()
+                    .withVariableTypes(PrimitiveType.INT)
+                    .withColumnTypes(ColumnMetadata.column("v", PrimitiveType.TEXT))
+                    .withRows(ImmutableList.<Map<String, ?>>of(row))
+                    .withFixedDelay(delayMillis))
+            .build());
+  }
+}
@@ -22,10 +22,15 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.net.InetSocketAddress;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.testng.annotations.Test;
@@ -661,6 +666,56 @@ public class NetworkTopologyStrategyTest extends AbstractReplicationStrategyTest
     assertReplicaPlacement(replicaMap, TOKEN18, IP6, IP1, IP5, IP3, IP2, IP4);
   }
 
+  @Test(groups = "unit")
+  public void should_compute_same_replicas_in_parallel_on_large_ring() throws Exception {
+    // 3 DCs of 12 hosts on 4 racks each, 256 vnodes per host
+    List<Token> ring = Lists.newArrayList();
+    Map<Token, Host> tokenToPrimary = Maps.newHashMap();
+    Random random = new Random(42);
+    for (int dc = 1; dc <= 3; dc++) {
+      for (int i = 1; i <= 12; i++) {
+        Host host = host(socketAddress("127.0." + dc + "." + i), "DC" + dc, "RACK" + (i % 4));
+        for (int vnode = 0; vnode < 256; vnode++) {
+          Token token = token(Long.toString(random.nextLong()));
+          ring.add(token);
+          tokenToPrimary.put(token, host);
+        }
+      }
+    }
+    Collections.sort(ring);
+    ReplicationStrategy.NetworkTopologyStrategy strategy =
+        (ReplicationStrategy.NetworkTopologyStrategy)
+            networkTopologyStrategy(rf(DC1, 3), rf(DC2, 3), rf(DC3, 2));
+
+    Map<Token, Set<Host>> sequential =
+        strategy.computeTokenToReplicaMap(keyspace, tokenToPrimary, ring);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      Map<Token, Set<Host>> parallel =
+          strategy.computeTokenToReplicaMap(keyspace, tokenToPrimary, ring, executor, 4);
+      assertThat(parallel).isEqualTo(sequential);
+      for (Token token : ring) {
+        assertThat(Lists.newArrayList(parallel.get(token)))
+            .isEqualTo(Lists.newArrayList(sequential.get(token)));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_share_identical_replica_sets() {
+    Map<Token, Set<Host>> replicaMap =
+        networkTopologyStrategy(rf(DC1, 2))
+            .computeTokenToReplicaMap(keyspace, largeRingTokenToPrimary, largeRing);
+
+    // all the vnodes of a host have the same replicas: the host and the next one
+    assertThat(replicaMap.get(largeRing.get(0))).isSameAs(replicaMap.get(largeRing.get(255)));
+    Set<Set<Host>> distinct = Sets.newIdentityHashSet();
+    distinct.addAll(replicaMap.values());
+    assertThat(distinct).hasSize(100);
+  }
+
   @Test(groups = "unit")
   public void should_warn_if_replication_factor_cannot_be_met() {
     Logger logger = Logger.getLogger(ReplicationStrategy.NetworkTopologyStrategy.class);
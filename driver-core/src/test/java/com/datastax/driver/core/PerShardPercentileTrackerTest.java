@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+
+public class PerShardPercentileTrackerTest
+    extends PercentileTrackerTest<PerShardPercentileTracker.Builder, PerShardPercentileTracker> {
+
+  @Test(groups = "unit")
+  public void should_track_measurements_by_shard() {
+    // given - a per shard percentile tracker, and two statements routed to different shards of the
+    // same host.
+    ShardingInfo shardingInfo = shardingInfo(2);
+    Token token0 = Token.M3PToken.FACTORY.fromString("-9000000000000000000");
+    Token token1 = Token.M3PToken.FACTORY.fromString("9000000000000000000");
+    assertThat(shardingInfo.shardId(token0)).isEqualTo(0);
+    assertThat(shardingInfo.shardId(token1)).isEqualTo(1);
+
+    ByteBuffer routingKey0 = ByteBuffer.wrap(new byte[] {0});
+    ByteBuffer routingKey1 = ByteBuffer.wrap(new byte[] {1});
+    Statement statement0 = mock(Statement.class);
+    when(statement0.getRoutingKey(any(ProtocolVersion.class), any(CodecRegistry.class)))
+        .thenReturn(routingKey0);
+    Statement statement1 = mock(Statement.class);
+    when(statement1.getRoutingKey(any(ProtocolVersion.class), any(CodecRegistry.class)))
+        .thenReturn(routingKey1);
+
+    Metadata metadata = mock(Metadata.class);
+    when(metadata.newToken(any(Token.Factory.class), eq(routingKey0))).thenReturn(token0);
+    when(metadata.newToken(any(Token.Factory.class), eq(routingKey1))).thenReturn(token1);
+    Cluster cluster0 = mock(Cluster.class);
+    when(cluster0.getMetadata()).thenReturn(metadata);
+    when(cluster0.getConfiguration()).thenReturn(Configuration.builder().build());
+
+    Host host = mock(Host.class);
+    when(host.getShardingInfo()).thenReturn(shardingInfo);
+
+    PerShardPercentileTracker tracker =
+        builder().withInterval(1, TimeUnit.SECONDS).withMinRecordedValues(100).build();
+    tracker.onRegister(cluster0);
+
+    // when - recording latencies over a linear progression for each shard.
+    for (int i = 0; i < 100; i++) {
+      tracker.update(
+          host, statement0, null, TimeUnit.NANOSECONDS.convert(i + 1, TimeUnit.MILLISECONDS));
+      tracker.update(
+          host, statement1, null, TimeUnit.NANOSECONDS.convert((i + 1) * 2, TimeUnit.MILLISECONDS));
+    }
+    Uninterruptibles.sleepUninterruptibly(2000, TimeUnit.MILLISECONDS);
+
+    // then - the resulting tracker's percentiles should represent that linear progression for each
+    // shard individually.
+    // shard0: (x percentile == x)
+    // shard1: (x percentile == 2x)
+    for (int i = 1; i <= 99; i++) {
+      assertThat(tracker.getLatencyAtPercentile(host, statement0, null, i)).isEqualTo(i);
+      assertThat(tracker.getLatencyAtPercentile(host, statement1, null, i)).isEqualTo(i * 2);
+    }
+    // no statistics for requests which shard is unknown
+    assertThat(tracker.getLatencyAtPercentile(host, null, null, 50)).isEqualTo(-1);
+  }
+
+  @Test(groups = "unit")
+  public void should_track_driver_measurements_by_connection_shard() {
+    // given - a statement that is routed to shard 1, but was served by a connection of shard 0
+    ShardingInfo shardingInfo = shardingInfo(2);
+    Token token1 = Token.M3PToken.FACTORY.fromString("9000000000000000000");
+    ByteBuffer routingKey1 = ByteBuffer.wrap(new byte[] {1});
+    Statement statement = mock(Statement.class);
+    when(statement.getRoutingKey(any(ProtocolVersion.class), any(CodecRegistry.class)))
+        .thenReturn(routingKey1);
+    Metadata metadata = mock(Metadata.class);
+    when(metadata.newToken(any(Token.Factory.class), eq(routingKey1))).thenReturn(token1);
+    Cluster cluster0 = mock(Cluster.class);
+    when(cluster0.getMetadata()).thenReturn(metadata);
+    when(cluster0.getConfiguration()).thenReturn(Configuration.builder().build());
+    Host host = mock(Host.class);
+    when(host.getShardingInfo()).thenReturn(shardingInfo);
+
+    PerShardPercentileTracker tracker =
+        builder().withInterval(1, TimeUnit.SECONDS).withMinRecordedValues(100).build();
+    tracker.onRegister(cluster0);
+
+    // when - the driver reports the latencies with the shard of the connection
+    for (int i = 0; i < 100; i++) {
+      tracker.update(
+          host, 0, statement, null, TimeUnit.NANOSECONDS.convert(i + 1, TimeUnit.MILLISECONDS));
+    }
+    Uninterruptibles.sleepUninterruptibly(2000, TimeUnit.MILLISECONDS);
+
+    // then - they are recorded under that shard, without computing the token of the statement
+    verify(metadata, never()).newToken(any(Token.Factory.class), any(ByteBuffer.class));
+    assertThat(tracker.getLatencyAtPercentile(host, statement, null, 50)).isEqualTo(-1);
+    Statement statement0 = mock(Statement.class);
+    when(statement0.getRoutingKey(any(ProtocolVersion.class), any(CodecRegistry.class)))
+        .thenReturn(ByteBuffer.wrap(new byte[] {0}));
+    when(metadata.newToken(any(Token.Factory.class), eq(ByteBuffer.wrap(new byte[] {0}))))
+        .thenReturn(Token.M3PToken.FACTORY.fromString("-9000000000000000000"));
+    assertThat(tracker.getLatencyAtPercentile(host, statement0, null, 50)).isEqualTo(50);
+  }
+
+  private static ShardingInfo shardingInfo(int shardsCount) {
+    Map<String, List<String>> params =
+        ImmutableMap.<String, List<String>>builder()
+            .put("SCYLLA_SHARD", Collections.singletonList("0"))
+            .put("SCYLLA_NR_SHARDS", Collections.singletonList(Integer.toString(shardsCount)))
+            .put(
+                "SCYLLA_PARTITIONER",
+                Collections.singletonList("org.apache.cassandra.dht.Murmur3Partitioner"))
+            .put("SCYLLA_SHARDING_ALGORITHM", Collections.singletonList("biased-token-round-robin"))
+            .put("SCYLLA_SHARDING_IGNORE_MSB", Collections.singletonList("0"))
+            .build();
+    return ShardingInfo.parseShardingInfo(params).shardingInfo;
+  }
+
+  @Override
+  public PerShardPercentileTracker.Builder builder() {
+    return PerShardPercentileTracker.builder(defaultMaxLatency);
+  }
+}
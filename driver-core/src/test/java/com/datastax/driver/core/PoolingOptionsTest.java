@@ -153,4 +153,22 @@ public class PoolingOptionsTest {
       /*expected*/
     }
   }
+
+  @Test(groups = "unit")
+  public void should_configure_connection_warm_up() {
+    PoolingOptions options = new PoolingOptions();
+    assertThat(options.getConnectionInitConcurrency()).isEqualTo(0);
+    assertThat(options.isPipelineHandshake()).isFalse();
+
+    options.setConnectionInitConcurrency(16).setPipelineHandshake(true);
+    assertThat(options.getConnectionInitConcurrency()).isEqualTo(16);
+    assertThat(options.isPipelineHandshake()).isTrue();
+
+    try {
+      options.setConnectionInitConcurrency(-1);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      /*expected*/
+    }
+  }
 }
@@ -56,6 +56,7 @@ import com.datastax.driver.core.exceptions.UnpreparedException;
 import com.datastax.driver.core.exceptions.WriteTimeoutException;
 import com.datastax.driver.core.policies.FallthroughRetryPolicy;
 import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
@@ -175,6 +176,131 @@ public class QueryLoggerErrorsTest extends ScassandraTestBase.PerClassCluster {
         .doesNotContain(fastQuery);
   }
 
+  @Test(groups = "short")
+  public void should_log_queries_asynchronously() throws Exception {
+    // given
+    slow.setLevel(DEBUG);
+    queryLogger = builder().withConstantThreshold(10).withAsyncLogging(16).build();
+    cluster.register(queryLogger);
+    String query = "SELECT foo FROM bar";
+    primingClient.prime(
+        queryBuilder().withQuery(query).withThen(then().withFixedDelay(100L)).build());
+    // when
+    session.execute(query);
+    // then
+    String line = slowAppender.waitAndGet(5000);
+    assertThat(line).contains("Query too slow").contains(ip).contains(query);
+    assertThat(queryLogger.isAsync()).isTrue();
+    assertThat(queryLogger.getDroppedLogs()).isZero();
+  }
+
+  @Test(groups = "short")
+  public void should_only_buffer_queries_above_threshold_when_only_slow_logger_is_enabled() {
+    // given
+    slow.setLevel(DEBUG);
+    queryLogger = builder().withConstantThreshold(100).withAsyncLogging(1).build();
+    cluster.register(queryLogger);
+    Host host = retrieveSingleHost(cluster);
+    Statement statement = new SimpleStatement("SELECT foo FROM bar");
+    // when
+    for (int i = 0; i < 1000; i++)
+      queryLogger.update(host, statement, null, TimeUnit.MILLISECONDS.toNanos(1));
+    // then
+    assertThat(queryLogger.getDroppedLogs()).isZero();
+    // when
+    for (int i = 0; i < 1000; i++)
+      queryLogger.update(host, statement, null, TimeUnit.MILLISECONDS.toNanos(1000));
+    // then
+    // the writer can't keep up with a buffer of 2 entries
+    assertThat(queryLogger.getDroppedLogs()).isPositive();
+  }
+
+  @Test(groups = "short")
+  public void should_throttle_before_buffering_in_async_mode() throws Exception {
+    // given
+    slow.setLevel(DEBUG);
+    queryLogger =
+        builder().withConstantThreshold(100).withMaxLogsPerSecond(1).withAsyncLogging(1).build();
+    cluster.register(queryLogger);
+    Host host = retrieveSingleHost(cluster);
+    Statement statement = new SimpleStatement("SELECT foo FROM bar");
+    // when
+    for (int i = 0; i < 1000; i++)
+      queryLogger.update(host, statement, null, TimeUnit.MILLISECONDS.toNanos(1000));
+    // then
+    // the updates might straddle two seconds, the permitted entries still fit in the buffer
+    assertThat(queryLogger.getThrottledLogs()).isBetween(998L, 999L);
+    assertThat(queryLogger.getDroppedLogs()).isZero();
+    assertThat(slowAppender.waitAndGet(5000)).contains("Query too slow");
+  }
+
+  @Test(groups = "short")
+  public void should_stop_writer_of_previous_registration() throws Exception {
+    // given
+    queryLogger = builder().withAsyncLogging(16).build();
+    Cluster other = createClusterBuilder().withClusterName("query-logger-other").build();
+    try {
+      cluster.register(queryLogger);
+      // when
+      other.register(queryLogger);
+      // then
+      waitForWriterThreads(1);
+      // when
+      cluster.unregister(queryLogger);
+      // then
+      // the writer belongs to the other cluster's registration
+      Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+      assertThat(countWriterThreads()).isEqualTo(1);
+      // when
+      other.unregister(queryLogger);
+      // then
+      waitForWriterThreads(0);
+    } finally {
+      other.close();
+    }
+  }
+
+  private void waitForWriterThreads(final int expected) {
+    ConditionChecker.check()
+        .every(10)
+        .that(
+            new Callable<Boolean>() {
+              @Override
+              public Boolean call() {
+                return countWriterThreads() == expected;
+              }
+            })
+        .becomesTrue();
+  }
+
+  private int countWriterThreads() {
+    int count = 0;
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      String name = thread.getName();
+      if (thread.isAlive()
+          && (name.startsWith(cluster.getClusterName() + "-query-logger-")
+              || name.startsWith("query-logger-other-query-logger-"))) count++;
+    }
+    return count;
+  }
+
+  @Test(groups = "short")
+  public void should_throttle_logs_beyond_max_logs_per_second() throws Exception {
+    // given
+    slow.setLevel(DEBUG);
+    queryLogger = builder().withConstantThreshold(1).withMaxLogsPerSecond(1).build();
+    cluster.register(queryLogger);
+    String query = "SELECT foo FROM bar";
+    primingClient.prime(
+        queryBuilder().withQuery(query).withThen(then().withFixedDelay(10L)).build());
+    // when
+    for (int i = 0; i < 3; i++) session.execute(query);
+    // then
+    assertThat(slowAppender.waitAndGet(5000)).contains("Query too slow");
+    // the queries might straddle two seconds
+    assertThat(queryLogger.getThrottledLogs()).isBetween(1L, 2L);
+  }
+
   @Test(groups = "short")
   public void should_log_timed_out_queries() throws Exception {
     // given
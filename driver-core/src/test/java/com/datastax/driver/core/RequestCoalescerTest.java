@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.scassandra.http.client.PrimingRequest.then;
+import static org.testng.Assert.fail;
+
+import com.datastax.driver.core.exceptions.DeadlineExceededException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.scassandra.cql.PrimitiveType;
+import org.scassandra.http.client.PrimingRequest;
+import org.scassandra.http.client.types.ColumnMetadata;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class RequestCoalescerTest extends ScassandraTestBase {
+
+  private static final String QUERY = "SELECT v FROM ks.t WHERE k = ?";
+
+  private Cluster cluster;
+  private Session session;
+  private PreparedStatement prepared;
+
+  @BeforeMethod(groups = "short")
+  public void setup() {
+    Map<String, ?> row = ImmutableMap.of("v", "foo");
+    primingClient.prime(
+        PrimingRequest.preparedStatementBuilder()
+            .withQuery(QUERY)
+            .withThen(
+                then()
+                    .withVariableTypes(PrimitiveType.INT)
+                    .withColumnTypes(ColumnMetadata.column("v", PrimitiveType.TEXT))
+                    .withRows(ImmutableList.<Map<String, ?>>of(row))
+                    .withFixedDelay(200L))
+            .build());
+    cluster =
+        createClusterBuilder()
+            .withQueryOptions(new QueryOptions().setCoalesceReads(true))
+            .withWorkloadClasses(new WorkloadClass("analytics", new PoolingOptions()))
+            .build();
+    session = cluster.connect();
+    prepared = session.prepare(QUERY);
+  }
+
+  @AfterMethod(groups = "short", alwaysRun = true)
+  public void teardown() {
+    if (cluster != null) cluster.close();
+  }
+
+  @Test(groups = "short")
+  public void should_coalesce_identical_reads_in_flight() {
+    List<ResultSetFuture> futures = executeConcurrently(prepared.bind(1).setIdempotent(true), 5);
+    futures.add(session.executeAsync(prepared.bind(2).setIdempotent(true)));
+    for (ResultSetFuture future : futures)
+      assertThat(future.getUninterruptibly().one().getString("v")).isEqualTo("foo");
+    assertThat(executions()).isEqualTo(2);
+    assertThat(cluster.getMetrics().getCoalescedRequests().getCount()).isEqualTo(4);
+
+    // the read is not in flight anymore
+    session.execute(prepared.bind(1).setIdempotent(true));
+    assertThat(executions()).isEqualTo(3);
+  }
+
+  @Test(groups = "short")
+  public void should_not_coalesce_non_idempotent_reads() {
+    for (ResultSetFuture future : executeConcurrently(prepared.bind(1), 3))
+      future.getUninterruptibly();
+    assertThat(executions()).isEqualTo(3);
+    assertThat(cluster.getMetrics().getCoalescedRequests().getCount()).isEqualTo(0);
+  }
+
+  @Test(groups = "short")
+  public void should_not_coalesce_reads_at_different_consistency_levels() {
+    ResultSetFuture one =
+        session.executeAsync(
+            prepared.bind(1).setIdempotent(true).setConsistencyLevel(ConsistencyLevel.ONE));
+    ResultSetFuture quorum =
+        session.executeAsync(
+            prepared.bind(1).setIdempotent(true).setConsistencyLevel(ConsistencyLevel.QUORUM));
+    one.getUninterruptibly();
+    quorum.getUninterruptibly();
+    assertThat(executions()).isEqualTo(2);
+    assertThat(cluster.getMetrics().getCoalescedRequests().getCount()).isEqualTo(0);
+  }
+
+  @Test(groups = "short")
+  public void should_not_coalesce_reads_with_different_target_hosts() {
+    Host host = retrieveSingleHost(cluster);
+    assertNotCoalesced(
+        prepared.bind(1).setIdempotent(true), prepared.bind(1).setIdempotent(true).setHost(host));
+  }
+
+  @Test(groups = "short")
+  public void should_not_coalesce_reads_in_different_workload_classes() {
+    assertNotCoalesced(
+        prepared.bind(1).setIdempotent(true),
+        prepared.bind(1).setIdempotent(true).setWorkloadClass("analytics"));
+  }
+
+  @Test(groups = "short")
+  public void should_not_hold_reads_past_their_own_deadline() {
+    ResultSetFuture slow = session.executeAsync(prepared.bind(1).setIdempotent(true));
+    ResultSetFuture fast =
+        session.executeAsync(prepared.bind(1).setIdempotent(true).setRequestTimeoutMillis(50));
+    try {
+      fast.getUninterruptibly();
+      fail("expected a DeadlineExceededException");
+    } catch (DeadlineExceededException e) {
+      // expected
+    }
+    assertThat(slow.getUninterruptibly().one().getString("v")).isEqualTo("foo");
+    assertThat(cluster.getMetrics().getCoalescedRequests().getCount()).isEqualTo(0);
+  }
+
+  @Test(groups = "short")
+  public void should_not_coalesce_traced_reads() {
+    for (ResultSetFuture future :
+        executeConcurrently(prepared.bind(1).setIdempotent(true).enableTracing(), 2))
+      future.getUninterruptibly();
+    assertThat(executions()).isEqualTo(2);
+    assertThat(cluster.getMetrics().getCoalescedRequests().getCount()).isEqualTo(0);
+  }
+
+  @Test(groups = "short")
+  public void should_report_each_callers_statement_in_execution_info() {
+    Statement first = prepared.bind(1).setIdempotent(true);
+    Statement second = prepared.bind(1).setIdempotent(true);
+    ResultSetFuture firstFuture = session.executeAsync(first);
+    ResultSetFuture secondFuture = session.executeAsync(second);
+    assertThat(firstFuture.getUninterruptibly().getExecutionInfo().getStatement()).isSameAs(first);
+    assertThat(secondFuture.getUninterruptibly().getExecutionInfo().getStatement())
+        .isSameAs(second);
+    assertThat(executions()).isEqualTo(1);
+  }
+
+  private void assertNotCoalesced(Statement first, Statement second) {
+    ResultSetFuture firstFuture = session.executeAsync(first);
+    ResultSetFuture secondFuture = session.executeAsync(second);
+    firstFuture.getUninterruptibly();
+    secondFuture.getUninterruptibly();
+    assertThat(executions()).isEqualTo(2);
+    assertThat(cluster.getMetrics().getCoalescedRequests().getCount()).isEqualTo(0);
+  }
+
+  private List<ResultSetFuture> executeConcurrently(Statement statement, int count) {
+    List<ResultSetFuture> futures = new ArrayList<ResultSetFuture>();
+    for (int i = 0; i < count; i++) futures.add(session.executeAsync(statement));
+    return futures;
+  }
+
+  private int executions() {
+    return activityClient.retrievePreparedStatementExecutions().size();
+  }
+}
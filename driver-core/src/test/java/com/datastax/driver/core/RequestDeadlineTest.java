@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.scassandra.http.client.PrimingRequest.queryBuilder;
+import static org.scassandra.http.client.PrimingRequest.then;
+
+import com.datastax.driver.core.exceptions.DeadlineExceededException;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.policies.RetryPolicy;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class RequestDeadlineTest extends ScassandraTestBase.PerClassCluster {
+
+  private static final String QUERY = "SELECT foo FROM bar";
+
+  @BeforeMethod(groups = "short")
+  public void setup() {
+    primingClient.prime(
+        queryBuilder().withQuery(QUERY).withThen(then().withFixedDelay(300L)).build());
+  }
+
+  @Test(groups = "short")
+  public void should_fail_request_when_deadline_is_exceeded() {
+    long exceeded = deadlinesExceeded();
+    long start = System.nanoTime();
+    try {
+      session.execute(new SimpleStatement(QUERY).setRequestTimeoutMillis(50));
+      fail("Expected a DeadlineExceededException");
+    } catch (DeadlineExceededException e) {
+      assertThat(e.getTimeoutMillis()).isEqualTo(50);
+    }
+    assertThat(System.nanoTime() - start).isLessThan(300 * 1000 * 1000L);
+    assertThat(deadlinesExceeded()).isEqualTo(exceeded + 1);
+  }
+
+  @Test(groups = "short")
+  public void should_enforce_deadline_across_retries() {
+    Statement statement =
+        new SimpleStatement(QUERY)
+            .setReadTimeoutMillis(20)
+            .setRequestTimeoutMillis(150)
+            .setIdempotent(true)
+            .setRetryPolicy(new AlwaysRetryOnRequestError());
+    try {
+      session.execute(statement);
+      fail("Expected a DeadlineExceededException");
+    } catch (DeadlineExceededException e) {
+      // expected: without the deadline, the request would be retried forever
+    }
+  }
+
+  @Test(groups = "short")
+  public void should_not_retry_if_retry_cannot_complete_before_deadline() {
+    long retries = cluster.getMetrics().getErrorMetrics().getRetries().getCount();
+    long exceeded = deadlinesExceeded();
+    // the first attempt times out after 100 ms, a retry would need as long but only 50 ms remain
+    Statement statement =
+        new SimpleStatement(QUERY)
+            .setReadTimeoutMillis(100)
+            .setRequestTimeoutMillis(150)
+            .setIdempotent(true)
+            .setRetryPolicy(new AlwaysRetryOnRequestError());
+    try {
+      session.execute(statement);
+      fail("Expected a DeadlineExceededException");
+    } catch (DeadlineExceededException e) {
+      assertThat(e.getTimeoutMillis()).isEqualTo(150);
+    }
+    assertThat(cluster.getMetrics().getErrorMetrics().getRetries().getCount()).isEqualTo(retries);
+    assertThat(deadlinesExceeded()).isEqualTo(exceeded + 1);
+  }
+
+  @Test(groups = "short")
+  public void should_use_default_deadline_if_not_overridden_by_statement() {
+    QueryOptions queryOptions = cluster.getConfiguration().getQueryOptions();
+    queryOptions.setRequestTimeoutMillis(50);
+    try {
+      try {
+        session.execute(QUERY);
+        fail("Expected a DeadlineExceededException");
+      } catch (DeadlineExceededException e) {
+        assertThat(e.getTimeoutMillis()).isEqualTo(50);
+      }
+      // 0 disables the deadline for this statement
+      session.execute(new SimpleStatement(QUERY).setRequestTimeoutMillis(0));
+    } finally {
+      queryOptions.setRequestTimeoutMillis(QueryOptions.DEFAULT_REQUEST_TIMEOUT_MILLIS);
+    }
+  }
+
+  private long deadlinesExceeded() {
+    return cluster.getMetrics().getErrorMetrics().getDeadlinesExceeded().getCount();
+  }
+
+  private static class AlwaysRetryOnRequestError implements RetryPolicy {
+    @Override
+    public RetryDecision onReadTimeout(
+        Statement statement,
+        ConsistencyLevel cl,
+        int requiredResponses,
+        int receivedResponses,
+        boolean dataRetrieved,
+        int nbRetry) {
+      return RetryDecision.rethrow();
+    }
+
+    @Override
+    public RetryDecision onWriteTimeout(
+        Statement statement,
+        ConsistencyLevel cl,
+        WriteType writeType,
+        int requiredAcks,
+        int receivedAcks,
+        int nbRetry) {
+      return RetryDecision.rethrow();
+    }
+
+    @Override
+    public RetryDecision onUnavailable(
+        Statement statement,
+        ConsistencyLevel cl,
+        int requiredReplica,
+        int aliveReplica,
+        int nbRetry) {
+      return RetryDecision.rethrow();
+    }
+
+    @Override
+    public RetryDecision onRequestError(
+        Statement statement, ConsistencyLevel cl, DriverException e, int nbRetry) {
+      return RetryDecision.retry(cl);
+    }
+
+    @Override
+    public void init(Cluster cluster) {}
+
+    @Override
+    public void close() {}
+  }
+}
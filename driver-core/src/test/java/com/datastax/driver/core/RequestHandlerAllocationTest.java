@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.scassandra.http.client.PrimingRequest.queryBuilder;
+import static org.scassandra.http.client.PrimingRequest.then;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Measures the number of bytes allocated by the client thread for each request, to guard the
+ * allocation profile of the common path (single execution, no retry) in {@link RequestHandler}.
+ *
+ * <p>Only the calling thread is measured: it builds the request handler and, since the connection
+ * pool is warm, writes the request to the connection. Response processing happens on I/O threads,
+ * which are shared with the embedded Scassandra server and too noisy to measure reliably.
+ */
+public class RequestHandlerAllocationTest extends ScassandraTestBase.PerClassCluster {
+
+  private static final Logger logger = LoggerFactory.getLogger(RequestHandlerAllocationTest.class);
+
+  private static final String QUERY = "SELECT foo FROM bar";
+  private static final int WARMUP_REQUESTS = 5000;
+  private static final int MEASURED_REQUESTS = 5000;
+
+  // About 1000 bytes were measured on JDK 8 (down from about 1750 when the request handler
+  // allocated its collections, ids and timer context eagerly). Leave some headroom for other JVMs.
+  private static final long MAX_BYTES_PER_REQUEST = 1536;
+
+  @BeforeMethod(groups = "short")
+  public void setup() {
+    primingClient.prime(queryBuilder().withQuery(QUERY).withThen(then()).build());
+  }
+
+  @Test(groups = "short")
+  public void should_allocate_little_memory_per_request() {
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    if (!(threadMXBean instanceof com.sun.management.ThreadMXBean))
+      throw new SkipException("Thread allocation counters are not available on this JVM");
+    com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+    if (!allocationBean.isThreadAllocatedMemorySupported())
+      throw new SkipException("Thread allocation counters are not available on this JVM");
+    allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+    Statement statement = new SimpleStatement(QUERY).setIdempotent(true);
+    execute(statement, WARMUP_REQUESTS);
+
+    long threadId = Thread.currentThread().getId();
+    long before = allocationBean.getThreadAllocatedBytes(threadId);
+    execute(statement, MEASURED_REQUESTS);
+    long bytesPerRequest =
+        (allocationBean.getThreadAllocatedBytes(threadId) - before) / MEASURED_REQUESTS;
+
+    logger.info("Allocated {} bytes per request on the client thread", bytesPerRequest);
+    assertThat(bytesPerRequest).isLessThan(MAX_BYTES_PER_REQUEST);
+  }
+
+  private void execute(Statement statement, int count) {
+    for (int i = 0; i < count; i++) {
+      session.executeAsync(statement).getUninterruptibly();
+    }
+  }
+}
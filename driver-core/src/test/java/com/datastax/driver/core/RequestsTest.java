@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Charsets;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import org.testng.annotations.Test;
+
+public class RequestsTest {
+
+  @Test(groups = "unit")
+  public void should_encode_keyspace_of_query() {
+    Requests.Query query = new Requests.Query("SELECT * FROM t", queryOptions(1234L, "ks"), false);
+    ByteBuf buf = encode(Requests.Query.coder, query, ProtocolVersion.V5);
+
+    assertThat(readLongString(buf)).isEqualTo("SELECT * FROM t");
+    assertThat(CBUtil.readConsistencyLevel(buf)).isEqualTo(ConsistencyLevel.ONE);
+    assertThat(buf.readInt()).isEqualTo(0x20 | 0x80); // DEFAULT_TIMESTAMP | WITH_KEYSPACE
+    assertThat(buf.readLong()).isEqualTo(1234L);
+    assertThat(CBUtil.readString(buf)).isEqualTo("ks");
+    assertThat(buf.isReadable()).isFalse();
+  }
+
+  @Test(groups = "unit")
+  public void should_not_encode_keyspace_of_query_if_absent() {
+    Requests.Query query =
+        new Requests.Query("SELECT * FROM ks.t", queryOptions(Long.MIN_VALUE, null), false);
+    ByteBuf buf = encode(Requests.Query.coder, query, ProtocolVersion.V5);
+
+    readLongString(buf);
+    CBUtil.readConsistencyLevel(buf);
+    assertThat(buf.readInt()).isEqualTo(0);
+    assertThat(buf.isReadable()).isFalse();
+  }
+
+  @Test(groups = "unit")
+  public void should_encode_keyspace_of_batch() {
+    Requests.Batch batch =
+        new Requests.Batch(
+            BatchStatement.Type.UNLOGGED,
+            Collections.<Object>singletonList("INSERT INTO t (k) VALUES (1)"),
+            new ByteBuffer[][] {new ByteBuffer[0]},
+            new Requests.BatchProtocolOptions(
+                ConsistencyLevel.ONE, ConsistencyLevel.SERIAL, Long.MIN_VALUE, 42, "ks"),
+            false);
+    ByteBuf buf = encode(Requests.Batch.coder, batch, ProtocolVersion.V5);
+
+    assertThat(buf.readByte()).isEqualTo((byte) 1); // UNLOGGED
+    assertThat(buf.readShort()).isEqualTo((short) 1);
+    assertThat(buf.readByte()).isEqualTo((byte) 0); // query string
+    readLongString(buf);
+    assertThat(buf.readShort()).isEqualTo((short) 0); // values
+    CBUtil.readConsistencyLevel(buf);
+    assertThat(buf.readInt()).isEqualTo(0x80 | 0x100); // WITH_KEYSPACE | NOW_IN_SECONDS
+    assertThat(CBUtil.readString(buf)).isEqualTo("ks");
+    assertThat(buf.readInt()).isEqualTo(42);
+    assertThat(buf.isReadable()).isFalse();
+  }
+
+  @Test(groups = "unit")
+  public void should_encode_keyspace_of_prepare() {
+    ByteBuf buf =
+        encode(
+            Requests.Prepare.coder,
+            new Requests.Prepare("SELECT * FROM t", "ks"),
+            ProtocolVersion.V5);
+    assertThat(readLongString(buf)).isEqualTo("SELECT * FROM t");
+    assertThat(buf.readInt()).isEqualTo(0x01);
+    assertThat(CBUtil.readString(buf)).isEqualTo("ks");
+    assertThat(buf.isReadable()).isFalse();
+
+    buf =
+        encode(
+            Requests.Prepare.coder, new Requests.Prepare("SELECT * FROM ks.t"), ProtocolVersion.V5);
+    readLongString(buf);
+    assertThat(buf.readInt()).isEqualTo(0);
+    assertThat(buf.isReadable()).isFalse();
+  }
+
+  @Test(groups = "unit")
+  public void should_only_send_keyspace_with_protocol_v5() {
+    assertThat(ProtocolFeature.KEYSPACE_ON_QUERY.isSupportedBy(ProtocolVersion.V4)).isFalse();
+    assertThat(ProtocolFeature.KEYSPACE_ON_QUERY.isSupportedBy(ProtocolVersion.V5)).isTrue();
+  }
+
+  private static Requests.QueryProtocolOptions queryOptions(long timestamp, String keyspace) {
+    return new Requests.QueryProtocolOptions(
+        Message.Request.Type.QUERY,
+        ConsistencyLevel.ONE,
+        Requests.EMPTY_BB_ARRAY,
+        Collections.<String, ByteBuffer>emptyMap(),
+        false,
+        -1,
+        null,
+        ConsistencyLevel.SERIAL,
+        timestamp,
+        Integer.MIN_VALUE,
+        keyspace);
+  }
+
+  private static String readLongString(ByteBuf buf) {
+    byte[] bytes = new byte[buf.readInt()];
+    buf.readBytes(bytes);
+    return new String(bytes, Charsets.UTF_8);
+  }
+
+  private static <M extends Message.Request> ByteBuf encode(
+      Message.Coder<M> coder, M message, ProtocolVersion version) {
+    ByteBuf buf = Unpooled.buffer();
+    coder.encode(message, buf, version);
+    assertThat(buf.readableBytes()).isEqualTo(coder.encodedSize(message, version));
+    return buf;
+  }
+}
@@ -219,6 +219,46 @@ public class SchemaChangesTest extends CCMTestsSupport {
     final KeyspaceMetadata oldKeyspace = cluster1.getMetadata().getKeyspace(keyspaceName);
     TableMetadata oldTable = oldKeyspace.getTable("table1");
 
+    try {
+      // Force a keyspace refresh: unchanged keyspaces are retained as is, so we need to alter it
+      // for a new instance to be created
+      execute(ALTER_KEYSPACE, keyspaceName);
+      ConditionChecker.check()
+          .that(
+              new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                  return cluster1.getMetadata().getKeyspace(keyspaceName) == oldKeyspace;
+                }
+              })
+          .becomesFalse();
+
+      // Before the fix, the schema parser updated the old keyspace's tables during a full refresh:
+      //   oldTable -> oldKeyspace -> newTable
+      // If the client held onto the initial table instance, successive refreshes would grow the
+      // chain over time:
+      //   table1 -> keyspace1 -> table2 -> keyspace2 -> ...
+      assertThat(oldKeyspace.getTable("table1")).isSameAs(oldTable);
+    } finally {
+      execute("ALTER KEYSPACE %s WITH durable_writes = true", keyspaceName);
+    }
+  }
+
+  /**
+   * Ensures that a full schema refresh does not replace the metadata of keyspaces that did not
+   * change, nor rebuild the token map when no replication settings changed.
+   */
+  @Test(groups = "short")
+  public void should_retain_unchanged_keyspace_instance_on_full_refresh()
+      throws InterruptedException {
+    final Cluster cluster1 = session1.getCluster();
+    String keyspaceName = "lowercase";
+    execute(CREATE_TABLE, keyspaceName);
+    KeyspaceMetadata oldKeyspace = cluster1.getMetadata().getKeyspace(keyspaceName);
+    TableMetadata oldTable = oldKeyspace.getTable("table1");
+    final long refreshes = cluster1.getMetrics().getSchemaRefreshTimer().getCount();
+    long tokenMapRebuilds = cluster1.getMetrics().getTokenMapRebuildTimer().getCount();
+
     // Force a full refresh
     cluster1.getConfiguration().getQueryOptions().setMetadataEnabled(false);
     cluster1.getConfiguration().getQueryOptions().setMetadataEnabled(true);
@@ -227,17 +267,17 @@ public class SchemaChangesTest extends CCMTestsSupport {
             new Callable<Boolean>() {
               @Override
               public Boolean call() {
-                return cluster1.getMetadata().getKeyspace(keyspaceName) == oldKeyspace;
+                return cluster1.getMetrics().getSchemaRefreshTimer().getCount() > refreshes;
               }
             })
-        .becomesFalse();
+        .becomesTrue();
 
-    // Before the fix, the schema parser updated the old keyspace's tables during a full refresh:
-    //   oldTable -> oldKeyspace -> newTable
-    // If the client held onto the initial table instance, successive refreshes would grow the chain
-    // over time:
-    //   table1 -> keyspace1 -> table2 -> keyspace2 -> ...
+    assertThat(cluster1.getMetadata().getKeyspace(keyspaceName)).isSameAs(oldKeyspace);
     assertThat(oldKeyspace.getTable("table1")).isSameAs(oldTable);
+    // re-enabling metadata refreshes the node list first, which rebuilds the token map once; the
+    // schema refresh that follows must not rebuild it again
+    assertThat(cluster1.getMetrics().getTokenMapRebuildTimer().getCount())
+        .isEqualTo(tokenMapRebuilds + 1);
   }
 
   /**
@@ -54,7 +54,8 @@ public class SegmentBuilderTest {
               null,
               ConsistencyLevel.SERIAL,
               Long.MIN_VALUE,
-              Integer.MIN_VALUE),
+              Integer.MIN_VALUE,
+              null),
           false);
 
   private static final EmbeddedChannel MOCK_CHANNEL = new EmbeddedChannel();
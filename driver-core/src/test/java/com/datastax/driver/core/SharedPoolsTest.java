@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import org.testng.annotations.Test;
+
+public class SharedPoolsTest extends ScassandraTestBase {
+
+  @Test(groups = "short")
+  public void should_share_pools_between_sessions() {
+    Cluster cluster = newCluster();
+    try {
+      SessionManager session1 = (SessionManager) cluster.connect("ks1");
+      SessionManager session2 = (SessionManager) cluster.connect("\"Ks2\"");
+      Session session3 = cluster.connect();
+
+      assertThat(session1.pools).isSameAs(session2.pools);
+      assertThat(session1.getLoggedKeyspace()).isEqualTo("ks1");
+      assertThat(session2.getLoggedKeyspace()).isEqualTo("Ks2");
+      assertThat(session3.getLoggedKeyspace()).isNull();
+      // connections are not bound to any keyspace
+      assertThat(session1.poolsState.keyspace).isNull();
+
+      Host host = retrieveSingleHost(cluster);
+      assertThat(cluster.manager.sessions).hasSize(1);
+      assertThat(session1.getState().getOpenConnections(host)).isEqualTo(1);
+      assertThat(cluster.getMetrics().getOpenConnections().getValue()).isEqualTo(2); // + control
+
+      session1.execute("SELECT * FROM ks1.foo");
+      session2.execute("SELECT * FROM \"Ks2\".foo");
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "short")
+  public void should_reject_use_queries() {
+    Cluster cluster = newCluster();
+    try {
+      Session session = cluster.connect("ks");
+      try {
+        session.execute("  use other");
+        fail("Expected an IllegalStateException");
+      } catch (IllegalStateException e) {
+        assertThat(e).hasMessageContaining("USE queries are not supported");
+      }
+      assertThat(session.getLoggedKeyspace()).isEqualTo("ks");
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "short")
+  public void should_close_pools_with_last_session() {
+    Cluster cluster = newCluster();
+    try {
+      SessionManager session1 = (SessionManager) cluster.connect();
+      SessionManager session2 = (SessionManager) cluster.connect();
+      SessionManager owner = session1.poolsOwner;
+
+      session1.close();
+      assertThat(owner.isClosed()).isFalse();
+      session2.execute("SELECT * FROM ks.foo");
+
+      session2.close();
+      assertThat(owner.isClosed()).isTrue();
+      assertThat(cluster.manager.sessions).isEmpty();
+
+      // a new owner is created for the next session
+      SessionManager session3 = (SessionManager) cluster.connect();
+      assertThat(session3.poolsOwner).isNotSameAs(owner);
+      session3.execute("SELECT * FROM ks.foo");
+    } finally {
+      cluster.close();
+    }
+  }
+
+  private Cluster newCluster() {
+    return createClusterBuilder()
+        .withPoolingOptions(
+            new PoolingOptions()
+                .setCoreConnectionsPerHost(HostDistance.LOCAL, 1)
+                .setMaxConnectionsPerHost(HostDistance.LOCAL, 1)
+                .setHeartbeatIntervalSeconds(0)
+                .setSharedPools(true))
+        // Scassandra doesn't know about the test keyspaces
+        .withQueryOptions(new QueryOptions().setMetadataEnabled(false))
+        .build();
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.Timer;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.ssl.SslHandler;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.security.KeyStore;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManagerFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class SslHandshakeMeterTest {
+
+  private static final String PASSWORD = "cassandra1sfun";
+
+  private static final EndPoint END_POINT =
+      new TranslatedAddressEndPoint(new InetSocketAddress("127.0.0.1", 9142));
+
+  private SSLContext serverContext;
+  private RemoteEndpointAwareJdkSSLOptions clientOptions;
+  private Timer handshakes;
+
+  @BeforeMethod(groups = "unit")
+  public void setup() throws Exception {
+    // TLS 1.2 resumes sessions from the client cache as is, which keeps the test deterministic
+    KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+    kmf.init(loadStore("/server.keystore"), PASSWORD.toCharArray());
+    serverContext = SSLContext.getInstance("TLSv1.2");
+    serverContext.init(kmf.getKeyManagers(), null, null);
+
+    TrustManagerFactory tmf =
+        TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+    tmf.init(loadStore("/client.truststore"));
+    SSLContext clientContext = SSLContext.getInstance("TLSv1.2");
+    clientContext.init(null, tmf.getTrustManagers(), null);
+    clientOptions =
+        RemoteEndpointAwareJdkSSLOptions.builder().withSSLContext(clientContext).build();
+
+    handshakes = new Timer();
+  }
+
+  @Test(groups = "unit")
+  public void should_resume_session_when_reconnecting_to_same_port() throws Exception {
+    byte[] first = handshake(END_POINT);
+    byte[] second = handshake(END_POINT);
+    // a resumed TLS 1.2 session keeps its id
+    assertThat(second).isEqualTo(first);
+    assertThat(handshakes.getCount()).isEqualTo(2);
+  }
+
+  @Test(groups = "unit")
+  public void should_cache_sessions_per_shard_aware_port() throws Exception {
+    EndPoint shardAware =
+        new ShardAwarePortEndPoint(END_POINT, new InetSocketAddress("127.0.0.1", 19142));
+    byte[] regular = handshake(END_POINT);
+    byte[] first = handshake(shardAware);
+    assertThat(first).isNotEqualTo(regular);
+
+    byte[] second = handshake(shardAware);
+    assertThat(second).isEqualTo(first);
+    assertThat(handshakes.getCount()).isEqualTo(3);
+  }
+
+  /** Performs a handshake and returns the id of the negotiated session. */
+  private byte[] handshake(EndPoint endPoint) throws Exception {
+    SSLEngine serverEngine = serverContext.createSSLEngine();
+    serverEngine.setUseClientMode(false);
+    SslHandler serverHandler = new SslHandler(serverEngine);
+    SslHandler clientHandler = clientOptions.newSSLHandler(null, endPoint);
+    EmbeddedChannel server = new EmbeddedChannel(serverHandler);
+    // the embedded channel is active as soon as it is created, the meter must see that first
+    EmbeddedChannel client = new EmbeddedChannel(new SslHandshakeMeter(clientHandler, handshakes));
+    client.pipeline().addLast(clientHandler);
+
+    boolean exchanged = true;
+    while (exchanged) {
+      exchanged = false;
+      Object message;
+      while ((message = client.readOutbound()) != null) {
+        server.writeInbound(message);
+        exchanged = true;
+      }
+      while ((message = server.readOutbound()) != null) {
+        client.writeInbound(message);
+        exchanged = true;
+      }
+    }
+    assertThat(clientHandler.handshakeFuture().isSuccess()).isTrue();
+    byte[] sessionId = clientHandler.engine().getSession().getId();
+    client.finish();
+    server.finish();
+    return sessionId;
+  }
+
+  private static KeyStore loadStore(String path) throws Exception {
+    KeyStore store = KeyStore.getInstance("JKS");
+    InputStream in = SslHandshakeMeterTest.class.getResourceAsStream(path);
+    try {
+      store.load(in, PASSWORD.toCharArray());
+    } finally {
+      in.close();
+    }
+    return store;
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import org.testng.annotations.Test;
+
+public class StripedCounterTest {
+
+  @Test(groups = "unit")
+  public void should_sum_increments_from_all_threads() throws InterruptedException {
+    final StripedCounter counter = new StripedCounter(4);
+    final CountDownLatch done = new CountDownLatch(8);
+    for (int i = 0; i < 8; i++) {
+      new Thread() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 1000; j++) counter.increment();
+          done.countDown();
+        }
+      }.start();
+    }
+    done.await();
+    counter.add(-10);
+    assertThat(counter.sum()).isEqualTo(7990);
+  }
+}
@@ -30,6 +30,7 @@ import static org.testng.Assert.fail;
 import com.datastax.driver.core.UserType.Field;
 import com.datastax.driver.core.exceptions.CodecNotFoundException;
 import com.datastax.driver.core.exceptions.InvalidTypeException;
+import com.datastax.driver.core.utils.Bytes;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
@@ -308,6 +309,63 @@ public class TypeCodecTest {
     assertThat(TypeCodec.cdouble()).accepts(Double.class).accepts(Double.TYPE).accepts(42.0D);
   }
 
+  @Test(groups = "unit")
+  public void should_serialize_float_vector_in_bulk() {
+    DataType.VectorType type = DataType.vector(DataType.cfloat(), 3);
+    TypeCodec<float[]> codec = codecRegistry.codecFor(type);
+    assertThat(codec).accepts(float[].class).accepts(type);
+
+    float[] value = new float[] {1.5f, -2.0f, 3.25f};
+    ByteBuffer bytes = codec.serialize(value, V3);
+    // same layout as consecutive float elements
+    ByteBuffer expected = ByteBuffer.allocate(12);
+    for (float f : value) expected.put(TypeCodec.cfloat().serialize(f, V3));
+    expected.flip();
+    assertThat(bytes).isEqualTo(expected);
+    assertThat(codec.deserialize(bytes, V3)).containsExactly(value);
+    assertThat(codec.parse(codec.format(value))).containsExactly(value);
+    assertThat(codec.format(value)).isEqualTo("[1.5, -2.0, 3.25]");
+
+    assertThat(codec).withProtocolVersion(V3).cannotSerialize(new float[] {1.0f, 2.0f});
+  }
+
+  @Test(groups = "unit")
+  public void should_serialize_double_vector_in_bulk() {
+    DataType.VectorType type = DataType.vector(DataType.cdouble(), 2);
+    TypeCodec<double[]> codec = codecRegistry.codecFor(type);
+    double[] value = new double[] {Math.PI, -1.0};
+    assertThat(codec.deserialize(codec.serialize(value, V3), V3)).containsExactly(value);
+    assertThat(codec.parse("[3.141592653589793, -1.0]")).containsExactly(value);
+  }
+
+  @Test(groups = "unit")
+  public void should_resolve_vector_codecs_from_values() {
+    assertThat(codecRegistry.codecFor(new float[] {1.0f, 2.0f}).getCqlType())
+        .isEqualTo(DataType.vector(DataType.cfloat(), 2));
+    assertThat(codecRegistry.codecFor(DataType.vector(cint(), 2), Arrays.asList(1, 2)))
+        .accepts(DataType.vector(cint(), 2));
+  }
+
+  @Test(groups = "unit")
+  public void should_serialize_variable_length_vector_elements_with_vint_length() {
+    DataType.VectorType type = DataType.vector(text(), 2);
+    TypeCodec<List<String>> codec = codecRegistry.codecFor(type, TypeTokens.listOf(String.class));
+    List<String> value = Arrays.asList("ab", "");
+    ByteBuffer bytes = codec.serialize(value, V3);
+    assertThat(Bytes.toHexString(bytes)).isEqualTo("0x02616200");
+    assertThat(codec.deserialize(bytes, V3)).isEqualTo(value);
+    assertThat(codec.parse("['ab', '']")).isEqualTo(value);
+  }
+
+  @Test(groups = "unit")
+  public void should_serialize_fixed_length_vector_elements_without_length() {
+    DataType.VectorType type = DataType.vector(cint(), 2);
+    TypeCodec<List<Integer>> codec = TypeCodec.vector(type, TypeCodec.cint());
+    ByteBuffer bytes = codec.serialize(Arrays.asList(1, 2), V3);
+    assertThat(Bytes.toHexString(bytes)).isEqualTo("0x0000000100000002");
+    assertThat(codec.deserialize(bytes, V3)).containsExactly(1, 2);
+  }
+
   private class ListVarcharToListListInteger extends TypeCodec<List<List<Integer>>> {
 
     private final TypeCodec<List<String>> codec = TypeCodec.list(TypeCodec.varchar());
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import org.testng.annotations.Test;
+
+public class WorkloadClassTest extends ScassandraTestBase {
+
+  @Test(groups = "short")
+  public void should_send_statements_through_class_pools() {
+    Cluster cluster = newCluster();
+    try {
+      SessionManager session = (SessionManager) cluster.connect();
+      SessionManager analytics = session.workloadSessions.get("analytics");
+      Host host = retrieveSingleHost(cluster);
+
+      assertThat(analytics.workloadClass.getName()).isEqualTo("analytics");
+      assertThat(cluster.manager.sessions).containsOnly(session, analytics);
+      assertThat(session.pools.get(host).opened()).isEqualTo(1);
+      assertThat(analytics.pools.get(host).opened()).isEqualTo(2);
+      Metrics.WorkloadClassMetrics metrics =
+          cluster.getMetrics().getWorkloadClassMetrics("analytics");
+      assertThat(metrics.getOpenConnections().getValue()).isEqualTo(2);
+      assertThat(cluster.getMetrics().getOpenConnections().getValue()).isEqualTo(4); // + control
+
+      session.execute(new SimpleStatement("SELECT * FROM ks.foo").setWorkloadClass("analytics"));
+      assertThat(metrics.getRequestsTimer().getCount()).isEqualTo(1);
+      assertThat(cluster.getMetrics().getRequestsTimer().getCount()).isEqualTo(1);
+
+      session.execute("SELECT * FROM ks.foo");
+      assertThat(metrics.getRequestsTimer().getCount()).isEqualTo(1);
+      assertThat(cluster.getMetrics().getRequestsTimer().getCount()).isEqualTo(2);
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "short")
+  public void should_reject_unknown_class() {
+    Cluster cluster = newCluster();
+    try {
+      Session session = cluster.connect();
+      try {
+        session.execute(new SimpleStatement("SELECT * FROM ks.foo").setWorkloadClass("oltp"));
+        fail("Expected an IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        assertThat(e).hasMessage("Unknown workload class oltp");
+      }
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "short")
+  public void should_close_class_pools_with_session() {
+    Cluster cluster = newCluster();
+    try {
+      SessionManager session = (SessionManager) cluster.connect();
+      SessionManager analytics = session.workloadSessions.get("analytics");
+
+      session.close();
+      assertThat(analytics.isClosed()).isTrue();
+      assertThat(cluster.manager.sessions).isEmpty();
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "short")
+  public void should_reject_classes_that_share_pooling_options() {
+    PoolingOptions poolingOptions = new PoolingOptions();
+    try {
+      Cluster.builder()
+          .addContactPoint("127.0.0.1")
+          .withPoolingOptions(poolingOptions)
+          .withWorkloadClasses(new WorkloadClass("analytics", poolingOptions))
+          .build();
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Workload class analytics shares its pooling options");
+    }
+    try {
+      Cluster.builder()
+          .withWorkloadClasses(
+              new WorkloadClass("analytics", new PoolingOptions()),
+              new WorkloadClass("analytics", new PoolingOptions()));
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Duplicate workload class analytics");
+    }
+  }
+
+  private Cluster newCluster() {
+    return createClusterBuilder()
+        .withWorkloadClasses(
+            new WorkloadClass(
+                "analytics",
+                new PoolingOptions()
+                    .setCoreConnectionsPerHost(HostDistance.LOCAL, 2)
+                    .setMaxConnectionsPerHost(HostDistance.LOCAL, 2)))
+        .build();
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.PercentileTracker;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.policies.SpeculativeExecutionPolicy.SpeculativeExecutionPlan;
+import com.datastax.driver.core.policies.SpeculativeExecutionPolicy.ThrottledSpeculativeExecutionPlan;
+import org.testng.annotations.Test;
+
+public class AdaptiveSpeculativeExecutionPolicyTest {
+
+  private final Host host = mock(Host.class);
+  private final Statement statement = mock(Statement.class);
+
+  @Test(groups = "unit")
+  public void should_schedule_executions_at_percentile_latency() {
+    PercentileTracker tracker = mock(PercentileTracker.class);
+    when(tracker.getLatencyAtPercentile(
+            any(Host.class), any(Statement.class), any(Exception.class), anyDouble()))
+        .thenReturn(42L);
+    AdaptiveSpeculativeExecutionPolicy policy =
+        AdaptiveSpeculativeExecutionPolicy.builder(tracker).withMaxSpeculativeExecutions(2).build();
+
+    SpeculativeExecutionPlan plan = policy.newPlan(null, statement);
+
+    assertThat(plan.nextExecution(host)).isEqualTo(42);
+    assertThat(plan.nextExecution(host)).isEqualTo(42);
+    assertThat(plan.nextExecution(host)).isEqualTo(-1);
+  }
+
+  @Test(groups = "unit")
+  public void should_limit_executions_to_burst() {
+    AdaptiveSpeculativeExecutionPolicy policy =
+        AdaptiveSpeculativeExecutionPolicy.builder(mock(PercentileTracker.class))
+            .withMaxBurst(3)
+            .build();
+
+    ThrottledSpeculativeExecutionPlan plan =
+        (ThrottledSpeculativeExecutionPlan) policy.newPlan(null, statement);
+
+    assertThat(plan.tryStartExecution()).isTrue();
+    assertThat(plan.tryStartExecution()).isTrue();
+    assertThat(plan.tryStartExecution()).isTrue();
+    assertThat(plan.tryStartExecution()).isFalse();
+  }
+
+  @Test(groups = "unit")
+  public void should_replenish_budget_as_a_ratio_of_requests() {
+    AdaptiveSpeculativeExecutionPolicy policy =
+        AdaptiveSpeculativeExecutionPolicy.builder(mock(PercentileTracker.class))
+            .withMaxSpeculativeRatio(0.1)
+            .withMaxBurst(1)
+            .build();
+
+    ThrottledSpeculativeExecutionPlan plan =
+        (ThrottledSpeculativeExecutionPlan) policy.newPlan(null, statement);
+    assertThat(plan.tryStartExecution()).isTrue();
+    assertThat(policy.availableExecutions()).isEqualTo(0);
+
+    // 9 more requests are not enough to earn a new execution
+    for (int i = 0; i < 9; i++) policy.newPlan(null, statement);
+    assertThat(plan.tryStartExecution()).isFalse();
+
+    // the 10th one is
+    policy.newPlan(null, statement);
+    assertThat(plan.tryStartExecution()).isTrue();
+    assertThat(plan.tryStartExecution()).isFalse();
+  }
+
+  @Test(groups = "unit")
+  public void should_not_accumulate_budget_above_burst() {
+    AdaptiveSpeculativeExecutionPolicy policy =
+        AdaptiveSpeculativeExecutionPolicy.builder(mock(PercentileTracker.class))
+            .withMaxSpeculativeRatio(1)
+            .withMaxBurst(2)
+            .build();
+
+    for (int i = 0; i < 1000; i++) policy.newPlan(null, statement);
+
+    assertThat(policy.availableExecutions()).isEqualTo(2);
+  }
+
+  @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+  public void should_reject_invalid_ratio() {
+    AdaptiveSpeculativeExecutionPolicy.builder(mock(PercentileTracker.class))
+        .withMaxSpeculativeRatio(0);
+  }
+}
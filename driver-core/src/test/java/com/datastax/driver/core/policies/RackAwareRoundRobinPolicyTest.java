@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.Configuration;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.HostDistance;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.ProtocolOptions;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.QueryOptions;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.assertj.core.util.Sets;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class RackAwareRoundRobinPolicyTest {
+
+  private final Host rack1a = host("dc1", "rack1");
+  private final Host rack1b = host("dc1", "rack1");
+  private final Host rack2a = host("dc1", "rack2");
+  private final Host rack2b = host("dc1", "rack2");
+  private final Host remote = host("dc2", "rack1");
+
+  private Cluster cluster;
+  private Metadata metadata;
+
+  @BeforeMethod(groups = "unit")
+  public void setup() {
+    cluster = mock(Cluster.class);
+    Configuration configuration = mock(Configuration.class);
+    ProtocolOptions protocolOptions = mock(ProtocolOptions.class);
+    metadata = mock(Metadata.class);
+    when(cluster.getConfiguration()).thenReturn(configuration);
+    when(cluster.getMetadata()).thenReturn(metadata);
+    when(configuration.getQueryOptions()).thenReturn(new QueryOptions());
+    when(configuration.getCodecRegistry()).thenReturn(new CodecRegistry());
+    when(configuration.getProtocolOptions()).thenReturn(protocolOptions);
+    when(protocolOptions.getProtocolVersion()).thenReturn(ProtocolVersion.NEWEST_SUPPORTED);
+  }
+
+  @Test(groups = "unit")
+  public void should_return_local_rack_then_local_dc_then_remote_dcs() {
+    RackAwareRoundRobinPolicy policy = policy(1);
+    Statement statement =
+        new SimpleStatement("irrelevant").setConsistencyLevel(ConsistencyLevel.ONE);
+
+    for (int i = 0; i < 4; i++) {
+      List<Host> plan = Lists.newArrayList(policy.newQueryPlan(null, statement));
+      assertThat(plan).hasSize(5);
+      assertThat(plan.subList(0, 2)).containsOnly(rack1a, rack1b);
+      assertThat(plan.subList(2, 4)).containsOnly(rack2a, rack2b);
+      assertThat(plan.get(4)).isSameAs(remote);
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_round_robin_within_local_rack() {
+    RackAwareRoundRobinPolicy policy = policy(0);
+    Statement statement = new SimpleStatement("irrelevant");
+
+    Host first = policy.newQueryPlan(null, statement).next();
+    Host second = policy.newQueryPlan(null, statement).next();
+    assertThat(ImmutableList.of(first, second)).containsOnly(rack1a, rack1b);
+    assertThat(first).isNotSameAs(second);
+  }
+
+  @Test(groups = "unit")
+  public void should_fall_back_to_other_racks_when_local_rack_is_down() {
+    RackAwareRoundRobinPolicy policy = policy(0);
+    policy.onDown(rack1a);
+    policy.onDown(rack1b);
+
+    List<Host> plan = Lists.newArrayList(policy.newQueryPlan(null, new SimpleStatement("q")));
+    assertThat(plan).containsOnly(rack2a, rack2b);
+  }
+
+  @Test(groups = "unit")
+  public void should_consider_all_racks_of_local_dc_local() {
+    RackAwareRoundRobinPolicy policy = policy(0);
+    assertThat(policy.distance(rack1a)).isEqualTo(HostDistance.LOCAL);
+    assertThat(policy.distance(rack2a)).isEqualTo(HostDistance.LOCAL);
+    assertThat(policy.distance(remote)).isEqualTo(HostDistance.IGNORED);
+  }
+
+  @Test(groups = "unit")
+  public void should_prioritize_local_rack_replicas_with_token_aware_policy() {
+    ByteBuffer routingKey = ByteBuffer.wrap(new byte[] {1, 2, 3, 4});
+    Statement statement = new SimpleStatement("irrelevant").setRoutingKey(routingKey);
+    when(metadata.getReplicas(Metadata.quote("ks"), null, routingKey))
+        .thenReturn(Sets.newLinkedHashSet(rack2a, rack1a, rack2b));
+
+    TokenAwarePolicy policy =
+        new TokenAwarePolicy(
+            RackAwareRoundRobinPolicy.builder().withLocalDc("dc1").withLocalRack("rack1").build(),
+            TokenAwarePolicy.ReplicaOrdering.TOPOLOGICAL);
+    policy.init(cluster, ImmutableList.of(rack1a, rack1b, rack2a, rack2b, remote));
+
+    List<Host> plan = Lists.newArrayList(policy.newQueryPlan("ks", statement));
+    assertThat(plan.subList(0, 4)).containsExactly(rack1a, rack2a, rack2b, rack1b);
+  }
+
+  @Test(groups = "unit", expectedExceptions = IllegalStateException.class)
+  public void should_require_local_rack() {
+    RackAwareRoundRobinPolicy.builder().withLocalDc("dc1").build();
+  }
+
+  @SuppressWarnings("deprecation")
+  private RackAwareRoundRobinPolicy policy(int usedHostsPerRemoteDc) {
+    RackAwareRoundRobinPolicy policy =
+        RackAwareRoundRobinPolicy.builder()
+            .withLocalDc("dc1")
+            .withLocalRack("rack1")
+            .withUsedHostsPerRemoteDc(usedHostsPerRemoteDc)
+            .build();
+    policy.init(cluster, ImmutableList.of(rack1a, rack1b, rack2a, rack2b, remote));
+    return policy;
+  }
+
+  private static Host host(String dc, String rack) {
+    Host host = mock(Host.class);
+    when(host.getDatacenter()).thenReturn(dc);
+    when(host.getRack()).thenReturn(rack);
+    when(host.isUp()).thenReturn(true);
+    return host;
+  }
+}
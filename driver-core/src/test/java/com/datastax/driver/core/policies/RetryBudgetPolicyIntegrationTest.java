@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.scassandra.http.client.Result.unavailable;
+
+import com.datastax.driver.core.exceptions.UnavailableException;
+import org.testng.annotations.Test;
+
+public class RetryBudgetPolicyIntegrationTest extends AbstractRetryPolicyIntegrationTest {
+  public RetryBudgetPolicyIntegrationTest() {
+    super(
+        RetryBudgetPolicy.builder(DefaultRetryPolicy.INSTANCE)
+            .withRetryRatio(0)
+            .withMinRetriesPerMinute(0)
+            .build());
+  }
+
+  @Test(groups = "short")
+  public void should_not_count_rejected_retry_as_retry() {
+    simulateError(1, unavailable);
+
+    try {
+      query();
+      fail("expected an UnavailableException");
+    } catch (UnavailableException e) {
+      /*expected*/
+    }
+
+    assertOnUnavailableWasCalled(1);
+    assertThat(errors.getUnavailables().getCount()).isEqualTo(1);
+    assertThat(errors.getRetries().getCount()).isEqualTo(0);
+    assertThat(errors.getRetriesOnUnavailable().getCount()).isEqualTo(0);
+    assertThat(errors.getRetriesRejected().getCount()).isEqualTo(1);
+    assertQueried(1, 1);
+    assertQueried(2, 0);
+    assertQueried(3, 0);
+  }
+}
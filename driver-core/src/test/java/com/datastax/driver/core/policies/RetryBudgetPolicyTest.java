@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import static com.datastax.driver.core.ConsistencyLevel.ONE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.EndPoint;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.ServerError;
+import com.datastax.driver.core.policies.RetryPolicy.RetryDecision;
+import java.util.concurrent.TimeUnit;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class RetryBudgetPolicyTest {
+
+  @Mock Clock clock;
+
+  private final Host host1 = mock(Host.class);
+  private final Host host2 = mock(Host.class);
+  private final Statement statement = mock(Statement.class);
+
+  @BeforeMethod(groups = "unit")
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test(groups = "unit")
+  public void should_allow_min_retries_without_traffic() {
+    RetryBudgetPolicy policy =
+        RetryBudgetPolicy.builder(DefaultRetryPolicy.INSTANCE)
+            .withMinRetriesPerMinute(2)
+            .withClock(clock)
+            .build();
+
+    assertThat(policy.checkRetry(host1, RetryDecision.retry(ONE)).getType())
+        .isEqualTo(RetryDecision.Type.RETRY);
+    assertThat(policy.checkRetry(host1, RetryDecision.retry(ONE)).getType())
+        .isEqualTo(RetryDecision.Type.RETRY);
+    assertThat(policy.checkRetry(host1, RetryDecision.retry(ONE)).getType())
+        .isEqualTo(RetryDecision.Type.RETHROW);
+  }
+
+  @Test(groups = "unit")
+  public void should_allow_retries_proportional_to_successes() {
+    RetryBudgetPolicy policy =
+        RetryBudgetPolicy.builder(DefaultRetryPolicy.INSTANCE)
+            .withRetryRatio(0.1)
+            .withMinRetriesPerMinute(0)
+            .withClock(clock)
+            .build();
+
+    assertThat(policy.checkRetry(host1, RetryDecision.retry(ONE)).getType())
+        .isEqualTo(RetryDecision.Type.RETHROW);
+
+    for (int i = 0; i < 30; i++) policy.requestTracker.update(host1, statement, null, 0);
+    setTime(5, TimeUnit.SECONDS);
+
+    for (int i = 0; i < 3; i++)
+      assertThat(policy.checkRetry(host1, RetryDecision.retry(ONE)).getType())
+          .isEqualTo(RetryDecision.Type.RETRY);
+    assertThat(policy.checkRetry(host1, RetryDecision.retry(ONE)).getType())
+        .isEqualTo(RetryDecision.Type.RETHROW);
+
+    // once the successes leave the window, the budget is gone
+    setTime(65, TimeUnit.SECONDS);
+    assertThat(policy.checkRetry(host1, RetryDecision.retry(ONE)).getType())
+        .isEqualTo(RetryDecision.Type.RETHROW);
+  }
+
+  @Test(groups = "unit")
+  public void should_not_change_other_decisions() {
+    RetryBudgetPolicy policy =
+        RetryBudgetPolicy.builder(DefaultRetryPolicy.INSTANCE)
+            .withMinRetriesPerMinute(0)
+            .withClock(clock)
+            .build();
+
+    assertThat(policy.checkRetry(host1, RetryDecision.ignore())).isSameAs(RetryDecision.ignore());
+    assertThat(policy.checkRetry(host1, RetryDecision.rethrow())).isSameAs(RetryDecision.rethrow());
+  }
+
+  @Test(groups = "unit")
+  public void should_reroute_retries_when_circuit_is_open() {
+    RetryBudgetPolicy policy =
+        RetryBudgetPolicy.builder(DefaultRetryPolicy.INSTANCE)
+            .withCircuitBreaker(0.5, 10)
+            .withClock(clock)
+            .build();
+
+    recordRequests(policy, host1, 4, 6);
+    recordRequests(policy, host2, 8, 2);
+    setTime(5, TimeUnit.SECONDS);
+
+    assertThat(policy.isCircuitOpen(host1)).isTrue();
+    assertThat(policy.isCircuitOpen(host2)).isFalse();
+
+    RetryDecision decision = policy.checkRetry(host1, RetryDecision.retry(ONE));
+    assertThat(decision.getType()).isEqualTo(RetryDecision.Type.RETRY);
+    assertThat(decision.isRetryCurrent()).isFalse();
+    assertThat(decision.getRetryConsistencyLevel()).isEqualTo(ONE);
+
+    decision = policy.checkRetry(host2, RetryDecision.retry(ONE));
+    assertThat(decision.isRetryCurrent()).isTrue();
+
+    // retrying on the next host is not affected
+    decision = policy.checkRetry(host1, RetryDecision.tryNextHost(ONE));
+    assertThat(decision.getType()).isEqualTo(RetryDecision.Type.RETRY);
+  }
+
+  @Test(groups = "unit")
+  public void should_fail_fast_when_circuit_is_open() {
+    RetryBudgetPolicy policy =
+        RetryBudgetPolicy.builder(DefaultRetryPolicy.INSTANCE)
+            .withCircuitBreaker(0.5, 10)
+            .withCircuitBreakerAction(RetryBudgetPolicy.CircuitBreakerAction.FAIL_FAST)
+            .withClock(clock)
+            .build();
+
+    recordRequests(policy, host1, 0, 10);
+    setTime(5, TimeUnit.SECONDS);
+
+    assertThat(policy.checkRetry(host1, RetryDecision.retry(ONE)).getType())
+        .isEqualTo(RetryDecision.Type.RETHROW);
+  }
+
+  @Test(groups = "unit")
+  public void should_keep_circuit_closed_below_min_requests() {
+    RetryBudgetPolicy policy =
+        RetryBudgetPolicy.builder(DefaultRetryPolicy.INSTANCE)
+            .withCircuitBreaker(0.5, 10)
+            .withClock(clock)
+            .build();
+
+    recordRequests(policy, host1, 0, 9);
+    setTime(5, TimeUnit.SECONDS);
+
+    assertThat(policy.isCircuitOpen(host1)).isFalse();
+  }
+
+  @Test(groups = "unit")
+  public void should_unregister_tracker_on_close() {
+    RetryBudgetPolicy policy = RetryBudgetPolicy.builder(DefaultRetryPolicy.INSTANCE).build();
+    Cluster cluster = mock(Cluster.class);
+    policy.init(cluster);
+    verify(cluster).register(policy.requestTracker);
+
+    policy.close();
+    verify(cluster).unregister(policy.requestTracker);
+  }
+
+  private void recordRequests(RetryBudgetPolicy policy, Host host, int successes, int errors) {
+    for (int i = 0; i < successes; i++) policy.requestTracker.update(host, statement, null, 0);
+    for (int i = 0; i < errors; i++)
+      policy.requestTracker.update(
+          host, statement, new ServerError(mock(EndPoint.class), "test"), 0);
+  }
+
+  private void setTime(long time, TimeUnit unit) {
+    when(clock.nanoTime()).thenReturn(TimeUnit.NANOSECONDS.convert(time, unit));
+  }
+}
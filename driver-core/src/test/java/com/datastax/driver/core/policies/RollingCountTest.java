@@ -20,7 +20,9 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mockito.Mockito.when;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.testng.annotations.BeforeMethod;
@@ -141,6 +143,25 @@ public class RollingCountTest {
     assertThat(rollingCount.get()).isEqualTo(1);
   }
 
+  @Test(groups = "unit")
+  public void should_not_increment_past_limit_under_contention() throws InterruptedException {
+    final CountDownLatch done = new CountDownLatch(8);
+    final AtomicInteger acquired = new AtomicInteger();
+    for (int i = 0; i < 8; i++) {
+      new Thread() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 100; j++)
+            if (rollingCount.incrementIfBelow(50)) acquired.incrementAndGet();
+          done.countDown();
+        }
+      }.start();
+    }
+    done.await();
+    assertThat(acquired.get()).isEqualTo(50);
+    assertThat(rollingCount.getIncludingCurrentInterval()).isEqualTo(50);
+  }
+
   private void setTime(long time, TimeUnit unit) {
     when(clock.nanoTime()).thenReturn(NANOSECONDS.convert(time, unit));
   }
@@ -105,9 +105,18 @@ class AnnotationParser {
                 tableName, keyspaceName));
     }
 
+    // looked up once, and shared by the mapper and all the properties of the entity
+    GeneratedEntityHelper<T> helper = ReflectionUtils.findGeneratedHelper(entityClass);
+
     EntityMapper<T> mapper =
         new EntityMapper<T>(
-            entityClass, keyspaceName, tableName, writeConsistency, readConsistency);
+            entityClass,
+            helper,
+            keyspaceName,
+            tableName,
+            writeConsistency,
+            readConsistency,
+            mappingManager);
 
     List<AliasedMappedProperty> pks = new ArrayList<AliasedMappedProperty>();
     List<AliasedMappedProperty> ccs = new ArrayList<AliasedMappedProperty>();
@@ -121,6 +130,9 @@ class AnnotationParser {
 
     for (MappedProperty<?> mappedProperty : properties) {
 
+      if (helper != null && mappedProperty instanceof DefaultMappedProperty)
+        ((DefaultMappedProperty<?>) mappedProperty).useGeneratedHelper(helper);
+
       String alias = (columnCounter != null) ? "col" + columnCounter.incrementAndGet() : null;
 
       AliasedMappedProperty aliasedMappedProperty =
@@ -198,8 +210,13 @@ class AnnotationParser {
     Set<? extends MappedProperty<?>> properties =
         configuration.getPropertyMapper().mapUdt(udtClass);
 
+    GeneratedEntityHelper<T> helper = ReflectionUtils.findGeneratedHelper(udtClass);
+
     for (MappedProperty<?> mappedProperty : properties) {
 
+      if (helper != null && mappedProperty instanceof DefaultMappedProperty)
+        ((DefaultMappedProperty<?>) mappedProperty).useGeneratedHelper(helper);
+
       AliasedMappedProperty aliasedMappedProperty = new AliasedMappedProperty(mappedProperty, null);
 
       if (!userType.contains(mappedProperty.getMappedName()))
@@ -214,7 +231,7 @@ class AnnotationParser {
       propertyMappers.put(mappedProperty.getMappedName(), aliasedMappedProperty);
     }
 
-    return new MappedUDTCodec<T>(userType, udtClass, propertyMappers, mappingManager);
+    return new MappedUDTCodec<T>(userType, udtClass, helper, propertyMappers, mappingManager);
   }
 
   static <T> AccessorMapper<T> parseAccessor(Class<T> accClass, MappingManager mappingManager) {
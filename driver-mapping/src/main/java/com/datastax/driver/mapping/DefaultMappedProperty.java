@@ -78,6 +78,13 @@ class DefaultMappedProperty<T> implements MappedProperty<T> {
   private final Method getter;
   private final Method setter;
 
+  // Generated counterparts of the above, null if there is no generated helper or it does not cover
+  // the field or method. Set by useGeneratedHelper() before the property is published.
+  private GeneratedEntityHelper.PropertyReader fieldReader;
+  private GeneratedEntityHelper.PropertyWriter fieldWriter;
+  private GeneratedEntityHelper.PropertyReader getterReader;
+  private GeneratedEntityHelper.PropertyWriter setterWriter;
+
   private DefaultMappedProperty(
       Class<?> mappedClass,
       String propertyName,
@@ -111,6 +118,17 @@ class DefaultMappedProperty<T> implements MappedProperty<T> {
     this.setter = setter;
   }
 
+  /**
+   * Reads and writes this property through the given helper, for whichever of its members the
+   * helper covers. The helper is looked up once per entity class by the caller.
+   */
+  void useGeneratedHelper(GeneratedEntityHelper<?> helper) {
+    this.fieldReader = field == null ? null : helper.getFieldReader(field.getName());
+    this.fieldWriter = field == null ? null : helper.getFieldWriter(field.getName());
+    this.getterReader = getter == null ? null : helper.getGetter(getter.getName());
+    this.setterWriter = setter == null ? null : helper.getSetter(setter.getName());
+  }
+
   @Override
   public String getPropertyName() {
     return propertyName;
@@ -156,8 +174,11 @@ class DefaultMappedProperty<T> implements MappedProperty<T> {
   public T getValue(Object entity) {
     try {
       // try getter first, if available, otherwise direct field access
-      if (getter != null && getter.isAccessible()) return (T) getter.invoke(entity);
-      else return (T) checkNotNull(field).get(entity);
+      if (getter != null && getter.isAccessible())
+        return (T) (getterReader != null ? getterReader.read(entity) : getter.invoke(entity));
+      else
+        return (T)
+            (fieldReader != null ? fieldReader.read(entity) : checkNotNull(field).get(entity));
     } catch (Exception e) {
       throw new IllegalArgumentException(
           "Unable to read property '" + getPropertyName() + "' in " + entity.getClass(), e);
@@ -168,7 +189,10 @@ class DefaultMappedProperty<T> implements MappedProperty<T> {
   public void setValue(Object entity, T value) {
     try {
       // try setter first, if available, otherwise direct field access
-      if (setter != null && setter.isAccessible()) setter.invoke(entity, value);
+      if (setter != null && setter.isAccessible()) {
+        if (setterWriter != null) setterWriter.write(entity, value);
+        else setter.invoke(entity, value);
+      } else if (fieldWriter != null) fieldWriter.write(entity, value);
       else checkNotNull(field).set(entity, value);
     } catch (Exception e) {
       throw new IllegalArgumentException(
@@ -176,6 +200,15 @@ class DefaultMappedProperty<T> implements MappedProperty<T> {
     }
   }
 
+  /** @return whether this property is read and written through generated code. */
+  boolean usesGeneratedAccessors() {
+    boolean read =
+        getter != null && getter.isAccessible() ? getterReader != null : fieldReader != null;
+    boolean write =
+        setter != null && setter.isAccessible() ? setterWriter != null : fieldWriter != null;
+    return read && write;
+  }
+
   @Override
   public String toString() {
     return mappedClass.getSimpleName() + "." + getPropertyName();
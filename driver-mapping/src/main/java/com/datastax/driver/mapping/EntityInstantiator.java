@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Creates instances of a mapped class, with its {@link GeneratedEntityHelper generated helper} if
+ * available, or else with its no-arg constructor, which is looked up once.
+ */
+class EntityInstantiator<T> {
+
+  private final Class<T> entityClass;
+  private final GeneratedEntityHelper<T> helper;
+  private volatile Constructor<T> constructor;
+
+  EntityInstantiator(Class<T> entityClass, GeneratedEntityHelper<T> helper) {
+    this.entityClass = entityClass;
+    this.helper = helper;
+  }
+
+  T newInstance() {
+    if (helper != null) return helper.newInstance();
+    Constructor<T> constructor = this.constructor;
+    if (constructor == null) {
+      // resolved lazily, so that classes that are only written can lack a no-arg constructor
+      constructor = ReflectionUtils.getNoArgConstructor(entityClass);
+      this.constructor = constructor;
+    }
+    return ReflectionUtils.newInstance(constructor);
+  }
+}
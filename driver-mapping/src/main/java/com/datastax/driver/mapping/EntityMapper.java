@@ -15,13 +15,16 @@
  */
 package com.datastax.driver.mapping;
 
+import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.ConsistencyLevel;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.ArrayList;
 import java.util.List;
 
 class EntityMapper<T> {
 
-  private final Class<T> entityClass;
+  private final EntityInstantiator<T> instantiator;
   final String keyspace;
   final String table;
 
@@ -33,17 +36,29 @@ class EntityMapper<T> {
 
   final List<AliasedMappedProperty> allColumns = new ArrayList<AliasedMappedProperty>();
 
+  private final MappingManager manager;
+
+  // Keyed by identity: prepared statements reuse the same ColumnDefinitions instance for all their
+  // results, other statements get a new one with each result set.
+  private final Cache<ColumnDefinitions, RowMappingPlan<T>> mappingPlans =
+      CacheBuilder.newBuilder().weakKeys().build();
+  private final Cache<ColumnDefinitions, RowMappingPlan<T>> aliasedMappingPlans =
+      CacheBuilder.newBuilder().weakKeys().build();
+
   EntityMapper(
       Class<T> entityClass,
+      GeneratedEntityHelper<T> helper,
       String keyspace,
       String table,
       ConsistencyLevel writeConsistency,
-      ConsistencyLevel readConsistency) {
-    this.entityClass = entityClass;
+      ConsistencyLevel readConsistency,
+      MappingManager manager) {
+    this.instantiator = new EntityInstantiator<T>(entityClass, helper);
     this.keyspace = keyspace;
     this.table = table;
     this.writeConsistency = writeConsistency;
     this.readConsistency = readConsistency;
+    this.manager = manager;
   }
 
   int primaryKeySize() {
@@ -68,6 +83,27 @@ class EntityMapper<T> {
   }
 
   T newEntity() {
-    return ReflectionUtils.newInstance(entityClass);
+    return instantiator.newInstance();
+  }
+
+  /**
+   * Returns the plan to map rows with the given column definitions to entities, creating it if
+   * needed.
+   */
+  RowMappingPlan<T> getMappingPlan(ColumnDefinitions columnDefinitions, boolean useAlias) {
+    Cache<ColumnDefinitions, RowMappingPlan<T>> plans =
+        useAlias ? aliasedMappingPlans : mappingPlans;
+    RowMappingPlan<T> plan = plans.getIfPresent(columnDefinitions);
+    if (plan == null) {
+      // Concurrent callers may compile the same plan twice, which is harmless
+      plan =
+          new RowMappingPlan<T>(
+              this,
+              columnDefinitions,
+              useAlias,
+              manager.getSession().getCluster().getConfiguration().getCodecRegistry());
+      plans.put(columnDefinitions, plan);
+    }
+    return plan;
   }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import com.datastax.driver.mapping.annotations.Table;
+import com.datastax.driver.mapping.annotations.UDT;
+import com.datastax.driver.mapping.processor.EntityHelperProcessor;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base class for the helpers generated at compile time by {@link EntityHelperProcessor} for classes
+ * annotated with {@link Table @Table} or {@link UDT @UDT}.
+ *
+ * <p>A helper creates instances of its entity class and reads and writes its properties with plain
+ * Java code, instead of reflection. It is located by name at runtime: the helper of {@code
+ * com.example.User} is {@code com.example.User_MapperHelper}, and the helper of a nested class
+ * {@code com.example.Outer.User} is {@code com.example.Outer_User_MapperHelper}. When there is no
+ * helper, or when it does not cover a given field or method (for example because it is private),
+ * the mapper falls back to reflection.
+ *
+ * <p>This class is not meant to be extended by hand.
+ *
+ * @param <T> the entity class.
+ */
+public abstract class GeneratedEntityHelper<T> {
+
+  /** The suffix appended to the name of an entity class to get the name of its helper. */
+  public static final String SUFFIX = "_MapperHelper";
+
+  /** Reads a value from an entity. */
+  public interface PropertyReader {
+    Object read(Object entity);
+  }
+
+  /** Writes a value into an entity. */
+  public interface PropertyWriter {
+    void write(Object entity, Object value);
+  }
+
+  private final Map<String, PropertyReader> fieldReaders = new HashMap<String, PropertyReader>();
+  private final Map<String, PropertyWriter> fieldWriters = new HashMap<String, PropertyWriter>();
+  private final Map<String, PropertyReader> getters = new HashMap<String, PropertyReader>();
+  private final Map<String, PropertyWriter> setters = new HashMap<String, PropertyWriter>();
+
+  /**
+   * Creates a new instance of the entity class, with its no-arg constructor.
+   *
+   * @return the new instance.
+   */
+  public abstract T newInstance();
+
+  protected void addFieldReader(String fieldName, PropertyReader reader) {
+    fieldReaders.put(fieldName, reader);
+  }
+
+  protected void addFieldWriter(String fieldName, PropertyWriter writer) {
+    fieldWriters.put(fieldName, writer);
+  }
+
+  protected void addGetter(String methodName, PropertyReader reader) {
+    getters.put(methodName, reader);
+  }
+
+  protected void addSetter(String methodName, PropertyWriter writer) {
+    setters.put(methodName, writer);
+  }
+
+  PropertyReader getFieldReader(String fieldName) {
+    return fieldReaders.get(fieldName);
+  }
+
+  PropertyWriter getFieldWriter(String fieldName) {
+    return fieldWriters.get(fieldName);
+  }
+
+  PropertyReader getGetter(String methodName) {
+    return getters.get(methodName);
+  }
+
+  PropertyWriter getSetter(String methodName) {
+    return setters.get(methodName);
+  }
+
+  /**
+   * Returns the name of the helper class for the given entity class.
+   *
+   * @param entityBinaryName the binary name of the entity class, as returned by {@link
+   *     Class#getName()}.
+   * @return the fully-qualified name of the helper class.
+   */
+  public static String helperClassName(String entityBinaryName) {
+    int i = entityBinaryName.lastIndexOf('.');
+    return entityBinaryName.substring(0, i + 1)
+        + entityBinaryName.substring(i + 1).replace('$', '_')
+        + SUFFIX;
+  }
+}
@@ -26,17 +26,20 @@ import java.util.Map;
 class MappedUDTCodec<T> extends TypeCodec.AbstractUDTCodec<T> {
   private final UserType cqlUserType;
   private final Class<T> udtClass;
+  private final EntityInstantiator<T> instantiator;
   private final Map<String, AliasedMappedProperty> columnMappers;
   private final CodecRegistry codecRegistry;
 
   MappedUDTCodec(
       UserType cqlUserType,
       Class<T> udtClass,
+      GeneratedEntityHelper<T> helper,
       Map<String, AliasedMappedProperty> columnMappers,
       MappingManager mappingManager) {
     super(cqlUserType, udtClass);
     this.cqlUserType = cqlUserType;
     this.udtClass = udtClass;
+    this.instantiator = new EntityInstantiator<T>(udtClass, helper);
     this.columnMappers = columnMappers;
     this.codecRegistry =
         mappingManager.getSession().getCluster().getConfiguration().getCodecRegistry();
@@ -44,7 +47,7 @@ class MappedUDTCodec<T> extends TypeCodec.AbstractUDTCodec<T> {
 
   @Override
   protected T newInstance() {
-    return ReflectionUtils.newInstance(udtClass);
+    return instantiator.newInstance();
   }
 
   Class<T> getUdtClass() {
@@ -46,16 +46,19 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import com.google.common.util.concurrent.Uninterruptibles;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
@@ -82,6 +85,17 @@ public class Mapper<T> {
   private final ConcurrentMap<MapperQueryKey, ListenableFuture<PreparedStatement>> preparedQueries =
       new ConcurrentHashMap<MapperQueryKey, ListenableFuture<PreparedStatement>>();
 
+  // The columns that save queries can write, in the order of their bind markers. The ordinal of a
+  // column in this array is its bit in the masks of SaveStatements.
+  private final AliasedMappedProperty[] saveColumns;
+
+  // Prepared save statements, by the cache keys of their options (see MapperQueryKey)
+  private final ConcurrentMap<Set<Object>, SaveStatements> saveStatements =
+      new ConcurrentHashMap<Set<Object>, SaveStatements>();
+
+  // The entry of saveStatements for the current default save options
+  private volatile DefaultSaveStatements defaultSaveStatements;
+
   private volatile EnumMap<Option.Type, Option> defaultSaveOptions;
   private volatile EnumMap<Option.Type, Option> defaultGetOptions;
   private volatile EnumMap<Option.Type, Option> defaultDeleteOptions;
@@ -123,6 +137,13 @@ public class Mapper<T> {
           }
         };
 
+    List<AliasedMappedProperty> saveColumns = new ArrayList<AliasedMappedProperty>();
+    for (AliasedMappedProperty col : mapper.allColumns) {
+      if (!col.mappedProperty.isComputed()) saveColumns.add(col);
+    }
+    Collections.sort(saveColumns);
+    this.saveColumns = saveColumns.toArray(new AliasedMappedProperty[saveColumns.size()]);
+
     this.defaultSaveOptions = NO_OPTIONS;
     this.defaultGetOptions = NO_OPTIONS;
     this.defaultDeleteOptions = NO_OPTIONS;
@@ -255,6 +276,94 @@ public class Mapper<T> {
 
   private ListenableFuture<BoundStatement> saveQueryAsync(
       T entity, final EnumMap<Option.Type, Option> options) {
+    if (saveColumns.length > Long.SIZE) return saveQueryAsyncWithSortedMap(entity, options);
+
+    final boolean shouldSaveNullFields = shouldSaveNullFields(options);
+    final boolean useUnsetForNullValue = !shouldSaveNullFields && manager.protocolVersionAsInt >= 4;
+    final boolean includeColumnsWithNullValue = shouldSaveNullFields || useUnsetForNullValue;
+
+    final Object[] values = new Object[saveColumns.length];
+    long mask = 0;
+    for (int i = 0; i < saveColumns.length; i++) {
+      Object value = saveColumns[i].mappedProperty.getValue(entity);
+      if (includeColumnsWithNullValue || value != null) {
+        values[i] = value;
+        mask |= 1L << i;
+      }
+    }
+
+    final SaveStatements statements = getSaveStatements(options);
+    PreparedStatement ps = statements.get(mask);
+    if (ps != null) {
+      // common case: bind synchronously, without going through the future of the statement
+      try {
+        return Futures.immediateFuture(
+            bindSaveQuery(ps, values, mask, options, useUnsetForNullValue));
+      } catch (Exception e) {
+        return Futures.immediateFailedFuture(e);
+      }
+    }
+
+    final long columnMask = mask;
+    Set<AliasedMappedProperty> columns = new TreeSet<AliasedMappedProperty>();
+    for (int i = 0; i < saveColumns.length; i++) {
+      if ((mask & (1L << i)) != 0) columns.add(saveColumns[i]);
+    }
+    return GuavaCompatibility.INSTANCE.transform(
+        getPreparedQueryAsync(QueryType.SAVE, columns, options),
+        new Function<PreparedStatement, BoundStatement>() {
+          @Override
+          public BoundStatement apply(PreparedStatement input) {
+            statements.put(columnMask, input);
+            return bindSaveQuery(input, values, columnMask, options, useUnsetForNullValue);
+          }
+        });
+  }
+
+  private BoundStatement bindSaveQuery(
+      PreparedStatement ps,
+      Object[] values,
+      long mask,
+      EnumMap<Option.Type, Option> options,
+      boolean useUnsetForNullValue) {
+    BoundStatement bs = ps.bind();
+    int i = 0;
+    for (int ordinal = 0; ordinal < saveColumns.length; ordinal++) {
+      if ((mask & (1L << ordinal)) != 0)
+        setObject(bs, i++, values[ordinal], saveColumns[ordinal], useUnsetForNullValue);
+    }
+
+    if (mapper.writeConsistency != null) bs.setConsistencyLevel(mapper.writeConsistency);
+
+    for (Option option : options.values()) {
+      option.validate(QueryType.SAVE, manager);
+      i = option.apply(bs, i);
+    }
+    return bs;
+  }
+
+  private SaveStatements getSaveStatements(EnumMap<Option.Type, Option> options) {
+    DefaultSaveStatements defaults = this.defaultSaveStatements;
+    if (defaults != null && defaults.options == options) return defaults.statements;
+
+    Set<Object> optionKeys = MapperQueryKey.optionKeys(options);
+    SaveStatements statements = saveStatements.get(optionKeys);
+    if (statements == null) {
+      statements = new SaveStatements();
+      SaveStatements previous = saveStatements.putIfAbsent(optionKeys, statements);
+      if (previous != null) statements = previous;
+    }
+    if (options == defaultSaveOptions)
+      this.defaultSaveStatements = new DefaultSaveStatements(options, statements);
+    return statements;
+  }
+
+  /**
+   * Same as {@link #saveQueryAsync(Object, EnumMap)}, for entities that have too many columns to
+   * represent the saved ones with a bitmask.
+   */
+  private ListenableFuture<BoundStatement> saveQueryAsyncWithSortedMap(
+      T entity, final EnumMap<Option.Type, Option> options) {
     final Map<AliasedMappedProperty, Object> columnToValue =
         new TreeMap<AliasedMappedProperty, Object>();
     final boolean shouldSaveNullFields = shouldSaveNullFields(options);
@@ -293,6 +402,50 @@ public class Mapper<T> {
         });
   }
 
+  /**
+   * The prepared statements of the save query for a given set of options, by bitmask of the columns
+   * that they write.
+   *
+   * <p>Unless null fields are skipped, all entities of a class use the same mask, so lookups are a
+   * scan over a tiny array, which does not allocate (unlike boxing the mask for a map lookup).
+   */
+  private static class SaveStatements {
+
+    private volatile long[] masks = new long[0];
+    private volatile PreparedStatement[] statements = new PreparedStatement[0];
+
+    PreparedStatement get(long mask) {
+      // read statements first: put() publishes them before the masks
+      PreparedStatement[] statements = this.statements;
+      long[] masks = this.masks;
+      for (int i = 0; i < masks.length; i++) {
+        if (masks[i] == mask) return statements[i];
+      }
+      return null;
+    }
+
+    synchronized void put(long mask, PreparedStatement statement) {
+      if (get(mask) != null) return;
+      int n = masks.length;
+      PreparedStatement[] newStatements = Arrays.copyOf(statements, n + 1);
+      newStatements[n] = statement;
+      long[] newMasks = Arrays.copyOf(masks, n + 1);
+      newMasks[n] = mask;
+      this.statements = newStatements;
+      this.masks = newMasks;
+    }
+  }
+
+  private static class DefaultSaveStatements {
+    final EnumMap<Option.Type, Option> options;
+    final SaveStatements statements;
+
+    DefaultSaveStatements(EnumMap<Option.Type, Option> options, SaveStatements statements) {
+      this.options = options;
+      this.statements = statements;
+    }
+  }
+
   private static boolean shouldSaveNullFields(EnumMap<Option.Type, Option> options) {
     SaveNullFields option = (SaveNullFields) options.get(SAVE_NULL_FIELDS);
     return option == null || option.saveNullFields;
@@ -385,6 +538,16 @@ public class Mapper<T> {
   }
 
   private ListenableFuture<Void> submitVoidQueryAsync(ListenableFuture<BoundStatement> bsFuture) {
+    if (bsFuture.isDone()) {
+      // the statement was bound synchronously, execute it directly
+      BoundStatement bs;
+      try {
+        bs = Uninterruptibles.getUninterruptibly(bsFuture);
+      } catch (ExecutionException e) {
+        return Futures.immediateFailedFuture(e.getCause());
+      }
+      return GuavaCompatibility.INSTANCE.transform(session().executeAsync(bs), TO_NULL);
+    }
     ListenableFuture<ResultSet> rsFuture =
         GuavaCompatibility.INSTANCE.transformAsync(
             bsFuture,
@@ -1430,13 +1593,17 @@ public class Mapper<T> {
       Preconditions.checkNotNull(aliasedMappedProperties);
       this.queryType = queryType;
       this.columns = aliasedMappedProperties;
+      this.optionKeys = optionKeys(allOptions);
+    }
+
+    static Set<Object> optionKeys(EnumMap<Option.Type, Option> allOptions) {
       ImmutableSet.Builder<Object> optionKeysBuilder = ImmutableSet.builder();
       for (Option option : allOptions.values()) {
         if (option.modifiesQueryString()) {
           optionKeysBuilder.add(option.asCacheKey());
         }
       }
-      this.optionKeys = optionKeysBuilder.build();
+      return optionKeysBuilder.build();
     }
 
     @Override
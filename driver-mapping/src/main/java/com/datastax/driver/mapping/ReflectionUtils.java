@@ -16,28 +16,74 @@
 package com.datastax.driver.mapping;
 
 import java.lang.reflect.Constructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /** Utility methods related to reflection. */
 class ReflectionUtils {
 
+  private static final Logger logger = LoggerFactory.getLogger(ReflectionUtils.class);
+
   static <T> T newInstance(Class<T> clazz) {
-    Constructor<T> publicConstructor;
+    return newInstance(getNoArgConstructor(clazz));
+  }
+
+  static <T> T newInstance(Constructor<T> constructor) {
+    try {
+      return constructor.newInstance();
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+          "Can't create an instance of " + constructor.getDeclaringClass(), e);
+    }
+  }
+
+  /**
+   * Returns the no-arg constructor of the given class, made accessible if it is not public, so that
+   * it can be cached by callers that create many instances.
+   */
+  static <T> Constructor<T> getNoArgConstructor(Class<T> clazz) {
     try {
-      publicConstructor = clazz.getConstructor();
+      return clazz.getConstructor();
     } catch (NoSuchMethodException e) {
       try {
         // try private constructor
         Constructor<T> privateConstructor = clazz.getDeclaredConstructor();
         privateConstructor.setAccessible(true);
-        return privateConstructor.newInstance();
+        return privateConstructor;
       } catch (Exception e1) {
         throw new IllegalArgumentException("Can't create an instance of " + clazz, e);
       }
     }
+  }
+
+  /**
+   * Locates and instantiates the generated helper of the given entity class.
+   *
+   * @return the helper, or {@code null} if the class has none.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> GeneratedEntityHelper<T> findGeneratedHelper(Class<T> entityClass) {
+    String helperName = GeneratedEntityHelper.helperClassName(entityClass.getName());
     try {
-      return publicConstructor.newInstance();
+      Class<?> helperClass = Class.forName(helperName, true, entityClass.getClassLoader());
+      if (!GeneratedEntityHelper.class.isAssignableFrom(helperClass)) return null;
+      return (GeneratedEntityHelper<T>) helperClass.newInstance();
+    } catch (ClassNotFoundException e) {
+      return null;
     } catch (Exception e) {
-      throw new IllegalArgumentException("Can't create an instance of " + clazz, e);
+      logger.warn(
+          String.format(
+              "Could not instantiate %s, falling back to reflection for %s",
+              helperName, entityClass.getName()),
+          e);
+      return null;
+    } catch (LinkageError e) {
+      logger.warn(
+          String.format(
+              "Could not load %s, falling back to reflection for %s",
+              helperName, entityClass.getName()),
+          e);
+      return null;
     }
   }
 }
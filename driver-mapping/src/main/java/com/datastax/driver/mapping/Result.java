@@ -15,19 +15,17 @@
  */
 package com.datastax.driver.mapping;
 
+import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.ExecutionInfo;
 import com.datastax.driver.core.GuavaCompatibility;
 import com.datastax.driver.core.PagingIterable;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
-import com.datastax.driver.core.TypeCodec;
 import com.google.common.base.Function;
 import com.google.common.util.concurrent.ListenableFuture;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 /** A result set whose rows are mapped to an entity class. */
 public class Result<T> implements PagingIterable<Result<T>, T> {
@@ -36,6 +34,9 @@ public class Result<T> implements PagingIterable<Result<T>, T> {
   private final EntityMapper<T> mapper;
   private final boolean useAlias;
 
+  // The plan for the column definitions of the last mapped row; usually, all rows share it.
+  private RowMappingPlan<T> plan;
+
   Result(ResultSet rs, EntityMapper<T> mapper, boolean useAlias) {
     this.rs = rs;
     this.mapper = mapper;
@@ -43,32 +44,13 @@ public class Result<T> implements PagingIterable<Result<T>, T> {
   }
 
   private T map(Row row) {
-    T entity = mapper.newEntity();
-    for (AliasedMappedProperty c : mapper.allColumns) {
-      @SuppressWarnings("unchecked")
-      AliasedMappedProperty col = c;
-      String name =
-          col.alias != null && this.useAlias ? col.alias : col.mappedProperty.getMappedName();
-      if (!row.getColumnDefinitions().contains(name)) continue;
-
-      Object value;
-      TypeCodec<Object> customCodec = col.mappedProperty.getCustomCodec();
-      if (customCodec != null) value = row.get(name, customCodec);
-      else value = row.get(name, col.mappedProperty.getPropertyType());
-
-      if (shouldSetValue(value)) {
-        col.mappedProperty.setValue(entity, value);
-      }
+    RowMappingPlan<T> plan = this.plan;
+    ColumnDefinitions columnDefinitions = row.getColumnDefinitions();
+    if (plan == null || plan.columnDefinitions != columnDefinitions) {
+      plan = mapper.getMappingPlan(columnDefinitions, useAlias);
+      this.plan = plan;
     }
-    return entity;
-  }
-
-  @SuppressWarnings("SimplifiableIfStatement")
-  private static boolean shouldSetValue(Object value) {
-    if (value == null) return false;
-    if (value instanceof Collection) return !((Collection<?>) value).isEmpty();
-    if (value instanceof Map) return !((Map<?, ?>) value).isEmpty();
-    return true;
+    return plan.map(row);
   }
 
   @Override
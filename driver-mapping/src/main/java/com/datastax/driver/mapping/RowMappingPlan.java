@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.TypeCodec;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A precompiled plan to map rows that share the same {@link ColumnDefinitions} to entities.
+ *
+ * <p>Column names are looked up and codecs are resolved once, when the plan is created; mapping a
+ * row is then a loop over column indexes. Plans are immutable and cached by {@link EntityMapper}.
+ */
+class RowMappingPlan<T> {
+
+  final ColumnDefinitions columnDefinitions;
+
+  private final EntityMapper<T> mapper;
+  private final int[] indexes;
+  private final TypeCodec<Object>[] codecs;
+  private final MappedProperty<Object>[] properties;
+
+  @SuppressWarnings("unchecked")
+  RowMappingPlan(
+      EntityMapper<T> mapper,
+      ColumnDefinitions columnDefinitions,
+      boolean useAlias,
+      CodecRegistry codecRegistry) {
+    this.mapper = mapper;
+    this.columnDefinitions = columnDefinitions;
+
+    List<Integer> indexes = new ArrayList<Integer>(mapper.allColumns.size());
+    List<TypeCodec<Object>> codecs = new ArrayList<TypeCodec<Object>>(mapper.allColumns.size());
+    List<MappedProperty<Object>> properties =
+        new ArrayList<MappedProperty<Object>>(mapper.allColumns.size());
+    for (AliasedMappedProperty col : mapper.allColumns) {
+      String name = col.alias != null && useAlias ? col.alias : col.mappedProperty.getMappedName();
+      int index = columnDefinitions.getIndexOf(name);
+      if (index < 0) continue;
+
+      TypeCodec<Object> codec = col.mappedProperty.getCustomCodec();
+      if (codec == null)
+        codec =
+            codecRegistry.codecFor(
+                columnDefinitions.getType(index), col.mappedProperty.getPropertyType());
+
+      indexes.add(index);
+      codecs.add(codec);
+      properties.add(col.mappedProperty);
+    }
+
+    this.indexes = new int[indexes.size()];
+    for (int i = 0; i < this.indexes.length; i++) this.indexes[i] = indexes.get(i);
+    this.codecs = codecs.toArray(new TypeCodec[codecs.size()]);
+    this.properties = properties.toArray(new MappedProperty[properties.size()]);
+  }
+
+  T map(Row row) {
+    T entity = mapper.newEntity();
+    for (int i = 0; i < indexes.length; i++) {
+      Object value = row.get(indexes[i], codecs[i]);
+      if (shouldSetValue(value)) {
+        properties[i].setValue(entity, value);
+      }
+    }
+    return entity;
+  }
+
+  @SuppressWarnings("SimplifiableIfStatement")
+  private static boolean shouldSetValue(Object value) {
+    if (value == null) return false;
+    if (value instanceof Collection) return !((Collection<?>) value).isEmpty();
+    if (value instanceof Map) return !((Map<?, ?>) value).isEmpty();
+    return true;
+  }
+}
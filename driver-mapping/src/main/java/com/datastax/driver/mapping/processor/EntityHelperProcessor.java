@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping.processor;
+
+import com.datastax.driver.mapping.GeneratedEntityHelper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * An annotation processor that generates a {@link GeneratedEntityHelper} for each class annotated
+ * with {@code @Table} or {@code @UDT}, so that the mapper can create entities and access their
+ * properties without reflection.
+ *
+ * <p>This processor is optional and is not registered as a service: enable it explicitly, for
+ * example with {@code javac -processor
+ * com.datastax.driver.mapping.processor.EntityHelperProcessor}, or in the {@code
+ * annotationProcessors} section of the Maven compiler plugin.
+ *
+ * <p>The generated helper lives in the package of the entity class, so it can only access members
+ * that are not private (and, for members inherited from another package, public ones). Other
+ * members, as well as classes that are generic, abstract, private or lack a visible no-arg
+ * constructor, are still accessed through reflection.
+ */
+@SupportedAnnotationTypes({
+  "com.datastax.driver.mapping.annotations.Table",
+  "com.datastax.driver.mapping.annotations.UDT"
+})
+public class EntityHelperProcessor extends AbstractProcessor {
+
+  private final Set<String> processed = new HashSet<String>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() != ElementKind.CLASS) continue;
+        TypeElement type = (TypeElement) element;
+        if (processed.add(type.getQualifiedName().toString())) process(type);
+      }
+    }
+    // other processors may be interested in the same annotations
+    return false;
+  }
+
+  private void process(TypeElement type) {
+    String reason = checkSupported(type);
+    if (reason != null) {
+      note(type, "not generating a mapper helper for %s: %s", type.getQualifiedName(), reason);
+      return;
+    }
+    PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+    String helperName = GeneratedEntityHelper.helperClassName(binaryName);
+    try {
+      JavaFileObject file = processingEnv.getFiler().createSourceFile(helperName, type);
+      PrintWriter out = new PrintWriter(file.openWriter());
+      try {
+        writeHelper(out, type, pkg, helperName);
+      } finally {
+        out.close();
+      }
+    } catch (IOException e) {
+      processingEnv
+          .getMessager()
+          .printMessage(
+              Diagnostic.Kind.ERROR, "Could not write " + helperName + ": " + e.getMessage(), type);
+    }
+  }
+
+  private String checkSupported(TypeElement type) {
+    if (type.getModifiers().contains(Modifier.ABSTRACT)) return "it is abstract";
+    if (!type.getTypeParameters().isEmpty()) return "it is generic";
+    for (Element e = type; e.getKind().isClass(); e = e.getEnclosingElement()) {
+      if (e.getModifiers().contains(Modifier.PRIVATE)) return "it is private";
+      Element enclosing = e.getEnclosingElement();
+      if (enclosing.getKind() == ElementKind.PACKAGE) break;
+      if (!enclosing.getKind().isClass() && !enclosing.getKind().isInterface())
+        return "it is a local class";
+      if (!e.getModifiers().contains(Modifier.STATIC)) return "it is an inner class";
+    }
+    for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (constructor.getParameters().isEmpty()
+          && !constructor.getModifiers().contains(Modifier.PRIVATE)) return null;
+    }
+    return "it has no visible no-arg constructor";
+  }
+
+  private void writeHelper(
+      PrintWriter out, TypeElement type, PackageElement pkg, String helperName) {
+    String entity = type.getQualifiedName().toString();
+    String simpleName = helperName.substring(helperName.lastIndexOf('.') + 1);
+    String base = GeneratedEntityHelper.class.getCanonicalName();
+
+    if (!pkg.isUnnamed()) out.printf("package %s;%n%n", pkg.getQualifiedName());
+    out.printf("/** Generated by %s, do not edit. */%n", getClass().getName());
+    out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+    out.printf("public final class %s extends %s<%s> {%n%n", simpleName, base, entity);
+    out.printf("  public %s() {%n", simpleName);
+
+    DeclaredType declaredType = (DeclaredType) type.asType();
+    Map<String, Integer> fieldCounts = new HashMap<String, Integer>();
+    Map<String, Integer> setterCounts = new HashMap<String, Integer>();
+    List<VariableElement> fields = new ArrayList<VariableElement>();
+    Map<String, ExecutableElement> methods = new LinkedHashMap<String, ExecutableElement>();
+    for (TypeElement c = type; c != null; c = superclass(c)) {
+      if (c.getQualifiedName().contentEquals("java.lang.Object")) break;
+      for (VariableElement field : ElementFilter.fieldsIn(c.getEnclosedElements())) {
+        if (field.getModifiers().contains(Modifier.STATIC)) continue;
+        increment(fieldCounts, field.getSimpleName().toString());
+        if (!field.getModifiers().contains(Modifier.TRANSIENT)) fields.add(field);
+      }
+      for (ExecutableElement method : ElementFilter.methodsIn(c.getEnclosedElements())) {
+        if (method.getModifiers().contains(Modifier.STATIC)) continue;
+        // the most specific declaration wins, an overridden method is called virtually anyway
+        String signature = signature(method);
+        if (!methods.containsKey(signature)) methods.put(signature, method);
+      }
+    }
+    for (ExecutableElement method : methods.values()) {
+      if (method.getParameters().size() == 1)
+        increment(setterCounts, method.getSimpleName().toString());
+    }
+
+    for (VariableElement field : fields) {
+      String name = field.getSimpleName().toString();
+      // skip masked fields, it would be ambiguous which one the runtime scan resolves to
+      if (fieldCounts.get(name) > 1 || !isAccessible(field, pkg)) continue;
+      TypeMirror fieldType = processingEnv.getTypeUtils().asMemberOf(declaredType, field);
+      out.printf("    addFieldReader(\"%s\", new %s.PropertyReader() {%n", name, base);
+      out.printf("      public Object read(Object entity) {%n");
+      out.printf("        return ((%s) entity).%s;%n", entity, name);
+      out.printf("      }%n    });%n");
+      if (!field.getModifiers().contains(Modifier.FINAL)) {
+        out.printf("    addFieldWriter(\"%s\", new %s.PropertyWriter() {%n", name, base);
+        out.printf("      public void write(Object entity, Object value) {%n");
+        out.printf("        ((%s) entity).%s = (%s) value;%n", entity, name, castType(fieldType));
+        out.printf("      }%n    });%n");
+      }
+    }
+
+    for (ExecutableElement method : methods.values()) {
+      String name = method.getSimpleName().toString();
+      if (!isAccessible(method, pkg)) continue;
+      ExecutableType methodType =
+          (ExecutableType) processingEnv.getTypeUtils().asMemberOf(declaredType, method);
+      if (method.getParameters().isEmpty()
+          && isGetterName(name)
+          && methodType.getReturnType().getKind() != TypeKind.VOID) {
+        out.printf("    addGetter(\"%s\", new %s.PropertyReader() {%n", name, base);
+        out.printf("      public Object read(Object entity) {%n");
+        out.printf("        return ((%s) entity).%s();%n", entity, name);
+        out.printf("      }%n    });%n");
+      } else if (method.getParameters().size() == 1
+          && isSetterName(name)
+          && setterCounts.get(name) == 1) {
+        TypeMirror parameterType = methodType.getParameterTypes().get(0);
+        out.printf("    addSetter(\"%s\", new %s.PropertyWriter() {%n", name, base);
+        out.printf("      public void write(Object entity, Object value) {%n");
+        out.printf(
+            "        ((%s) entity).%s((%s) value);%n", entity, name, castType(parameterType));
+        out.printf("      }%n    });%n");
+      }
+    }
+
+    out.printf("  }%n%n");
+    out.printf("  @Override%n");
+    out.printf("  public %s newInstance() {%n", entity);
+    out.printf("    return new %s();%n", entity);
+    out.printf("  }%n");
+    out.printf("}%n");
+  }
+
+  private String signature(ExecutableElement method) {
+    StringBuilder sb = new StringBuilder(method.getSimpleName()).append('(');
+    for (VariableElement parameter : method.getParameters())
+      sb.append(processingEnv.getTypeUtils().erasure(parameter.asType())).append(',');
+    return sb.append(')').toString();
+  }
+
+  private TypeElement superclass(TypeElement type) {
+    TypeMirror superclass = type.getSuperclass();
+    if (superclass.getKind() != TypeKind.DECLARED) return null;
+    return (TypeElement) ((DeclaredType) superclass).asElement();
+  }
+
+  /**
+   * Whether the generated helper, which lives in package {@code pkg}, can access the given member.
+   */
+  private boolean isAccessible(Element member, PackageElement pkg) {
+    Set<Modifier> modifiers = member.getModifiers();
+    if (modifiers.contains(Modifier.PRIVATE)) return false;
+    TypeElement declaringClass = (TypeElement) member.getEnclosingElement();
+    if (processingEnv.getElementUtils().getPackageOf(declaringClass).equals(pkg)) return true;
+    return modifiers.contains(Modifier.PUBLIC)
+        && declaringClass.getModifiers().contains(Modifier.PUBLIC);
+  }
+
+  /** The type to cast an {@code Object} to, before assigning it to a variable of the given type. */
+  private String castType(TypeMirror type) {
+    if (type.getKind().isPrimitive())
+      return processingEnv
+          .getTypeUtils()
+          .boxedClass((PrimitiveType) type)
+          .getQualifiedName()
+          .toString();
+    return processingEnv.getTypeUtils().erasure(type).toString();
+  }
+
+  private static boolean isGetterName(String name) {
+    return (name.startsWith("get") && name.length() > 3)
+        || (name.startsWith("is") && name.length() > 2);
+  }
+
+  private static boolean isSetterName(String name) {
+    return name.startsWith("set") && name.length() > 3;
+  }
+
+  private static void increment(Map<String, Integer> counts, String key) {
+    Integer count = counts.get(key);
+    counts.put(key, count == null ? 1 : count + 1);
+  }
+
+  private void note(Element element, String format, Object... args) {
+    processingEnv
+        .getMessager()
+        .printMessage(Diagnostic.Kind.NOTE, String.format(format, args), element);
+  }
+}
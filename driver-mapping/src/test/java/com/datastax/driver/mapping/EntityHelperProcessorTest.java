@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.driver.mapping.annotations.Table;
+import com.datastax.driver.mapping.processor.EntityHelperProcessor;
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Compiles sample entities with {@link EntityHelperProcessor}, and checks that the mapper uses the
+ * generated helpers.
+ */
+public class EntityHelperProcessorTest {
+
+  private static final String BASE =
+      "package com.example;\n" + "public class Base<V> {\n" + "  public V value;\n" + "}\n";
+
+  private static final String USER =
+      "package com.example;\n"
+          + "import com.datastax.driver.mapping.annotations.*;\n"
+          + "@Table(name = \"users\")\n"
+          + "public class User extends Base<String> {\n"
+          + "  @PartitionKey int id;\n"
+          + "  private String name;\n"
+          + "  private long hidden;\n"
+          + "  public String getName() { return name; }\n"
+          + "  public void setName(String name) { this.name = name; }\n"
+          + "  @UDT(name = \"address\")\n"
+          + "  public static class Address { String street; }\n"
+          + "  @UDT(name = \"secret\")\n"
+          + "  private static class Secret { String street; }\n"
+          + "}\n";
+
+  private ClassLoader classLoader;
+
+  @BeforeClass(groups = "unit")
+  public void compile() throws Exception {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) throw new SkipException("This test requires a JDK");
+
+    File dir = Files.createTempDir();
+    File sources = new File(dir, "src/com/example");
+    File classes = new File(dir, "classes");
+    assertThat(sources.mkdirs() && classes.mkdirs()).isTrue();
+    List<File> files = new ArrayList<File>();
+    files.add(write(new File(sources, "Base.java"), BASE));
+    files.add(write(new File(sources, "User.java"), USER));
+
+    // the mapper classes are all the generated code needs
+    String classpath =
+        new File(Table.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+    JavaCompiler.CompilationTask task =
+        compiler.getTask(
+            null,
+            fileManager,
+            diagnostics,
+            Arrays.asList("-d", classes.getPath(), "-classpath", classpath),
+            null,
+            fileManager.getJavaFileObjectsFromFiles(files));
+    task.setProcessors(Collections.singletonList(new EntityHelperProcessor()));
+    assertThat(task.call()).as(diagnostics.getDiagnostics().toString()).isTrue();
+    fileManager.close();
+
+    classLoader =
+        new URLClassLoader(new URL[] {classes.toURI().toURL()}, getClass().getClassLoader());
+  }
+
+  @Test(groups = "unit")
+  public void should_instantiate_entities_with_generated_helper() throws Exception {
+    Class<?> userClass = classLoader.loadClass("com.example.User");
+    GeneratedEntityHelper<?> helper = ReflectionUtils.findGeneratedHelper(userClass);
+    assertThat(helper).isNotNull();
+    assertThat(helper.newInstance()).isInstanceOf(userClass);
+
+    Class<?> addressClass = classLoader.loadClass("com.example.User$Address");
+    assertThat(ReflectionUtils.findGeneratedHelper(addressClass)).isNotNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_not_generate_helper_for_private_classes() throws Exception {
+    Class<?> secretClass = classLoader.loadClass("com.example.User$Secret");
+    assertThat(ReflectionUtils.findGeneratedHelper(secretClass)).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_access_properties_with_generated_helper() throws Exception {
+    Class<?> userClass = classLoader.loadClass("com.example.User");
+    GeneratedEntityHelper<?> helper = ReflectionUtils.findGeneratedHelper(userClass);
+    Map<String, DefaultMappedProperty<Object>> properties =
+        new HashMap<String, DefaultMappedProperty<Object>>();
+    for (MappedProperty<?> property : new DefaultPropertyMapper().mapTable(userClass)) {
+      @SuppressWarnings("unchecked")
+      DefaultMappedProperty<Object> p = (DefaultMappedProperty<Object>) property;
+      assertThat(p.usesGeneratedAccessors()).isFalse();
+      // as done by AnnotationParser, once per entity class
+      p.useGeneratedHelper(helper);
+      properties.put(p.getPropertyName(), p);
+    }
+    assertThat(properties.keySet()).containsOnly("id", "name", "value", "hidden");
+    assertThat(properties.get("id").usesGeneratedAccessors()).isTrue();
+    assertThat(properties.get("name").usesGeneratedAccessors()).isTrue();
+    assertThat(properties.get("value").usesGeneratedAccessors()).isTrue();
+    // private field without accessors: falls back to reflection
+    assertThat(properties.get("hidden").usesGeneratedAccessors()).isFalse();
+
+    Object user = ReflectionUtils.newInstance(userClass);
+    Object[][] values = {{"id", 42}, {"name", "foo"}, {"value", "bar"}, {"hidden", 1L}};
+    for (Object[] value : values) {
+      DefaultMappedProperty<Object> property = properties.get((String) value[0]);
+      property.setValue(user, value[1]);
+      assertThat(property.getValue(user)).isEqualTo(value[1]);
+    }
+  }
+
+  private static File write(File file, String content) throws IOException {
+    Files.write(content, file, Charsets.UTF_8);
+    return file;
+  }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.CCMTestsSupport;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.mapping.Mapper.Option;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import java.util.Set;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Covers the save statements that {@link Mapper} caches per combination of written columns, and the
+ * fallback for entities that have too many columns to describe that combination with a bitmask.
+ */
+@SuppressWarnings("unused")
+public class MapperSaveStatementsTest extends CCMTestsSupport {
+
+  private static final int WIDE_COLUMNS = 70;
+
+  private static final String[][] NULL_COMBINATIONS = {
+    {"a1", "b1"}, {null, "b2"}, {"a3", null}, {null, null}
+  };
+
+  private Mapper<Narrow> narrowMapper;
+  private Mapper<Wide> wideMapper;
+  private boolean unsetSupported;
+
+  @Override
+  public void onTestContextInitialized() {
+    StringBuilder wide = new StringBuilder("CREATE TABLE wide (k int primary key");
+    for (int i = 0; i < WIDE_COLUMNS; i++) wide.append(", c").append(i).append(" int");
+    execute("CREATE TABLE narrow (k int primary key, a text, b text)", wide.append(")").toString());
+  }
+
+  @BeforeMethod(groups = "short")
+  public void setup() {
+    MappingManager manager = new MappingManager(session());
+    narrowMapper = manager.mapper(Narrow.class);
+    wideMapper = manager.mapper(Wide.class);
+    unsetSupported =
+        cluster().getConfiguration().getProtocolOptions().getProtocolVersion().toInt() >= 4;
+  }
+
+  @Test(groups = "short")
+  public void should_reuse_save_statement_per_combination_of_null_columns() {
+    Option skipNulls = Option.saveNullFields(false);
+    PreparedStatement[] statements = new PreparedStatement[NULL_COMBINATIONS.length];
+    for (int round = 0; round < 2; round++) {
+      for (int i = 0; i < NULL_COMBINATIONS.length; i++) {
+        String a = NULL_COMBINATIONS[i][0];
+        String b = NULL_COMBINATIONS[i][1];
+        resetNarrow();
+        Narrow entity = new Narrow(1, a, b);
+
+        BoundStatement bs = (BoundStatement) narrowMapper.saveQuery(entity, skipNulls);
+        if (round == 0) statements[i] = bs.preparedStatement();
+        else assertThat(bs.preparedStatement()).isSameAs(statements[i]);
+        if (unsetSupported) {
+          assertThat(bs.isSet("a")).isEqualTo(a != null);
+          assertThat(bs.isSet("b")).isEqualTo(b != null);
+        }
+
+        narrowMapper.save(entity, skipNulls);
+        Narrow saved = narrowMapper.get(1);
+        assertThat(saved.getA()).isEqualTo(a == null ? "previous_a" : a);
+        assertThat(saved.getB()).isEqualTo(b == null ? "previous_b" : b);
+      }
+    }
+
+    Set<PreparedStatement> distinct = new HashSet<PreparedStatement>();
+    for (PreparedStatement statement : statements) distinct.add(statement);
+    // with unset values, every combination writes all the columns
+    assertThat(distinct).hasSize(unsetSupported ? 1 : NULL_COMBINATIONS.length);
+  }
+
+  @Test(groups = "short")
+  public void should_save_null_columns_in_all_combinations() {
+    for (String[] combination : NULL_COMBINATIONS) {
+      resetNarrow();
+      narrowMapper.save(new Narrow(1, combination[0], combination[1]));
+      Narrow saved = narrowMapper.get(1);
+      assertThat(saved.getA()).isEqualTo(combination[0]);
+      assertThat(saved.getB()).isEqualTo(combination[1]);
+    }
+  }
+
+  @Test(groups = "short")
+  public void should_save_entity_with_more_than_64_columns() throws Exception {
+    Wide entity = new Wide(1);
+    for (int i = 0; i < WIDE_COLUMNS; i++) {
+      // leave every third column null
+      entity.set(i, i % 3 == 0 ? null : i);
+    }
+
+    wideMapper.save(entity);
+    Wide saved = wideMapper.get(1);
+    for (int i = 0; i < WIDE_COLUMNS; i++) {
+      assertThat(saved.get(i)).as("c" + i).isEqualTo(i % 3 == 0 ? null : i);
+    }
+
+    // skipping null columns must leave the previous values in place
+    Wide update = new Wide(1);
+    update.set(0, 100);
+    update.set(WIDE_COLUMNS - 1, 200);
+    wideMapper.save(update, Option.saveNullFields(false));
+    saved = wideMapper.get(1);
+    assertThat(saved.get(0)).isEqualTo(100);
+    assertThat(saved.get(1)).isEqualTo(1);
+    assertThat(saved.get(WIDE_COLUMNS - 2)).isEqualTo(WIDE_COLUMNS - 2);
+    assertThat(saved.get(WIDE_COLUMNS - 1)).isEqualTo(200);
+  }
+
+  private void resetNarrow() {
+    session().execute("INSERT INTO narrow (k, a, b) VALUES (1, 'previous_a', 'previous_b')");
+  }
+
+  @Table(name = "narrow")
+  public static class Narrow {
+    @PartitionKey private int k;
+    private String a;
+    private String b;
+
+    public Narrow() {}
+
+    public Narrow(int k, String a, String b) {
+      this.k = k;
+      this.a = a;
+      this.b = b;
+    }
+
+    public int getK() {
+      return k;
+    }
+
+    public void setK(int k) {
+      this.k = k;
+    }
+
+    public String getA() {
+      return a;
+    }
+
+    public void setA(String a) {
+      this.a = a;
+    }
+
+    public String getB() {
+      return b;
+    }
+
+    public void setB(String b) {
+      this.b = b;
+    }
+  }
+
+  /** An entity with more regular columns than a 64-bit mask can describe, mapped by field. */
+  @Table(name = "wide")
+  public static class Wide {
+    @PartitionKey private int k;
+    private Integer c0;
+    private Integer c1;
+    private Integer c2;
+    private Integer c3;
+    private Integer c4;
+    private Integer c5;
+    private Integer c6;
+    private Integer c7;
+    private Integer c8;
+    private Integer c9;
+    private Integer c10;
+    private Integer c11;
+    private Integer c12;
+    private Integer c13;
+    private Integer c14;
+    private Integer c15;
+    private Integer c16;
+    private Integer c17;
+    private Integer c18;
+    private Integer c19;
+    private Integer c20;
+    private Integer c21;
+    private Integer c22;
+    private Integer c23;
+    private Integer c24;
+    private Integer c25;
+    private Integer c26;
+    private Integer c27;
+    private Integer c28;
+    private Integer c29;
+    private Integer c30;
+    private Integer c31;
+    private Integer c32;
+    private Integer c33;
+    private Integer c34;
+    private Integer c35;
+    private Integer c36;
+    private Integer c37;
+    private Integer c38;
+    private Integer c39;
+    private Integer c40;
+    private Integer c41;
+    private Integer c42;
+    private Integer c43;
+    private Integer c44;
+    private Integer c45;
+    private Integer c46;
+    private Integer c47;
+    private Integer c48;
+    private Integer c49;
+    private Integer c50;
+    private Integer c51;
+    private Integer c52;
+    private Integer c53;
+    private Integer c54;
+    private Integer c55;
+    private Integer c56;
+    private Integer c57;
+    private Integer c58;
+    private Integer c59;
+    private Integer c60;
+    private Integer c61;
+    private Integer c62;
+    private Integer c63;
+    private Integer c64;
+    private Integer c65;
+    private Integer c66;
+    private Integer c67;
+    private Integer c68;
+    private Integer c69;
+
+    public Wide() {}
+
+    Wide(int k) {
+      this.k = k;
+    }
+
+    Integer get(int i) throws Exception {
+      return (Integer) field(i).get(this);
+    }
+
+    void set(int i, Integer value) throws Exception {
+      field(i).set(this, value);
+    }
+
+    private static Field field(int i) throws Exception {
+      Field field = Wide.class.getDeclaredField("c" + i);
+      field.setAccessible(true);
+      return field;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.TypeCodec;
+import com.google.common.reflect.TypeToken;
+import java.util.Arrays;
+import java.util.Collections;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class RowMappingPlanTest {
+
+  private EntityMapper<Foo> mapper;
+  private MappedProperty<Integer> id;
+  private MappedProperty<String> name;
+  private MappedProperty<String> missing;
+
+  @BeforeMethod(groups = "unit")
+  public void setup() {
+    MappingManager manager = mock(MappingManager.class, RETURNS_DEEP_STUBS);
+    when(manager.getSession().getCluster().getConfiguration().getCodecRegistry())
+        .thenReturn(new CodecRegistry());
+    mapper = new EntityMapper<Foo>(Foo.class, null, "ks", "foo", null, null, manager);
+    id = mockProperty("id", Integer.class);
+    name = mockProperty("name", String.class);
+    missing = mockProperty("missing", String.class);
+    mapper.addColumns(
+        Collections.singletonList(new AliasedMappedProperty(id, "col1")),
+        Collections.<AliasedMappedProperty>emptyList(),
+        Arrays.asList(
+            new AliasedMappedProperty(name, "col2"), new AliasedMappedProperty(missing, "col3")));
+  }
+
+  @Test(groups = "unit")
+  public void should_map_rows_by_index() {
+    ColumnDefinitions definitions = mockDefinitions("name", "id");
+    RowMappingPlan<Foo> plan = mapper.getMappingPlan(definitions, false);
+
+    for (int i = 0; i < 3; i++) {
+      Row row = mock(Row.class);
+      when(row.get(eq(0), any(TypeCodec.class))).thenReturn("foo" + i);
+      when(row.get(eq(1), any(TypeCodec.class))).thenReturn(i);
+
+      Foo foo = plan.map(row);
+
+      verify(name).setValue(foo, "foo" + i);
+      verify(id).setValue(foo, i);
+    }
+    // column names are only looked up when the plan is created
+    verify(definitions, times(1)).getIndexOf("name");
+    verify(definitions, times(1)).getIndexOf("id");
+    verify(definitions, times(1)).getIndexOf("missing");
+  }
+
+  @Test(groups = "unit")
+  public void should_not_set_null_values() {
+    RowMappingPlan<Foo> plan = mapper.getMappingPlan(mockDefinitions("id"), false);
+    Row row = mock(Row.class);
+
+    Foo foo = plan.map(row);
+
+    verify(id, times(0)).setValue(foo, null);
+  }
+
+  @Test(groups = "unit")
+  public void should_cache_plans_per_column_definitions() {
+    ColumnDefinitions definitions = mockDefinitions("id", "name");
+    ColumnDefinitions aliased = mockDefinitions("col1", "col2");
+
+    RowMappingPlan<Foo> plan = mapper.getMappingPlan(definitions, false);
+    assertThat(mapper.getMappingPlan(definitions, false)).isSameAs(plan);
+    assertThat(mapper.getMappingPlan(mockDefinitions("id", "name"), false)).isNotSameAs(plan);
+
+    RowMappingPlan<Foo> aliasedPlan = mapper.getMappingPlan(aliased, true);
+    assertThat(aliasedPlan).isNotSameAs(plan);
+    assertThat(mapper.getMappingPlan(aliased, true)).isSameAs(aliasedPlan);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> MappedProperty<T> mockProperty(String name, Class<T> type) {
+    MappedProperty<T> property = mock(MappedProperty.class);
+    when(property.getMappedName()).thenReturn(name);
+    when(property.getPropertyType()).thenReturn(TypeToken.of(type));
+    return property;
+  }
+
+  private static ColumnDefinitions mockDefinitions(String... names) {
+    ColumnDefinitions definitions = mock(ColumnDefinitions.class);
+    when(definitions.getIndexOf(anyString())).thenReturn(-1);
+    for (int i = 0; i < names.length; i++) {
+      when(definitions.getIndexOf(names[i])).thenReturn(i);
+      DataType type =
+          names[i].equals("id") || names[i].equals("col1") ? DataType.cint() : DataType.text();
+      when(definitions.getType(i)).thenReturn(type);
+    }
+    return definitions;
+  }
+
+  public static class Foo {}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.stress;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.exceptions.DriverInternalError;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A future that completes once all the pages of a query have been fetched (and their rows
+ * consumed), with the result set of the last page.
+ */
+class AllPagesFuture extends AbstractFuture<ResultSet> implements ResultSetFuture {
+
+  private final ResultSetFuture first;
+
+  AllPagesFuture(ResultSetFuture first) {
+    this.first = first;
+    onPage(first);
+  }
+
+  private void onPage(ListenableFuture<ResultSet> page) {
+    Futures.addCallback(
+        page,
+        new FutureCallback<ResultSet>() {
+          @Override
+          public void onSuccess(ResultSet rs) {
+            for (int i = rs.getAvailableWithoutFetching(); i > 0; i--) rs.one();
+            if (rs.isFullyFetched()) set(rs);
+            else onPage(rs.fetchMoreResults());
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            setException(t);
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  @Override
+  public ResultSet getUninterruptibly() {
+    try {
+      return Uninterruptibles.getUninterruptibly(this);
+    } catch (ExecutionException e) {
+      throw propagate(e);
+    }
+  }
+
+  @Override
+  public ResultSet getUninterruptibly(long timeout, TimeUnit unit) throws TimeoutException {
+    try {
+      return Uninterruptibles.getUninterruptibly(this, timeout, unit);
+    } catch (ExecutionException e) {
+      throw propagate(e);
+    }
+  }
+
+  @Override
+  public boolean cancel(boolean mayInterruptIfRunning) {
+    first.cancel(mayInterruptIfRunning);
+    return super.cancel(mayInterruptIfRunning);
+  }
+
+  private static RuntimeException propagate(ExecutionException e) {
+    Throwable cause = e.getCause();
+    if (cause instanceof DriverException) throw ((DriverException) cause).copy();
+    if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+    throw new DriverInternalError("Unexpected exception thrown", cause);
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.stress;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Reports on an open-loop run, with HdrHistogram.
+ *
+ * <p>Two latencies are recorded for each request, in microseconds:
+ *
+ * <ul>
+ *   <li>the <em>response time</em>, measured from the time at which the request was supposed to
+ *       start according to the {@link RateSchedule}. It includes the time the request spent waiting
+ *       to be sent, so it is not subject to coordinated omission: if the driver or the cluster
+ *       stalls, all the requests that should have been sent during the stall see it.
+ *   <li>the <em>service time</em>, measured from the time at which the request was actually sent.
+ *       This is what a closed-loop tool reports.
+ * </ul>
+ *
+ * Response times can optionally be broken down by the host that served the request, and by shard.
+ * Every interval histogram can also be written to an HdrHistogram log (the response times are
+ * untagged, the service times are tagged {@code service}, and the breakdowns are tagged with the
+ * host, or the host and shard separated by {@code #}), to be analyzed with the HdrHistogram tools.
+ */
+public class HdrReporter implements Runnable {
+
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+  private final int period;
+  private final File logFile;
+  private final boolean breakdown;
+
+  private final Recorder responseTimes = new Recorder(SIGNIFICANT_DIGITS);
+  private final Recorder serviceTimes = new Recorder(SIGNIFICANT_DIGITS);
+  private final ConcurrentMap<String, Recorder> groups = new ConcurrentHashMap<String, Recorder>();
+  private final AtomicLong errors = new AtomicLong();
+
+  // only accessed by the reporting thread, and once it has stopped
+  private final Histogram totalResponseTimes = new Histogram(SIGNIFICANT_DIGITS);
+  private final Histogram totalServiceTimes = new Histogram(SIGNIFICANT_DIGITS);
+  private final Map<String, Histogram> totalGroups = new TreeMap<String, Histogram>();
+  private HistogramLogWriter log;
+  private long startTime;
+  private long lastTimestamp;
+
+  public HdrReporter(int period, String logFileName, boolean breakdown) {
+    this.period = period;
+    this.logFile = logFileName == null ? null : new File(logFileName);
+    this.breakdown = breakdown;
+  }
+
+  public boolean isBreakdownEnabled() {
+    return breakdown;
+  }
+
+  public void start() {
+    startTime = lastTimestamp = System.currentTimeMillis();
+    if (logFile != null) {
+      try {
+        log = new HistogramLogWriter(logFile);
+      } catch (FileNotFoundException e) {
+        throw new RuntimeException("Error creating histogram log " + logFile, e);
+      }
+      log.outputLogFormatVersion();
+      log.outputStartTime(startTime);
+      log.setBaseTime(startTime);
+      log.outputLegend();
+    }
+
+    System.out.println(
+        " Time (s) |    total ops | interval rate |  errors | p50 (ms) | p99 (ms) | p99.9 (ms) |  max (ms)");
+    System.out.println(
+        "-----------------------------------------------------------------------------------------------");
+
+    executor.scheduleAtFixedRate(this, period, period, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Records a completed request.
+   *
+   * @param intendedStart when the request should have started, as a {@link System#nanoTime()}.
+   * @param actualStart when the request was sent, as a {@link System#nanoTime()}.
+   * @param end when the request completed, as a {@link System#nanoTime()}.
+   * @param host the host that served the request, or {@code null} if unknown.
+   * @param shard the shard that served the request, or -1 if unknown.
+   */
+  public void record(long intendedStart, long actualStart, long end, String host, int shard) {
+    long responseTime = toMicros(end - intendedStart);
+    responseTimes.recordValue(responseTime);
+    serviceTimes.recordValue(toMicros(end - actualStart));
+    if (breakdown && host != null) {
+      group(host).recordValue(responseTime);
+      if (shard >= 0) group(host + '#' + shard).recordValue(responseTime);
+    }
+  }
+
+  public void error() {
+    errors.incrementAndGet();
+  }
+
+  public void stop() {
+    executor.shutdown();
+    try {
+      executor.awaitTermination(period, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    report();
+    if (log != null) log.close();
+
+    System.out.println();
+    printSummary("Response times (from intended start)", totalResponseTimes);
+    printSummary("Service times (from actual start)", totalServiceTimes);
+    if (!totalGroups.isEmpty()) {
+      System.out.println();
+      System.out.println(
+          String.format(
+              "  %-30s | %12s | %10s | %10s | %10s | %10s",
+              "Response times by host/shard",
+              "ops",
+              "p50 (ms)",
+              "p99 (ms)",
+              "p99.9 (ms)",
+              "max (ms)"));
+      for (Map.Entry<String, Histogram> entry : totalGroups.entrySet()) {
+        Histogram h = entry.getValue();
+        System.out.println(
+            String.format(
+                "  %-30s | %12d | %10.3f | %10.3f | %10.3f | %10.3f",
+                entry.getKey(),
+                h.getTotalCount(),
+                millis(h.getValueAtPercentile(50)),
+                millis(h.getValueAtPercentile(99)),
+                millis(h.getValueAtPercentile(99.9)),
+                millis(h.getMaxValue())));
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    report();
+  }
+
+  private synchronized void report() {
+    Histogram responses = responseTimes.getIntervalHistogram();
+    Histogram services = serviceTimes.getIntervalHistogram();
+    totalResponseTimes.add(responses);
+    totalServiceTimes.add(services);
+    if (log != null) {
+      log.outputIntervalHistogram(responses);
+      services.setTag("service");
+      log.outputIntervalHistogram(services);
+    }
+    for (Map.Entry<String, Recorder> entry : groups.entrySet()) {
+      Histogram interval = entry.getValue().getIntervalHistogram();
+      Histogram total = totalGroups.get(entry.getKey());
+      if (total == null) totalGroups.put(entry.getKey(), total = new Histogram(SIGNIFICANT_DIGITS));
+      total.add(interval);
+      if (log != null && interval.getTotalCount() > 0) {
+        interval.setTag(entry.getKey());
+        log.outputIntervalHistogram(interval);
+      }
+    }
+
+    long timestamp = System.currentTimeMillis();
+    long delay = Math.max(timestamp - lastTimestamp, 1);
+    lastTimestamp = timestamp;
+    System.out.println(
+        String.format(
+            " %8d | %12d | %13.2f | %7d | %8.3f | %8.3f | %10.3f | %9.3f",
+            TimeUnit.MILLISECONDS.toSeconds(timestamp - startTime),
+            totalResponseTimes.getTotalCount(),
+            responses.getTotalCount() * 1000.0 / delay,
+            errors.get(),
+            millis(responses.getValueAtPercentile(50)),
+            millis(responses.getValueAtPercentile(99)),
+            millis(responses.getValueAtPercentile(99.9)),
+            millis(responses.getMaxValue())));
+  }
+
+  private Recorder group(String name) {
+    Recorder recorder = groups.get(name);
+    if (recorder == null) {
+      recorder = new Recorder(SIGNIFICANT_DIGITS);
+      Recorder previous = groups.putIfAbsent(name, recorder);
+      if (previous != null) recorder = previous;
+    }
+    return recorder;
+  }
+
+  private static void printSummary(String title, Histogram histogram) {
+    System.out.println(title + ":");
+    System.out.println(
+        String.format("  Requests:                     %10d", histogram.getTotalCount()));
+    System.out.println(
+        String.format("  Mean latency (ms):            %10.3f", histogram.getMean() / 1000));
+    for (double percentile : new double[] {50, 75, 95, 99, 99.9, 99.99}) {
+      System.out.println(
+          String.format(
+              "  %-29s %10.3f",
+              (percentile == Math.rint(percentile)
+                      ? String.valueOf((long) percentile)
+                      : String.valueOf(percentile))
+                  + "th percentile (ms):",
+              millis(histogram.getValueAtPercentile(percentile))));
+    }
+    System.out.println(
+        String.format("  Max latency (ms):             %10.3f", millis(histogram.getMaxValue())));
+  }
+
+  private static long toMicros(long nanos) {
+    return Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0);
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.stress;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How a workload picks the key of each request, among keys {@code 0} to {@code n - 1}.
+ *
+ * <p>Distributions are parsed from one of:
+ *
+ * <ul>
+ *   <li>{@code uniform}: every key is equally likely;
+ *   <li>{@code sequential}: keys are picked in order, across all threads, wrapping around after the
+ *       last one;
+ *   <li>{@code zipfian[:theta]}: a few keys are picked much more often than the others, like in
+ *       most real workloads. The skew {@code theta} must be between 0 and 1 exclusive, the default
+ *       is 0.99 (as in YCSB). Hot keys are the lowest ones, but they map to random tokens, so they
+ *       are spread over the cluster.
+ * </ul>
+ *
+ * Instances are shared by all the threads of a run.
+ */
+public abstract class KeyDistribution {
+
+  protected final long keys;
+
+  protected KeyDistribution(long keys) {
+    if (keys <= 0) throw new IllegalArgumentException("The number of keys must be positive");
+    this.keys = keys;
+  }
+
+  public static KeyDistribution parse(String spec, long keys) {
+    String[] parts = spec.trim().split(":");
+    String name = parts[0].trim();
+    if (name.equals("uniform") && parts.length == 1) return new Uniform(keys);
+    if (name.equals("sequential") && parts.length == 1) return new Sequential(keys);
+    if (name.equals("zipfian") && parts.length <= 2) {
+      try {
+        return new Zipfian(keys, parts.length == 2 ? Double.parseDouble(parts[1].trim()) : 0.99);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid zipfian skew: " + parts[1]);
+      }
+    }
+    throw new IllegalArgumentException("Unknown key distribution: " + spec);
+  }
+
+  /**
+   * Picks the next key.
+   *
+   * @param random the random generator of the calling thread.
+   * @return a key between {@code 0} and {@code n - 1}.
+   */
+  public abstract long next(Random random);
+
+  private static class Uniform extends KeyDistribution {
+
+    Uniform(long keys) {
+      super(keys);
+    }
+
+    @Override
+    public long next(Random random) {
+      // the modulo bias is negligible as long as there are much less keys than 2^63
+      return (random.nextLong() & Long.MAX_VALUE) % keys;
+    }
+  }
+
+  private static class Sequential extends KeyDistribution {
+
+    private final AtomicLong next = new AtomicLong();
+
+    Sequential(long keys) {
+      super(keys);
+    }
+
+    @Override
+    public long next(Random random) {
+      return (next.getAndIncrement() & Long.MAX_VALUE) % keys;
+    }
+  }
+
+  /**
+   * The algorithm from "Quickly Generating Billion-Record Synthetic Databases" (Gray et al.), as
+   * implemented in YCSB. Computing the zeta constant is linear in the number of keys, but only
+   * happens once per run.
+   */
+  private static class Zipfian extends KeyDistribution {
+
+    private final double zetan;
+    private final double alpha;
+    private final double eta;
+    private final double threshold;
+
+    Zipfian(long keys, double theta) {
+      super(keys);
+      if (theta <= 0 || theta >= 1)
+        throw new IllegalArgumentException("The zipfian skew must be between 0 and 1 exclusive");
+      double zetan = 0;
+      for (long i = 1; i <= keys; i++) zetan += 1 / Math.pow(i, theta);
+      this.zetan = zetan;
+      double zeta2 = 1 + Math.pow(0.5, theta);
+      this.alpha = 1 / (1 - theta);
+      this.eta = (1 - Math.pow(2.0 / keys, 1 - theta)) / (1 - zeta2 / zetan);
+      this.threshold = zeta2;
+    }
+
+    @Override
+    public long next(Random random) {
+      double u = random.nextDouble();
+      double uz = u * zetan;
+      if (uz < 1) return 0;
+      if (uz < threshold) return Math.min(1, keys - 1);
+      return Math.min((long) (keys * Math.pow(eta * u - eta + 1, alpha)), keys - 1);
+    }
+  }
+}
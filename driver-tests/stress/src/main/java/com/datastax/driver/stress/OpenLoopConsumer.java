@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.stress;
+
+import static com.google.common.util.concurrent.Uninterruptibles.joinUninterruptibly;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.ShardingInfo;
+import com.datastax.driver.core.Statement;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at the rate dictated by a {@link RateSchedule}, independently of how fast previous
+ * requests complete (as opposed to the closed-loop {@link AsynchronousConsumer} and {@link
+ * BlockingConsumer}, which wait for a request to complete before sending the next one).
+ *
+ * <p>The number of requests in flight is bounded; when the bound is reached, sending is delayed,
+ * but latencies are still measured from the time at which each request should have been sent, so
+ * the delay shows in the results.
+ */
+public class OpenLoopConsumer implements Consumer {
+
+  private final Session session;
+  private final QueryGenerator requests;
+  private final RateSchedule schedule;
+  private final HdrReporter reporter;
+  private final int maxInFlight;
+  private final Semaphore inFlight;
+  private final Thread dispatcher;
+
+  private final Cluster cluster;
+  private final ProtocolVersion protocolVersion;
+  private final CodecRegistry codecRegistry;
+
+  public OpenLoopConsumer(
+      Session session,
+      QueryGenerator requests,
+      RateSchedule schedule,
+      int maxInFlight,
+      HdrReporter reporter) {
+    this.session = session;
+    this.requests = requests;
+    this.schedule = schedule;
+    this.reporter = reporter;
+    this.maxInFlight = maxInFlight;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.cluster = session.getCluster();
+    this.protocolVersion = cluster.getConfiguration().getProtocolOptions().getProtocolVersion();
+    this.codecRegistry = cluster.getConfiguration().getCodecRegistry();
+    this.dispatcher =
+        new Thread("Open-loop dispatcher") {
+          @Override
+          public void run() {
+            dispatch();
+          }
+        };
+    this.dispatcher.setDaemon(true);
+  }
+
+  @Override
+  public void start() {
+    dispatcher.start();
+  }
+
+  @Override
+  public void join() {
+    joinUninterruptibly(dispatcher);
+    // wait for the requests still in flight
+    inFlight.acquireUninterruptibly(maxInFlight);
+  }
+
+  private void dispatch() {
+    long start = System.nanoTime();
+    long total = schedule.totalRequests();
+    for (long i = 0; (total < 0 || i < total) && requests.hasNext(); i++) {
+      final long intendedStart = start + schedule.intendedStartNanos(i);
+      long wait;
+      while ((wait = intendedStart - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+
+      QueryGenerator.Request request = requests.next();
+      inFlight.acquireUninterruptibly();
+      final long actualStart = System.nanoTime();
+      ResultSetFuture future;
+      try {
+        future = request.executeAsync(session);
+      } catch (RuntimeException e) {
+        // failed before the request was sent (e.g. a binding error), the callback won't run
+        inFlight.release();
+        reporter.error();
+        continue;
+      }
+      Futures.addCallback(
+          future,
+          new FutureCallback<ResultSet>() {
+            @Override
+            public void onSuccess(ResultSet result) {
+              long end = System.nanoTime();
+              inFlight.release();
+              ExecutionInfo info = result.getExecutionInfo();
+              Host host = info.getQueriedHost();
+              reporter.record(
+                  intendedStart,
+                  actualStart,
+                  end,
+                  host == null ? null : host.getEndPoint().toString(),
+                  reporter.isBreakdownEnabled() ? shard(host, info.getStatement()) : -1);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+              inFlight.release();
+              reporter.error();
+            }
+          },
+          MoreExecutors.directExecutor());
+    }
+  }
+
+  private int shard(Host host, Statement statement) {
+    ShardingInfo sharding = host == null ? null : host.getShardingInfo();
+    if (sharding == null || statement == null) return -1;
+    ByteBuffer routingKey = statement.getRoutingKey(protocolVersion, codecRegistry);
+    if (routingKey == null) return -1;
+    return sharding.shardId(cluster.getMetadata().newToken(null, routingKey));
+  }
+}
@@ -73,6 +73,33 @@ public abstract class QueryGenerator implements Iterator<QueryGenerator.Request>
       }
     }
 
+    /**
+     * A query whose result spans several pages, that are all fetched before the request is
+     * considered complete.
+     */
+    public static class PagedQuery implements Request {
+
+      private final Statement statement;
+
+      public PagedQuery(Statement statement) {
+        this.statement = statement;
+      }
+
+      @Override
+      public ResultSet execute(Session session) {
+        ResultSet rs = session.execute(statement);
+        while (rs.one() != null) {
+          // consume all the rows, which fetches the next pages
+        }
+        return rs;
+      }
+
+      @Override
+      public ResultSetFuture executeAsync(Session session) {
+        return new AllPagesFuture(session.executeAsync(statement));
+      }
+    }
+
     public static class PreparedQuery implements Request {
 
       private final BoundStatement query;
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.stress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import joptsimple.ValueConversionException;
+import joptsimple.ValueConverter;
+
+/**
+ * The target request rate of an open-loop run, as a sequence of phases.
+ *
+ * <p>It is parsed from {@code rate[:seconds][,rate[:seconds]]*}: for example {@code
+ * 1000:30,5000:60} sends 1000 requests per second for 30 seconds, then 5000 per second for 60
+ * seconds. The last phase may omit its duration, in which case it lasts until the requested number
+ * of requests has been sent.
+ *
+ * <p>Requests are evenly spaced within each phase: {@link #intendedStartNanos(long)} gives the time
+ * at which each request should start, regardless of when previous requests completed.
+ */
+public class RateSchedule {
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final String spec;
+  private final long[] rates;
+  // for each phase, the index of its first request and its start offset
+  private final long[] firstRequests;
+  private final long[] startOffsets;
+  private final long totalRequests;
+
+  private RateSchedule(String spec, List<long[]> phases) {
+    this.spec = spec;
+    int n = phases.size();
+    this.rates = new long[n];
+    this.firstRequests = new long[n];
+    this.startOffsets = new long[n];
+    long requests = 0, offset = 0;
+    for (int i = 0; i < n; i++) {
+      long rate = phases.get(i)[0], seconds = phases.get(i)[1];
+      rates[i] = rate;
+      firstRequests[i] = requests;
+      startOffsets[i] = offset;
+      if (seconds < 0) {
+        if (i != n - 1)
+          throw new IllegalArgumentException("Only the last phase can omit its duration: " + spec);
+        requests = -1;
+      } else {
+        if (seconds > (Long.MAX_VALUE - requests) / rate
+            || seconds > (Long.MAX_VALUE - offset) / NANOS_PER_SECOND)
+          throw new IllegalArgumentException("Schedule is too long: " + spec);
+        requests += rate * seconds;
+        offset += seconds * NANOS_PER_SECOND;
+      }
+    }
+    this.totalRequests = requests;
+  }
+
+  public static RateSchedule parse(String spec) {
+    List<long[]> phases = new ArrayList<long[]>();
+    for (String phase : spec.split(",")) {
+      String[] parts = phase.trim().split(":");
+      if (parts.length > 2) throw new IllegalArgumentException("Invalid rate phase: " + phase);
+      try {
+        long rate = Long.parseLong(parts[0].trim());
+        long seconds = parts.length == 2 ? Long.parseLong(parts[1].trim()) : -1;
+        if (rate <= 0 || (parts.length == 2 && seconds <= 0))
+          throw new IllegalArgumentException("Rates and durations must be positive: " + phase);
+        if (rate > NANOS_PER_SECOND)
+          throw new IllegalArgumentException(
+              "Rates can't exceed one request per nanosecond: " + phase);
+        phases.add(new long[] {rate, seconds});
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid rate phase: " + phase);
+      }
+    }
+    return new RateSchedule(spec, phases);
+  }
+
+  /**
+   * The number of requests in this schedule, or -1 if its last phase has no duration.
+   *
+   * @return the number of requests.
+   */
+  public long totalRequests() {
+    return totalRequests;
+  }
+
+  /**
+   * The offset, from the start of the run, at which the given request should start.
+   *
+   * @param request the index of the request, starting at 0.
+   * @return the offset in nanoseconds.
+   */
+  public long intendedStartNanos(long request) {
+    int phase = rates.length - 1;
+    while (firstRequests[phase] > request) phase--;
+    long index = request - firstRequests[phase], rate = rates[phase];
+    // split into whole seconds and a remainder, multiplying the index directly would overflow
+    return startOffsets[phase]
+        + index / rate * NANOS_PER_SECOND
+        + index % rate * NANOS_PER_SECOND / rate;
+  }
+
+  @Override
+  public String toString() {
+    return spec;
+  }
+
+  public static class Converter implements ValueConverter<RateSchedule> {
+
+    @Override
+    public RateSchedule convert(String value) {
+      try {
+        return parse(value);
+      } catch (IllegalArgumentException e) {
+        throw new ValueConversionException(e.getMessage(), e);
+      }
+    }
+
+    @Override
+    public Class<RateSchedule> valueType() {
+      return RateSchedule.class;
+    }
+
+    @Override
+    public String valuePattern() {
+      return "rate[:seconds][,rate[:seconds]]*";
+    }
+  }
+}
@@ -51,7 +51,16 @@ public class Stress {
         System.getProperty("log4j.configuration", "./conf/log4j.properties"));
 
     QueryGenerator.Builder[] gs =
-        new QueryGenerator.Builder[] {Generators.INSERTER, Generators.READER};
+        new QueryGenerator.Builder[] {
+          Generators.INSERTER,
+          Generators.READER,
+          Workloads.POINT_READ,
+          Workloads.SCAN,
+          Workloads.LWT,
+          Workloads.BATCH,
+          Workloads.WIDE_READ,
+          Workloads.COUNTER
+        };
 
     for (QueryGenerator.Builder b : gs) register(b.name(), b);
   }
@@ -61,6 +70,11 @@ public class Stress {
         new OptionParser() {
           {
             accepts("h", "Show this help message");
+            accepts(
+                    "profile",
+                    "A file defining the generator (as 'workload') and options to use, one 'option: value' per line")
+                .withRequiredArg()
+                .ofType(String.class);
             accepts("n", "Number of requests to perform (default: unlimited)")
                 .withRequiredArg()
                 .ofType(Integer.class);
@@ -92,6 +106,20 @@ public class Stress {
                 .withValuesConvertedBy(new ConsistencyLevelConverter())
                 .ofType(ConsistencyLevel.class)
                 .defaultsTo(ConsistencyLevel.LOCAL_ONE);
+            accepts(
+                    "rate",
+                    "Send requests at a target rate, in requests per second, independently of their completion (open-loop mode). "
+                        + "The rate can change over time, e.g. 1000:30,5000:60 means 1000 req/s for 30s, then 5000 req/s for 60s")
+                .withRequiredArg()
+                .withValuesConvertedBy(new RateSchedule.Converter());
+            accepts("max-in-flight", "In open-loop mode, the maximum number of requests in flight")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(10000);
+            accepts("hdr-log", "In open-loop mode, the file to write HdrHistogram interval logs to")
+                .withRequiredArg()
+                .ofType(String.class);
+            accepts("breakdown", "In open-loop mode, break latencies down by host and shard");
           }
         };
     String msg =
@@ -125,6 +153,13 @@ public class Stress {
     public static Stresser forCommandLineArguments(String[] args) {
       OptionParser parser = defaultParser();
 
+      try {
+        args = WorkloadProfile.expand(args);
+      } catch (IllegalArgumentException e) {
+        System.err.println(e.getMessage());
+        System.exit(1);
+      }
+
       String generatorName = findPotentialGenerator(args);
       if (generatorName == null) {
         // Still parse the options to handle -h
@@ -229,12 +264,107 @@ public class Stress {
     }
   }
 
+  private static Session connect(OptionSet options, PoolingOptions pools) {
+    ConsistencyLevel consistencyLevel = (ConsistencyLevel) options.valueOf("consistency-level");
+
+    // Create session to hosts
+    Cluster cluster =
+        new Cluster.Builder()
+            .addContactPoints(String.valueOf(options.valueOf("ip")))
+            .withPoolingOptions(pools)
+            .withSocketOptions(new SocketOptions().setTcpNoDelay(true))
+            .withQueryOptions(new QueryOptions().setConsistencyLevel(consistencyLevel))
+            .build();
+
+    if (options.has("compression"))
+      cluster
+          .getConfiguration()
+          .getProtocolOptions()
+          .setCompression(ProtocolOptions.Compression.SNAPPY);
+
+    Session session = cluster.connect();
+
+    Metadata metadata = cluster.getMetadata();
+    System.out.println(
+        String.format(
+            "Connected to cluster '%s' on %s.", metadata.getClusterName(), metadata.getAllHosts()));
+    return session;
+  }
+
+  private static void runOpenLoop(Stresser stresser, OptionSet options, int requests) {
+    RateSchedule schedule = (RateSchedule) options.valueOf("rate");
+    // the generator stops after -n requests, the consumer at the end of the schedule
+    long total = schedule.totalRequests();
+    if (requests >= 0 && (total < 0 || requests < total)) total = requests;
+    int maxInFlight = (Integer) options.valueOf("max-in-flight");
+    String logFileName = (String) options.valueOf("hdr-log");
+
+    PoolingOptions pools = new PoolingOptions();
+    if (options.has("connections-per-host")) {
+      int connections = (Integer) options.valueOf("connections-per-host");
+      pools.setConnectionsPerHost(HostDistance.LOCAL, connections, connections);
+      pools.setConnectionsPerHost(HostDistance.REMOTE, connections, connections);
+    }
+    pools.setMaxQueueSize(maxInFlight);
+
+    System.out.println("Initializing open-loop stress test:");
+    System.out.println("  request count:        " + (total == -1 ? "unlimited" : total));
+    System.out.println("  target rate (req/s):  " + schedule);
+    System.out.println("  max in flight:        " + maxInFlight);
+    System.out.println("  compression:          " + options.has("compression"));
+    System.out.println(
+        "  consistency-level:    "
+            + ((ConsistencyLevel) options.valueOf("consistency-level")).name());
+    if (logFileName != null) System.out.println("  histogram log:        " + logFileName);
+
+    try {
+      Session session = connect(options, pools);
+
+      System.out.println("Preparing test...");
+      stresser.prepare(session);
+
+      HdrReporter reporter =
+          new HdrReporter(
+              (Integer) options.valueOf("print-delay"), logFileName, options.has("breakdown"));
+      Consumer consumer =
+          new OpenLoopConsumer(
+              session,
+              stresser.newGenerator(0, session, requests),
+              schedule,
+              maxInFlight,
+              reporter);
+
+      System.out.println("Starting to stress test...");
+      System.out.println();
+
+      reporter.start();
+      consumer.start();
+      consumer.join();
+      reporter.stop();
+
+      System.out.println("Stress test successful.");
+      System.exit(0);
+
+    } catch (NoHostAvailableException e) {
+      System.err.println("No alive hosts to use: " + e.getMessage());
+      System.exit(1);
+    } catch (Exception e) {
+      System.err.println("Unexpected error: " + e.getMessage());
+      e.printStackTrace();
+      System.exit(1);
+    }
+  }
+
   public static void main(String[] args) throws Exception {
 
     Stresser stresser = Stresser.forCommandLineArguments(args);
     OptionSet options = stresser.getOptions();
 
     int requests = options.has("n") ? (Integer) options.valueOf("n") : -1;
+    if (options.has("rate")) {
+      runOpenLoop(stresser, options, requests);
+      return;
+    }
     int concurrency = (Integer) options.valueOf("t");
     ConsistencyLevel consistencyLevel = (ConsistencyLevel) options.valueOf("consistency-level");
 
@@ -267,28 +397,7 @@ public class Stress {
     System.out.println("  consistency-level:    " + consistencyLevel.name());
 
     try {
-      // Create session to hosts
-      Cluster cluster =
-          new Cluster.Builder()
-              .addContactPoints(String.valueOf(options.valueOf("ip")))
-              .withPoolingOptions(pools)
-              .withSocketOptions(new SocketOptions().setTcpNoDelay(true))
-              .withQueryOptions(new QueryOptions().setConsistencyLevel(consistencyLevel))
-              .build();
-
-      if (options.has("compression"))
-        cluster
-            .getConfiguration()
-            .getProtocolOptions()
-            .setCompression(ProtocolOptions.Compression.SNAPPY);
-
-      Session session = cluster.connect();
-
-      Metadata metadata = cluster.getMetadata();
-      System.out.println(
-          String.format(
-              "Connected to cluster '%s' on %s.",
-              metadata.getClusterName(), metadata.getAllHosts()));
+      Session session = connect(options, pools);
 
       System.out.println("Preparing test...");
       stresser.prepare(session);
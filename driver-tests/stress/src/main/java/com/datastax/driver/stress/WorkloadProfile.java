@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.stress;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * A file that defines a stress run, so that it can be reproduced.
+ *
+ * <p>It contains one {@code option: value} line per command-line option, without the leading
+ * dashes, plus the name of the generator in {@code workload}. For example:
+ *
+ * <pre>
+ * # zipfian point reads at 5000 req/s
+ * workload: point_read
+ * keys: 1000000
+ * distribution: zipfian:0.99
+ * rate: 5000:120
+ * breakdown: true
+ * </pre>
+ *
+ * This is a subset of YAML (flat keys and scalar values only), that is read as a Java properties
+ * file. Options that take no value are enabled with {@code true}. Options given on the command
+ * line, and the generator if it is given first, take precedence over the profile.
+ */
+class WorkloadProfile {
+
+  private static final String OPTION = "--profile";
+
+  /**
+   * Replaces the profile option in the given arguments, if any, with the options it defines.
+   *
+   * @return the resulting arguments.
+   */
+  static String[] expand(String[] args) {
+    List<String> rest = new ArrayList<String>();
+    String path = null;
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals(OPTION) && i + 1 < args.length) path = args[++i];
+      else if (args[i].startsWith(OPTION + '=')) path = args[i].substring(OPTION.length() + 1);
+      else rest.add(args[i]);
+    }
+    if (path == null) return args;
+
+    Properties profile = load(path);
+    List<String> result = new ArrayList<String>();
+    if (!rest.isEmpty() && !rest.get(0).startsWith("-")) result.add(rest.remove(0));
+    else if (profile.getProperty("workload") != null)
+      result.add(profile.getProperty("workload").trim());
+
+    for (String name : new TreeSet<String>(profile.stringPropertyNames())) {
+      if (name.equals("workload")) continue;
+      String option = (name.length() == 1 ? "-" : "--") + name;
+      if (isGiven(rest, option)) continue;
+      String value = profile.getProperty(name).trim();
+      if (value.equals("false")) continue;
+      result.add(option);
+      if (!value.equals("true")) result.add(value);
+    }
+    result.addAll(rest);
+    return result.toArray(new String[result.size()]);
+  }
+
+  private static boolean isGiven(List<String> args, String option) {
+    for (String arg : args) if (arg.equals(option) || arg.startsWith(option + '=')) return true;
+    return false;
+  }
+
+  private static Properties load(String path) {
+    Properties profile = new Properties();
+    try {
+      InputStream in = new FileInputStream(path);
+      try {
+        profile.load(in);
+      } finally {
+        in.close();
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot read profile " + path + ": " + e.getMessage());
+    }
+    // allow quoted values, as in YAML
+    for (String name : profile.stringPropertyNames()) {
+      String value = profile.getProperty(name).trim();
+      if (value.length() >= 2
+          && (value.startsWith("\"") && value.endsWith("\"")
+              || value.startsWith("'") && value.endsWith("'")))
+        profile.setProperty(name, value.substring(1, value.length() - 1));
+    }
+    return profile;
+  }
+}
@@ -0,0 +1,468 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.stress;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TokenRange;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+
+/**
+ * Workloads that exercise specific driver code paths (prepared statements, paging, LWT routing,
+ * batch encoding...).
+ *
+ * <p>Unlike the {@link Generators}, they do not drop their schema: they create their tables in the
+ * {@code stress} keyspace if needed, and can populate them with {@code --populate} before the run.
+ * They pick keys according to a {@link KeyDistribution}.
+ */
+public class Workloads {
+
+  private static final int POPULATE_CONCURRENCY = 256;
+
+  private static final String KV_TABLE =
+      "CREATE TABLE IF NOT EXISTS kv (key bigint PRIMARY KEY, value blob)";
+  private static final String WIDE_TABLE =
+      "CREATE TABLE IF NOT EXISTS wide (pk bigint, ck int, value blob, PRIMARY KEY (pk, ck))";
+  private static final String COUNTERS_TABLE =
+      "CREATE TABLE IF NOT EXISTS counters (key bigint PRIMARY KEY, c counter)";
+
+  private static ByteBuffer makeValue(Random random, int valueSize) {
+    byte[] value = new byte[valueSize];
+    random.nextBytes(value);
+    return ByteBuffer.wrap(value);
+  }
+
+  /** Creates the requests of a workload, from the keys picked by its distribution. */
+  private interface RequestFactory {
+    QueryGenerator.Request newRequest(long key, Random random);
+  }
+
+  private abstract static class Workload implements QueryGenerator.Builder {
+
+    private final String name;
+    private final String description;
+    private final int defaultKeys;
+
+    private volatile KeyDistribution distribution;
+    private volatile RequestFactory requests;
+
+    Workload(String name, String description, int defaultKeys) {
+      this.name = name;
+      this.description = description;
+      this.defaultKeys = defaultKeys;
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public OptionParser addOptions(OptionParser parser) {
+      parser.formatHelpWith(Stress.Help.formatFor(name(), description));
+      parser
+          .accepts("keys", "The number of distinct keys (partitions) to use")
+          .withRequiredArg()
+          .ofType(Integer.class)
+          .defaultsTo(defaultKeys);
+      parser
+          .accepts("distribution", "The key distribution: uniform, sequential or zipfian[:theta]")
+          .withRequiredArg()
+          .ofType(String.class)
+          .defaultsTo("uniform");
+      parser
+          .accepts("value-size", "The size in bytes for column values")
+          .withRequiredArg()
+          .ofType(Integer.class)
+          .defaultsTo(34);
+      parser.accepts("populate", "Populate the table(s) before starting the workload");
+      addWorkloadOptions(parser);
+      return parser;
+    }
+
+    protected void addWorkloadOptions(OptionParser parser) {}
+
+    @Override
+    public void prepare(OptionSet options, Session session) {
+      session.execute(
+          "CREATE KEYSPACE IF NOT EXISTS stress WITH replication = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }");
+      session.execute("USE stress");
+      for (String table : tables()) session.execute(table);
+      if (options.has("populate")) {
+        System.out.println("Populating...");
+        populate(options, session);
+      }
+      distribution =
+          KeyDistribution.parse(
+              (String) options.valueOf("distribution"), keyCount(options, session));
+      requests = requests(options, session);
+    }
+
+    protected abstract String[] tables();
+
+    protected void populate(OptionSet options, Session session) {}
+
+    protected long keyCount(OptionSet options, Session session) {
+      return (Integer) options.valueOf("keys");
+    }
+
+    /** Called once, after the key distribution has been initialized. */
+    protected abstract RequestFactory requests(OptionSet options, Session session);
+
+    @Override
+    public QueryGenerator create(int id, int iterations, OptionSet options, Session session) {
+      final KeyDistribution distribution = this.distribution;
+      final RequestFactory requests = this.requests;
+      final Random random = new Random();
+      return new QueryGenerator(iterations) {
+        private int iteration;
+
+        @Override
+        public int currentIteration() {
+          return iteration;
+        }
+
+        @Override
+        public boolean hasNext() {
+          return iterations == -1 || iteration < iterations;
+        }
+
+        @Override
+        public QueryGenerator.Request next() {
+          ++iteration;
+          return requests.newRequest(distribution.next(random), random);
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+  }
+
+  /** Executes statements with a bounded concurrency, and waits for all of them to complete. */
+  private abstract static class Populator {
+
+    private final Semaphore inFlight = new Semaphore(POPULATE_CONCURRENCY);
+    private final AtomicLong errors = new AtomicLong();
+
+    protected abstract Statement statement(long index, Random random);
+
+    void run(Session session, long count) {
+      Random random = new Random();
+      for (long i = 0; i < count; i++) {
+        inFlight.acquireUninterruptibly();
+        ResultSetFuture future = session.executeAsync(statement(i, random));
+        Futures.addCallback(
+            future,
+            new FutureCallback<ResultSet>() {
+              @Override
+              public void onSuccess(ResultSet result) {
+                inFlight.release();
+              }
+
+              @Override
+              public void onFailure(Throwable t) {
+                if (errors.getAndIncrement() == 0)
+                  System.err.println("Error while populating: " + t);
+                inFlight.release();
+              }
+            },
+            MoreExecutors.directExecutor());
+      }
+      inFlight.acquireUninterruptibly(POPULATE_CONCURRENCY);
+      inFlight.release(POPULATE_CONCURRENCY);
+      if (errors.get() > 0) System.err.println(errors.get() + " errors while populating");
+    }
+  }
+
+  private static void populateKv(OptionSet options, Session session) {
+    final PreparedStatement insert = session.prepare("INSERT INTO kv (key, value) VALUES (?, ?)");
+    final int valueSize = (Integer) options.valueOf("value-size");
+    new Populator() {
+      @Override
+      protected Statement statement(long index, Random random) {
+        return insert.bind(index, makeValue(random, valueSize));
+      }
+    }.run(session, (Integer) options.valueOf("keys"));
+  }
+
+  public static final QueryGenerator.Builder POINT_READ =
+      new Workload(
+          "point_read", "Prepared single-row reads by primary key, from the kv table.", 100000) {
+
+        @Override
+        protected String[] tables() {
+          return new String[] {KV_TABLE};
+        }
+
+        @Override
+        protected void populate(OptionSet options, Session session) {
+          populateKv(options, session);
+        }
+
+        @Override
+        protected RequestFactory requests(OptionSet options, Session session) {
+          final PreparedStatement select = session.prepare("SELECT value FROM kv WHERE key = ?");
+          return new RequestFactory() {
+            @Override
+            public QueryGenerator.Request newRequest(long key, Random random) {
+              return new QueryGenerator.Request.PreparedQuery(select.bind(key));
+            }
+          };
+        }
+      };
+
+  public static final QueryGenerator.Builder SCAN =
+      new Workload(
+          "scan",
+          "Paged scans of token ranges of the kv table. The ring is split into --splits ranges, and "
+              + "each request reads all the pages of one of them (picked with the key distribution).",
+          100000) {
+
+        private volatile List<TokenRange> ranges;
+
+        @Override
+        protected void addWorkloadOptions(OptionParser parser) {
+          parser
+              .accepts("splits", "The number of token ranges to split the ring into")
+              .withRequiredArg()
+              .ofType(Integer.class)
+              .defaultsTo(1024);
+          parser
+              .accepts("page-size", "The number of rows per page")
+              .withRequiredArg()
+              .ofType(Integer.class)
+              .defaultsTo(100);
+        }
+
+        @Override
+        protected String[] tables() {
+          return new String[] {KV_TABLE};
+        }
+
+        @Override
+        protected void populate(OptionSet options, Session session) {
+          populateKv(options, session);
+        }
+
+        @Override
+        protected long keyCount(OptionSet options, Session session) {
+          List<TokenRange> ring =
+              new ArrayList<TokenRange>(session.getCluster().getMetadata().getTokenRanges());
+          int splitsPerRange = Math.max(1, (Integer) options.valueOf("splits") / ring.size());
+          List<TokenRange> ranges = new ArrayList<TokenRange>();
+          for (TokenRange range : ring) {
+            for (TokenRange split : range.splitEvenly(splitsPerRange))
+              ranges.addAll(split.unwrap());
+          }
+          this.ranges = ranges;
+          return ranges.size();
+        }
+
+        @Override
+        protected RequestFactory requests(OptionSet options, Session session) {
+          final PreparedStatement select =
+              session.prepare("SELECT key, value FROM kv WHERE token(key) > ? AND token(key) <= ?");
+          final int pageSize = (Integer) options.valueOf("page-size");
+          final List<TokenRange> ranges = this.ranges;
+          return new RequestFactory() {
+            @Override
+            public QueryGenerator.Request newRequest(long key, Random random) {
+              TokenRange range = ranges.get((int) key);
+              BoundStatement bs =
+                  select.bind().setToken(0, range.getStart()).setToken(1, range.getEnd());
+              bs.setFetchSize(pageSize);
+              return new QueryGenerator.Request.PagedQuery(bs);
+            }
+          };
+        }
+      };
+
+  public static final QueryGenerator.Builder LWT =
+      new Workload(
+          "lwt",
+          "Conditional (lightweight transaction) updates of existing rows of the kv table. "
+              + "Use --populate first, otherwise the condition never applies.",
+          100000) {
+
+        @Override
+        protected String[] tables() {
+          return new String[] {KV_TABLE};
+        }
+
+        @Override
+        protected void populate(OptionSet options, Session session) {
+          populateKv(options, session);
+        }
+
+        @Override
+        protected RequestFactory requests(OptionSet options, Session session) {
+          final PreparedStatement update =
+              session.prepare("UPDATE kv SET value = ? WHERE key = ? IF EXISTS");
+          final int valueSize = (Integer) options.valueOf("value-size");
+          return new RequestFactory() {
+            @Override
+            public QueryGenerator.Request newRequest(long key, Random random) {
+              return new QueryGenerator.Request.PreparedQuery(
+                  update.bind(makeValue(random, valueSize), key));
+            }
+          };
+        }
+      };
+
+  public static final QueryGenerator.Builder BATCH =
+      new Workload(
+          "batch",
+          "Unlogged batches of prepared inserts into a single partition of the wide table.",
+          100000) {
+
+        @Override
+        protected void addWorkloadOptions(OptionParser parser) {
+          parser
+              .accepts("batch-size", "The number of statements per batch")
+              .withRequiredArg()
+              .ofType(Integer.class)
+              .defaultsTo(10);
+          parser
+              .accepts("rows-per-partition", "The number of distinct rows per partition")
+              .withRequiredArg()
+              .ofType(Integer.class)
+              .defaultsTo(1000);
+        }
+
+        @Override
+        protected String[] tables() {
+          return new String[] {WIDE_TABLE};
+        }
+
+        @Override
+        protected RequestFactory requests(OptionSet options, Session session) {
+          final PreparedStatement insert =
+              session.prepare("INSERT INTO wide (pk, ck, value) VALUES (?, ?, ?)");
+          final int batchSize = (Integer) options.valueOf("batch-size");
+          final int rowsPerPartition = (Integer) options.valueOf("rows-per-partition");
+          final int valueSize = (Integer) options.valueOf("value-size");
+          return new RequestFactory() {
+            @Override
+            public QueryGenerator.Request newRequest(long key, Random random) {
+              BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+              for (int i = 0; i < batchSize; i++)
+                batch.add(
+                    insert.bind(
+                        key, random.nextInt(rowsPerPartition), makeValue(random, valueSize)));
+              return new QueryGenerator.Request.SimpleQuery(batch);
+            }
+          };
+        }
+      };
+
+  public static final QueryGenerator.Builder WIDE_READ =
+      new Workload(
+          "wide_read",
+          "Paged reads of whole partitions of the wide table, each holding --rows-per-partition rows "
+              + "once populated.",
+          100) {
+
+        @Override
+        protected void addWorkloadOptions(OptionParser parser) {
+          parser
+              .accepts("rows-per-partition", "The number of rows per partition to populate")
+              .withRequiredArg()
+              .ofType(Integer.class)
+              .defaultsTo(10000);
+          parser
+              .accepts("page-size", "The number of rows per page")
+              .withRequiredArg()
+              .ofType(Integer.class)
+              .defaultsTo(100);
+        }
+
+        @Override
+        protected String[] tables() {
+          return new String[] {WIDE_TABLE};
+        }
+
+        @Override
+        protected void populate(OptionSet options, Session session) {
+          final PreparedStatement insert =
+              session.prepare("INSERT INTO wide (pk, ck, value) VALUES (?, ?, ?)");
+          final int rowsPerPartition = (Integer) options.valueOf("rows-per-partition");
+          final int valueSize = (Integer) options.valueOf("value-size");
+          new Populator() {
+            @Override
+            protected Statement statement(long index, Random random) {
+              return insert.bind(
+                  index / rowsPerPartition,
+                  (int) (index % rowsPerPartition),
+                  makeValue(random, valueSize));
+            }
+          }.run(session, (long) (Integer) options.valueOf("keys") * rowsPerPartition);
+        }
+
+        @Override
+        protected RequestFactory requests(OptionSet options, Session session) {
+          final PreparedStatement select =
+              session.prepare("SELECT ck, value FROM wide WHERE pk = ?");
+          final int pageSize = (Integer) options.valueOf("page-size");
+          return new RequestFactory() {
+            @Override
+            public QueryGenerator.Request newRequest(long key, Random random) {
+              BoundStatement bs = select.bind(key);
+              bs.setFetchSize(pageSize);
+              return new QueryGenerator.Request.PagedQuery(bs);
+            }
+          };
+        }
+      };
+
+  public static final QueryGenerator.Builder COUNTER =
+      new Workload("counter", "Prepared counter increments, in the counters table.", 100000) {
+
+        @Override
+        protected String[] tables() {
+          return new String[] {COUNTERS_TABLE};
+        }
+
+        @Override
+        protected RequestFactory requests(OptionSet options, Session session) {
+          final PreparedStatement update =
+              session.prepare("UPDATE counters SET c = c + 1 WHERE key = ?");
+          return new RequestFactory() {
+            @Override
+            public QueryGenerator.Request newRequest(long key, Random random) {
+              return new QueryGenerator.Request.PreparedQuery(update.bind(key));
+            }
+          };
+        }
+      };
+}